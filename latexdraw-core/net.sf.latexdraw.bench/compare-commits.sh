@@ -0,0 +1,43 @@
+#!/bin/sh
+# Compares the benchmark results of two commits of LaTeXDraw.
+# Usage: ./compare-commits.sh <base commit> <new commit> [JMH options]
+# Example: ./compare-commits.sh master my-branch -f 1 -wi 3 -i 5 PSTBench
+# Both commits must contain this benchmark module. For each commit, the core module is installed in the local
+# Maven repository and the benchmarks are built and run. The results are written in a temporary directory and
+# the scores of the benchmarks common to both commits are printed with their ratio (new / base).
+# Warning: the installed core module (4.0.0-SNAPSHOT) is the one of the new commit at the end.
+set -e
+
+if [ $# -lt 2 ]; then
+	echo "Usage: $0 <base commit> <new commit> [JMH options]"
+	exit 1
+fi
+
+BASE=$1
+NEW=$2
+shift 2
+
+ROOT=$(git rev-parse --show-toplevel)
+WORK=$(mktemp -d)
+
+for NAME in base new; do
+	if [ "$NAME" = base ]; then REV=$BASE; else REV=$NEW; fi
+	git -C "$ROOT" worktree add --detach "$WORK/$NAME" "$REV"
+	(cd "$WORK/$NAME/latexdraw-core/net.sf.latexdraw" && mvn -B -q install -DskipTests)
+	(cd "$WORK/$NAME/latexdraw-core/net.sf.latexdraw.bench" && mvn -B -q package)
+	cp "$WORK/$NAME/latexdraw-core/net.sf.latexdraw.bench/target/benchmarks.jar" "$WORK/$NAME.jar"
+	git -C "$ROOT" worktree remove --force "$WORK/$NAME"
+done
+
+java -jar "$WORK/base.jar" -rf csv -rff "$WORK/base.csv" "$@"
+java -jar "$WORK/new.jar" -rf csv -rff "$WORK/new.csv" "$@"
+
+# The key of a result is its benchmark, mode, and parameters (all the columns but the samples, score, and error).
+awk -F',' '
+	function key() { k = $1 "," $2; for(i = 8; i <= NF; i++) k = k "," $i; gsub(/"/, "", k); return k }
+	FNR == 1 { next }
+	NR == FNR { u = $7; gsub(/"/, "", u); base[key()] = $5; unit[key()] = u; next }
+	(key() in base) { printf "%-100s %14.3f %14.3f %8.2f %s\n", key(), base[key()], $5, $5 / base[key()], unit[key()] }
+' "$WORK/base.csv" "$WORK/new.csv"
+
+echo "Results: $WORK"
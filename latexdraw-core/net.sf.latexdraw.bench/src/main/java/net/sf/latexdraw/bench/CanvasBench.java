@@ -0,0 +1,88 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.WritableImage;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.view.jfx.Canvas;
+import org.malai.action.ActionsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the time to first paint of a document: the shapes are added to the drawing of a canvas displayed in a
+ * scene (the views are created and inserted in the canvas) and the scene is rendered once (snapshot).
+ * As when a document is opened, everything is done in the JavaFX thread (headless JavaFX using Monocle).
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CanvasBench {
+	@Param({"5000", "20000", "50000"})
+	public int nbShapes;
+
+	private List<IShape> shapes;
+	private Canvas canvas;
+	private Scene scene;
+
+	@Setup
+	public void setUpShapes() throws InterruptedException {
+		JfxToolkit.start();
+		shapes = new DrawingGenerator(DrawingGenerator.DEFAULT_SEED, 10, 2000d, 2000d).createShapes(nbShapes);
+	}
+
+	@Setup(Level.Iteration)
+	public void setUpCanvas() throws InterruptedException, ExecutionException {
+		JfxToolkit.runAndWait(() -> {
+			canvas = new Canvas();
+			scene = new Scene(new ScrollPane(canvas), 1024d, 768d);
+			return scene;
+		});
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDownCanvas() throws InterruptedException, ExecutionException {
+		JfxToolkit.runAndWait(() -> {
+			// Flushes the views so that the shapes can be added to the next canvas.
+			canvas.getDrawing().clear();
+			ActionsRegistry.INSTANCE.removeHandler(canvas);
+			return canvas;
+		});
+	}
+
+	@Benchmark
+	public WritableImage firstPaint() throws InterruptedException, ExecutionException {
+		return JfxToolkit.runAndWait(() -> {
+			canvas.getDrawing().addShapes(shapes);
+			return scene.snapshot(null);
+		});
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the addition, the selection, and the removal of many shapes in a drawing
+ * (e.g. loading a drawing, selecting all the shapes, deleting the selected shapes).
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrawingBench {
+	@Param({"1000", "10000"})
+	public int nbShapes;
+
+	private List<IShape> shapes;
+	/** One shape out of two: the removed or selected shapes. */
+	private List<IShape> halfShapes;
+	private IDrawing emptyDrawing;
+	private IDrawing filledDrawing;
+
+	@Setup
+	public void setUpShapes() {
+		shapes = new DrawingGenerator(DrawingGenerator.DEFAULT_SEED, 10, 2000d, 2000d).createShapes(nbShapes);
+		halfShapes = IntStream.range(0, nbShapes).filter(i -> i % 2 == 0).mapToObj(i -> shapes.get(i)).collect(Collectors.toList());
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpDrawings() {
+		emptyDrawing = ShapeFactory.INST.createDrawing();
+		filledDrawing = ShapeFactory.INST.createDrawing();
+		shapes.forEach(sh -> filledDrawing.addShape(sh));
+	}
+
+	@Benchmark
+	public IDrawing addShapes() {
+		shapes.forEach(sh -> emptyDrawing.addShape(sh));
+		return emptyDrawing;
+	}
+
+	@Benchmark
+	public IDrawing removeShapes() {
+		halfShapes.forEach(sh -> filledDrawing.removeShape(sh));
+		return filledDrawing;
+	}
+
+	@Benchmark
+	public IDrawing selectShapes() {
+		filledDrawing.setSelection(halfShapes);
+		return filledDrawing;
+	}
+
+	@Benchmark
+	public IDrawing removeSelectedShapes() {
+		filledDrawing.setSelection(halfShapes);
+		halfShapes.forEach(sh -> filledDrawing.removeShape(sh));
+		return filledDrawing;
+	}
+
+	@Benchmark
+	public IDrawing clear() {
+		filledDrawing.clear();
+		return filledDrawing;
+	}
+}
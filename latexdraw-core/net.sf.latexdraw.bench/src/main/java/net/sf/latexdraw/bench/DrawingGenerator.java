@@ -0,0 +1,198 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.Color;
+import net.sf.latexdraw.models.interfaces.shape.FillingStyle;
+import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IFreehand;
+import net.sf.latexdraw.models.interfaces.shape.IGrid;
+import net.sf.latexdraw.models.interfaces.shape.IGroup;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.view.latex.DviPsColors;
+
+/**
+ * Generates synthetic drawings for the benchmarks.
+ * The shapes are randomly placed and styled but the generation is deterministic for a given seed so that
+ * two runs (e.g. on two commits) work on the same drawings. The drawings mix most of the kinds of shapes
+ * (pictures excepted since they require image files).
+ * @author Arnaud Blouin
+ */
+public final class DrawingGenerator {
+	/** The default seed of the generators. */
+	public static final long DEFAULT_SEED = 42L;
+
+	private static final Color[] COLOURS = {DviPsColors.RED, DviPsColors.TEAL, DviPsColors.ORANGE, DviPsColors.YELLOW, DviPsColors.LIME,
+		ShapeFactory.INST.createColorInt(12, 34, 56), ShapeFactory.INST.createColorInt(200, 100, 50)};
+
+	private static final FillingStyle[] FILLINGS = {FillingStyle.NONE, FillingStyle.PLAIN, FillingStyle.GRAD, FillingStyle.HLINES, FillingStyle.CLINES_PLAIN};
+
+	/** The number of kinds of shapes the generator produces. */
+	private static final int NB_KINDS = 14;
+
+	private final Random random;
+	/** The number of points of the generated free hand shapes, polylines, polygons, and Bézier curves. */
+	private final int nbPoints;
+	/** The width of the area where the shapes are placed. */
+	private final double width;
+	/** The height of the area where the shapes are placed. */
+	private final double height;
+
+
+	/**
+	 * Creates a generator using the default seed, 100 points per multi-point shape, and an area of 2000x2000 pixels.
+	 */
+	public DrawingGenerator() {
+		this(DEFAULT_SEED, 100, 2000d, 2000d);
+	}
+
+	/**
+	 * Creates a generator.
+	 * @param seed The seed of the random generator.
+	 * @param nbPts The number of points of the generated multi-point shapes (at least 2).
+	 * @param areaWidth The width of the area where the shapes are placed.
+	 * @param areaHeight The height of the area where the shapes are placed.
+	 * @throws IllegalArgumentException If the number of points or the size of the area is not valid.
+	 */
+	public DrawingGenerator(final long seed, final int nbPts, final double areaWidth, final double areaHeight) {
+		super();
+		if(nbPts < 2 || !(areaWidth > 0d) || !(areaHeight > 0d)) {
+			throw new IllegalArgumentException("Invalid generator parameters: " + nbPts + ", " + areaWidth + ", " + areaHeight); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		random = new Random(seed);
+		nbPoints = nbPts;
+		width = areaWidth;
+		height = areaHeight;
+	}
+
+
+	/**
+	 * @param nbShapes The number of shapes to generate.
+	 * @return A drawing that contains the given number of generated shapes.
+	 */
+	public IDrawing createDrawing(final int nbShapes) {
+		final IDrawing drawing = ShapeFactory.INST.createDrawing();
+		createShapes(nbShapes).forEach(sh -> drawing.addShape(sh));
+		return drawing;
+	}
+
+	/**
+	 * @param nbShapes The number of shapes to generate.
+	 * @return The generated shapes. The kinds of the shapes alternate.
+	 */
+	public List<IShape> createShapes(final int nbShapes) {
+		return IntStream.range(0, nbShapes).mapToObj(i -> createShape(i % NB_KINDS)).collect(Collectors.toList());
+	}
+
+	/**
+	 * @param nbShapes The number of shapes to generate.
+	 * @return Free hand shapes made of the configured number of points.
+	 */
+	public List<IFreehand> createFreehands(final int nbShapes) {
+		return IntStream.range(0, nbShapes).mapToObj(i -> createFreehand()).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return A free hand shape made of the configured number of points: a random walk from a random point.
+	 */
+	public IFreehand createFreehand() {
+		return ShapeFactory.INST.createFreeHand(createWalk());
+	}
+
+	/**
+	 * @return A grid with labels and sub-grids located at a random position.
+	 */
+	public IGrid createGrid() {
+		final IGrid grid = ShapeFactory.INST.createGrid(createPoint());
+		grid.setGridStartX(-random.nextInt(5) - 1);
+		grid.setGridStartY(-random.nextInt(5) - 1);
+		grid.setGridEndX(random.nextInt(10) + 1);
+		grid.setGridEndY(random.nextInt(10) + 1);
+		grid.setSubGridDiv(random.nextInt(4) + 1);
+		return grid;
+	}
+
+	private IShape createShape(final int kind) {
+		final IShape sh;
+
+		switch(kind) {
+			case 0: sh = ShapeFactory.INST.createRectangle(createPoint(), createLength(), createLength()); break;
+			case 1: sh = ShapeFactory.INST.createEllipse(createPoint(), createPoint()); break;
+			case 2: sh = ShapeFactory.INST.createCircle(createPoint(), createLength()); break;
+			case 3: sh = ShapeFactory.INST.createTriangle(createPoint(), createLength(), createLength()); break;
+			case 4: sh = ShapeFactory.INST.createRhombus(createPoint(), createLength(), createLength()); break;
+			case 5: sh = ShapeFactory.INST.createPolyline(createWalk()); break;
+			case 6: sh = ShapeFactory.INST.createPolygon(createWalk()); break;
+			case 7: sh = ShapeFactory.INST.createBezierCurve(createWalk()); break;
+			case 8: sh = createFreehand(); break;
+			case 9: sh = ShapeFactory.INST.createText(createPoint(), "text " + random.nextInt(1000)); break; //$NON-NLS-1$
+			case 10: sh = createGrid(); break;
+			case 11: sh = ShapeFactory.INST.createCircleArc(createPoint(), createLength()); break;
+			case 12: sh = ShapeFactory.INST.createDot(createPoint()); break;
+			default: sh = createGroup(); break;
+		}
+
+		setStyle(sh);
+		return sh;
+	}
+
+	private IGroup createGroup() {
+		final IGroup group = ShapeFactory.INST.createGroup();
+		group.addShape(ShapeFactory.INST.createRectangle(createPoint(), createLength(), createLength()));
+		group.addShape(ShapeFactory.INST.createEllipse(createPoint(), createPoint()));
+		group.addShape(ShapeFactory.INST.createSquare(createPoint(), createLength()));
+		return group;
+	}
+
+	private void setStyle(final IShape sh) {
+		sh.setLineColour(COLOURS[random.nextInt(COLOURS.length)]);
+		sh.setThickness(1d + random.nextInt(5));
+		if(sh.isFillable()) {
+			sh.setFillingStyle(FILLINGS[random.nextInt(FILLINGS.length)]);
+			sh.setFillingCol(COLOURS[random.nextInt(COLOURS.length)]);
+		}
+		if(sh.isShadowable() && random.nextInt(5) == 0) {
+			sh.setHasShadow(true);
+		}
+		if(random.nextInt(4) == 0) {
+			sh.setRotationAngle(random.nextDouble() * Math.PI);
+		}
+	}
+
+	private List<IPoint> createWalk() {
+		final List<IPoint> pts = new ArrayList<>(nbPoints);
+		double x = random.nextDouble() * width;
+		double y = random.nextDouble() * height;
+
+		for(int i = 0; i < nbPoints; i++) {
+			pts.add(ShapeFactory.INST.createPoint(x, y));
+			x += random.nextDouble() * 10d - 5d;
+			y += random.nextDouble() * 10d - 5d;
+		}
+
+		return pts;
+	}
+
+	private IPoint createPoint() {
+		return ShapeFactory.INST.createPoint(random.nextDouble() * width, random.nextDouble() * height);
+	}
+
+	private double createLength() {
+		return 10d + random.nextDouble() * 190d;
+	}
+}
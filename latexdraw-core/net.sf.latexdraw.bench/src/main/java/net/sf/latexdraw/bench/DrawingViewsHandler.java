@@ -0,0 +1,55 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.view.ViewsSynchroniserHandler;
+
+/**
+ * A views synchroniser handler that does not require a canvas: the drawing area is the border of the shapes
+ * of the drawing (as the canvas does with the bounds of the views of the shapes).
+ * @author Arnaud Blouin
+ */
+final class DrawingViewsHandler implements ViewsSynchroniserHandler {
+	private final IDrawing drawing;
+
+	DrawingViewsHandler(final IDrawing theDrawing) {
+		super();
+		drawing = theDrawing;
+	}
+
+	@Override
+	public IPoint getTopRightDrawingPoint() {
+		return ShapeFactory.INST.createPoint(drawing.getShapes().stream().mapToDouble(sh -> sh.getMaxX()).max().orElse(0d),
+			drawing.getShapes().stream().mapToDouble(sh -> sh.getMinY()).min().orElse(0d));
+	}
+
+	@Override
+	public IPoint getBottomLeftDrawingPoint() {
+		return ShapeFactory.INST.createPoint(drawing.getShapes().stream().mapToDouble(sh -> sh.getMinX()).min().orElse(0d),
+			drawing.getShapes().stream().mapToDouble(sh -> sh.getMaxY()).max().orElse(0d));
+	}
+
+	@Override
+	public IPoint getOriginDrawingPoint() {
+		final IPoint tr = getTopRightDrawingPoint();
+		final IPoint bl = getBottomLeftDrawingPoint();
+		return ShapeFactory.INST.createPoint(bl.getX(), (bl.getY() - tr.getY()) / 2d);
+	}
+
+	@Override
+	public int getPPCDrawing() {
+		return IShape.PPC;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.function.Supplier;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.models.interfaces.shape.ISingleShape;
+
+/**
+ * Measures the heap retained by the shapes (e.g. to assess the memory cost of the points and of the JavaFX properties
+ * of the shapes). JMH measures allocation rates (-prof gc) but not the retained heap, hence this program.
+ * Usage: java -cp target/benchmarks.jar net.sf.latexdraw.bench.HeapFootprint [nbShapes [nbPoints]]
+ * @author Arnaud Blouin
+ */
+public final class HeapFootprint {
+	private HeapFootprint() {
+		super();
+	}
+
+	public static void main(final String[] args) {
+		final int nbShapes = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		final int nbPoints = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		final DrawingGenerator generator = new DrawingGenerator(DrawingGenerator.DEFAULT_SEED, nbPoints, 2000d, 2000d);
+
+		print("mixed shapes", nbShapes, () -> generator.createShapes(nbShapes));
+		// The views bind all the JFX properties of the shapes, that are created on demand: the lazy vs eager footprint.
+		print("mixed shapes with their properties (displayed shapes)", nbShapes, () -> createProperties(generator.createShapes(nbShapes))); //$NON-NLS-1$
+		print("free hand shapes (" + nbPoints + " points)", nbShapes, () -> generator.createFreehands(nbShapes)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Creates the JFX properties of the given shapes, as their views do.
+	 */
+	private static List<IShape> createProperties(final List<IShape> shapes) {
+		shapes.stream().filter(sh -> sh instanceof ISingleShape).map(sh -> (ISingleShape) sh).forEach(sh -> {
+			sh.thicknessProperty();
+			sh.linestyleProperty();
+			sh.borderPosProperty();
+			sh.lineColourProperty();
+			sh.fillingProperty();
+			sh.dashSepWhiteProperty();
+			sh.dashSepBlackProperty();
+			sh.dotSepProperty();
+			sh.dbleBordProperty();
+			sh.dbleBordSepProperty();
+			sh.dbleBordColProperty();
+			sh.gradColStartProperty();
+			sh.gradColEndProperty();
+			sh.fillingColProperty();
+			sh.gradAngleProperty();
+			sh.gradMidPtProperty();
+			sh.shadowProperty();
+			sh.shadowColProperty();
+			sh.shadowAngleProperty();
+			sh.shadowSizeProperty();
+			sh.hatchingsAngleProperty();
+			sh.hatchingsSepProperty();
+			sh.hatchingsWidthProperty();
+			sh.hatchingsColProperty();
+			sh.rotationAngleProperty();
+		});
+		return shapes;
+	}
+
+	private static void print(final String name, final int nbShapes, final Supplier<List<? extends IShape>> creator) {
+		final long before = getUsedHeap();
+		final List<? extends IShape> shapes = creator.get();
+		final long after = getUsedHeap();
+		System.out.println(name + ": " + (after - before) / nbShapes + " bytes per shape, " + (after - before) / 1024L + " KiB for " + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			shapes.size() + " shapes"); //$NON-NLS-1$
+	}
+
+	private static long getUsedHeap() {
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		// Several collections to let the collector finalise and release everything.
+		for(int i = 0; i < 5; i++) {
+			memory.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
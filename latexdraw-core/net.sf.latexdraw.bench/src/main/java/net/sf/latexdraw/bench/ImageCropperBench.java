@@ -0,0 +1,124 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import net.sf.latexdraw.util.ImageCropper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the cropping of images: typical renders of texts (a small text in a page) and multi-megapixel exports
+ * (a drawing with margins). The getRGB benchmark is the previous cropping algorithm (getRGB for each pixel), used as a baseline.
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageCropperBench {
+	/** text: the render of a text at 300 DPI in a page; export: a 4000x3000 export. */
+	@Param({"text", "export"})
+	public String kind;
+
+	@Param({"INT_ARGB", "4BYTE_ABGR"})
+	public String type;
+
+	private BufferedImage img;
+
+	@Setup
+	public void setUp() {
+		final int imgType = "INT_ARGB".equals(type) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_4BYTE_ABGR;
+
+		if("text".equals(kind)) {
+			img = new BufferedImage(2480, 600, imgType);
+			final Graphics2D g = img.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g.setColor(Color.BLACK);
+			g.setFont(new Font(Font.SERIF, Font.PLAIN, 60));
+			g.drawString("LaTeXDraw: x + y = z", 300, 300); //$NON-NLS-1$
+			g.dispose();
+		}else {
+			img = new BufferedImage(4000, 3000, imgType);
+			final Graphics2D g = img.createGraphics();
+			g.setColor(Color.BLUE);
+			g.fillOval(400, 300, 3000, 2000);
+			g.setColor(Color.RED);
+			g.drawLine(250, 2800, 3800, 150);
+			g.dispose();
+		}
+	}
+
+	@Benchmark
+	public BufferedImage crop() {
+		return ImageCropper.INSTANCE.cropImage(img);
+	}
+
+	@Benchmark
+	public BufferedImage cropParallel() {
+		return ImageCropper.INSTANCE.cropImage(img, true);
+	}
+
+	@Benchmark
+	public int[] getRGB() {
+		final int width = img.getWidth();
+		final int height = img.getHeight();
+		int left = 0;
+		int right = width - 1;
+		int top = 0;
+		int bottom = height - 1;
+
+		while(left < width && isEmptyColumn(left, 0, height)) {
+			left++;
+		}
+		while(right > left && isEmptyColumn(right, 0, height)) {
+			right--;
+		}
+		while(top < height && isEmptyRow(top, left, right)) {
+			top++;
+		}
+		while(bottom > top && isEmptyRow(bottom, left, right)) {
+			bottom--;
+		}
+
+		return new int[] {left, top, right, bottom};
+	}
+
+	private boolean isEmptyColumn(final int x, final int from, final int to) {
+		for(int y = from; y < to; y++) {
+			if(img.getRGB(x, y) != 0) return false;
+		}
+		return true;
+	}
+
+	private boolean isEmptyRow(final int y, final int from, final int to) {
+		for(int x = from; x <= to; x++) {
+			if(img.getRGB(x, y) != 0) return false;
+		}
+		return true;
+	}
+}
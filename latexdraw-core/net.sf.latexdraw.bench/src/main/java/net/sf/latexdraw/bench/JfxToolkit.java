@@ -0,0 +1,77 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import com.sun.javafx.application.PlatformImpl;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import javafx.application.Platform;
+
+/**
+ * Starts the JavaFX toolkit in headless mode (using Monocle) for the benchmarks that create JavaFX objects
+ * (views, fonts, etc.).
+ * @author Arnaud Blouin
+ */
+final class JfxToolkit {
+	private static boolean started;
+
+	private JfxToolkit() {
+		super();
+	}
+
+	/**
+	 * Starts the toolkit if not already started.
+	 * @throws InterruptedException If interrupted while waiting for the toolkit.
+	 */
+	static synchronized void start() throws InterruptedException {
+		if(started) return;
+
+		setIfAbsent("glass.platform", "Monocle"); //$NON-NLS-1$ //$NON-NLS-2$
+		setIfAbsent("monocle.platform", "Headless"); //$NON-NLS-1$ //$NON-NLS-2$
+		setIfAbsent("prism.order", "sw"); //$NON-NLS-1$ //$NON-NLS-2$
+		setIfAbsent("prism.text", "t2k"); //$NON-NLS-1$ //$NON-NLS-2$
+		setIfAbsent("java.awt.headless", "true"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final CountDownLatch latch = new CountDownLatch(1);
+		PlatformImpl.startup(latch::countDown);
+		latch.await();
+		started = true;
+	}
+
+	/**
+	 * Runs the given task in the JavaFX thread and waits for its end.
+	 * @param task The task to run.
+	 * @param <T> The type of the result of the task.
+	 * @return The result of the task.
+	 * @throws InterruptedException If interrupted while waiting for the task.
+	 * @throws ExecutionException If the task failed.
+	 */
+	static <T> T runAndWait(final Callable<T> task) throws InterruptedException, ExecutionException {
+		if(Platform.isFxApplicationThread()) {
+			try {
+				return task.call();
+			}catch(final Exception ex) {
+				throw new ExecutionException(ex);
+			}
+		}
+		final FutureTask<T> future = new FutureTask<>(task);
+		Platform.runLater(future);
+		return future.get();
+	}
+
+	private static void setIfAbsent(final String key, final String value) {
+		if(System.getProperty(key) == null) {
+			System.setProperty(key, value);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.WritableImage;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.view.jfx.Canvas;
+import net.sf.latexdraw.view.jfx.LevelOfDetail;
+import org.malai.action.ActionsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the rendering time of a pulse (a snapshot of the scene) against the zoom level, with and without the level
+ * of detail, for a drawing of free hand shapes and grids.
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LodBench {
+	@Param({"1", "0.5", "0.25", "0.1"})
+	public double zoom;
+
+	/** The quality threshold of the level of detail (0: disabled). */
+	@Param({"0", "0.5"})
+	public double quality;
+
+	@Param({"200"})
+	public int nbShapes;
+
+	private Canvas canvas;
+	private Scene scene;
+
+	@Setup
+	public void setUp() throws InterruptedException, ExecutionException {
+		JfxToolkit.start();
+		final DrawingGenerator generator = new DrawingGenerator(DrawingGenerator.DEFAULT_SEED, 2000, 2000d, 2000d);
+		final List<IShape> shapes = new ArrayList<>(generator.createFreehands(nbShapes));
+		for(int i = 0; i < nbShapes / 10; i++) {
+			shapes.add(generator.createGrid());
+		}
+
+		JfxToolkit.runAndWait(() -> {
+			LevelOfDetail.INSTANCE.setQuality(quality);
+			canvas = new Canvas();
+			scene = new Scene(new ScrollPane(canvas), 1024d, 768d);
+			canvas.getDrawing().addShapes(shapes);
+			canvas.zoomProperty().set(zoom);
+			canvas.setScaleX(zoom);
+			canvas.setScaleY(zoom);
+			return canvas;
+		});
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException, ExecutionException {
+		JfxToolkit.runAndWait(() -> {
+			canvas.getDrawing().clear();
+			ActionsRegistry.INSTANCE.removeHandler(canvas);
+			LevelOfDetail.INSTANCE.setQuality(LevelOfDetail.DEFAULT_QUALITY);
+			LevelOfDetail.INSTANCE.setScale(1d);
+			return canvas;
+		});
+	}
+
+	@Benchmark
+	public WritableImage pulse() throws InterruptedException, ExecutionException {
+		return JfxToolkit.runAndWait(() -> scene.snapshot(null));
+	}
+}
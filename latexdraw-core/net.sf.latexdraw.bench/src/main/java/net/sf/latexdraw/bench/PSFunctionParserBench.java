@@ -0,0 +1,77 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.util.concurrent.TimeUnit;
+import net.sf.latexdraw.parsers.ps.PSFunctionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the parsing and the evaluation of the PostScript functions of the plots.
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PSFunctionParserBench {
+	@Param({"x 2 mul 3 add", "x sin x cos mul x abs sqrt add", "x 2 exp x 3 exp sub 10 div 1 exch sub"})
+	public String function;
+
+	/** The number of evaluated x values (a plot usually has between 50 and 1000 points). */
+	@Param({"1000"})
+	public int nbPoints;
+
+	private PSFunctionParser parser;
+	private double[] xs;
+	private double[] ys;
+
+	@Setup
+	public void setUp() {
+		parser = new PSFunctionParser(function);
+		xs = new double[nbPoints];
+		ys = new double[nbPoints];
+		for(int i = 0; i < nbPoints; i++) {
+			xs[i] = -10d + 20d * i / nbPoints;
+		}
+	}
+
+	@Benchmark
+	public PSFunctionParser parse() {
+		return new PSFunctionParser(function);
+	}
+
+	@Benchmark
+	public void evaluateEachPoint(final Blackhole bh) {
+		for(final double x : xs) {
+			bh.consume(parser.getY(x));
+		}
+	}
+
+	@Benchmark
+	public double[] evaluateAllPoints() {
+		parser.getY(xs, ys);
+		return ys;
+	}
+}
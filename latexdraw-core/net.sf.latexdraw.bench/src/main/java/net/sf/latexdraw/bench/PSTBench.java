@@ -0,0 +1,103 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.parsers.pst.PSTContext;
+import net.sf.latexdraw.parsers.pst.PSTLatexdrawListener;
+import net.sf.latexdraw.parsers.pst.PSTLexer;
+import net.sf.latexdraw.parsers.pst.PSTParser;
+import net.sf.latexdraw.util.Injector;
+import net.sf.latexdraw.view.ViewsSynchroniserHandler;
+import net.sf.latexdraw.view.pst.PSTCodeGenerator;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the PSTricks code generation of a drawing and the parsing of the generated code.
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PSTBench {
+	@Param({"100", "1000"})
+	public int nbShapes;
+
+	private IDrawing drawing;
+	private PSTCodeGenerator generator;
+	private String code;
+	private int modifiedShape;
+
+	@Setup
+	public void setUp() {
+		drawing = new DrawingGenerator().createDrawing(nbShapes);
+		final DrawingViewsHandler handler = new DrawingViewsHandler(drawing);
+		final Injector injector = new Injector() {
+			@Override
+			protected void configure() throws IllegalAccessException, InstantiationException, NoSuchMethodException,
+				InvocationTargetException {
+				bindToInstance(IDrawing.class, drawing);
+				bindToInstance(ViewsSynchroniserHandler.class, handler);
+				bindAsEagerSingleton(PSTCodeGenerator.class);
+			}
+		};
+		generator = injector.getInstance(PSTCodeGenerator.class);
+		code = generator.getDrawingCode();
+		modifiedShape = 0;
+	}
+
+	/**
+	 * Generates the code of the whole drawing: all the shapes are flagged as modified so that no cached code is used.
+	 */
+	@Benchmark
+	public String generateAllShapes() {
+		drawing.getShapes().forEach(sh -> sh.setModified(true));
+		return generator.getDrawingCode();
+	}
+
+	/**
+	 * Generates the code of the drawing after the modification of a single shape (e.g. the code panel refreshed after an action).
+	 */
+	@Benchmark
+	public String generateOneModifiedShape() {
+		drawing.getShapeAt(modifiedShape).setModified(true);
+		modifiedShape = (modifiedShape + 1) % nbShapes;
+		return generator.getDrawingCode();
+	}
+
+	@Benchmark
+	public List<IShape> parse() {
+		final PSTLatexdrawListener listener = new PSTLatexdrawListener();
+		final PSTParser parser = new PSTParser(new CommonTokenStream(new PSTLexer(CharStreams.fromString(code))));
+		parser.addParseListener(listener);
+		parser.pstCode(new PSTContext());
+		return listener.getShapes();
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.parsers.svg.MalformedSVGDocument;
+import net.sf.latexdraw.parsers.svg.SVGAttributes;
+import net.sf.latexdraw.parsers.svg.SVGDefsElement;
+import net.sf.latexdraw.parsers.svg.SVGDocument;
+import net.sf.latexdraw.parsers.svg.SVGElement;
+import net.sf.latexdraw.parsers.svg.SVGGElement;
+import net.sf.latexdraw.parsers.svg.SVGSVGElement;
+import net.sf.latexdraw.util.LNamespace;
+import net.sf.latexdraw.view.svg.IShapeSVGFactory;
+import net.sf.latexdraw.view.svg.SVGShapesFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.NodeList;
+
+/**
+ * Benchmarks the loading and the saving of SVG drawings.
+ * The conversions between shapes and SVG elements follow the ones of the SVG workers of SVGDocumentGenerator
+ * (that cannot be used without the application).
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SVGBench {
+	@Param({"100", "1000"})
+	public int nbShapes;
+
+	/** True: the SVG documents are loaded using the DOM parser; false: using the streaming parser. */
+	@Param({"false", "true"})
+	public boolean useDOM;
+
+	private IDrawing drawing;
+	private File loadedFile;
+	private File savedFile;
+
+	@Setup
+	public void setUp() throws IOException, InterruptedException {
+		// The SVG generation of the grids uses JavaFX fonts.
+		JfxToolkit.start();
+		drawing = new DrawingGenerator().createDrawing(nbShapes);
+		loadedFile = File.createTempFile("latexdrawBenchLoad", ".svg"); //$NON-NLS-1$ //$NON-NLS-2$
+		savedFile = File.createTempFile("latexdrawBenchSave", ".svg"); //$NON-NLS-1$ //$NON-NLS-2$
+		toSVG(drawing).saveSVGDocument(loadedFile.getPath());
+	}
+
+	@TearDown
+	public void tearDown() {
+		loadedFile.delete();
+		savedFile.delete();
+	}
+
+	@Benchmark
+	public List<IShape> load() throws IOException, MalformedSVGDocument {
+		return toLatexdraw(new SVGDocument(loadedFile.toURI(), useDOM));
+	}
+
+	@Benchmark
+	public boolean save() {
+		return toSVG(drawing).saveSVGDocument(savedFile.getPath());
+	}
+
+	private static SVGDocument toSVG(final IDrawing drawing) {
+		final SVGDocument doc = new SVGDocument();
+		final SVGSVGElement root = doc.getFirstChild();
+		final SVGGElement g = new SVGGElement(doc);
+
+		root.appendChild(g);
+		root.setAttribute("xmlns:" + LNamespace.LATEXDRAW_NAMESPACE, LNamespace.LATEXDRAW_NAMESPACE_URI);//$NON-NLS-1$
+		root.appendChild(new SVGDefsElement(doc));
+
+		drawing.getShapes().forEach(sh -> {
+			final SVGElement elt = SVGShapesFactory.INSTANCE.createSVGElement(sh, doc);
+			if(elt != null) {
+				g.appendChild(elt);
+			}
+		});
+
+		root.setAttribute(SVGAttributes.SVG_VERSION, "1.1");//$NON-NLS-1$
+		root.setAttribute(SVGAttributes.SVG_BASE_PROFILE, "full");//$NON-NLS-1$
+		return doc;
+	}
+
+	private static List<IShape> toLatexdraw(final SVGDocument doc) {
+		final NodeList elts = doc.getDocumentElement().getChildNodes();
+		return IntStream.range(0, elts.getLength()).mapToObj(i -> elts.item(i)).filter(node -> node instanceof SVGElement).
+			map(node -> IShapeSVGFactory.INSTANCE.createShape((SVGElement) node)).filter(sh -> sh != null).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.models.interfaces.shape.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the bounds and the transformations of the shapes.
+ * The bounds benchmarks compare the computation of the bounds through points (getTopLeftPoint, etc.) that allocates
+ * points with the computation through coordinates (getMinX, etc.) that uses the cached bounds: run them with
+ * the GC profiler (-prof gc) to get the allocation rates.
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShapeBench {
+	@Param({"1000"})
+	public int nbShapes;
+
+	/** The number of points of the multi-point shapes (free hand shapes, polylines, etc.). */
+	@Param({"20", "500"})
+	public int nbPoints;
+
+	private List<IShape> shapes;
+	private IPoint rotationCentre;
+	private boolean enlarge;
+
+	@Setup
+	public void setUp() {
+		shapes = new DrawingGenerator(DrawingGenerator.DEFAULT_SEED, nbPoints, 2000d, 2000d).createShapes(nbShapes);
+		rotationCentre = ShapeFactory.INST.createPoint(1000d, 1000d);
+		enlarge = true;
+	}
+
+	@Benchmark
+	public void boundsFromPoints(final Blackhole bh) {
+		for(final IShape sh : shapes) {
+			bh.consume(sh.getTopLeftPoint());
+			bh.consume(sh.getBottomRightPoint());
+		}
+	}
+
+	@Benchmark
+	public void boundsFromCoordinates(final Blackhole bh) {
+		for(final IShape sh : shapes) {
+			bh.consume(sh.getMinX());
+			bh.consume(sh.getMinY());
+			bh.consume(sh.getMaxX());
+			bh.consume(sh.getMaxY());
+		}
+	}
+
+	/**
+	 * Translates the shapes and gets their bounds: the cached bounds are invalidated and computed again.
+	 */
+	@Benchmark
+	public void boundsAfterTranslation(final Blackhole bh) {
+		for(final IShape sh : shapes) {
+			sh.translate(1d, -1d);
+			bh.consume(sh.getMaxX());
+		}
+	}
+
+	@Benchmark
+	public List<IShape> translate() {
+		shapes.forEach(sh -> sh.translate(1d, -1d));
+		return shapes;
+	}
+
+	@Benchmark
+	public List<IShape> rotate() {
+		shapes.forEach(sh -> sh.rotate(rotationCentre, 0.01));
+		return shapes;
+	}
+
+	/**
+	 * Alternately enlarges and shrinks the shapes so that their size does not drift.
+	 */
+	@Benchmark
+	public List<IShape> scale() {
+		final double factor = enlarge ? 1.1 : 1d / 1.1;
+		enlarge = !enlarge;
+		shapes.forEach(sh -> {
+			final double width = sh.getMaxX() - sh.getMinX();
+			final double height = sh.getMaxY() - sh.getMinY();
+			// The shapes made of a single point (e.g. texts) cannot be scaled.
+			if(width > 0d && height > 0d) {
+				sh.scale(width * factor, height * factor, Position.SE, new Rectangle2D.Double(sh.getMinX(), sh.getMinY(), width, height));
+			}
+		});
+		return shapes;
+	}
+
+	@Benchmark
+	public List<IShape> mirror() {
+		shapes.forEach(sh -> sh.mirrorHorizontal(1000d));
+		return shapes;
+	}
+}
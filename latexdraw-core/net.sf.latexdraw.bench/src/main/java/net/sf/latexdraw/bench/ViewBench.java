@@ -0,0 +1,95 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.bench;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import net.sf.latexdraw.models.interfaces.shape.IFreehand;
+import net.sf.latexdraw.models.interfaces.shape.IGrid;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.view.jfx.ViewFactory;
+import net.sf.latexdraw.view.jfx.ViewShape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the creation of the JavaFX views of free hand shapes and grids (the JavaFX toolkit runs in headless mode).
+ * The views are created outside the JavaFX thread since they are not attached to a scene.
+ * @author Arnaud Blouin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ViewBench {
+	/** The number of points of the free hand shapes. */
+	@Param({"100", "2000"})
+	public int nbPoints;
+
+	private IFreehand freehand;
+	private IGrid grid;
+	private ViewShape<?> freehandView;
+
+	@Setup
+	public void setUp() throws InterruptedException {
+		JfxToolkit.start();
+		final DrawingGenerator generator = new DrawingGenerator(DrawingGenerator.DEFAULT_SEED, nbPoints, 2000d, 2000d);
+		freehand = generator.createFreehand();
+		grid = generator.createGrid();
+		freehandView = ViewFactory.INSTANCE.createView(freehand).orElseThrow(IllegalStateException::new);
+	}
+
+	@TearDown
+	public void tearDown() {
+		freehandView.flush();
+	}
+
+	@Benchmark
+	public void createFreehandView(final Blackhole bh) {
+		createView(freehand, bh);
+	}
+
+	@Benchmark
+	public void createGridView(final Blackhole bh) {
+		createView(grid, bh);
+	}
+
+	/**
+	 * Moves the points of the free hand shape: its existing view is updated.
+	 */
+	@Benchmark
+	public List<?> updateFreehandView() {
+		freehand.translate(1d, -1d);
+		return freehandView.getChildren();
+	}
+
+	private static <T extends IShape> void createView(final T sh, final Blackhole bh) {
+		final Optional<ViewShape<T>> view = ViewFactory.INSTANCE.createView(sh);
+		view.ifPresent(v -> {
+			bh.consume(v);
+			v.flush();
+		});
+	}
+}
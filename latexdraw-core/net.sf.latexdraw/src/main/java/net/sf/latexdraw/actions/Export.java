@@ -10,25 +10,23 @@
  */
 package net.sf.latexdraw.actions;
 
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import javafx.embed.swing.SwingFXUtils;
-import javafx.geometry.Bounds;
-import javafx.scene.Group;
-import javafx.scene.SnapshotParameters;
-import javafx.scene.image.WritableImage;
-import javafx.scene.paint.Color;
-import javafx.scene.transform.Scale;
+import java.util.Optional;
+import java.util.function.DoubleConsumer;
+import javafx.concurrent.Task;
 import javafx.stage.FileChooser;
-import javax.imageio.ImageIO;
 import net.sf.latexdraw.badaboom.BadaboomCollector;
-import net.sf.latexdraw.util.LSystem;
+import net.sf.latexdraw.util.LangTool;
 import net.sf.latexdraw.view.jfx.Canvas;
+import net.sf.latexdraw.view.jfx.LevelOfDetail;
+import net.sf.latexdraw.view.jfx.PDFExporter;
+import net.sf.latexdraw.view.jfx.RasterExporter;
+import net.sf.latexdraw.view.latex.LaTeXGenerator;
+import net.sf.latexdraw.view.latex.LaTeXSnapshot;
 import net.sf.latexdraw.view.pst.PSTCodeGenerator;
 import org.malai.action.ActionImpl;
 
@@ -54,6 +52,12 @@ public class Export extends ActionImpl {
 
 	private File outputFile;
 
+	/** The resolution (dots per inch) of the picture exports. */
+	private double dpi;
+
+	/** The export running in background (latex based formats only). */
+	private Task<Boolean> job;
+
 
 	/**
 	 * Creates the action.
@@ -62,6 +66,7 @@ public class Export extends ActionImpl {
 	public Export() {
 		super();
 		exported = false;
+		dpi = RasterExporter.DEFAULT_DPI;
 	}
 
 	@Override
@@ -99,19 +104,21 @@ public class Export extends ActionImpl {
 	private boolean export(final File file) {
 		switch(format) {
 			case BMP:
-				return exportAsPicture(file, "bmp", false);
-			case EPS_LATEX:
-				return exportAsEPS(file);
+				return exportAsPicture(file, "bmp");
 			case JPG:
-				return exportAsPicture(file, "jpg", false);
+				return exportAsPicture(file, "jpg");
+			case PNG:
+				return exportAsPicture(file, "png");
+			case PDF_DRAFT:
+				return exportAsPDFDraft(file);
+			case EPS_LATEX:
 			case PDF:
-				return exportAsPDF(file);
 			case PDF_CROP:
-				return exportAsPDF(file);
-			case PNG:
-				return exportAsPicture(file, "png", true);
 			case TEX:
-				return exportAsPST(file);
+				// The latex document is frozen here and compiled in background.
+				job = new ExportJob(pstGen.getSnapshot(), format, file);
+				ExportQueue.INSTANCE.submit(job);
+				return true;
 		}
 		return false;
 	}
@@ -120,7 +127,7 @@ public class Export extends ActionImpl {
 	@Override
 	public boolean canDo() {
 		return canvas != null && format != null && dialogueBox != null && (format == ExportFormat.BMP || format == ExportFormat.JPG ||
-			format == ExportFormat.PNG || pstGen != null);
+			format == ExportFormat.PNG || format == ExportFormat.PDF_DRAFT || pstGen != null);
 	}
 
 
@@ -131,118 +138,45 @@ public class Export extends ActionImpl {
 
 
 	/**
-	 * Exports the drawing as a PNG picture.
+	 * Exports the drawing as a picture, rendered by tiles at the resolution of the export.
+	 * The snapshots of the views are taken in the JFX thread: the pictures are not exported in background.
 	 * @param file The targeted location.
+	 * @param imgFormat The format of the picture (png, jpg, or bmp).
 	 * @return true if the picture was well created.
 	 */
-	private boolean exportAsPicture(final File file, final String format, final boolean alpha) {
-		BufferedImage rendImage = createRenderedImage();
-		boolean success = false;
-
-		if(!alpha) {
-			final BufferedImage copy = new BufferedImage(rendImage.getWidth(), rendImage.getHeight(), BufferedImage.TYPE_INT_RGB);
-			Graphics2D g2d = copy.createGraphics();
-			g2d.drawImage(rendImage, 0, 0, null);
-			g2d.dispose();
-			rendImage.flush();
-			rendImage = copy;
-		}
-
-		try {
-			ImageIO.write(rendImage, format, file);
-			success = true;
-		}catch(final IOException ex) {
-			BadaboomCollector.INSTANCE.add(ex);
-		}
-		rendImage.flush();
-		return success;
-	}
-
-
-	/**
-	 * Creates a ps document of the given views (compiled using latex).
-	 * @param file The targeted location.
-	 * @return True: the file has been created.
-	 * @since 3.0
-	 */
-	private boolean exportAsEPS(final File file) {
-		File psFile;
-
-		try {
-			psFile = pstGen.createEPSFile(file.getAbsolutePath()).orElse(null);
-		}catch(final SecurityException ex) {
-			BadaboomCollector.INSTANCE.add(ex);
-			psFile = null;
-		}
-
-		return psFile != null && psFile.exists();
-	}
-
-
-	/**
-	 * Creates a pdf document of the given views (compiled using latex).
-	 * @param file The targeted location.
-	 * @return True: the file has been created.
-	 * @since 3.0
-	 */
-	private boolean exportAsPDF(final File file) {
-		File pdfFile;
-
-		try {
-			pdfFile = pstGen.createPDFFile(file.getAbsolutePath(), format == ExportFormat.PDF_CROP).orElse(null);
-		}catch(final SecurityException ex) {
-			BadaboomCollector.INSTANCE.add(ex);
-			pdfFile = null;
-		}
-
-		return pdfFile != null && pdfFile.exists();
+	private boolean exportAsPicture(final File file, final String imgFormat) {
+		// The canvas may be virtualised and zoomed out: all the shapes must have a view painted with its full detail.
+		return canvas.withAllViews(() -> LevelOfDetail.INSTANCE.withFullDetail(() -> {
+			try {
+				new RasterExporter(canvas.getViews(), dpi, RasterExporter.DEFAULT_TILE_SIZE).write(file, imgFormat);
+				return true;
+			}catch(final IOException | IllegalArgumentException ex) {
+				BadaboomCollector.INSTANCE.add(ex);
+				return false;
+			}
+		}));
 	}
 
 
 	/**
-	 * Exports the drawing as a PST document.
+	 * Exports the drawing as a PDF document without latex: the views are converted to PDF graphics.
+	 * The views are read in the JFX thread: the document is not exported in background (it takes a few milliseconds).
 	 * @param file The targeted location.
-	 * @return true if the PST document was been successfully created.
+	 * @return true if the document was well created.
 	 */
-	private boolean exportAsPST(final File file) {
-		boolean ok;
-
-		try {
-			try(final FileWriter fw = new FileWriter(file);
-				final BufferedWriter bw = new BufferedWriter(fw);
-				final PrintWriter out = new PrintWriter(bw)) {
-				out.println(pstGen.getDrawingCode());
-				ok = true;
+	private boolean exportAsPDFDraft(final File file) {
+		return canvas.withAllViews(() -> LevelOfDetail.INSTANCE.withFullDetail(() -> {
+			try {
+				new PDFExporter(canvas.getViews()).write(file);
+				return true;
+			}catch(final IOException ex) {
+				BadaboomCollector.INSTANCE.add(ex);
+				return false;
 			}
-		}catch(final IOException ex) {
-			BadaboomCollector.INSTANCE.add(ex);
-			ok = false;
-		}
-		return ok;
+		}));
 	}
 
 
-	/**
-	 * @return A writable image that contains given views (not null).
-	 */
-	private BufferedImage createRenderedImage() {
-		final Group views = canvas.getViews();
-		final Bounds bounds = views.getBoundsInParent();
-		final double scale = 3d;
-		final WritableImage img = new WritableImage((int) (bounds.getWidth() * scale), (int) (bounds.getHeight() * scale));
-		final SnapshotParameters snapshotParameters = new SnapshotParameters();
-
-		snapshotParameters.setFill(Color.WHITE);
-		snapshotParameters.setTransform(new Scale(scale, scale));
-		views.snapshot(snapshotParameters, img);
-
-		while(img.isBackgroundLoading()) {
-			LSystem.INSTANCE.sleep(100L);
-		}
-
-		return SwingFXUtils.fromFXImage(img, null);
-	}
-
 	/**
 	 * @param dialogBox The file chooser to set.
 	 * @since 3.0
@@ -275,10 +209,90 @@ public class Export extends ActionImpl {
 		pstGen = gen;
 	}
 
+	/**
+	 * @param resolution The resolution (dots per inch) of the picture exports (PNG, JPG, BMP). Ignored if not strictly positive.
+	 * @since 4.0
+	 */
+	public void setDpi(final double resolution) {
+		if(resolution > 0d) {
+			dpi = resolution;
+		}
+	}
+
 	/**
 	 * @return The output file produced during the export.
 	 */
 	public File getOutputFile() {
 		return outputFile;
 	}
+
+	/**
+	 * @return The export queued in background, if the format requires the latex toolchain.
+	 * @since 4.0
+	 */
+	public Optional<Task<Boolean>> getJob() {
+		return Optional.ofNullable(job);
+	}
+
+
+	/**
+	 * Exports a frozen latex document in background. The progress is notified at the end of each stage of the compilation.
+	 */
+	private static final class ExportJob extends Task<Boolean> {
+		private final LaTeXSnapshot doc;
+		private final ExportFormat format;
+		private final File file;
+
+		ExportJob(final LaTeXSnapshot snapshot, final ExportFormat expFormat, final File target) {
+			super();
+			doc = snapshot;
+			format = expFormat;
+			file = target;
+			updateMessage(LangTool.INSTANCE.getBundle().getString("Exporter.running") + ' ' + file.getName()); //$NON-NLS-1$
+		}
+
+		@Override
+		protected Boolean call() {
+			final DoubleConsumer progress = value -> updateProgress(value, 1d);
+			updateProgress(0d, 1d);
+
+			try {
+				switch(format) {
+					case EPS_LATEX:
+						return LaTeXGenerator.createEPSFile(doc, file.getAbsolutePath(), progress).map(f -> f.exists()).orElse(false);
+					case PDF:
+						return LaTeXGenerator.createPDFFile(doc, file.getAbsolutePath(), false, progress).map(f -> f.exists()).orElse(false);
+					case PDF_CROP:
+						return LaTeXGenerator.createPDFFile(doc, file.getAbsolutePath(), true, progress).map(f -> f.exists()).orElse(false);
+					case TEX:
+						return exportAsPST(progress);
+					default:
+						return false;
+				}
+			}catch(final SecurityException ex) {
+				BadaboomCollector.INSTANCE.add(ex);
+				return false;
+			}
+		}
+
+		/**
+		 * Exports the drawing as a PST document.
+		 * @return true if the PST document was been successfully created.
+		 */
+		private boolean exportAsPST(final DoubleConsumer progress) {
+			try(final FileWriter fw = new FileWriter(file);
+				final BufferedWriter bw = new BufferedWriter(fw);
+				final PrintWriter out = new PrintWriter(bw)) {
+				out.println(doc.getDrawingCode());
+			}catch(final IOException ex) {
+				BadaboomCollector.INSTANCE.add(ex);
+				return false;
+			}
+			progress.accept(0.5);
+			// The exported code refers to the EPS pictures of the pictures.
+			doc.awaitEPSPictures();
+			progress.accept(1d);
+			return true;
+		}
+	}
 }
@@ -45,6 +45,20 @@ public enum ExportFormat {
 			return ".pdf";
 		}
 	},
+	/**
+	 * The PDF format (draft, without latex).
+	 */
+	PDF_DRAFT {
+		@Override
+		public FileChooser.ExtensionFilter getFilter() {
+			return new FileChooser.ExtensionFilter("PDF", "*"+getFileExtension());
+		}
+
+		@Override
+		public String getFileExtension() {
+			return ".pdf";
+		}
+	},
 	/**
 	 * The latex format (using latex).
 	 */
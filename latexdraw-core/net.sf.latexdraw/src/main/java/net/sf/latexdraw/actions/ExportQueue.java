@@ -0,0 +1,77 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.actions;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+
+/**
+ * The queue of the exports running in background: the exports are executed one after the other in a dedicated thread.
+ * Must be used in the JFX thread.
+ * @author Arnaud Blouin
+ */
+public final class ExportQueue {
+	/** The singleton. */
+	public static final ExportQueue INSTANCE = new ExportQueue();
+
+	private final ExecutorService executor;
+	/** The queued exports and the running one. */
+	private final ObservableList<Task<Boolean>> jobs;
+	private final ObservableList<Task<Boolean>> readOnlyJobs;
+
+
+	private ExportQueue() {
+		super();
+		jobs = FXCollections.observableArrayList();
+		readOnlyJobs = FXCollections.unmodifiableObservableList(jobs);
+		executor = Executors.newSingleThreadExecutor(task -> {
+			final Thread thread = new Thread(task, "latexdraw-export"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+
+	/**
+	 * Queues an export. The export is removed from the queue when done, failed, or cancelled.
+	 * @param job The export to execute.
+	 */
+	public void submit(final Task<Boolean> job) {
+		jobs.add(job);
+		job.stateProperty().addListener((observable, oldValue, state) -> {
+			if(state == Worker.State.SUCCEEDED || state == Worker.State.FAILED || state == Worker.State.CANCELLED) {
+				jobs.remove(job);
+			}
+		});
+		executor.execute(job);
+	}
+
+
+	/**
+	 * Cancels the queued exports and the running one (its external processes are killed).
+	 */
+	public void cancelAll() {
+		new ArrayList<>(jobs).forEach(job -> job.cancel());
+	}
+
+
+	/**
+	 * @return The queued exports and the running one (read-only).
+	 */
+	public ObservableList<Task<Boolean>> getJobs() {
+		return readOnlyJobs;
+	}
+}
@@ -11,11 +11,7 @@
 package net.sf.latexdraw.actions.shape;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import net.sf.latexdraw.actions.Modifying;
-import net.sf.latexdraw.models.interfaces.shape.IShape;
 import net.sf.latexdraw.util.LangTool;
 import org.malai.undo.Undoable;
 
@@ -25,7 +21,7 @@ import org.malai.undo.Undoable;
  */
 public class CutShapes extends CopyShapes implements Undoable, Modifying {
 	/** The index of the cut shapes. */
-	private List<Integer> positionShapes;
+	private int[] positionShapes;
 
 
 	public CutShapes(final SelectShapes selection) {
@@ -36,11 +32,7 @@ public class CutShapes extends CopyShapes implements Undoable, Modifying {
 	public void doActionBody() {
 		// Removing the shapes.
 		selection.getDrawing().ifPresent(dr -> {
-			final List<IShape> drawingSh = dr.getShapes();
-
 			copiedShapes = new ArrayList<>(selection.getShapes());
-			positionShapes = selection.getShapes().stream().map(drawingSh::indexOf).collect(Collectors.toList());
-
 			deleteShapes();
 			selection.getShapes().clear();
 		});
@@ -52,7 +44,7 @@ public class CutShapes extends CopyShapes implements Undoable, Modifying {
 	 */
 	private void deleteShapes() {
 		selection.getDrawing().ifPresent(dr -> {
-			copiedShapes.forEach(dr::removeShape);
+			positionShapes = dr.removeShapes(copiedShapes);
 			dr.setModified(true);
 		});
 	}
@@ -67,7 +59,7 @@ public class CutShapes extends CopyShapes implements Undoable, Modifying {
 	@Override
 	public void undo() {
 		selection.getDrawing().ifPresent(dr -> {
-			IntStream.range(0, positionShapes.size()).forEach(i -> dr.addShape(copiedShapes.get(i), positionShapes.get(i)));
+			dr.addShapes(copiedShapes, positionShapes);
 			dr.setModified(true);
 		});
 	}
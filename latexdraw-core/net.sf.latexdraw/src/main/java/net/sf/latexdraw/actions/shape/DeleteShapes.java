@@ -12,7 +12,6 @@ package net.sf.latexdraw.actions.shape;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import net.sf.latexdraw.actions.DrawingActionImpl;
 import net.sf.latexdraw.actions.Modifying;
 import net.sf.latexdraw.actions.ShapesAction;
@@ -26,7 +25,7 @@ import org.malai.undo.Undoable;
  */
 public class DeleteShapes extends DrawingActionImpl implements ShapesAction, Undoable, Modifying {
 	/** The index of the deleted shapes into the original list. */
-	List<Integer> positionShapes;
+	int[] positionShapes;
 
 	/** The shapes to handle. */
 	final List<IShape> shapes;
@@ -44,12 +43,7 @@ public class DeleteShapes extends DrawingActionImpl implements ShapesAction, Und
 
 	@Override
 	protected void doActionBody() {
-		final List<IShape> drawingSh = drawing.getShapes();
-		positionShapes = shapes.stream().mapToInt(sh -> {
-			int pos = drawingSh.indexOf(sh);
-			drawing.removeShape(sh);
-			return pos;
-		}).boxed().collect(Collectors.toList());
+		positionShapes = drawing.removeShapes(shapes);
 		drawing.setModified(true);
 	}
 
@@ -60,9 +54,7 @@ public class DeleteShapes extends DrawingActionImpl implements ShapesAction, Und
 
 	@Override
 	public void undo() {
-		for(int i = positionShapes.size() - 1; i >= 0; i--) {
-			drawing.addShape(shapes.get(i), positionShapes.get(i));
-		}
+		drawing.addShapes(shapes, positionShapes);
 		drawing.setModified(true);
 	}
 
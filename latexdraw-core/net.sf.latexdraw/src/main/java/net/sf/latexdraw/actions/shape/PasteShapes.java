@@ -66,8 +66,8 @@ public class PasteShapes extends DrawingActionImpl implements Undoable, Modifyin
 			final IShape sh = ShapeFactory.INST.duplicate(shape);
 			pastedShapes.add(sh);
 			sh.translate(gap, gap);
-			drawing.addShape(sh);
 		});
+		drawing.addShapes(pastedShapes);
 
 		if(copy instanceof CutShapes) {
 			copy.nbTimeCopied++;
@@ -78,14 +78,7 @@ public class PasteShapes extends DrawingActionImpl implements Undoable, Modifyin
 
 	@Override
 	public void undo() {
-		int i = 0;
-		final int nbShapes = copy.copiedShapes.size();
-
-		while(i < nbShapes && !drawing.isEmpty()) {
-			drawing.removeShape(drawing.size() - 1);
-			i++;
-		}
-
+		drawing.removeShapes(pastedShapes);
 		copy.nbTimeCopied--;
 		drawing.setModified(true);
 	}
@@ -96,7 +89,7 @@ public class PasteShapes extends DrawingActionImpl implements Undoable, Modifyin
 			copy.nbTimeCopied++;
 		}
 
-		pastedShapes.forEach(drawing::addShape);
+		drawing.addShapes(pastedShapes);
 
 		if(copy instanceof CutShapes) {
 			copy.nbTimeCopied++;
@@ -16,6 +16,7 @@ import net.sf.latexdraw.actions.DrawingAction;
 import net.sf.latexdraw.actions.Modifying;
 import net.sf.latexdraw.actions.ShapeActionImpl;
 import net.sf.latexdraw.models.MathUtils;
+import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.shape.IDrawing;
 import net.sf.latexdraw.models.interfaces.shape.IGroup;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
@@ -165,6 +166,30 @@ public class ScaleShapes extends ShapeActionImpl<IGroup> implements DrawingActio
 		refPosition = Optional.ofNullable(pos);
 	}
 
+	/**
+	 * @return The horizontal scale factor the action applies (1 if the scaling is vertical). Used to preview the scaling.
+	 */
+	public double getScaleX() {
+		final double width = scaledWidth(newX);
+		return width > 0d && bound.getWidth() > 0d ? width / bound.getWidth() : 1d;
+	}
+
+	/**
+	 * @return The vertical scale factor the action applies (1 if the scaling is horizontal). Used to preview the scaling.
+	 */
+	public double getScaleY() {
+		final double height = scaledHeight(newY);
+		return height > 0d && bound.getHeight() > 0d ? height / bound.getHeight() : 1d;
+	}
+
+	/**
+	 * @return The point that the scaling does not move (on the reference side of the bounds of the shapes).
+	 */
+	public IPoint getScalePivot() {
+		final Position pos = refPosition.orElse(Position.NW);
+		return ShapeFactory.INST.createPoint(pos.isEast() ? bound.getMaxX() : bound.getX(), pos.isSouth() ? bound.getMaxY() : bound.getY());
+	}
+
 	public double getNewX() {
 		return newX;
 	}
@@ -11,7 +11,11 @@
 package net.sf.latexdraw.actions.shape;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import net.sf.latexdraw.actions.DrawingActionImpl;
 import net.sf.latexdraw.actions.Modifying;
 import net.sf.latexdraw.actions.ShapesAction;
@@ -38,12 +42,13 @@ public class SelectShapes extends DrawingActionImpl implements ShapesAction, Mod
 
 		if(shapes.isEmpty()) selection.clear();
 		else {
-			for(int i = selection.size() - 1; i >= 0; i--) {
-				if(!shapes.contains(selection.getShapeAt(i))) selection.removeShape(i);
-			}
-			shapes.forEach(sh -> {
-				if(!selection.contains(sh)) selection.addShape(sh);
-			});
+			// Sets of references: the selection is updated in linear time.
+			final Set<IShape> toSelect = Collections.newSetFromMap(new IdentityHashMap<>());
+			final Set<IShape> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+			toSelect.addAll(shapes);
+			selected.addAll(selection.getShapes());
+			selection.removeShapes(selection.getShapes().stream().filter(sh -> !toSelect.contains(sh)).collect(Collectors.toList()));
+			selection.addShapes(shapes.stream().filter(sh -> selected.add(sh)).collect(Collectors.toList()));
 		}
 	}
 
@@ -21,6 +21,8 @@ import net.sf.latexdraw.util.LFileUtils;
 import net.sf.latexdraw.util.LSystem;
 import net.sf.latexdraw.util.LangTool;
 import net.sf.latexdraw.util.VersionChecker;
+import net.sf.latexdraw.view.jfx.HatchingTileCache;
+import net.sf.latexdraw.view.jfx.PicturePreviewCache;
 
 /**
  * The controller of the "About Latexdraw" dialogue box.
@@ -57,6 +59,8 @@ public class AboutController implements Initializable {
 		builder.append("PS2PDF version:").append(LSystem.EOL).append(LSystem.INSTANCE.getPS2PDFVersion()).append(LSystem.EOL); //$NON-NLS-1$
 		builder.append("PS2EPSI version:").append(LSystem.INSTANCE.getPS2EPSVersion()).append(LSystem.EOL); //$NON-NLS-1$
 		builder.append("PDFcrop version:").append(LSystem.INSTANCE.getPDFCROPVersion()).append(LSystem.EOL); //$NON-NLS-1$
+		builder.append("Hatchings cache:").append(HatchingTileCache.INSTANCE.getDiagnostic()).append(LSystem.EOL); //$NON-NLS-1$
+		builder.append("Pictures cache:").append(PicturePreviewCache.INSTANCE.getDiagnostic()).append(LSystem.EOL); //$NON-NLS-1$
 		builder.append("Java properties:").append(LSystem.EOL); //$NON-NLS-1$
 		System.getProperties().forEach((key, value) -> builder.append(key).append(':').append(' ').append(value).append(LSystem.EOL));
 		sysText.setText(builder.toString());
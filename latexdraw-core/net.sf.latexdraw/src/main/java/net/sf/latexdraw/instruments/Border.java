@@ -23,6 +23,8 @@ import javafx.fxml.Initializable;
 import javafx.geometry.Point3D;
 import javafx.scene.Cursor;
 import javafx.scene.Node;
+import javafx.scene.transform.Rotate;
+import javafx.scene.transform.Scale;
 import net.sf.latexdraw.actions.shape.ModifyShapeProperty;
 import net.sf.latexdraw.actions.shape.MoveCtrlPoint;
 import net.sf.latexdraw.actions.shape.MovePointShape;
@@ -129,10 +131,14 @@ public class Border extends CanvasInstrument implements Initializable {
 	@Override
 	public void interimFeedback() {
 		canvas.setCursor(Cursor.DEFAULT);
+		canvas.clearSelectionPreview();
 	}
 
 	@Override
 	public void onActionDone(final Action action) {
+		if(action instanceof ScaleShapes || action instanceof RotateShapes) {
+			canvas.clearSelectionPreview();
+		}
 		if(action instanceof MoveCtrlPoint || action instanceof MovePointShape || action instanceof ScaleShapes) {
 			metaCustomiser.dimPosCustomiser.update();
 		}
@@ -247,10 +253,14 @@ public class Border extends CanvasInstrument implements Initializable {
 				a.setGravityCentre(drawing.getSelection().getGravityCentre());
 				a.setShape(drawing.getSelection().duplicateDeep(false));
 			}).
-			then((a, i) -> a.setRotationAngle(a.getGc().computeRotationAngle(
-				ShapeFactory.INST.createPoint(canvas.sceneToLocal(i.getSrcScenePoint())),
-				ShapeFactory.INST.createPoint(canvas.sceneToLocal(i.getEndScenePt()))))).
-			exec().bind();
+			then((a, i) -> {
+				a.setRotationAngle(a.getGc().computeRotationAngle(
+					ShapeFactory.INST.createPoint(canvas.sceneToLocal(i.getSrcScenePoint())),
+					ShapeFactory.INST.createPoint(canvas.sceneToLocal(i.getEndScenePt()))));
+				// The shapes are rotated once the DnD ends: the views are only rotated during the DnD.
+				canvas.setSelectionPreview(new Rotate(Math.toDegrees(a.getRotationAngle()), a.getGc().getX(), a.getGc().getY()));
+			}).
+			bind();
 
 		addBinding(new DnD2ArcAngle(this));
 	}
@@ -343,7 +353,8 @@ public class Border extends CanvasInstrument implements Initializable {
 		private double yGap;
 
 		DnD2Scale(final Border ins) throws IllegalAccessException, InstantiationException {
-			super(ins, true, ScaleShapes.class, new DnD(), ins.scaleHandlers.stream().map(h -> (Node)h).collect(Collectors.toList()), false, null);
+			// The shapes are scaled once the DnD ends: the views are only scaled during the DnD.
+			super(ins, false, ScaleShapes.class, new DnD(), ins.scaleHandlers.stream().map(h -> (Node)h).collect(Collectors.toList()), false, null);
 		}
 
 		private void setXGap(final Position refPosition, final IPoint tl, final IPoint br) {
@@ -400,7 +411,8 @@ public class Border extends CanvasInstrument implements Initializable {
 
 		@Override
 		public void then() {
-			final IPoint pt = ShapeFactory.INST.createPoint(interaction.getSrcObject().get().localToParent(interaction.getEndLocalPt()));
+			// The handlers are transformed by the preview: the point is computed in the (not transformed) coordinate system of the drawing.
+			final IPoint pt = ShapeFactory.INST.createPoint(instrument.canvas.getViews().sceneToLocal(interaction.getEndScenePt()));
 			final Position refPosition = action.getRefPosition().get();
 
 			if(refPosition.isSouth()) {
@@ -418,6 +430,9 @@ public class Border extends CanvasInstrument implements Initializable {
 					action.setNewX(pt.getX() + xGap);
 				}
 			}
+
+			final IPoint pivot = action.getScalePivot();
+			instrument.canvas.setSelectionPreview(new Scale(action.getScaleX(), action.getScaleY(), pivot.getX(), pivot.getY()));
 		}
 
 		@Override
@@ -18,9 +18,12 @@ import javafx.scene.control.Tab;
 import javafx.scene.control.TextArea;
 import net.sf.latexdraw.util.Inject;
 import net.sf.latexdraw.view.latex.LaTeXGenerator;
+import org.malai.action.Action;
+import org.malai.action.ActionsRegistry;
 
 /**
- * Manages the code panel.
+ * Manages the code panel. When the panel is displayed, its code is updated each time an action is executed.
+ * Thanks to the code cache of the generator, only the code of the modified shapes is generated again.
  * @author Arnaud Blouin
  */
 public class CodePanelController extends CanvasInstrument implements Initializable {
@@ -31,11 +34,26 @@ public class CodePanelController extends CanvasInstrument implements Initializab
 
 	public CodePanelController() {
 		super();
+		ActionsRegistry.INSTANCE.addHandler(this);
 	}
 
 	@Override
 	public void initialize(final URL location, final ResourceBundle resources) {
-		tab.selectedProperty().addListener(evt -> codeArea.setText(pstGenerator.getDrawingCode()));
+		tab.selectedProperty().addListener(evt -> updateCode());
+	}
+
+	@Override
+	public void onActionExecuted(final Action action) {
+		if(tab != null && tab.isSelected()) {
+			updateCode();
+		}
+	}
+
+	/**
+	 * Generates the code of the drawing and puts it in the code area.
+	 */
+	private void updateCode() {
+		codeArea.setText(pstGenerator.getDrawingCode());
 	}
 
 	@Override
@@ -13,17 +13,26 @@ package net.sf.latexdraw.instruments;
 import java.io.File;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
+import javafx.beans.binding.Bindings;
 import javafx.collections.ListChangeListener;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressBar;
 import javafx.stage.FileChooser;
 import net.sf.latexdraw.LaTeXDraw;
 import net.sf.latexdraw.actions.Export;
 import net.sf.latexdraw.actions.ExportFormat;
+import net.sf.latexdraw.actions.ExportQueue;
 import net.sf.latexdraw.actions.ExportTemplate;
 import net.sf.latexdraw.models.interfaces.shape.IShape;
 import net.sf.latexdraw.util.Inject;
@@ -32,6 +41,7 @@ import net.sf.latexdraw.util.LPath;
 import net.sf.latexdraw.util.LSystem;
 import net.sf.latexdraw.util.LangTool;
 import net.sf.latexdraw.view.jfx.Canvas;
+import net.sf.latexdraw.view.jfx.RasterExporter;
 import net.sf.latexdraw.view.latex.LaTeXGenerator;
 import net.sf.latexdraw.view.pst.PSTCodeGenerator;
 import net.sf.latexdraw.view.svg.SVGDocumentGenerator;
@@ -57,17 +67,23 @@ public class Exporter extends JfxInstrument implements Initializable {
 	@FXML private MenuItem menuItemBMP;
 	/** The menu item that export as PDF document. */
 	@FXML private MenuItem menuItemPDF;
+	/** The menu item that export as PDF document without latex (draft). */
+	@FXML private MenuItem menuItemPDFDraft;
 	/** The menu item that export as PS (using latex) document. */
 	@FXML private MenuItem menuItemEPSLatex;
 	/** The menu item that export as PDF (using pdfcrop) document. */
 	@FXML private MenuItem menuItemPDFcrop;
 	@FXML private MenuItem exportTemplateMenu;
+	/** The menu item that cancels the exports running in background. */
+	@FXML private MenuItem menuItemCancel;
 	/** The PST generator. */
 	@Inject private PSTCodeGenerator pstGen;
 	@Inject private StatusBarController statusBar;
 	@Inject TemplateManager templateManager;
 	/** The default location of the exports. */
 	private String pathExport;
+	/** The resolution (dots per inch) of the exported pictures. */
+	private int exportDPI;
 	/**
 	 * The latex packages that the interactive system saves by default. These
 	 * packages should by set by the user and must be general, i.e. independent of any document.
@@ -81,6 +97,8 @@ public class Exporter extends JfxInstrument implements Initializable {
 	@Inject private Canvas canvas;
 	/** The dialog box that allows to define where the drawing must be exported. */
 	private FileChooser fileChooserExport;
+	/** The export running in background shown in the status bar. */
+	private Task<Boolean> runningJob;
 
 
 	/**
@@ -89,6 +107,7 @@ public class Exporter extends JfxInstrument implements Initializable {
 	public Exporter() {
 		super();
 		defaultPackages = ""; //$NON-NLS-1$
+		exportDPI = (int) RasterExporter.DEFAULT_DPI;
 		reinit();
 	}
 
@@ -147,7 +166,8 @@ public class Exporter extends JfxInstrument implements Initializable {
 
 	@Override
 	protected void configureBindings() throws IllegalAccessException, InstantiationException {
-		menuItemBinder(Export.class).on(menuItemBMP, menuItemEPSLatex, menuItemJPG, menuItemPDF, menuItemPDFcrop, menuItemPNG, menuItemPST).
+		menuItemBinder(Export.class).on(menuItemBMP, menuItemEPSLatex, menuItemJPG, menuItemPDF, menuItemPDFcrop, menuItemPDFDraft, menuItemPNG,
+			menuItemPST).
 			first((action, interaction) -> {
 			if(interaction.getWidget().getUserData() instanceof ExportFormat) {
 				final ExportFormat format = (ExportFormat) interaction.getWidget().getUserData();
@@ -155,6 +175,7 @@ public class Exporter extends JfxInstrument implements Initializable {
 				action.setCanvas(canvas);
 				action.setFormat(format);
 				action.setPstGen(pstGen);
+				action.setDpi(exportDPI);
 			}
 		}).bind();
 
@@ -195,14 +216,59 @@ public class Exporter extends JfxInstrument implements Initializable {
 
 	@Override
 	public void onActionExecuted(final Action action) {
-		statusBar.getLabel().setText(LangTool.INSTANCE.getBundle().getString("LaTeXDrawFrame.184")); //$NON-NLS-1$
-
 		if(action instanceof Export) {
 			final File outputFile = ((Export) action).getOutputFile();
 			if(outputFile != null) {
 				pathExport = outputFile.getParentFile().getPath();
 			}
+
+			final Optional<Task<Boolean>> job = ((Export) action).getJob();
+			if(job.isPresent()) {
+				monitorJob(job.get());
+				return;
+			}
 		}
+
+		statusBar.getLabel().setText(LangTool.INSTANCE.getBundle().getString("LaTeXDrawFrame.184")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Shows the progress of an export running in background in the status bar.
+	 * The exports are executed one after the other, so the status bar shows one export at a time.
+	 */
+	private void monitorJob(final Task<Boolean> job) {
+		final ProgressBar progressBar = statusBar.getProgressBar();
+		final Label label = statusBar.getLabel();
+
+		job.setOnRunning(evt -> {
+			runningJob = job;
+			progressBar.setVisible(true);
+			progressBar.progressProperty().bind(job.progressProperty());
+			label.textProperty().bind(job.messageProperty());
+		});
+
+		final EventHandler<WorkerStateEvent> onEnd = evt -> {
+			if(runningJob == job) {
+				runningJob = null;
+				progressBar.progressProperty().unbind();
+				label.textProperty().unbind();
+				progressBar.setVisible(false);
+			}
+			// A queued export may end (cancelled) while another one is shown.
+			if(label.textProperty().isBound()) return;
+
+			if(job.getState() == Worker.State.CANCELLED) {
+				label.setText(LangTool.INSTANCE.getBundle().getString("Exporter.cancelled")); //$NON-NLS-1$
+			}else if(job.getState() == Worker.State.SUCCEEDED && job.getValue()) {
+				label.setText(LangTool.INSTANCE.getBundle().getString("LaTeXDrawFrame.184")); //$NON-NLS-1$
+			}else {
+				label.setText(""); //$NON-NLS-1$
+			}
+		};
+
+		job.setOnSucceeded(onEnd);
+		job.setOnFailed(onEnd);
+		job.setOnCancelled(onEnd);
 	}
 
 	/**
@@ -262,6 +328,24 @@ public class Exporter extends JfxInstrument implements Initializable {
 		}
 	}
 
+	/**
+	 * @return The resolution (dots per inch) of the exported pictures (PNG, JPG, BMP).
+	 * @since 4.0
+	 */
+	public int getExportDPI() {
+		return exportDPI;
+	}
+
+	/**
+	 * @param dpi The resolution (dots per inch) of the exported pictures (PNG, JPG, BMP). Must be strictly positive.
+	 * @since 4.0
+	 */
+	public void setExportDPI(final int dpi) {
+		if(dpi > 0) {
+			exportDPI = dpi;
+		}
+	}
+
 	@Override
 	public void initialize(final URL location, final ResourceBundle resources) {
 		setActivated(false);
@@ -269,10 +353,14 @@ public class Exporter extends JfxInstrument implements Initializable {
 
 		menuItemPDF.setUserData(ExportFormat.PDF);
 		menuItemPDFcrop.setUserData(ExportFormat.PDF_CROP);
+		menuItemPDFDraft.setUserData(ExportFormat.PDF_DRAFT);
 		menuItemEPSLatex.setUserData(ExportFormat.EPS_LATEX);
 		menuItemJPG.setUserData(ExportFormat.JPG);
 		menuItemPST.setUserData(ExportFormat.TEX);
 		menuItemPNG.setUserData(ExportFormat.PNG);
 		menuItemBMP.setUserData(ExportFormat.BMP);
+
+		menuItemCancel.disableProperty().bind(Bindings.isEmpty(ExportQueue.INSTANCE.getJobs()));
+		menuItemCancel.setOnAction(evt -> ExportQueue.INSTANCE.cancelAll());
 	}
 }
@@ -15,17 +15,18 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import javafx.application.Platform;
-import javafx.collections.ListChangeListener;
 import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.scene.Cursor;
 import javafx.scene.Node;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
 import javafx.scene.transform.NonInvertibleTransformException;
 import javafx.scene.transform.Transform;
+import javafx.scene.transform.Translate;
 import net.sf.latexdraw.actions.shape.InitTextSetter;
 import net.sf.latexdraw.actions.shape.SelectShapes;
 import net.sf.latexdraw.actions.shape.TranslateShapes;
@@ -54,6 +55,8 @@ import org.malai.javafx.interaction.library.Press;
 public class Hand extends CanvasInstrument {
 	@Inject private MetaShapeCustomiser metaCustomiser;
 	@Inject private TextSetter textSetter;
+	/** Defines whether the cursor is currently over a shape view. */
+	private boolean cursorOnView;
 
 	public Hand() {
 		super();
@@ -61,21 +64,13 @@ public class Hand extends CanvasInstrument {
 
 	@Override
 	protected void configureBindings() throws InstantiationException, IllegalAccessException {
-		canvas.getViews().getChildren().addListener((ListChangeListener<Node>) evt -> {
-			while(evt.next()) {
-				if(evt.wasAdded()) {
-					evt.getAddedSubList().forEach(v -> {
-						v.setOnMouseEntered(mouseEvt -> {
-							if(isActivated()) {
-								canvas.setCursor(Cursor.HAND);
-							}
-						});
-						v.setOnMouseExited(mouseEvt -> {
-							if(isActivated()) {
-								canvas.setCursor(Cursor.DEFAULT);
-							}
-						});
-					});
+		// The shape under the cursor is looked for using the spatial index of the canvas.
+		canvas.addEventHandler(MouseEvent.MOUSE_MOVED, evt -> {
+			if(isActivated()) {
+				final boolean onView = canvas.getViewAt(evt.getX() - Canvas.ORIGIN.getX(), evt.getY() - Canvas.ORIGIN.getY()).isPresent();
+				if(onView != cursorOnView) {
+					cursorOnView = onView;
+					canvas.setCursor(onView ? Cursor.HAND : Cursor.DEFAULT);
 				}
 			}
 		});
@@ -153,21 +148,28 @@ public class Hand extends CanvasInstrument {
 	 * A DnD on a shape view allows to translate the underlying shape.
 	 */
 	private void bindDnDTranslate() throws InstantiationException, IllegalAccessException {
-		nodeBinder(TranslateShapes.class, new DnD(true, true)).
+		// The shapes are translated once the DnD ends: the views are only moved during the DnD (the source point is not updated
+		// so that the translation is computed from the pressed point).
+		// The action gets a new group containing the selected shapes (the shapes are not copied): created once per DnD, this
+		// group keeps the translated shapes for undo/redo whatever the selection becomes.
+		nodeBinder(TranslateShapes.class, new DnD(false, true)).
 			on(canvas.getViews().getChildren()).on(canvas.getSelectionBorder()).
 			map(i -> new TranslateShapes(canvas.getDrawing(), canvas.getDrawing().getSelection().duplicateDeep(false))).
 			then((a, i) -> {
 				final IPoint startPt = grid.getTransformedPointToGrid(i.getSrcScenePoint());
 				final IPoint endPt = grid.getTransformedPointToGrid(i.getEndScenePt());
 				a.setT(endPt.getX() - startPt.getX(), endPt.getY() - startPt.getY());
+				canvas.setSelectionPreview(new Translate(endPt.getX() - startPt.getX(), endPt.getY() - startPt.getY()));
 			}).
 			when(i -> i.getButton() == MouseButton.PRIMARY && !canvas.getDrawing().getSelection().isEmpty()).
-			exec().
 			first((a, i) -> {
 				i.getSrcObject().ifPresent(node -> Platform.runLater(() -> node.requestFocus()));
 				canvas.setCursor(Cursor.MOVE);
 			}).
-			cancel((a, i) -> canvas.update()).
+			cancel((a, i) -> {
+				canvas.clearSelectionPreview();
+				canvas.update();
+			}).
 			strictStart().
 			bind();
 	}
@@ -180,6 +182,10 @@ public class Hand extends CanvasInstrument {
 			canvas.getSelectionBorder().setDisable(!activated);
 			if(activated) {
 				canvas.update();
+			}else if(cursorOnView) {
+				// The hand cursor must not stick once the instrument is deactivated.
+				cursorOnView = false;
+				canvas.setCursor(Cursor.DEFAULT);
 			}
 		}
 	}
@@ -188,12 +194,14 @@ public class Hand extends CanvasInstrument {
 	public void interimFeedback() {
 		// The rectangle used for the interim feedback of the selection is removed.
 		canvas.setOngoingSelectionBorder(null);
+		canvas.clearSelectionPreview();
 		canvas.setCursor(Cursor.DEFAULT);
 	}
 
 	@Override
 	public void onActionDone(final Action action) {
 		if(action instanceof TranslateShapes) {
+			canvas.clearSelectionPreview();
 			metaCustomiser.dimPosCustomiser.update();
 		}
 	}
@@ -270,7 +278,8 @@ public class Hand extends CanvasInstrument {
 					selectedShapes.forEach(sh -> action.addShape(sh));
 				}
 				if(!selectionBorder.isEmpty()) {
-					instrument.canvas.getViews().getChildren().stream().filter(view -> {
+					// Only the views whose bounds intersect the selection rectangle are checked using their real geometry.
+					instrument.canvas.getViewsInBounds(selectionBorder).stream().filter(view -> {
 						Bounds bounds;
 						final Transform transform = view.getLocalToParentTransform();
 						if(transform.isIdentity()) {
@@ -284,8 +293,8 @@ public class Hand extends CanvasInstrument {
 							}
 						}
 						return view.intersects(bounds) &&
-							((ViewShape<?>) view).getActivatedShapes().stream().anyMatch(sh -> !Shape.intersect(sh, selectionRec).getLayoutBounds().isEmpty());
-					}).forEach(view -> action.addShape((IShape) view.getUserData()));
+							view.getActivatedShapes().stream().anyMatch(sh -> !Shape.intersect(sh, selectionRec).getLayoutBounds().isEmpty());
+					}).forEach(view -> action.addShape(view.getModel()));
 				}
 			}
 		}
@@ -62,6 +62,13 @@ public class Pencil extends CanvasInstrument {
 	/** This shape gathers all the current shape parameters. Used as a model when creating shapes. Use its getter instead as it is lazy instantiated. */
 	private IGroup groupParams;
 
+	/** The default minimal distance (in pixels) between two consecutive points of a free hand shape being drawn. */
+	public static final double DEFAULT_FREE_HAND_TOLERANCE = 1d;
+
+	/** The minimal distance (in pixels) between two consecutive points of a free hand shape being drawn.
+	 * The points closer to the previous point are dropped. 0: no point dropped. Set in the preferences. */
+	private double freeHandTolerance;
+
 
 	/**
 	 * Creates the pencil. Automatically invoked by the dependency injector. Do not call.
@@ -69,6 +76,25 @@ public class Pencil extends CanvasInstrument {
 	public Pencil() {
 		super();
 		currentChoice = new SimpleObjectProperty<>(EditionChoice.RECT);
+		freeHandTolerance = DEFAULT_FREE_HAND_TOLERANCE;
+	}
+
+	/**
+	 * @return The minimal distance (in pixels) between two consecutive points of the free hand shapes being drawn.
+	 */
+	public double getFreeHandTolerance() {
+		return freeHandTolerance;
+	}
+
+	/**
+	 * Sets the minimal distance between two consecutive points of the free hand shapes being drawn:
+	 * while drawing, the points closer to the previous point are dropped, which reduces the size of long strokes.
+	 * @param tolerance The distance in pixels. 0: all the points are kept. Must be positive and valid.
+	 */
+	public void setFreeHandTolerance(final double tolerance) {
+		if(tolerance >= 0d && MathUtils.INST.isValidCoord(tolerance)) {
+			freeHandTolerance = tolerance;
+		}
 	}
 
 	/**
@@ -154,15 +180,19 @@ public class Pencil extends CanvasInstrument {
 				sh.getPoints().get(0).setPoint(pt.getX(), pt.getY());
 				return new AddShape(sh, canvas.getDrawing());
 			}).
-			first((a, i) -> Platform.runLater(() -> canvas.requestFocus())).
+			first((a, i) -> {
+				Platform.runLater(() -> canvas.requestFocus());
+				canvas.setTempView(ViewFactory.INSTANCE.createView(a.getShape().orElse(null)).orElse(null));
+			}).
 			then((a, i) -> {
-				final IPoint last = a.getShape().get().getPtAt(-1);
+				// The points are added to the shape being drawn: its view is updated incrementally.
+				final IFreehand fh = (IFreehand) a.getShape().get();
+				final IPoint last = fh.getPtAt(-1);
 				final IPoint endPt = getAdaptedPoint(i.getEndLocalPt());
 				if(!MathUtils.INST.equalsDouble(last.getX(), endPt.getX(), 0.0001) &&
-					!MathUtils.INST.equalsDouble(last.getY(), endPt.getY(), 0.0001)) {
-					a.setShape(ShapeFactory.INST.createFreeHandFrom((IFreehand) a.getShape().get(), endPt));
+					!MathUtils.INST.equalsDouble(last.getY(), endPt.getY(), 0.0001) && last.distance(endPt) >= freeHandTolerance) {
+					fh.addPoint(endPt);
 				}
-				canvas.setTempView(ViewFactory.INSTANCE.createView(a.getShape().orElse(null)).orElse(null));
 			}).
 			endOrCancel((a, i) -> canvas.setTempView(null)).
 			when(i -> i.getButton() == MouseButton.PRIMARY && currentChoice.get() == EditionChoice.FREE_HAND).
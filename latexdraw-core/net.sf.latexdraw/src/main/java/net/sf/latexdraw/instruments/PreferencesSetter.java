@@ -54,6 +54,8 @@ import net.sf.latexdraw.util.Unit;
 import net.sf.latexdraw.util.VersionChecker;
 import net.sf.latexdraw.view.GridStyle;
 import net.sf.latexdraw.view.MagneticGrid;
+import net.sf.latexdraw.view.jfx.Canvas;
+import net.sf.latexdraw.view.jfx.LevelOfDetail;
 import org.malai.javafx.instrument.JfxInstrument;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
@@ -76,6 +78,8 @@ public class PreferencesSetter extends JfxInstrument implements Initializable {
 	/** This textField allows to set the default directories for open/save actions. */
 	@FXML private TextField pathOpenField;
 	@FXML private CheckBox openGL;
+	/** Sets whether only the shapes close to the visible area of the canvas have a view (large drawings). */
+	@FXML private CheckBox virtualisedCB;
 	/** This textField allows to set the default directories for exporting actions. */
 	@FXML private TextField pathExportField;
 	/** The text field used to defines the latex packages to use. */
@@ -88,6 +92,12 @@ public class PreferencesSetter extends JfxInstrument implements Initializable {
 	@FXML private Spinner<Integer> persoGridGapField;
 	/** The widget used to defines the number of recent file to keep in memory. */
 	@FXML private Spinner<Integer> nbRecentFilesField;
+	/** The resolution (dots per inch) of the exported pictures. */
+	@FXML private Spinner<Integer> exportDPIField;
+	/** The minimal distance (in pixels) between two consecutive points of the free hand shapes being drawn. */
+	@FXML private Spinner<Integer> freeHandToleranceField;
+	/** The maximal error (in screen pixels) of the simplified views when the drawing is zoomed out. */
+	@FXML private Spinner<Double> lodQualityField;
 	/** Contains the different possible kind of grids. */
 	@FXML private ComboBox<GridStyle> styleList;
 	@FXML private Button buttonOpen;
@@ -95,6 +105,8 @@ public class PreferencesSetter extends JfxInstrument implements Initializable {
 	@Inject private Exporter exporter;
 	@Inject private FileLoaderSaver saver;
 	@Inject private MagneticGrid grid;
+	@Inject private Canvas canvas;
+	@Inject private Pencil pencil;
 	/** The file chooser of paths selection. */
 	private DirectoryChooser fileChooser;
 
@@ -213,6 +225,10 @@ public class PreferencesSetter extends JfxInstrument implements Initializable {
 		Optional.ofNullable(prefMap.get(LNamespace.XML_LANG)).ifPresent(node -> langList.getSelectionModel().select(node.getTextContent()));
 		Optional.ofNullable(prefMap.get(LNamespace.XML_MAGNETIC_GRID)).ifPresent(node -> magneticCB.setSelected(Boolean.parseBoolean(node.getTextContent())));
 		Optional.ofNullable(prefMap.get(LNamespace.XML_PATH_EXPORT)).ifPresent(node -> pathExportField.setText(node.getTextContent()));
+		Optional.ofNullable(prefMap.get(LNamespace.XML_EXPORT_DPI)).ifPresent(node -> exportDPIField.getValueFactory().setValue(Integer.valueOf(node.getTextContent())));
+		Optional.ofNullable(prefMap.get(LNamespace.XML_VIRTUALISED)).ifPresent(node -> virtualisedCB.setSelected(Boolean.parseBoolean(node.getTextContent())));
+		Optional.ofNullable(prefMap.get(LNamespace.XML_FREE_HAND_TOLERANCE)).ifPresent(node -> freeHandToleranceField.getValueFactory().setValue(Integer.valueOf(node.getTextContent())));
+		Optional.ofNullable(prefMap.get(LNamespace.XML_LOD_QUALITY)).ifPresent(node -> lodQualityField.getValueFactory().setValue(Double.valueOf(node.getTextContent())));
 		Optional.ofNullable(prefMap.get(LNamespace.XML_PATH_OPEN)).ifPresent(node -> pathOpenField.setText(node.getTextContent()));
 		Optional.ofNullable(prefMap.get(LNamespace.XML_UNIT)).ifPresent(node -> unitChoice.getSelectionModel().select(node.getTextContent()));
 		Optional.ofNullable(prefMap.get(LNamespace.XML_RECENT_FILES)).ifPresent(node -> setRecentFiles(node));
@@ -294,6 +310,11 @@ public class PreferencesSetter extends JfxInstrument implements Initializable {
 
 		exporter.setDefaultPackages(latexIncludes.getText());
 		exporter.setPathExport(pathExportField.getText());
+		exporter.setExportDPI(exportDPIField.getValue());
+
+		canvas.setVirtualised(virtualisedCB.isSelected());
+		pencil.setFreeHandTolerance(freeHandToleranceField.getValue());
+		LevelOfDetail.INSTANCE.setQuality(lodQualityField.getValue());
 
 		saver.setPathSave(pathOpenField.getText());
 		saver.updateRecentMenuItems(recentFileNames);
@@ -331,6 +352,22 @@ public class PreferencesSetter extends JfxInstrument implements Initializable {
 				elt.setTextContent(pathExportField.getText());
 				root.appendChild(elt);
 
+				elt = document.createElement(LNamespace.XML_EXPORT_DPI);
+				elt.setTextContent(exportDPIField.getValue().toString());
+				root.appendChild(elt);
+
+				elt = document.createElement(LNamespace.XML_VIRTUALISED);
+				elt.setTextContent(String.valueOf(virtualisedCB.isSelected()));
+				root.appendChild(elt);
+
+				elt = document.createElement(LNamespace.XML_FREE_HAND_TOLERANCE);
+				elt.setTextContent(freeHandToleranceField.getValue().toString());
+				root.appendChild(elt);
+
+				elt = document.createElement(LNamespace.XML_LOD_QUALITY);
+				elt.setTextContent(lodQualityField.getValue().toString());
+				root.appendChild(elt);
+
 				elt = document.createElement(LNamespace.XML_PATH_OPEN);
 				elt.setTextContent(pathOpenField.getText());
 				root.appendChild(elt);
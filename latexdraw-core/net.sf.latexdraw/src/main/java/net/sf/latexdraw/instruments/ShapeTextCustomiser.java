@@ -12,6 +12,8 @@ package net.sf.latexdraw.instruments;
 
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import javafx.application.Platform;
@@ -108,8 +110,15 @@ public class ShapeTextCustomiser extends ShapePropertyCustomiser implements Init
 					if(currentCompil != null) {
 						try {
 							currentCompil.get();
-						}catch(InterruptedException | ExecutionException ex) {
+						}catch(final InterruptedException ex) {
 							BadaboomCollector.INSTANCE.add(ex);
+						}catch(final ExecutionException ex) {
+							// The compilation may fail because of the cancellation of the text compilation.
+							if(!(ex.getCause() instanceof CancellationException) && !(ex.getCause() instanceof CompletionException)) {
+								BadaboomCollector.INSTANCE.add(ex.getCause());
+							}
+						}catch(final CancellationException ex) {
+							// The compilation has been replaced by a new one.
 						}
 					}
 
@@ -40,8 +40,12 @@ abstract class LAbstractCtrlPointShape extends LModifiablePointsShape implements
 
 	LAbstractCtrlPointShape(final List<IPoint> pts, final List<IPoint> ctrlPts) {
 		super(pts);
-		firstCtrlPts = Collections.unmodifiableList(ctrlPts.stream().map(pt -> ShapeFactory.INST.createPoint(pt)).collect(Collectors.toList()));
-		secondCtrlPts = Collections.unmodifiableList(pts.stream().map(pt -> ShapeFactory.INST.createPoint()).collect(Collectors.toList()));
+		final LPackedPoints first = new LPackedPoints(null);
+		final LPackedPoints second = new LPackedPoints(null);
+		first.addAll(ctrlPts);
+		second.addAll(Collections.nCopies(pts.size(), ShapeFactory.INST.createPoint()));
+		firstCtrlPts = Collections.unmodifiableList(first);
+		secondCtrlPts = Collections.unmodifiableList(second);
 		updateSecondControlPoints();
 	}
 
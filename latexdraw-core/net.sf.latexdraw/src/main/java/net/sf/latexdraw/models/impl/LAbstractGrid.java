@@ -55,6 +55,13 @@ abstract class LAbstractGrid extends LPositionShape implements IStandardGrid {
 		gridEndx = new SimpleDoubleProperty(2d);
 		gridEndy = new SimpleDoubleProperty(2d);
 		labelSize = new SimpleIntegerProperty(10);
+		gridStartx.addListener(boundsInvalidator);
+		gridStarty.addListener(boundsInvalidator);
+		gridEndx.addListener(boundsInvalidator);
+		gridEndy.addListener(boundsInvalidator);
+		originx.addListener(stampUpdater);
+		originy.addListener(stampUpdater);
+		labelSize.addListener(stampUpdater);
 	}
 
 
@@ -83,16 +90,9 @@ abstract class LAbstractGrid extends LPositionShape implements IStandardGrid {
 
 
 	@Override
-	public IPoint getBottomRightPoint() {
+	protected void updateBounds() {
 		final IPoint pos = getPosition();
-		return ShapeFactory.INST.createPoint(pos.getX() + getGridMaxX() * PPC, pos.getY() - getGridMinY() * PPC);
-	}
-
-
-	@Override
-	public IPoint getTopLeftPoint() {
-		final IPoint pos = getPosition();
-		return ShapeFactory.INST.createPoint(pos.getX() + getGridMinX() * PPC, pos.getY() - getGridMaxY() * PPC);
+		setBounds(pos.getX() + getGridMinX() * PPC, pos.getY() - getGridMaxY() * PPC, pos.getX() + getGridMaxX() * PPC, pos.getY() - getGridMinY() * PPC);
 	}
 
 
@@ -326,6 +326,9 @@ class LArrow implements IArrow {
 	}
 
 	private void notifyOnChanged() {
+		if(owner instanceof LShape) {
+			((LShape) owner).updateModificationStamp();
+		}
 		if(onChanged != null) {
 			onChanged.run();
 		}
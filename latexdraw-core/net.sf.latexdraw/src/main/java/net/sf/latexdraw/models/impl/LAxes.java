@@ -80,6 +80,16 @@ class LAxes extends LAbstractGrid implements IAxes, LArrowableShape {
 		ticksStyle = new SimpleObjectProperty<>(TicksStyle.FULL);
 		ticksSize = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_TICKS_SIZE * IShape.PPC);
 		axesStyle = new SimpleObjectProperty<>(AxesStyle.AXES);
+		incrementX.addListener(stampUpdater);
+		incrementY.addListener(stampUpdater);
+		distLabelsX.addListener(stampUpdater);
+		distLabelsY.addListener(stampUpdater);
+		labelsDisplayed.addListener(stampUpdater);
+		showOrigin.addListener(stampUpdater);
+		ticksDisplayed.addListener(stampUpdater);
+		ticksStyle.addListener(stampUpdater);
+		ticksSize.addListener(stampUpdater);
+		axesStyle.addListener(stampUpdater);
 	}
 
 
@@ -45,6 +45,7 @@ class LBezierCurve extends LAbstractCtrlPointShape implements IBezierCurve, LArr
 		arrows.add(ShapeFactory.INST.createArrow(this));
 		arrows.add(ShapeFactory.INST.createArrow(this));
 		open = new SimpleBooleanProperty(true);
+		open.addListener(stampUpdater);
 	}
 
 	@Override
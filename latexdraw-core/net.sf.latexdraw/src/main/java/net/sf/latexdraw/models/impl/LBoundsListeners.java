@@ -0,0 +1,61 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The bounds listeners of a shape. The listeners are weakly referenced so that temporary groups
+ * (e.g. the ones created by duplicateDeep(false)) do not leak through the shapes they contain.
+ * @author Arnaud Blouin
+ */
+final class LBoundsListeners {
+	private final List<WeakReference<Runnable>> listeners;
+
+	LBoundsListeners() {
+		super();
+		listeners = new ArrayList<>(1);
+	}
+
+	void add(final Runnable listener) {
+		if(listener != null) {
+			listeners.add(new WeakReference<>(listener));
+		}
+	}
+
+	void remove(final Runnable listener) {
+		final Iterator<WeakReference<Runnable>> it = listeners.iterator();
+		while(it.hasNext()) {
+			final Runnable value = it.next().get();
+			if(value == null || value == listener) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Runs the listeners and forgets the collected ones.
+	 */
+	void fire() {
+		final Iterator<WeakReference<Runnable>> it = listeners.iterator();
+		while(it.hasNext()) {
+			final Runnable value = it.next().get();
+			if(value == null) {
+				it.remove();
+			}else {
+				value.run();
+			}
+		}
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+/**
+ * A shape that caches its bounds and notifies when its cached bounds are invalidated.
+ * Groups use it to invalidate their own cached bounds when the bounds of one of their shapes change.
+ * @author Arnaud Blouin
+ */
+interface LBoundsObservable {
+	/**
+	 * Adds a listener notified each time the cached bounds of the shape are invalidated.
+	 * The listener is weakly referenced: the caller must keep a reference to it.
+	 * @param listener The listener to add. Nothing done if null.
+	 */
+	void addBoundsListener(final Runnable listener);
+
+	/**
+	 * Removes a bounds listener.
+	 * @param listener The listener to remove.
+	 */
+	void removeBoundsListener(final Runnable listener);
+}
@@ -46,6 +46,9 @@ class LCircleArc extends LSquaredShape implements ICircleArc, LArrowableShape {
 		style = new SimpleObjectProperty<>(ArcStyle.ARC);
 		startAngle = new SimpleDoubleProperty(0d);
 		endAngle = new SimpleDoubleProperty(3d * Math.PI / 2d);
+		style.addListener(stampUpdater);
+		startAngle.addListener(stampUpdater);
+		endAngle.addListener(stampUpdater);
 	}
 
 	@Override
@@ -44,6 +44,8 @@ class LDot extends LPositionShape implements IDot {
 		super(pt);
 		style = new SimpleObjectProperty<>(DotStyle.DOT);
 		diametre = new SimpleDoubleProperty(40d);
+		style.addListener(boundsInvalidator);
+		diametre.addListener(boundsInvalidator);
 	}
 
 	@Override
@@ -139,33 +141,11 @@ class LDot extends LPositionShape implements IDot {
 	}
 
 	@Override
-	public IPoint getBottomLeftPoint() {
+	protected void updateBounds() {
 		final IPoint tl = ShapeFactory.INST.createPoint();
 		final IPoint br = ShapeFactory.INST.createPoint();
 		getTopLeftBottomRightPoints(tl, br);
-		return ShapeFactory.INST.createPoint(tl.getX(), br.getY());
-	}
-
-	@Override
-	public IPoint getBottomRightPoint() {
-		final IPoint br = ShapeFactory.INST.createPoint();
-		getTopLeftBottomRightPoints(ShapeFactory.INST.createPoint(), br);
-		return br;
-	}
-
-	@Override
-	public IPoint getTopLeftPoint() {
-		final IPoint tl = ShapeFactory.INST.createPoint();
-		getTopLeftBottomRightPoints(tl, ShapeFactory.INST.createPoint());
-		return tl;
-	}
-
-	@Override
-	public IPoint getTopRightPoint() {
-		final IPoint tl = ShapeFactory.INST.createPoint();
-		final IPoint br = ShapeFactory.INST.createPoint();
-		getTopLeftBottomRightPoints(tl, br);
-		return ShapeFactory.INST.createPoint(br.getX(), tl.getY());
+		setBounds(tl.getX(), tl.getY(), br.getX(), br.getY());
 	}
 
 	/**
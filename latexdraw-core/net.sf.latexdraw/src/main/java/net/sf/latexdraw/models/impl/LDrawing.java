@@ -10,9 +10,11 @@
  */
 package net.sf.latexdraw.models.impl;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import java.util.Set;
+import java.util.stream.Collectors;
 import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.shape.IDrawing;
 import net.sf.latexdraw.models.interfaces.shape.IGroup;
@@ -24,7 +26,7 @@ import net.sf.latexdraw.models.interfaces.shape.IShape;
  */
 class LDrawing implements IDrawing, LSetShapes {
 	/** The set of shapes. */
-	private final ObservableList<IShape> shapes;
+	private final LShapesList shapes;
 
 	/** The selected shapes of the drawing. */
 	private final IGroup selection;
@@ -35,7 +37,7 @@ class LDrawing implements IDrawing, LSetShapes {
 
 	LDrawing() {
 		super();
-		shapes = FXCollections.observableArrayList();
+		shapes = new LShapesList();
 		selection = ShapeFactory.INST.createGroup();
 		modified = false;
 	}
@@ -48,8 +50,7 @@ class LDrawing implements IDrawing, LSetShapes {
 
 	@Override
 	public void setSelection(final List<IShape> newSelection) {
-		selection.clear();
-		newSelection.forEach(sh -> selection.addShape(sh));
+		selection.setShapes(newSelection);
 	}
 
 	@Override
@@ -59,7 +60,7 @@ class LDrawing implements IDrawing, LSetShapes {
 	}
 
 	@Override
-	public ObservableList<IShape> getShapes() {
+	public LShapesList getShapes() {
 		return shapes;
 	}
 
@@ -69,6 +70,28 @@ class LDrawing implements IDrawing, LSetShapes {
 		return LSetShapes.super.removeShape(sh);
 	}
 
+	@Override
+	public int[] removeShapes(final List<IShape> shs) {
+		selection.removeShapes(shs);
+		return LSetShapes.super.removeShapes(shs);
+	}
+
+	@Override
+	public List<IShape> removeShapes(final int from, final int to) {
+		final List<IShape> removed = LSetShapes.super.removeShapes(from, to);
+		selection.removeShapes(removed);
+		return removed;
+	}
+
+	@Override
+	public void setShapes(final List<IShape> shs) {
+		// The selected shapes that are no longer in the drawing are unselected.
+		final Set<IShape> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+		kept.addAll(shs);
+		selection.removeShapes(selection.getShapes().stream().filter(sh -> !kept.contains(sh)).collect(Collectors.toList()));
+		LSetShapes.super.setShapes(shs);
+	}
+
 	@Override
 	public IShape removeShape(final int i) {
 		// Must be removed from the selection before removing from the main list (otherwise mapping selection2border will fail.
@@ -11,13 +11,15 @@
 package net.sf.latexdraw.models.impl;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import net.sf.latexdraw.models.MathUtils;
 import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.prop.IFreeHandProp;
 import net.sf.latexdraw.models.interfaces.shape.FreeHandStyle;
@@ -36,6 +38,8 @@ class LFreehand extends LShape implements IFreehand {
 	private final IntegerProperty interval;
 	/** Defines if the drawing is opened of closed. */
 	private final BooleanProperty open;
+	/** The number of points. Created on demand by nbPointsProperty(). */
+	private ReadOnlyIntegerWrapper nbPoints;
 
 
 	/**
@@ -44,17 +48,43 @@ class LFreehand extends LShape implements IFreehand {
 	 * @since 3.0
 	 */
 	LFreehand(final List<IPoint> pts) {
-		super();
+		super(true);
 		type = new SimpleObjectProperty<>(FreeHandStyle.CURVES);
 		interval = new SimpleIntegerProperty(2);
 		open = new SimpleBooleanProperty(true);
+		type.addListener(stampUpdater);
+		interval.addListener(stampUpdater);
+		open.addListener(stampUpdater);
 		points.addAll(pts);
 	}
 
+	@Override
+	public void addPoint(final IPoint pt) {
+		if(MathUtils.INST.isValidPt(pt)) {
+			points.add(pt);
+		}
+	}
+
+	@Override
+	protected void invalidateBounds() {
+		super.invalidateBounds();
+		// Called on each modification of the list of points (whatever the way the points are added or removed).
+		if(nbPoints != null) {
+			nbPoints.set(points.size());
+		}
+	}
+
+	@Override
+	public ReadOnlyIntegerProperty nbPointsProperty() {
+		if(nbPoints == null) {
+			nbPoints = new ReadOnlyIntegerWrapper(points.size());
+		}
+		return nbPoints.getReadOnlyProperty();
+	}
+
 	@Override
 	public IFreehand duplicate() {
-		final IFreehand dup = ShapeFactory.INST.createFreeHand(points.stream().
-			map(pt -> ShapeFactory.INST.createPoint(pt.getX(), pt.getY())).collect(Collectors.toList()));
+		final IFreehand dup = ShapeFactory.INST.createFreeHand(points);
 		dup.copy(this);
 		return dup;
 	}
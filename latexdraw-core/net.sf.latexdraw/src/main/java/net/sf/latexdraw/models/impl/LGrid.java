@@ -82,6 +82,16 @@ class LGrid extends LAbstractGrid implements IGrid {
 		subGridDots = new SimpleIntegerProperty(PSTricksConstants.DEFAULT_SUBGRIDDOTS);
 		subGridWidth = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_SUB_GRID_WIDTH * PPC);
 		unit = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_UNIT);
+		unit.addListener(boundsInvalidator);
+		xLabelSouth.addListener(stampUpdater);
+		yLabelWest.addListener(stampUpdater);
+		gridDots.addListener(stampUpdater);
+		gridLabelsColour.addListener(stampUpdater);
+		gridWidth.addListener(stampUpdater);
+		subGridColour.addListener(stampUpdater);
+		subGridDiv.addListener(stampUpdater);
+		subGridDots.addListener(stampUpdater);
+		subGridWidth.addListener(stampUpdater);
 	}
 
 
@@ -138,16 +148,10 @@ class LGrid extends LAbstractGrid implements IGrid {
 	}
 
 	@Override
-	public IPoint getBottomRightPoint() {
+	protected void updateBounds() {
 		final IPoint pos = getPosition();
-		return ShapeFactory.INST.createPoint(pos.getX() + getGridMaxX() * PPC * getUnit(), pos.getY() - getGridMinY() * PPC);
-	}
-
-
-	@Override
-	public IPoint getTopLeftPoint() {
-		final IPoint pos = getPosition();
-		return ShapeFactory.INST.createPoint(pos.getX() + getGridMinX() * PPC, pos.getY() - getGridMaxY() * PPC * getUnit());
+		setBounds(pos.getX() + getGridMinX() * PPC, pos.getY() - getGridMaxY() * PPC * getUnit(),
+			pos.getX() + getGridMaxX() * PPC * getUnit(), pos.getY() - getGridMinY() * PPC);
 	}
 
 	@Override
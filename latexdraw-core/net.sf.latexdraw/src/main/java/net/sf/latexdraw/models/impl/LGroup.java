@@ -10,12 +10,12 @@
  */
 package net.sf.latexdraw.models.impl;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.collections.ListChangeListener;
 import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.prop.IArcProp;
 import net.sf.latexdraw.models.interfaces.prop.IAxesProp;
@@ -51,13 +51,113 @@ import net.sf.latexdraw.view.latex.DviPsColors;
  * @author Arnaud Blouin
  */
 class LGroup implements LGroupArc, LGroupArrowable, LGroupAxes, LGroupDot, LGroupFreeHand, LGroupLineArc, LGroupGrid,
-	LGroupShape, LGroupStdGrid, LGroupText, LSetShapes, LGroupPlot, LGroupClosable {
+	LGroupShape, LGroupStdGrid, LGroupText, LSetShapes, LGroupPlot, LGroupClosable, LBoundsObservable {
 	/** The set of shapes. */
-	private final ObservableList<IShape> shapes;
+	private final LShapesList shapes;
+
+	/** The cached bounds of the group: min X, min Y, max X, max Y. Relevant only if boundsValid is true. */
+	private final double[] bounds;
+
+	/** Defines whether the cached bounds are up to date. */
+	private boolean boundsValid;
+
+	/** The listeners notified when the cached bounds are invalidated (e.g. the groups that contain this group). Created on demand. */
+	private LBoundsListeners boundsListeners;
+
+	/** Registered on the shapes of the group to invalidate the cached bounds of the group. */
+	private final Runnable shapeBoundsListener;
+
+	/** The modification stamp of the list of shapes: changed when shapes are added or removed. */
+	private long modificationStamp;
 
 	LGroup() {
 		super();
-		shapes = FXCollections.observableArrayList();
+		shapes = new LShapesList();
+		bounds = new double[4];
+		boundsValid = false;
+		shapeBoundsListener = this::invalidateBounds;
+		modificationStamp = LShape.nextModificationStamp();
+		shapes.addListener((ListChangeListener.Change<? extends IShape> evt) -> {
+			while(evt.next()) {
+				evt.getRemoved().stream().filter(sh -> sh instanceof LBoundsObservable).
+					forEach(sh -> ((LBoundsObservable) sh).removeBoundsListener(shapeBoundsListener));
+				evt.getAddedSubList().stream().filter(sh -> sh instanceof LBoundsObservable).
+					forEach(sh -> ((LBoundsObservable) sh).addBoundsListener(shapeBoundsListener));
+			}
+			modificationStamp = LShape.nextModificationStamp();
+			invalidateBounds();
+		});
+	}
+
+	private void invalidateBounds() {
+		if(boundsValid) {
+			boundsValid = false;
+			if(boundsListeners != null) {
+				boundsListeners.fire();
+			}
+		}
+	}
+
+	private void validateBounds() {
+		if(boundsValid) return;
+
+		if(shapes.isEmpty()) {
+			Arrays.fill(bounds, Double.NaN);
+		}else {
+			bounds[0] = Double.MAX_VALUE;
+			bounds[1] = Double.MAX_VALUE;
+			bounds[2] = -Double.MAX_VALUE;
+			bounds[3] = -Double.MAX_VALUE;
+			for(final IShape sh : shapes) {
+				bounds[0] = Math.min(bounds[0], sh.getMinX());
+				bounds[1] = Math.min(bounds[1], sh.getMinY());
+				bounds[2] = Math.max(bounds[2], sh.getMaxX());
+				bounds[3] = Math.max(bounds[3], sh.getMaxY());
+			}
+		}
+
+		boundsValid = true;
+	}
+
+	@Override
+	public void addBoundsListener(final Runnable listener) {
+		if(listener != null) {
+			if(boundsListeners == null) {
+				boundsListeners = new LBoundsListeners();
+			}
+			boundsListeners.add(listener);
+		}
+	}
+
+	@Override
+	public void removeBoundsListener(final Runnable listener) {
+		if(boundsListeners != null) {
+			boundsListeners.remove(listener);
+		}
+	}
+
+	@Override
+	public double getMinX() {
+		validateBounds();
+		return bounds[0];
+	}
+
+	@Override
+	public double getMinY() {
+		validateBounds();
+		return bounds[1];
+	}
+
+	@Override
+	public double getMaxX() {
+		validateBounds();
+		return bounds[2];
+	}
+
+	@Override
+	public double getMaxY() {
+		validateBounds();
+		return bounds[3];
 	}
 
 	@Override
@@ -75,6 +175,18 @@ class LGroup implements LGroupArc, LGroupArrowable, LGroupAxes, LGroupDot, LGrou
 		return getShapes().parallelStream().anyMatch(sh -> sh.isModified());
 	}
 
+	/**
+	 * The stamps being increasing, the stamp of a group is the greatest one of its list of shapes and of its shapes.
+	 */
+	@Override
+	public long getModificationStamp() {
+		long stamp = modificationStamp;
+		for(final IShape sh : shapes) {
+			stamp = Math.max(stamp, sh.getModificationStamp());
+		}
+		return stamp;
+	}
+
 	@Override
 	public IGroup duplicateDeep(final boolean duplicateShapes) {
 		final IGroup dup = ShapeFactory.INST.createGroup();
@@ -1250,7 +1362,7 @@ class LGroup implements LGroupArc, LGroupArrowable, LGroupAxes, LGroupDot, LGrou
 	}
 
 	@Override
-	public ObservableList<IShape> getShapes() {
+	public LShapesList getShapes() {
 		return shapes;
 	}
 
@@ -457,35 +457,27 @@ interface LGroupShape extends IGroup {
 
 	@Override
 	default IPoint getGravityCentre() {
-		return isEmpty() ? ShapeFactory.INST.createPoint() : getTopLeftPoint().getMiddlePoint(getBottomRightPoint());
+		return isEmpty() ? ShapeFactory.INST.createPoint() : ShapeFactory.INST.createPoint((getMinX() + getMaxX()) / 2d, (getMinY() + getMaxY()) / 2d);
 	}
 
 	@Override
 	default IPoint getBottomRightPoint() {
-		return getShapes().parallelStream().map(sh -> sh.getBottomRightPoint()).
-			reduce((p1, p2) -> ShapeFactory.INST.createPoint(Math.max(p1.getX(), p2.getX()), Math.max(p1.getY(), p2.getY()))).
-			orElse(ShapeFactory.INST.createPoint(Double.NaN, Double.NaN));
+		return ShapeFactory.INST.createPoint(getMaxX(), getMaxY());
 	}
 
 	@Override
 	default IPoint getBottomLeftPoint() {
-		return getShapes().parallelStream().map(sh -> sh.getBottomLeftPoint()).
-			reduce((p1, p2) -> ShapeFactory.INST.createPoint(Math.min(p1.getX(), p2.getX()), Math.max(p1.getY(), p2.getY()))).
-			orElse(ShapeFactory.INST.createPoint(Double.NaN, Double.NaN));
+		return ShapeFactory.INST.createPoint(getMinX(), getMaxY());
 	}
 
 	@Override
 	default IPoint getTopLeftPoint() {
-		return getShapes().parallelStream().map(sh -> sh.getTopLeftPoint()).
-			reduce((p1, p2) -> ShapeFactory.INST.createPoint(Math.min(p1.getX(), p2.getX()), Math.min(p1.getY(), p2.getY()))).
-			orElse(ShapeFactory.INST.createPoint(Double.NaN, Double.NaN));
+		return ShapeFactory.INST.createPoint(getMinX(), getMinY());
 	}
 
 	@Override
 	default IPoint getTopRightPoint() {
-		return getShapes().parallelStream().map(sh -> sh.getTopRightPoint()).
-			reduce((p1, p2) -> ShapeFactory.INST.createPoint(Math.max(p1.getX(), p2.getX()), Math.min(p1.getY(), p2.getY()))).
-			orElse(ShapeFactory.INST.createPoint(Double.NaN, Double.NaN));
+		return ShapeFactory.INST.createPoint(getMaxX(), getMinY());
 	}
 
 	@Override
@@ -263,19 +263,13 @@ class LLine extends Line2D.Double implements ILine {
 
 	@Override
 	public IPoint getTopLeftPoint() {
-		final IPoint pt1 = getPoint1();
-		final IPoint pt2 = getPoint2();
-
-		return ShapeFactory.INST.createPoint(pt1.getX() < pt2.getX() ? pt1.getX() : pt2.getX(), pt1.getY() < pt2.getY() ? pt1.getY() : pt2.getY());
+		return ShapeFactory.INST.createPoint(Math.min(x1, x2), Math.min(y1, y2));
 	}
 
 
 	@Override
 	public IPoint getBottomRightPoint() {
-		final IPoint pt1 = getPoint1();
-		final IPoint pt2 = getPoint2();
-
-		return ShapeFactory.INST.createPoint(pt1.getX() < pt2.getX() ? pt2.getX() : pt1.getX(), pt1.getY() < pt2.getY() ? pt2.getY() : pt1.getY());
+		return ShapeFactory.INST.createPoint(Math.max(x1, x2), Math.max(y1, y2));
 	}
 
 
@@ -11,9 +11,7 @@
 package net.sf.latexdraw.models.impl;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import net.sf.latexdraw.models.MathUtils;
-import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.shape.IModifiablePointsShape;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
 
@@ -23,10 +21,10 @@ import net.sf.latexdraw.models.interfaces.shape.IPoint;
  */
 abstract class LModifiablePointsShape extends LShape implements IModifiablePointsShape {
 	protected LModifiablePointsShape(final List<IPoint> pts) {
-		super();
+		super(true);
 		if(pts == null || pts.stream().anyMatch(pt -> !MathUtils.INST.isValidPt(pt)))
 			throw new IllegalArgumentException();
-		points.addAll(pts.stream().map(pt -> ShapeFactory.INST.createPoint(pt)).collect(Collectors.toList()));
+		points.addAll(pts);
 	}
 
 	@Override
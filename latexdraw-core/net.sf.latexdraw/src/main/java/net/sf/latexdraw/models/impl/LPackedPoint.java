@@ -0,0 +1,99 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+import javafx.beans.property.DoubleProperty;
+import net.sf.latexdraw.models.MathUtils;
+
+/**
+ * A point that is a view on the coordinates stored in a LPackedPoints list.
+ * The view follows its point when points are inserted or removed before it. When its point is removed from the list,
+ * the view becomes a standalone point that keeps the coordinates of the removed point (as a LPoint removed from a list).
+ * @author Arnaud Blouin
+ */
+class LPackedPoint extends LPoint {
+	/** The list that contains the point. Null once the point is removed from the list. */
+	private LPackedPoints store;
+	/** The position of the point in the list, for the given version of the list. */
+	int index;
+	/** The number of structural changes of the list when the index was computed (see LPackedPoints.follow). */
+	int version;
+
+	/**
+	 * Creates a view on a point of the given list.
+	 * @param list The list that contains the coordinates.
+	 * @param position The position of the point in the list.
+	 * @param listVersion The number of structural changes of the list.
+	 */
+	LPackedPoint(final LPackedPoints list, final int position, final int listVersion) {
+		super();
+		store = list;
+		index = position;
+		version = listVersion;
+	}
+
+	/**
+	 * @return True if the point is still in the list (its index is then up to date).
+	 */
+	private boolean isInList() {
+		if(store != null) {
+			store.follow(this);
+		}
+		return store != null;
+	}
+
+	/**
+	 * Called when the point is removed from the list: the view becomes a standalone point.
+	 */
+	void detach(final double x, final double y) {
+		store = null;
+		super.setX(x);
+		super.setY(y);
+	}
+
+	@Override
+	public double getX() {
+		return isInList() ? store.getX(index) : super.getX();
+	}
+
+	@Override
+	public double getY() {
+		return isInList() ? store.getY(index) : super.getY();
+	}
+
+	@Override
+	public void setX(final double newX) {
+		if(!isInList()) {
+			super.setX(newX);
+		}else if(MathUtils.INST.isValidCoord(newX)) {
+			store.setCoord(index * 2, newX);
+		}
+	}
+
+	@Override
+	public void setY(final double newY) {
+		if(!isInList()) {
+			super.setY(newY);
+		}else if(MathUtils.INST.isValidCoord(newY)) {
+			store.setCoord(index * 2 + 1, newY);
+		}
+	}
+
+	@Override
+	public DoubleProperty xProperty() {
+		return isInList() ? store.property(index * 2) : super.xProperty();
+	}
+
+	@Override
+	public DoubleProperty yProperty() {
+		return isInList() ? store.property(index * 2 + 1) : super.yProperty();
+	}
+}
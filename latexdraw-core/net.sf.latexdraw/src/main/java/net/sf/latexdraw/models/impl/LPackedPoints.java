@@ -0,0 +1,378 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
+
+/**
+ * A list of points whose coordinates are packed in a single array of doubles.
+ * Used by the shapes that may contain thousands of points (free hand, polylines, etc.) instead of a list of LPoint.
+ * The points returned by the list are lightweight views on the coordinates: they are not stored and two calls to get
+ * may return two different (but equal) objects. The JFX properties of a point are created on demand only, when
+ * something binds or listens to the point, and are then kept by the list.
+ * The views and the properties follow their point when points are inserted or removed before it. When a point is
+ * removed, its views become standalone points and its properties are detached from the list (they keep their value).
+ * To follow their point, the views replay the last structural changes of the list (see MAX_CHANGES): a view older
+ * than these changes cannot be used anymore.
+ * Adding or setting a point copies its coordinates: the given point is not referenced by the list.
+ * @author Arnaud Blouin
+ */
+final class LPackedPoints extends AbstractList<IPoint> implements RandomAccess {
+	/** The number of structural changes kept to update the point views. */
+	static final int MAX_CHANGES = 64;
+	private static final int INSERTION = 0;
+	private static final int REMOVAL = 1;
+	private static final int CLEARING = 2;
+
+	/** The coordinates of the points: x0, y0, x1, y1, etc. */
+	private double[] coords;
+	/** The number of points. */
+	private int size;
+	/** The JFX properties of the coordinates (same layout as coords). Null until a property is requested. */
+	private PackedProperty[] props;
+	/** Called each time a coordinate changes or a point is added or removed. May be null. */
+	private final Runnable onChange;
+	/** The number of structural changes that moved or removed points (appending points is not one). */
+	private int version;
+	/** The last structural changes (ring buffer indexed by version): index of the point * 4 + kind of change. Null until a change. */
+	private int[] changes;
+	/** The coordinates removed by the last structural changes (x, y for a removal, all the coordinates for a clearing). */
+	private double[][] removedCoords;
+
+	/**
+	 * Creates an empty list of points.
+	 * @param changeCallback Called each time the points change. May be null.
+	 */
+	LPackedPoints(final Runnable changeCallback) {
+		super();
+		coords = new double[8];
+		size = 0;
+		onChange = changeCallback;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public IPoint get(final int index) {
+		checkIndex(index);
+		return new LPackedPoint(this, index, version);
+	}
+
+	/**
+	 * Updates the index of a point view created before structural changes of the list.
+	 * The view is detached from the list if its point was removed.
+	 * @throws IllegalStateException If the view is older than the kept structural changes.
+	 */
+	void follow(final LPackedPoint pt) {
+		if(pt.version == version) return;
+		if(version - pt.version > MAX_CHANGES) {
+			throw new IllegalStateException("The point was got before too many insertions or removals in the list"); //$NON-NLS-1$
+		}
+
+		int index = pt.index;
+
+		for(int v = pt.version; v < version; v++) {
+			final int change = changes[v % MAX_CHANGES];
+			final int at = change >> 2;
+
+			switch(change & 3) {
+				case INSERTION:
+					if(index >= at) index++;
+					break;
+				case REMOVAL:
+					if(index == at) {
+						pt.detach(removedCoords[v % MAX_CHANGES][0], removedCoords[v % MAX_CHANGES][1]);
+						return;
+					}
+					if(index > at) index--;
+					break;
+				default:
+					pt.detach(removedCoords[v % MAX_CHANGES][index * 2], removedCoords[v % MAX_CHANGES][index * 2 + 1]);
+					return;
+			}
+		}
+
+		pt.index = index;
+		pt.version = version;
+	}
+
+	/**
+	 * Records a structural change for the point views created before it.
+	 */
+	private void addChange(final int index, final int kind, final double[] removed) {
+		if(changes == null) {
+			changes = new int[MAX_CHANGES];
+			removedCoords = new double[MAX_CHANGES][];
+		}
+		changes[version % MAX_CHANGES] = index * 4 + kind;
+		removedCoords[version % MAX_CHANGES] = removed;
+		version++;
+	}
+
+	/**
+	 * @param index The index of the point. Not checked.
+	 * @return The X-coordinate of the point at the given index.
+	 */
+	double getX(final int index) {
+		return coords[index * 2];
+	}
+
+	/**
+	 * @param index The index of the point. Not checked.
+	 * @return The Y-coordinate of the point at the given index.
+	 */
+	double getY(final int index) {
+		return coords[index * 2 + 1];
+	}
+
+	/**
+	 * Sets a coordinate. If the corresponding JFX property exists, it is updated (and its listeners notified).
+	 * @param slot The position of the coordinate in the packed array.
+	 * @param value The new value.
+	 */
+	void setCoord(final int slot, final double value) {
+		final PackedProperty prop = props == null ? null : props[slot];
+
+		if(prop == null) {
+			if(coords[slot] != value) {
+				coords[slot] = value;
+				fireChange();
+			}
+		}else {
+			prop.set(value);
+		}
+	}
+
+	/**
+	 * Translates all the points without creating any point or property that does not exist yet.
+	 */
+	void translate(final double tx, final double ty) {
+		if(props == null) {
+			for(int i = 0, max = size * 2; i < max; i += 2) {
+				coords[i] += tx;
+				coords[i + 1] += ty;
+			}
+			fireChange();
+		}else {
+			for(int i = 0, max = size * 2; i < max; i += 2) {
+				setCoord(i, coords[i] + tx);
+				setCoord(i + 1, coords[i + 1] + ty);
+			}
+		}
+	}
+
+	/**
+	 * Computes the bounds of the points.
+	 * @param bounds The array to fill: min X, min Y, max X, max Y. Must contain at least four elements.
+	 * Not modified if the list is empty.
+	 */
+	void fillBounds(final double[] bounds) {
+		if(size == 0) return;
+
+		double x1 = Double.MAX_VALUE;
+		double y1 = Double.MAX_VALUE;
+		double x2 = -Double.MAX_VALUE;
+		double y2 = -Double.MAX_VALUE;
+
+		for(int i = 0, max = size * 2; i < max; i += 2) {
+			final double x = coords[i];
+			final double y = coords[i + 1];
+			if(x < x1) x1 = x;
+			if(x > x2) x2 = x;
+			if(y < y1) y1 = y;
+			if(y > y2) y2 = y;
+		}
+
+		bounds[0] = x1;
+		bounds[1] = y1;
+		bounds[2] = x2;
+		bounds[3] = y2;
+	}
+
+	/**
+	 * @return The JFX property of the given coordinate. Created if it does not exist yet.
+	 */
+	DoubleProperty property(final int slot) {
+		if(props == null) {
+			props = new PackedProperty[coords.length];
+		}
+		PackedProperty prop = props[slot];
+		if(prop == null) {
+			prop = new PackedProperty(slot);
+			props[slot] = prop;
+		}
+		return prop;
+	}
+
+	@Override
+	public IPoint set(final int index, final IPoint pt) {
+		checkIndex(index);
+		checkPoint(pt);
+		final IPoint old = ShapeFactory.INST.createPoint(getX(index), getY(index));
+		setCoord(index * 2, pt.getX());
+		setCoord(index * 2 + 1, pt.getY());
+		return old;
+	}
+
+	@Override
+	public void add(final int index, final IPoint pt) {
+		if(index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		checkPoint(pt);
+		ensureCapacity(size + 1);
+		final int slot = index * 2;
+
+		if(index < size) {
+			addChange(index, INSERTION, null);
+			System.arraycopy(coords, slot, coords, slot + 2, (size - index) * 2);
+			if(props != null) {
+				System.arraycopy(props, slot, props, slot + 2, (size - index) * 2);
+				props[slot] = null;
+				props[slot + 1] = null;
+				updateSlots(slot + 2);
+			}
+		}
+
+		coords[slot] = pt.getX();
+		coords[slot + 1] = pt.getY();
+		size++;
+		modCount++;
+		fireChange();
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends IPoint> pts) {
+		if(pts.isEmpty()) return false;
+		pts.forEach(this::checkPoint);
+		ensureCapacity(size + pts.size());
+		int slot = size * 2;
+		for(final IPoint pt : pts) {
+			coords[slot++] = pt.getX();
+			coords[slot++] = pt.getY();
+		}
+		size += pts.size();
+		modCount++;
+		fireChange();
+		return true;
+	}
+
+	@Override
+	public IPoint remove(final int index) {
+		checkIndex(index);
+		final IPoint old = ShapeFactory.INST.createPoint(getX(index), getY(index));
+		final int slot = index * 2;
+		final int nbMoved = (size - index - 1) * 2;
+
+		addChange(index, REMOVAL, new double[] {old.getX(), old.getY()});
+		System.arraycopy(coords, slot + 2, coords, slot, nbMoved);
+		if(props != null) {
+			detach(slot);
+			detach(slot + 1);
+			System.arraycopy(props, slot + 2, props, slot, nbMoved);
+			props[size * 2 - 2] = null;
+			props[size * 2 - 1] = null;
+			updateSlots(slot);
+		}
+
+		size--;
+		modCount++;
+		fireChange();
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		if(size > 0) {
+			addChange(0, CLEARING, Arrays.copyOf(coords, size * 2));
+			if(props != null) {
+				for(int i = 0, max = size * 2; i < max; i++) {
+					detach(i);
+				}
+				props = null;
+			}
+			size = 0;
+			modCount++;
+			fireChange();
+		}
+	}
+
+	/**
+	 * Detaches the property of the given coordinate (if any) from the list: it keeps its value but no longer changes the list.
+	 */
+	private void detach(final int slot) {
+		if(props[slot] != null) {
+			props[slot].slot = -1;
+		}
+	}
+
+	private void updateSlots(final int from) {
+		for(int i = from, max = props.length; i < max; i++) {
+			if(props[i] != null) {
+				props[i].slot = i;
+			}
+		}
+	}
+
+	private void ensureCapacity(final int nbPoints) {
+		if(nbPoints * 2 > coords.length) {
+			final int capacity = Math.max(nbPoints * 2, coords.length + (coords.length >> 1));
+			coords = Arrays.copyOf(coords, capacity);
+			if(props != null) {
+				props = Arrays.copyOf(props, capacity);
+			}
+		}
+	}
+
+	private void checkIndex(final int index) {
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+	private void checkPoint(final IPoint pt) {
+		if(pt == null) throw new IllegalArgumentException();
+	}
+
+	private void fireChange() {
+		if(onChange != null) {
+			onChange.run();
+		}
+	}
+
+
+	/**
+	 * A JFX property bound to a coordinate of the packed array.
+	 */
+	private final class PackedProperty extends SimpleDoubleProperty {
+		/** The position of the coordinate in the packed array. Updated when points are added or removed. -1: detached. */
+		int slot;
+
+		PackedProperty(final int coordSlot) {
+			super(coords[coordSlot]);
+			slot = coordSlot;
+		}
+
+		@Override
+		protected void invalidated() {
+			if(slot >= 0) {
+				coords[slot] = get();
+				fireChange();
+			}
+		}
+	}
+}
@@ -10,30 +10,25 @@
  */
 package net.sf.latexdraw.models.impl;
 
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import javafx.embed.swing.SwingFXUtils;
+import java.util.concurrent.CompletableFuture;
 import javafx.scene.image.Image;
-import net.sf.latexdraw.actions.ExportFormat;
 import net.sf.latexdraw.badaboom.BadaboomCollector;
 import net.sf.latexdraw.models.MathUtils;
 import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.shape.IPicture;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
 import net.sf.latexdraw.models.interfaces.shape.IShape;
-import net.sf.latexdraw.util.LPath;
-import net.sf.latexdraw.view.pst.PSTricksConstants;
-import org.sourceforge.jlibeps.epsgraphics.EpsGraphics2D;
 
 /**
  * A model of a picture.
  * @author Arnaud Blouin
  */
 class LPicture extends LPositionShape implements IPicture {
-	/** The buffered image. */
-	private Image image;
+	/** The width of the image. */
+	private double width;
+	/** The height of the image. */
+	private double height;
 	/** The path of the eps image. */
 	private String pathTarget;
 	/** The path of the source image. */
@@ -41,7 +36,7 @@ class LPicture extends LPositionShape implements IPicture {
 
 
 	/**
-	 * Creates a picture and the corresponding EPS picture.
+	 * Creates a picture.
 	 * @param pt The position of the top-left point of the picture.
 	 * @throws IllegalArgumentException If the given picture path is not valid.
 	 */
@@ -51,17 +46,15 @@ class LPicture extends LPositionShape implements IPicture {
 
 
 	/**
-	 * Loads the image using the source path and creates the eps picture.
-	 * @throws IOException If the picture cannot be loaded.
+	 * Gets the size of the image of the source path (the image is decoded when required only).
+	 * The EPS picture is not created here but the first time it is required.
 	 * @since 3.0
 	 */
-	private void loadImage() throws IOException {
-		if(image != null) {
-			new File(pathTarget).delete();
-		}
-
-		image = new Image(new File(pathSource).toURI().toString());
-		createEPSImage();
+	private void loadImage() {
+		final double[] size = PictureCache.INSTANCE.getImageSize(pathSource);
+		width = size[0];
+		height = size[1];
+		pathTarget = PictureCache.getPathTarget(pathSource);
 	}
 
 
@@ -102,46 +95,6 @@ class LPicture extends LPositionShape implements IPicture {
 	}
 
 
-	/**
-	 * Creates an EPS image from the source one.
-	 * @throws IOException If a problem while reading/writing files occurs.
-	 * @since 2.0.0
-	 */
-	private void createEPSImage() throws IOException {
-		if(pathSource == null || image == null) return;
-
-		final int indexName = pathSource.lastIndexOf(File.separator) + 1;
-		final String name = pathSource.substring(indexName, pathSource.lastIndexOf('.')) + ExportFormat.EPS_LATEX.getFileExtension();
-		final String dirPath = pathSource.substring(0, indexName);
-		pathTarget = dirPath + name;
-		File file = new File(pathTarget);
-		boolean created;
-
-		try {// We create the output file that will contains the eps picture.
-			created = file.createNewFile();
-		}catch(final IOException ex) { created = false; }
-
-		// If created is false, it may mean that the file already exist.
-		if(!created && !file.canWrite()) {
-			pathTarget = LPath.PATH_CACHE_DIR + File.separator + name;
-			file = new File(pathTarget);
-		}
-
-		// Within jlibeps, graphics are defined using 72 DPI (72/2.54=28,3465 PPC), but latexdraw uses 50 PPC.
-		// That's why, we need the scale the graphics to have a 50 PPC eps picture.
-		final double scale = 72.0 / PSTricksConstants.INCH_VAL_CM / IShape.PPC;// 72 DPI / 2.54 / 50 PPC
-		try(FileOutputStream finalImage = new FileOutputStream(file)) {
-			final EpsGraphics2D g = new EpsGraphics2D("LaTeXDrawPicture", finalImage, 0, 0, (int) (getWidth() * scale), (int) (getHeight() * scale));//$NON-NLS-1$
-			g.scale(scale, scale);
-			BufferedImage buff = SwingFXUtils.fromFXImage(image, null);
-			g.drawImage(buff, 0, 0, null);
-			g.flush();
-			g.close();
-			buff.flush();
-		}
-	}
-
-
 	@Override
 	public IPoint getPosition() {
 		return getPtAt(0);
@@ -149,9 +102,9 @@ class LPicture extends LPositionShape implements IPicture {
 
 
 	@Override
-	public IPoint getTopRightPoint() {
+	protected void updateBounds() {
 		final IPoint pos = getPtAt(0);
-		return ShapeFactory.INST.createPoint(pos.getX() + getWidth(), pos.getY());
+		setBounds(pos.getX(), pos.getY(), pos.getX() + getWidth(), pos.getY() + getHeight());
 	}
 
 
@@ -167,29 +120,15 @@ class LPicture extends LPositionShape implements IPicture {
 	}
 
 
-	@Override
-	public IPoint getBottomRightPoint() {
-		final IPoint pos = getPtAt(0);
-		return ShapeFactory.INST.createPoint(pos.getX() + getWidth(), pos.getY() + getHeight());
-	}
-
-
-	@Override
-	public IPoint getBottomLeftPoint() {
-		final IPoint pos = getPtAt(0);
-		return ShapeFactory.INST.createPoint(pos.getX(), pos.getY() + getHeight());
-	}
-
-
 	@Override
 	public double getHeight() {
-		return image == null ? 0.0 : image.getHeight();
+		return height;
 	}
 
 
 	@Override
 	public Image getImage() {
-		return image;
+		return pathSource == null ? null : PictureCache.INSTANCE.getImage(pathSource);
 	}
 
 
@@ -201,23 +140,36 @@ class LPicture extends LPositionShape implements IPicture {
 
 	@Override
 	public String getPathTarget() {
+		getEPSPicture();
 		return pathTarget;
 	}
 
 
+	@Override
+	public CompletableFuture<String> getEPSPicture() {
+		if(pathSource == null || !(width > 0d) || !(height > 0d)) {
+			return CompletableFuture.completedFuture(pathTarget);
+		}
+		return PictureCache.INSTANCE.getEPSPicture(pathSource);
+	}
+
+
 	@Override
 	public double getWidth() {
-		return image == null ? 0d : image.getWidth();
+		return width;
 	}
 
 
 	@Override
 	public void setPathSource(final String path) throws IOException {
 		pathSource = path;
-		image = null;
+		width = 0d;
+		height = 0d;
+		pathTarget = null;
 		if(pathSource != null) {
 			loadImage();
 		}
+		invalidateBounds();
 	}
 
 	@Override
@@ -11,8 +11,8 @@
 package net.sf.latexdraw.models.impl;
 
 import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.IntStream;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
@@ -72,6 +72,16 @@ class LPlot extends LPositionShape implements IPlot {
 		maxX = new SimpleDoubleProperty(xMax);
 		xscale = new SimpleDoubleProperty(1d);
 		yscale = new SimpleDoubleProperty(1d);
+		nbPoints.addListener(boundsInvalidator);
+		equation.addListener(boundsInvalidator);
+		minX.addListener(boundsInvalidator);
+		maxX.addListener(boundsInvalidator);
+		xscale.addListener(boundsInvalidator);
+		yscale.addListener(boundsInvalidator);
+		style.addListener(stampUpdater);
+		dotStyle.addListener(stampUpdater);
+		dotDiametre.addListener(stampUpdater);
+		polar.addListener(stampUpdater);
 	}
 
 
@@ -178,39 +188,26 @@ class LPlot extends LPositionShape implements IPlot {
 	}
 
 	@Override
-	public IPoint getTopLeftPoint() {
-		final double step = getPlottingStep();
-		final IPoint pos = getPosition();
+	protected void updateBounds() {
 		final double plotMinX = getPlotMinX();
-		final double yMax = IntStream.range(0, getNbPlottedPoints()).mapToDouble(x -> getY(plotMinX + x * step)).max().orElse(0.0);
-		return ShapeFactory.INST.createPoint(pos.getX() + plotMinX * IShape.PPC * getXScale(), pos.getY() - yMax * IShape.PPC * getYScale());
-	}
-
-	@Override
-	public IPoint getBottomRightPoint() {
-		final double step = getPlottingStep();
+		final double[] ys = getPlottedYs(plotMinX, getPlottingStep());
+		final double yMin = Arrays.stream(ys).min().orElse(0.0);
+		final double yMax = Arrays.stream(ys).max().orElse(0.0);
 		final IPoint pos = getPosition();
-		final double plotMinX = getPlotMinX();
-		final double yMin = IntStream.range(0, getNbPlottedPoints()).mapToDouble(x -> getY(plotMinX + x * step)).min().orElse(0.0);
-		return ShapeFactory.INST.createPoint(pos.getX() + getPlotMaxX() * IShape.PPC * getXScale(), pos.getY() - yMin * IShape.PPC * getYScale());
+		setBounds(pos.getX() + plotMinX * IShape.PPC * getXScale(), pos.getY() - yMax * IShape.PPC * getYScale(),
+			pos.getX() + getPlotMaxX() * IShape.PPC * getXScale(), pos.getY() - yMin * IShape.PPC * getYScale());
 	}
 
-	@Override
-	public IPoint getTopRightPoint() {
-		final double step = getPlottingStep();
-		final IPoint pos = getPosition();
-		final double plotMinX = getPlotMinX();
-		final double maxY = IntStream.range(0, getNbPlottedPoints()).mapToDouble(x -> getY(plotMinX + x * step)).max().orElse(0.0);
-		return ShapeFactory.INST.createPoint(pos.getX() + getPlotMaxX() * IShape.PPC * getXScale(), pos.getY() - maxY * IShape.PPC * getYScale());
-	}
-
-	@Override
-	public IPoint getBottomLeftPoint() {
-		final double step = getPlottingStep();
-		final IPoint pos = getPosition();
-		final double plotMinX = getPlotMinX();
-		final double yMin = IntStream.range(0, getNbPlottedPoints()).mapToDouble(x -> getY(plotMinX + x * step)).min().orElse(0.0);
-		return ShapeFactory.INST.createPoint(pos.getX() + plotMinX * IShape.PPC * getXScale(), pos.getY() - yMin * IShape.PPC * getYScale());
+	/**
+	 * @return The Y coordinates of the plotted points, computed in a row.
+	 */
+	private double[] getPlottedYs(final double plotMinX, final double step) {
+		final double[] ys = new double[getNbPlottedPoints()];
+		for(int i = 0; i < ys.length; i++) {
+			ys[i] = plotMinX + i * step;
+		}
+		getY(ys, ys);
+		return ys;
 	}
 
 	@Override
@@ -270,6 +267,11 @@ class LPlot extends LPositionShape implements IPlot {
 		return parser.getY(x);
 	}
 
+	@Override
+	public void getY(final double[] xs, final double[] ys) {
+		parser.getY(xs, ys);
+	}
+
 	@Override
 	public String getPlotEquation() {
 		return equation.get();
@@ -23,11 +23,16 @@ import static java.lang.Math.atan;
 
 /**
  * Defines a model of a point. Not a shape.
+ * The JFX properties of the point are created only when requested: until then the coordinates are stored as primitive values.
  * @author Arnaud Blouin
  */
 class LPoint implements IPoint {
-	private final  DoubleProperty x;
-	private final  DoubleProperty y;
+	private double x;
+	private double y;
+	/** The X property. Null until xProperty() is called. */
+	private DoubleProperty xProp;
+	/** The Y property. Null until yProperty() is called. */
+	private DoubleProperty yProp;
 
 	/**
 	 * Creates a Point2D with coordinates (0, 0).
@@ -51,8 +56,8 @@ class LPoint implements IPoint {
 	 */
 	LPoint(final double xCoord, final double yCoord) {
 		super();
-		x = new SimpleDoubleProperty(xCoord);
-		y = new SimpleDoubleProperty(yCoord);
+		x = xCoord;
+		y = yCoord;
 	}
 
 	@Override
@@ -147,12 +152,18 @@ class LPoint implements IPoint {
 
 	@Override
 	public void setX(final double newX) {
-		if(MathUtils.INST.isValidCoord(newX)) x.set(newX);
+		if(MathUtils.INST.isValidCoord(newX)) {
+			if(xProp == null) x = newX;
+			else xProp.set(newX);
+		}
 	}
 
 	@Override
 	public void setY(final double newY) {
-		if(MathUtils.INST.isValidCoord(newY)) y.set(newY);
+		if(MathUtils.INST.isValidCoord(newY)) {
+			if(yProp == null) y = newY;
+			else yProp.set(newY);
+		}
 	}
 
 	@Override
@@ -167,12 +178,12 @@ class LPoint implements IPoint {
 
 	@Override
 	public Point2D.Double toPoint2D() {
-		return new Point2D.Double(x.getValue(), y.getValue());
+		return new Point2D.Double(getX(), getY());
 	}
 
 	@Override
 	public Point3D toPoint3D() {
-		return new Point3D(x.getValue(), y.getValue(), 0d);
+		return new Point3D(getX(), getY(), 0d);
 	}
 
 	@Override
@@ -206,36 +217,38 @@ class LPoint implements IPoint {
 
 	@Override
 	public  DoubleProperty xProperty() {
-		return x;
+		if(xProp == null) xProp = new SimpleDoubleProperty(x);
+		return xProp;
 	}
 
 	@Override
 	public  DoubleProperty yProperty() {
-		return y;
+		if(yProp == null) yProp = new SimpleDoubleProperty(y);
+		return yProp;
 	}
 
 	@Override
 	public double getY() {
-		return y.get();
+		return yProp == null ? y : yProp.get();
 	}
 
 	@Override
 	public double getX() {
-		return x.get();
+		return xProp == null ? x : xProp.get();
 	}
 
 	@Override
 	public double distance(double xCoord, double yCoord) {
-		return Math.sqrt(Math.pow(xCoord - x.get(), 2) + Math.pow(yCoord - y.get(), 2));
+		return Math.sqrt(Math.pow(xCoord - getX(), 2) + Math.pow(yCoord - getY(), 2));
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		long temp = Double.doubleToLongBits(x.doubleValue());
+		long temp = Double.doubleToLongBits(getX());
 		result = prime * result + (int) (temp ^ (temp >>> 32));
-		temp = Double.doubleToLongBits(y.doubleValue());
+		temp = Double.doubleToLongBits(getY());
 		result = prime * result + (int) (temp ^ (temp >>> 32));
 		return result;
 	}
@@ -243,12 +256,12 @@ class LPoint implements IPoint {
 	@Override
 	public boolean equals(final Object obj) {
 		if(this == obj) return true;
-		if(obj == null || getClass() != obj.getClass()) return false;
+		if(!(obj instanceof LPoint)) return false;
 		return equals((IPoint) obj, 0.0000001);
 	}
 
 	@Override
 	public String toString() {
-		return "LPoint [x=" + x.doubleValue() + ", y=" + y.doubleValue() + "]";
+		return "LPoint [x=" + getX() + ", y=" + getY() + "]";
 	}
 }
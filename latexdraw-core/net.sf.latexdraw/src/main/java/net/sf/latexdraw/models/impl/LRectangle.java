@@ -26,6 +26,7 @@ class LRectangle extends LRectangularShape implements IRectangle {
 	LRectangle(final IPoint tl, final IPoint br) {
 		super(tl, br);
 		lineArcProp = new LineArcProp();
+		lineArcProp.frameArc.addListener(stampUpdater);
 	}
 
 	@Override
@@ -10,7 +10,10 @@
  */
 package net.sf.latexdraw.models.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import net.sf.latexdraw.models.interfaces.prop.ISetShapesProp;
 import net.sf.latexdraw.models.interfaces.shape.IShape;
 
@@ -20,6 +23,16 @@ import net.sf.latexdraw.models.interfaces.shape.IShape;
  * @author Arnaud Blouin
  */
 interface LSetShapes extends ISetShapesProp {
+	@Override
+	LShapesList getShapes();
+
+	/**
+	 * @return True if the given shape can be added: not null and not an empty set of shapes.
+	 */
+	static boolean isAddable(final IShape sh) {
+		return sh != null && (!(sh instanceof ISetShapesProp) || !((ISetShapesProp) sh).isEmpty());
+	}
+
 	@Override
 	default boolean contains(final IShape sh) {
 		return sh != null && getShapes().contains(sh);
@@ -27,7 +40,7 @@ interface LSetShapes extends ISetShapesProp {
 
 	@Override
 	default void addShape(final IShape sh) {
-		if(sh != null && (!(sh instanceof ISetShapesProp) || !((ISetShapesProp) sh).isEmpty())) {
+		if(isAddable(sh)) {
 			getShapes().add(sh);
 		}
 	}
@@ -35,7 +48,7 @@ interface LSetShapes extends ISetShapesProp {
 	@Override
 	default void addShape(final IShape sh, final int index) {
 		final List<IShape> shapes = getShapes();
-		if(sh != null && index <= shapes.size() && (index == -1 || index >= 0) && (!(sh instanceof ISetShapesProp) || !((ISetShapesProp) sh).isEmpty())) {
+		if(index <= shapes.size() && (index == -1 || index >= 0) && isAddable(sh)) {
 			if(index == -1 || index == shapes.size()) {
 				shapes.add(sh);
 			}else {
@@ -44,6 +57,38 @@ interface LSetShapes extends ISetShapesProp {
 		}
 	}
 
+	@Override
+	default void addShapes(final List<IShape> shapes) {
+		getShapes().addAll(shapes.stream().filter(LSetShapes::isAddable).collect(Collectors.toList()));
+	}
+
+	@Override
+	default void addShapes(final List<IShape> shapes, final int[] positions) {
+		// The shapes that cannot be added are replaced by null (ignored) so that the shapes still match their positions.
+		getShapes().addShapes(shapes.stream().map(sh -> isAddable(sh) ? sh : null).collect(Collectors.toList()), positions);
+	}
+
+	@Override
+	default int[] removeShapes(final List<IShape> shapes) {
+		return getShapes().removeShapes(shapes);
+	}
+
+	@Override
+	default List<IShape> removeShapes(final int from, final int to) {
+		final LShapesList shapes = getShapes();
+		if(from < 0 || to > shapes.size() || from >= to) {
+			return Collections.emptyList();
+		}
+		final List<IShape> removed = new ArrayList<>(shapes.subList(from, to));
+		shapes.remove(from, to);
+		return removed;
+	}
+
+	@Override
+	default void setShapes(final List<IShape> shapes) {
+		getShapes().setAll(shapes.stream().filter(LSetShapes::isAddable).collect(Collectors.toList()));
+	}
+
 	@Override
 	default void clear() {
 		final List<IShape> shapes = getShapes();
@@ -11,15 +11,24 @@
 package net.sf.latexdraw.models.impl;
 
 import java.awt.geom.Rectangle2D;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.Property;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import net.sf.latexdraw.models.MathUtils;
 import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.shape.BorderPos;
@@ -36,124 +45,373 @@ import net.sf.latexdraw.view.pst.PSTricksConstants;
  * The base shape model.
  * @author Arnaud Blouin
  */
-abstract class LShape implements ISingleShape {
+abstract class LShape implements ISingleShape, LBoundsObservable {
 	/** The thickness of the lines of the shape in pixels. */
-	protected final DoubleProperty thickness;
+	private double thickness;
 
 	/** The colour of the lines. */
-	protected final ObjectProperty<Color> lineColour;
+	private Color lineColour;
 
 	/** The style of the lines. */
-	protected final ObjectProperty<LineStyle> lineStyle;
+	private LineStyle lineStyle;
 
 	/** The style of the interior of the shape. */
-	protected final ObjectProperty<FillingStyle> fillingStyle;
+	private FillingStyle fillingStyle;
 
 	/** The white dash separator for dashed lines in pixel. */
-	protected final DoubleProperty dashSepWhite;
+	private double dashSepWhite;
 
 	/** The black dash separator for dashed lines in pixel. */
-	protected final DoubleProperty dashSepBlack;
+	private double dashSepBlack;
 
 	/** The dot separator for dotted lines. */
-	protected final DoubleProperty dotSep;
+	private double dotSep;
 
 	/** The colour of the interior of the shape. */
-	protected final ObjectProperty<Color> fillingCol;
+	private Color fillingCol;
 
 	/** The start colour of the gradient. */
-	protected final ObjectProperty<Color> gradColStart;
+	private Color gradColStart;
 
 	/** The end colour of the gradient. */
-	protected final ObjectProperty<Color> gradColEnd;
+	private Color gradColEnd;
 
 	/** The angle of the gradient in radian. */
-	protected final DoubleProperty gradAngle;
+	private double gradAngle;
 
 	/** The middle point of the gradient. */
-	protected final DoubleProperty gradMidPt;
+	private double gradMidPt;
 
 	/** The separation size between hatchings in pixel. */
-	protected final DoubleProperty hatchingsSep;
+	private double hatchingsSep;
 
 	/** The colour of the hatchings. */
-	protected final ObjectProperty<Color> hatchingsCol;
+	private Color hatchingsCol;
 
 	/** The angle of the hatchings in radian. */
-	protected final DoubleProperty hatchingsAngle;
+	private double hatchingsAngle;
 
 	/** The thickness of the hatchings in pixel. */
-	protected final DoubleProperty hatchingsWidth;
+	private double hatchingsWidth;
 
 	/** The rotation angle of the shape. */
-	protected final DoubleProperty rotationAngle;
+	private double rotationAngle;
 
 	/** Defines if the points of the shape must be considered. */
 	protected boolean showPts;
 
 	/** Defines if the shape has double borders. */
-	protected final BooleanProperty hasDbleBord;
+	private boolean hasDbleBord;
 
 	/** The colour of the double borders. */
-	protected final ObjectProperty<Color> dbleBordCol;
+	private Color dbleBordCol;
 
 	/** The separation size of the double borders in pixel. */
-	protected final DoubleProperty dbleBordSep;
+	private double dbleBordSep;
 
 	/** Defines if the shape has a shadow. */
-	protected final BooleanProperty hasShadow;
+	private boolean hasShadow;
 
 	/** The colour of the shadow. */
-	protected final ObjectProperty<Color> shadowCol;
+	private Color shadowCol;
 
 	/** The angle of the shadow in radian. */
-	protected final DoubleProperty shadowAngle;
+	private double shadowAngle;
 
 	/** The size of the shadow in pixel. */
-	protected final DoubleProperty shadowSize;
+	private double shadowSize;
 
 	/** The position of the border of the shape. */
-	protected final ObjectProperty<BorderPos> bordersPosition;
+	private BorderPos bordersPosition;
+
+	/* The JFX properties of the attributes above. Each property is created on demand by its accessor (e.g. thicknessProperty()):
+	 * until then the attribute stores the value; afterwards, the property does (see setAttribute and listened).
+	 * The views bind all these properties: only the shapes that are not displayed (loading, clipboard, undo history,
+	 * exports) save their memory. */
+	private DoubleProperty thicknessProp;
+	private ObjectProperty<Color> lineColourProp;
+	private ObjectProperty<LineStyle> lineStyleProp;
+	private ObjectProperty<FillingStyle> fillingStyleProp;
+	private DoubleProperty dashSepWhiteProp;
+	private DoubleProperty dashSepBlackProp;
+	private DoubleProperty dotSepProp;
+	private ObjectProperty<Color> fillingColProp;
+	private ObjectProperty<Color> gradColStartProp;
+	private ObjectProperty<Color> gradColEndProp;
+	private DoubleProperty gradAngleProp;
+	private DoubleProperty gradMidPtProp;
+	private DoubleProperty hatchingsSepProp;
+	private ObjectProperty<Color> hatchingsColProp;
+	private DoubleProperty hatchingsAngleProp;
+	private DoubleProperty hatchingsWidthProp;
+	private DoubleProperty rotationAngleProp;
+	private BooleanProperty hasDbleBordProp;
+	private ObjectProperty<Color> dbleBordColProp;
+	private DoubleProperty dbleBordSepProp;
+	private BooleanProperty hasShadowProp;
+	private ObjectProperty<Color> shadowColProp;
+	private DoubleProperty shadowAngleProp;
+	private DoubleProperty shadowSizeProp;
+	private ObjectProperty<BorderPos> bordersPositionProp;
 
 	/** The points of the shape. */
 	protected final List<IPoint> points;
 
+	/** The source of the modification stamps of the shapes. Shared by all the shapes so that stamps are never reused. */
+	private static final AtomicLong STAMPS = new AtomicLong();
+
 	/** Defined if the shape has been modified. */
 	protected boolean modified;
 
+	/** The modification stamp of the shape (see getModificationStamp()). */
+	private long modificationStamp;
+
+	/** The cached bounds of the shape: min X, min Y, max X, max Y. Relevant only if boundsValid is true. */
+	private final double[] bounds;
+
+	/** Defines whether the cached bounds are up to date. */
+	private boolean boundsValid;
+
+	/** The listeners notified when the cached bounds are invalidated. Created on demand. */
+	private LBoundsListeners boundsListeners;
+
+	/** Invalidates the cached bounds. To register on the properties the bounds of the shape depend on. */
+	protected final ChangeListener<Object> boundsInvalidator;
+
+	/** Changes the modification stamp. To register on the other properties of the shape. */
+	protected final ChangeListener<Object> stampUpdater;
+
 	/**
 	 * The second default constructor
 	 */
 	LShape() {
+		this(false);
+	}
+
+	/**
+	 * Creates the shape.
+	 * @param packedPoints True: the coordinates of the points are packed in an array of doubles (see LPackedPoints).
+	 * Relevant for shapes that may contain a lot of points.
+	 */
+	LShape(final boolean packedPoints) {
 		super();
 		modified = false;
-		thickness = new SimpleDoubleProperty(2d);
-		rotationAngle = new SimpleDoubleProperty(0d);
-		shadowAngle = new SimpleDoubleProperty(-Math.PI / 4d);
-		gradAngle = new SimpleDoubleProperty(0d);
-		hatchingsAngle = new SimpleDoubleProperty(0d);
-		hasShadow = new SimpleBooleanProperty(false);
-		hasDbleBord = new SimpleBooleanProperty(false);
-		lineStyle = new SimpleObjectProperty<>(LineStyle.SOLID);
-		lineColour = new SimpleObjectProperty<>(PSTricksConstants.DEFAULT_LINE_COLOR);
-		dotSep = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_DOT_STEP * PPC);
-		dashSepBlack = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_DASH_BLACK * PPC);
-		dashSepWhite = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_DASH_WHITE * PPC);
-		hatchingsCol = new SimpleObjectProperty<>(PSTricksConstants.DEFAULT_HATCHING_COLOR);
-		hatchingsSep = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_HATCH_SEP * PPC);
-		hatchingsWidth = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_HATCH_WIDTH * PPC);
-		fillingStyle = new SimpleObjectProperty<>(FillingStyle.NONE);
-		fillingCol = new SimpleObjectProperty<>(PSTricksConstants.DEFAULT_INTERIOR_COLOR);
-		bordersPosition = new SimpleObjectProperty<>(BorderPos.INTO);
-		dbleBordCol = new SimpleObjectProperty<>(PSTricksConstants.DEFAULT_DOUBLE_COLOR);
-		dbleBordSep = new SimpleDoubleProperty(6d);
-		shadowCol = new SimpleObjectProperty<>(PSTricksConstants.DEFAULT_SHADOW_COLOR);
-		shadowSize = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_SHADOW_SIZE * PPC);
-		gradColStart = new SimpleObjectProperty<>(PSTricksConstants.DEFAULT_GRADIENT_START_COLOR);
-		gradColEnd = new SimpleObjectProperty<>(PSTricksConstants.DEFAULT_GRADIENT_END_COLOR);
-		gradMidPt = new SimpleDoubleProperty(PSTricksConstants.DEFAULT_GRADIENT_MID_POINT);
+		modificationStamp = nextModificationStamp();
+		thickness = 2d;
+		rotationAngle = 0d;
+		shadowAngle = -Math.PI / 4d;
+		gradAngle = 0d;
+		hatchingsAngle = 0d;
+		hasShadow = false;
+		hasDbleBord = false;
+		lineStyle = LineStyle.SOLID;
+		lineColour = PSTricksConstants.DEFAULT_LINE_COLOR;
+		dotSep = PSTricksConstants.DEFAULT_DOT_STEP * PPC;
+		dashSepBlack = PSTricksConstants.DEFAULT_DASH_BLACK * PPC;
+		dashSepWhite = PSTricksConstants.DEFAULT_DASH_WHITE * PPC;
+		hatchingsCol = PSTricksConstants.DEFAULT_HATCHING_COLOR;
+		hatchingsSep = PSTricksConstants.DEFAULT_HATCH_SEP * PPC;
+		hatchingsWidth = PSTricksConstants.DEFAULT_HATCH_WIDTH * PPC;
+		fillingStyle = FillingStyle.NONE;
+		fillingCol = PSTricksConstants.DEFAULT_INTERIOR_COLOR;
+		bordersPosition = BorderPos.INTO;
+		dbleBordCol = PSTricksConstants.DEFAULT_DOUBLE_COLOR;
+		dbleBordSep = 6d;
+		shadowCol = PSTricksConstants.DEFAULT_SHADOW_COLOR;
+		shadowSize = PSTricksConstants.DEFAULT_SHADOW_SIZE * PPC;
+		gradColStart = PSTricksConstants.DEFAULT_GRADIENT_START_COLOR;
+		gradColEnd = PSTricksConstants.DEFAULT_GRADIENT_END_COLOR;
+		gradMidPt = PSTricksConstants.DEFAULT_GRADIENT_MID_POINT;
 		showPts = false;
-		points = new ArrayList<>();
+		bounds = new double[4];
+		boundsValid = false;
+		boundsInvalidator = (obs, oldValue, newValue) -> invalidateBounds();
+		stampUpdater = (obs, oldValue, newValue) -> updateModificationStamp();
+		points = packedPoints ? new LPackedPoints(this::invalidateBounds) : createPointsList();
+	}
+
+	private List<IPoint> createPointsList() {
+		final ObservableList<IPoint> pts = FXCollections.observableArrayList();
+		pts.addListener((ListChangeListener.Change<? extends IPoint> evt) -> {
+			while(evt.next()) {
+				evt.getRemoved().forEach(pt -> {
+					pt.xProperty().removeListener(boundsInvalidator);
+					pt.yProperty().removeListener(boundsInvalidator);
+				});
+				evt.getAddedSubList().forEach(pt -> {
+					pt.xProperty().addListener(boundsInvalidator);
+					pt.yProperty().addListener(boundsInvalidator);
+				});
+			}
+			invalidateBounds();
+		});
+		return pts;
+	}
+
+	/**
+	 * @return A new modification stamp, greater than all the stamps previously given to the shapes.
+	 */
+	static long nextModificationStamp() {
+		return STAMPS.incrementAndGet();
+	}
+
+	/**
+	 * Changes the modification stamp of the shape. To call each time an attribute of the shape changes.
+	 */
+	void updateModificationStamp() {
+		modificationStamp = nextModificationStamp();
+	}
+
+	/**
+	 * Sets an attribute of the shape: in its property if created, in its field otherwise.
+	 * As with the property, the modification stamp changes only if the value changes.
+	 * @param prop The property of the attribute (null if not created).
+	 * @param current The value of the field of the attribute.
+	 * @param value The new value.
+	 * @param field Sets the field of the attribute.
+	 */
+	private <T> void setAttribute(final Property<T> prop, final T current, final T value, final Consumer<T> field) {
+		if(prop == null) {
+			if(!Objects.equals(current, value)) {
+				field.accept(value);
+				updateModificationStamp();
+			}
+		}else {
+			prop.setValue(value);
+		}
+	}
+
+	/**
+	 * Sets a double attribute of the shape: in its property if created, in its field otherwise.
+	 * As with the property, the modification stamp changes only if the value changes.
+	 * @param prop The property of the attribute (null if not created).
+	 * @param current The value of the field of the attribute.
+	 * @param value The new value.
+	 * @param field Sets the field of the attribute.
+	 */
+	private void setAttribute(final DoubleProperty prop, final double current, final double value, final DoubleConsumer field) {
+		if(prop == null) {
+			// The values are compared as the change listeners of the properties do (Double.equals).
+			if(Double.compare(current, value) != 0) {
+				field.accept(value);
+				updateModificationStamp();
+			}
+		}else {
+			prop.set(value);
+		}
+	}
+
+	/**
+	 * @param prop A property of an attribute, being created by its accessor.
+	 * @return The given property, that now changes the modification stamp of the shape.
+	 */
+	private <P extends ObservableValue<?>> P listened(final P prop) {
+		prop.addListener(stampUpdater);
+		return prop;
+	}
+
+	/**
+	 * Invalidates the cached bounds of the shape and notifies the bounds listeners.
+	 * Also changes the modification stamp of the shape since its geometry changed.
+	 */
+	protected void invalidateBounds() {
+		updateModificationStamp();
+		if(boundsValid) {
+			boundsValid = false;
+			if(boundsListeners != null) {
+				boundsListeners.fire();
+			}
+		}
+	}
+
+	/**
+	 * Computes the bounds of the shape using setBounds. By default, the bounds of the points of the shape are computed.
+	 * The shapes whose bounds depend on other properties must override this method and register boundsInvalidator on these properties.
+	 */
+	protected void updateBounds() {
+		if(points.isEmpty()) {
+			setBounds(0d, 0d, 0d, 0d);
+			return;
+		}
+
+		if(points instanceof LPackedPoints) {
+			((LPackedPoints) points).fillBounds(bounds);
+			return;
+		}
+
+		double x1 = Double.MAX_VALUE;
+		double y1 = Double.MAX_VALUE;
+		double x2 = -Double.MAX_VALUE;
+		double y2 = -Double.MAX_VALUE;
+
+		for(final IPoint pt : points) {
+			final double x = pt.getX();
+			final double y = pt.getY();
+			if(x < x1) x1 = x;
+			if(x > x2) x2 = x;
+			if(y < y1) y1 = y;
+			if(y > y2) y2 = y;
+		}
+
+		setBounds(x1, y1, x2, y2);
+	}
+
+	/**
+	 * Sets the cached bounds. To call in updateBounds only.
+	 */
+	protected final void setBounds(final double minX, final double minY, final double maxX, final double maxY) {
+		bounds[0] = minX;
+		bounds[1] = minY;
+		bounds[2] = maxX;
+		bounds[3] = maxY;
+	}
+
+	private void validateBounds() {
+		if(!boundsValid) {
+			updateBounds();
+			boundsValid = true;
+		}
+	}
+
+	@Override
+	public void addBoundsListener(final Runnable listener) {
+		if(listener != null) {
+			if(boundsListeners == null) {
+				boundsListeners = new LBoundsListeners();
+			}
+			boundsListeners.add(listener);
+		}
+	}
+
+	@Override
+	public void removeBoundsListener(final Runnable listener) {
+		if(boundsListeners != null) {
+			boundsListeners.remove(listener);
+		}
+	}
+
+	@Override
+	public double getMinX() {
+		validateBounds();
+		return bounds[0];
+	}
+
+	@Override
+	public double getMinY() {
+		validateBounds();
+		return bounds[1];
+	}
+
+	@Override
+	public double getMaxX() {
+		validateBounds();
+		return bounds[2];
+	}
+
+	@Override
+	public double getMaxY() {
+		validateBounds();
+		return bounds[3];
 	}
 
 	@Override
@@ -208,11 +466,11 @@ abstract class LShape implements ISingleShape {
 
 	@Override
 	public double getBorderGap() {
-		switch(bordersPosition.get()) {
+		switch(getBordersPosition()) {
 			case MID:
-				return hasDbleBord() ? thickness.doubleValue() + getDbleBordSep() / 2d : thickness.doubleValue() / 2d;
+				return hasDbleBord() ? getThickness() + getDbleBordSep() / 2d : getThickness() / 2d;
 			case OUT:
-				return hasDbleBord() ? thickness.doubleValue() * 2d + getDbleBordSep() : thickness.doubleValue();
+				return hasDbleBord() ? getThickness() * 2d + getDbleBordSep() : getThickness();
 			case INTO:
 				return 0d;
 		}
@@ -221,42 +479,42 @@ abstract class LShape implements ISingleShape {
 
 	@Override
 	public BorderPos getBordersPosition() {
-		return bordersPosition.get();
+		return bordersPositionProp == null ? bordersPosition : bordersPositionProp.get();
 	}
 
 	@Override
 	public double getDashSepBlack() {
-		return dashSepBlack.doubleValue();
+		return dashSepBlackProp == null ? dashSepBlack : dashSepBlackProp.get();
 	}
 
 	@Override
 	public double getDashSepWhite() {
-		return dashSepWhite.doubleValue();
+		return dashSepWhiteProp == null ? dashSepWhite : dashSepWhiteProp.get();
 	}
 
 	@Override
 	public Color getDbleBordCol() {
-		return dbleBordCol.get();
+		return dbleBordColProp == null ? dbleBordCol : dbleBordColProp.get();
 	}
 
 	@Override
 	public double getDbleBordSep() {
-		return dbleBordSep.doubleValue();
+		return dbleBordSepProp == null ? dbleBordSep : dbleBordSepProp.get();
 	}
 
 	@Override
 	public double getDotSep() {
-		return dotSep.doubleValue();
+		return dotSepProp == null ? dotSep : dotSepProp.get();
 	}
 
 	@Override
 	public Color getFillingCol() {
-		return fillingCol.get();
+		return fillingColProp == null ? fillingCol : fillingColProp.get();
 	}
 
 	@Override
 	public FillingStyle getFillingStyle() {
-		return fillingStyle.get();
+		return fillingStyleProp == null ? fillingStyle : fillingStyleProp.get();
 	}
 
 	@Override
@@ -281,57 +539,57 @@ abstract class LShape implements ISingleShape {
 
 	@Override
 	public double getGradAngle() {
-		return gradAngle.doubleValue();
+		return gradAngleProp == null ? gradAngle : gradAngleProp.get();
 	}
 
 	@Override
 	public Color getGradColEnd() {
-		return gradColEnd.get();
+		return gradColEndProp == null ? gradColEnd : gradColEndProp.get();
 	}
 
 	@Override
 	public Color getGradColStart() {
-		return gradColStart.get();
+		return gradColStartProp == null ? gradColStart : gradColStartProp.get();
 	}
 
 	@Override
 	public double getGradMidPt() {
-		return gradMidPt.doubleValue();
+		return gradMidPtProp == null ? gradMidPt : gradMidPtProp.get();
 	}
 
 	@Override
 	public IPoint getGravityCentre() {
-		return points.isEmpty() ? ShapeFactory.INST.createPoint() : getTopLeftPoint().getMiddlePoint(getBottomRightPoint());
+		return points.isEmpty() ? ShapeFactory.INST.createPoint() : ShapeFactory.INST.createPoint((getMinX() + getMaxX()) / 2d, (getMinY() + getMaxY()) / 2d);
 	}
 
 	@Override
 	public double getHatchingsAngle() {
-		return hatchingsAngle.doubleValue();
+		return hatchingsAngleProp == null ? hatchingsAngle : hatchingsAngleProp.get();
 	}
 
 	@Override
 	public Color getHatchingsCol() {
-		return hatchingsCol.get();
+		return hatchingsColProp == null ? hatchingsCol : hatchingsColProp.get();
 	}
 
 	@Override
 	public double getHatchingsSep() {
-		return hatchingsSep.doubleValue();
+		return hatchingsSepProp == null ? hatchingsSep : hatchingsSepProp.get();
 	}
 
 	@Override
 	public double getHatchingsWidth() {
-		return hatchingsWidth.doubleValue();
+		return hatchingsWidthProp == null ? hatchingsWidth : hatchingsWidthProp.get();
 	}
 
 	@Override
 	public Color getLineColour() {
-		return lineColour.get();
+		return lineColourProp == null ? lineColour : lineColourProp.get();
 	}
 
 	@Override
 	public LineStyle getLineStyle() {
-		return lineStyle.get();
+		return lineStyleProp == null ? lineStyle : lineStyleProp.get();
 	}
 
 	@Override
@@ -356,52 +614,52 @@ abstract class LShape implements ISingleShape {
 
 	@Override
 	public double getRotationAngle() {
-		return rotationAngle.get();
+		return rotationAngleProp == null ? rotationAngle : rotationAngleProp.get();
 	}
 
 	@Override
 	public double getShadowAngle() {
-		return shadowAngle.get();
+		return shadowAngleProp == null ? shadowAngle : shadowAngleProp.get();
 	}
 
 	@Override
 	public Color getShadowCol() {
-		return shadowCol.get();
+		return shadowColProp == null ? shadowCol : shadowColProp.get();
 	}
 
 	@Override
 	public double getShadowSize() {
-		return shadowSize.get();
+		return shadowSizeProp == null ? shadowSize : shadowSizeProp.get();
 	}
 
 	@Override
 	public double getThickness() {
-		return thickness.doubleValue();
+		return thicknessProp == null ? thickness : thicknessProp.get();
 	}
 
 	@Override
 	public boolean hasDbleBord() {
-		return hasDbleBord.get();
+		return hasDbleBordProp == null ? hasDbleBord : hasDbleBordProp.get();
 	}
 
 	@Override
 	public boolean hasGradient() {
-		return isInteriorStylable() && fillingStyle.get() == FillingStyle.GRAD;
+		return isInteriorStylable() && getFillingStyle() == FillingStyle.GRAD;
 	}
 
 	@Override
 	public boolean hasHatchings() {
-		return isInteriorStylable() && fillingStyle.get().isHatchings();
+		return isInteriorStylable() && getFillingStyle().isHatchings();
 	}
 
 	@Override
 	public boolean hasShadow() {
-		return hasShadow.get();
+		return hasShadowProp == null ? hasShadow : hasShadowProp.get();
 	}
 
 	@Override
 	public boolean isFilled() {
-		return fillingStyle.get().isFilled();
+		return getFillingStyle().isFilled();
 	}
 
 	@Override
@@ -417,41 +675,43 @@ abstract class LShape implements ISingleShape {
 
 	@Override
 	public void setBordersPosition(final BorderPos position) {
-		if(position != null && isBordersMovable()) bordersPosition.set(position);
+		if(position != null && isBordersMovable()) {
+			setAttribute(bordersPositionProp, bordersPosition, position, v -> bordersPosition = v);
+		}
 	}
 
 	@Override
 	public void setDashSepBlack(final double dash) {
 		if(dash > 0d && MathUtils.INST.isValidCoord(dash)) {
-			dashSepBlack.set(dash);
+			setAttribute(dashSepBlackProp, dashSepBlack, dash, v -> dashSepBlack = v);
 		}
 	}
 
 	@Override
 	public void setDashSepWhite(final double dash) {
 		if(dash > 0d && MathUtils.INST.isValidCoord(dash)) {
-			dashSepWhite.set(dash);
+			setAttribute(dashSepWhiteProp, dashSepWhite, dash, v -> dashSepWhite = v);
 		}
 	}
 
 	@Override
 	public void setDbleBordCol(final Color col) {
 		if(col != null && isDbleBorderable()) {
-			dbleBordCol.set(col);
+			setAttribute(dbleBordColProp, dbleBordCol, col, v -> dbleBordCol = v);
 		}
 	}
 
 	@Override
 	public void setDbleBordSep(final double sep) {
 		if(sep >= 0 && isDbleBorderable() && MathUtils.INST.isValidCoord(sep)) {
-			dbleBordSep.set(sep);
+			setAttribute(dbleBordSepProp, dbleBordSep, sep, v -> dbleBordSep = v);
 		}
 	}
 
 	@Override
 	public void setDotSep(final double sep) {
 		if(sep >= 0 && MathUtils.INST.isValidCoord(sep)) {
-			dotSep.set(sep);
+			setAttribute(dotSepProp, dotSep, sep, v -> dotSep = v);
 		}
 	}
 
@@ -459,18 +719,18 @@ abstract class LShape implements ISingleShape {
 	public void setFilled(final boolean isFilled) {
 		if(!isFillable()) return;
 
-		if(isFilled) switch(fillingStyle.get()) {
+		if(isFilled) switch(getFillingStyle()) {
 			case CLINES:
-				fillingStyle.set(FillingStyle.CLINES_PLAIN);
+				setFillingStyle(FillingStyle.CLINES_PLAIN);
 				break;
 			case VLINES:
-				fillingStyle.set(FillingStyle.VLINES_PLAIN);
+				setFillingStyle(FillingStyle.VLINES_PLAIN);
 				break;
 			case HLINES:
-				fillingStyle.set(FillingStyle.HLINES_PLAIN);
+				setFillingStyle(FillingStyle.HLINES_PLAIN);
 				break;
 			case NONE:
-				fillingStyle.set(FillingStyle.PLAIN);
+				setFillingStyle(FillingStyle.PLAIN);
 				break;
 			case PLAIN:
 			case GRAD:
@@ -480,18 +740,18 @@ abstract class LShape implements ISingleShape {
 					/* Nothing to do. */
 				break;
 		}
-		else switch(fillingStyle.get()) {
+		else switch(getFillingStyle()) {
 			case CLINES_PLAIN:
-				fillingStyle.set(FillingStyle.CLINES);
+				setFillingStyle(FillingStyle.CLINES);
 				break;
 			case VLINES_PLAIN:
-				fillingStyle.set(FillingStyle.VLINES);
+				setFillingStyle(FillingStyle.VLINES);
 				break;
 			case HLINES_PLAIN:
-				fillingStyle.set(FillingStyle.HLINES);
+				setFillingStyle(FillingStyle.HLINES);
 				break;
 			case PLAIN:
-				fillingStyle.set(FillingStyle.NONE);
+				setFillingStyle(FillingStyle.NONE);
 				break;
 			case NONE:
 			case GRAD:
@@ -506,96 +766,98 @@ abstract class LShape implements ISingleShape {
 	@Override
 	public void setFillingCol(final Color col) {
 		if(col != null && isFillable()) {
-			fillingCol.set(col);
+			setAttribute(fillingColProp, fillingCol, col, v -> fillingCol = v);
 		}
 	}
 
 	@Override
 	public void setFillingStyle(final FillingStyle style) {
-		if(style != null && isFillable()) fillingStyle.set(style);
+		if(style != null && isFillable()) {
+			setAttribute(fillingStyleProp, fillingStyle, style, v -> fillingStyle = v);
+		}
 	}
 
 	@Override
 	public void setGradAngle(final double angle) {
 		if(MathUtils.INST.isValidCoord(angle) && isInteriorStylable()) {
-			gradAngle.set(angle);
+			setAttribute(gradAngleProp, gradAngle, angle, v -> gradAngle = v);
 		}
 	}
 
 	@Override
 	public void setGradColEnd(final Color col) {
 		if(col != null && isInteriorStylable()) {
-			gradColEnd.set(col);
+			setAttribute(gradColEndProp, gradColEnd, col, v -> gradColEnd = v);
 		}
 	}
 
 	@Override
 	public void setGradColStart(final Color col) {
 		if(col != null && isInteriorStylable()) {
-			gradColStart.set(col);
+			setAttribute(gradColStartProp, gradColStart, col, v -> gradColStart = v);
 		}
 	}
 
 	@Override
 	public void setGradMidPt(final double pt) {
 		if(pt >= 0 && pt <= 1 && isInteriorStylable()) {
-			gradMidPt.set(pt);
+			setAttribute(gradMidPtProp, gradMidPt, pt, v -> gradMidPt = v);
 		}
 	}
 
 	@Override
 	public void setHasDbleBord(final boolean bord) {
 		if(isDbleBorderable()) {
-			hasDbleBord.set(bord);
+			setAttribute(hasDbleBordProp, hasDbleBord, bord, v -> hasDbleBord = v);
 		}
 	}
 
 	@Override
 	public void setHasShadow(final boolean shad) {
 		if(isShadowable()) {
-			hasShadow.set(shad);
+			setAttribute(hasShadowProp, hasShadow, shad, v -> hasShadow = v);
 		}
 	}
 
 	@Override
 	public void setHatchingsAngle(final double angle) {
 		if(MathUtils.INST.isValidCoord(angle) && isInteriorStylable()) {
-			hatchingsAngle.set(angle);
+			setAttribute(hatchingsAngleProp, hatchingsAngle, angle, v -> hatchingsAngle = v);
 		}
 	}
 
 	@Override
 	public void setHatchingsCol(final Color col) {
 		if(col != null && isInteriorStylable()) {
-			hatchingsCol.set(col);
+			setAttribute(hatchingsColProp, hatchingsCol, col, v -> hatchingsCol = v);
 		}
 	}
 
 	@Override
 	public void setHatchingsSep(final double sep) {
 		if(MathUtils.INST.isValidCoord(sep) && sep >= 0d && isInteriorStylable()) {
-			hatchingsSep.set(sep);
+			setAttribute(hatchingsSepProp, hatchingsSep, sep, v -> hatchingsSep = v);
 		}
 	}
 
 	@Override
 	public void setHatchingsWidth(final double width) {
 		if(MathUtils.INST.isValidCoord(width) && width > 0d && isInteriorStylable()) {
-			hatchingsWidth.set(width);
+			setAttribute(hatchingsWidthProp, hatchingsWidth, width, v -> hatchingsWidth = v);
 		}
 	}
 
 	@Override
 	public void setLineColour(final Color col) {
 		if(col != null) {
-			lineColour.set(col);
+			setAttribute(lineColourProp, lineColour, col, v -> lineColour = v);
 		}
 	}
 
 	@Override
 	public void setLineStyle(final LineStyle style) {
 		if(style != null && isLineStylable()) {
-			lineStyle.setValue(style);
+			setAttribute(lineStyleProp, lineStyle, style, v -> lineStyle = v);
 		}
 	}
 
@@ -641,40 +903,43 @@ abstract class LShape implements ISingleShape {
 	@Override
 	public void setRotationAngle(final double angle) {
 		if(MathUtils.INST.isValidCoord(angle)) {
-			rotationAngle.set(angle);
+			setAttribute(rotationAngleProp, rotationAngle, angle, v -> rotationAngle = v);
 		}
 	}
 
 	@Override
 	public void setShadowAngle(final double angle) {
 		if(isShadowable() && MathUtils.INST.isValidCoord(angle)) {
-			shadowAngle.set(angle);
+			setAttribute(shadowAngleProp, shadowAngle, angle, v -> shadowAngle = v);
 		}
 	}
 
 	@Override
 	public void setShadowCol(final Color col) {
 		if(col != null && isShadowable()) {
-			shadowCol.set(col);
+			setAttribute(shadowColProp, shadowCol, col, v -> shadowCol = v);
 		}
 	}
 
 	@Override
 	public void setShadowSize(final double size) {
 		if(isShadowable() && size > 0 && MathUtils.INST.isValidCoord(size)) {
-			shadowSize.set(size);
+			setAttribute(shadowSizeProp, shadowSize, size, v -> shadowSize = v);
 		}
 	}
 
 	@Override
 	public void setShowPts(final boolean pts) {
-		if(isShowPtsable()) showPts = pts;
+		if(isShowPtsable()) {
+			showPts = pts;
+			updateModificationStamp();
+		}
 	}
 
 	@Override
 	public void setThickness(final double thick) {
 		if(thick > 0 && isThicknessable() && MathUtils.INST.isValidCoord(thick)) {
-			thickness.setValue(thick);
+			setAttribute(thicknessProp, thickness, thick, v -> thickness = v);
 		}
 	}
 
@@ -685,7 +950,13 @@ abstract class LShape implements ISingleShape {
 
 	@Override
 	public void translate(final double tx, final double ty) {
-		if(MathUtils.INST.isValidPt(tx, ty)) points.forEach(pt -> pt.translate(tx, ty));
+		if(MathUtils.INST.isValidPt(tx, ty)) {
+			if(points instanceof LPackedPoints) {
+				((LPackedPoints) points).translate(tx, ty);
+			}else {
+				points.forEach(pt -> pt.translate(tx, ty));
+			}
+		}
 	}
 
 	@Override
@@ -704,26 +975,22 @@ abstract class LShape implements ISingleShape {
 
 	@Override
 	public IPoint getBottomRightPoint() {
-		return getNbPoints() == 1 ? ShapeFactory.INST.createPoint(getPtAt(0)) :
-			points.stream().reduce((p1, p2) -> ShapeFactory.INST.createPoint(Math.max(p1.getX(), p2.getX()), Math.max(p1.getY(), p2.getY()))).orElse(ShapeFactory.INST.createPoint());
+		return ShapeFactory.INST.createPoint(getMaxX(), getMaxY());
 	}
 
 	@Override
 	public IPoint getBottomLeftPoint() {
-		return getNbPoints() == 1 ? ShapeFactory.INST.createPoint(getPtAt(0)) :
-			points.stream().reduce((p1, p2) -> ShapeFactory.INST.createPoint(Math.min(p1.getX(), p2.getX()), Math.max(p1.getY(), p2.getY()))).orElse(ShapeFactory.INST.createPoint());
+		return ShapeFactory.INST.createPoint(getMinX(), getMaxY());
 	}
 
 	@Override
 	public IPoint getTopLeftPoint() {
-		return getNbPoints() == 1 ? ShapeFactory.INST.createPoint(getPtAt(0)) :
-			points.stream().reduce((p1, p2) -> ShapeFactory.INST.createPoint(Math.min(p1.getX(), p2.getX()), Math.min(p1.getY(), p2.getY()))).orElse(ShapeFactory.INST.createPoint());
+		return ShapeFactory.INST.createPoint(getMinX(), getMinY());
 	}
 
 	@Override
 	public IPoint getTopRightPoint() {
-		return getNbPoints() == 1 ? ShapeFactory.INST.createPoint(getPtAt(0)) :
-			points.stream().reduce((p1, p2) -> ShapeFactory.INST.createPoint(Math.max(p1.getX(), p2.getX()), Math.min(p1.getY(), p2.getY()))).orElse(ShapeFactory.INST.createPoint());
+		return ShapeFactory.INST.createPoint(getMaxX(), getMinY());
 	}
 
 	@Override
@@ -738,6 +1005,14 @@ abstract class LShape implements ISingleShape {
 	@Override
 	public void setModified(final boolean changed) {
 		modified = changed;
+		if(changed) {
+			updateModificationStamp();
+		}
+	}
+
+	@Override
+	public long getModificationStamp() {
+		return modificationStamp;
 	}
 
 	@Override
@@ -814,126 +1089,201 @@ abstract class LShape implements ISingleShape {
 
 	@Override
 	public DoubleProperty thicknessProperty() {
-		return thickness;
+		if(thicknessProp == null) {
+			thicknessProp = listened(new SimpleDoubleProperty(thickness));
+		}
+		return thicknessProp;
 	}
 
 	@Override
 	public ObjectProperty<LineStyle> linestyleProperty() {
-		return lineStyle;
+		if(lineStyleProp == null) {
+			lineStyleProp = listened(new SimpleObjectProperty<>(lineStyle));
+		}
+		return lineStyleProp;
 	}
 
 	@Override
 	public ObjectProperty<BorderPos> borderPosProperty() {
-		return bordersPosition;
+		if(bordersPositionProp == null) {
+			bordersPositionProp = listened(new SimpleObjectProperty<>(bordersPosition));
+		}
+		return bordersPositionProp;
 	}
 
 	@Override
 	public ObjectProperty<Color> lineColourProperty() {
-		return lineColour;
+		if(lineColourProp == null) {
+			lineColourProp = listened(new SimpleObjectProperty<>(lineColour));
+		}
+		return lineColourProp;
 	}
 
 	@Override
 	public ObjectProperty<FillingStyle> fillingProperty() {
-		return fillingStyle;
+		if(fillingStyleProp == null) {
+			fillingStyleProp = listened(new SimpleObjectProperty<>(fillingStyle));
+		}
+		return fillingStyleProp;
 	}
 
 	@Override
 	public DoubleProperty dashSepWhiteProperty() {
-		return dashSepWhite;
+		if(dashSepWhiteProp == null) {
+			dashSepWhiteProp = listened(new SimpleDoubleProperty(dashSepWhite));
+		}
+		return dashSepWhiteProp;
 	}
 
 	@Override
 	public DoubleProperty dashSepBlackProperty() {
-		return dashSepBlack;
+		if(dashSepBlackProp == null) {
+			dashSepBlackProp = listened(new SimpleDoubleProperty(dashSepBlack));
+		}
+		return dashSepBlackProp;
 	}
 
 	@Override
 	public DoubleProperty dotSepProperty() {
-		return dotSep;
+		if(dotSepProp == null) {
+			dotSepProp = listened(new SimpleDoubleProperty(dotSep));
+		}
+		return dotSepProp;
 	}
 
 	@Override
 	public BooleanProperty dbleBordProperty() {
-		return hasDbleBord;
+		if(hasDbleBordProp == null) {
+			hasDbleBordProp = listened(new SimpleBooleanProperty(hasDbleBord));
+		}
+		return hasDbleBordProp;
 	}
 
 	@Override
 	public DoubleProperty dbleBordSepProperty() {
-		return dbleBordSep;
+		if(dbleBordSepProp == null) {
+			dbleBordSepProp = listened(new SimpleDoubleProperty(dbleBordSep));
+		}
+		return dbleBordSepProp;
 	}
 
 	@Override
 	public ObjectProperty<Color> dbleBordColProperty() {
-		return dbleBordCol;
+		if(dbleBordColProp == null) {
+			dbleBordColProp = listened(new SimpleObjectProperty<>(dbleBordCol));
+		}
+		return dbleBordColProp;
 	}
 
 	@Override
 	public ObjectProperty<Color> gradColStartProperty() {
-		return gradColStart;
+		if(gradColStartProp == null) {
+			gradColStartProp = listened(new SimpleObjectProperty<>(gradColStart));
+		}
+		return gradColStartProp;
 	}
 
 	@Override
 	public ObjectProperty<Color> gradColEndProperty() {
-		return gradColEnd;
+		if(gradColEndProp == null) {
+			gradColEndProp = listened(new SimpleObjectProperty<>(gradColEnd));
+		}
+		return gradColEndProp;
 	}
 
 	@Override
 	public ObjectProperty<Color> fillingColProperty() {
-		return fillingCol;
+		if(fillingColProp == null) {
+			fillingColProp = listened(new SimpleObjectProperty<>(fillingCol));
+		}
+		return fillingColProp;
 	}
 
 	@Override
 	public DoubleProperty gradAngleProperty() {
-		return gradAngle;
+		if(gradAngleProp == null) {
+			gradAngleProp = listened(new SimpleDoubleProperty(gradAngle));
+		}
+		return gradAngleProp;
 	}
 
 	@Override
 	public DoubleProperty gradMidPtProperty() {
-		return gradMidPt;
+		if(gradMidPtProp == null) {
+			gradMidPtProp = listened(new SimpleDoubleProperty(gradMidPt));
+		}
+		return gradMidPtProp;
 	}
 
 	@Override
 	public BooleanProperty shadowProperty() {
-		return hasShadow;
+		if(hasShadowProp == null) {
+			hasShadowProp = listened(new SimpleBooleanProperty(hasShadow));
+		}
+		return hasShadowProp;
 	}
 
 	@Override
 	public ObjectProperty<Color> shadowColProperty() {
-		return shadowCol;
+		if(shadowColProp == null) {
+			shadowColProp = listened(new SimpleObjectProperty<>(shadowCol));
+		}
+		return shadowColProp;
 	}
 
 	@Override
 	public DoubleProperty shadowAngleProperty() {
-		return shadowAngle;
+		if(shadowAngleProp == null) {
+			shadowAngleProp = listened(new SimpleDoubleProperty(shadowAngle));
+		}
+		return shadowAngleProp;
 	}
 
 	@Override
 	public DoubleProperty shadowSizeProperty() {
-		return shadowSize;
+		if(shadowSizeProp == null) {
+			shadowSizeProp = listened(new SimpleDoubleProperty(shadowSize));
+		}
+		return shadowSizeProp;
 	}
 
 	@Override
 	public DoubleProperty hatchingsAngleProperty() {
-		return hatchingsAngle;
+		if(hatchingsAngleProp == null) {
+			hatchingsAngleProp = listened(new SimpleDoubleProperty(hatchingsAngle));
+		}
+		return hatchingsAngleProp;
 	}
 
 	@Override
 	public DoubleProperty hatchingsSepProperty() {
-		return hatchingsSep;
+		if(hatchingsSepProp == null) {
+			hatchingsSepProp = listened(new SimpleDoubleProperty(hatchingsSep));
+		}
+		return hatchingsSepProp;
 	}
 
 	@Override
 	public DoubleProperty hatchingsWidthProperty() {
-		return hatchingsWidth;
+		if(hatchingsWidthProp == null) {
+			hatchingsWidthProp = listened(new SimpleDoubleProperty(hatchingsWidth));
+		}
+		return hatchingsWidthProp;
 	}
 
 	@Override
 	public ObjectProperty<Color> hatchingsColProperty() {
-		return hatchingsCol;
+		if(hatchingsColProp == null) {
+			hatchingsColProp = listened(new SimpleObjectProperty<>(hatchingsCol));
+		}
+		return hatchingsColProp;
 	}
 
 	@Override
 	public DoubleProperty rotationAngleProperty() {
-		return rotationAngle;
+		if(rotationAngleProp == null) {
+			rotationAngleProp = listened(new SimpleDoubleProperty(rotationAngle));
+		}
+		return rotationAngleProp;
 	}
 }
@@ -0,0 +1,183 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import javafx.collections.ModifiableObservableListBase;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+
+/**
+ * The observable list of the shapes of drawings and groups.
+ * Contrary to the observable lists of FXCollections, the bulk operations (removal of shapes, insertion of shapes
+ * at different positions, removal of a range of shapes) are performed in a single pass over the list and notify
+ * the listeners with a single change. The shapes are compared by reference (shapes do not override equals).
+ * @author Arnaud Blouin
+ */
+final class LShapesList extends ModifiableObservableListBase<IShape> {
+	private List<IShape> shapes;
+
+	LShapesList() {
+		super();
+		shapes = new ArrayList<>();
+	}
+
+	@Override
+	public IShape get(final int index) {
+		return shapes.get(index);
+	}
+
+	@Override
+	public int size() {
+		return shapes.size();
+	}
+
+	@Override
+	protected void doAdd(final int index, final IShape element) {
+		shapes.add(index, element);
+	}
+
+	@Override
+	protected IShape doSet(final int index, final IShape element) {
+		return shapes.set(index, element);
+	}
+
+	@Override
+	protected IShape doRemove(final int index) {
+		return shapes.remove(index);
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> toRemove) {
+		final Map<Object, Integer> positions = new IdentityHashMap<>();
+		toRemove.forEach(obj -> positions.put(obj, -1));
+		return removeShapes(positions) > 0;
+	}
+
+	@Override
+	public void remove(final int from, final int to) {
+		removeRange(from, to);
+	}
+
+	@Override
+	protected void removeRange(final int from, final int to) {
+		if(from < 0 || to > shapes.size() || from > to) {
+			throw new IndexOutOfBoundsException("Invalid range: " + from + ", " + to); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if(from == to) return;
+
+		final List<IShape> range = shapes.subList(from, to);
+		beginChange();
+		try {
+			nextRemove(from, new ArrayList<>(range));
+			range.clear();
+			modCount++;
+		}finally {
+			endChange();
+		}
+	}
+
+	/**
+	 * Removes the given shapes.
+	 * @param toRemove The shapes to remove. The null shapes and the shapes that are not in the list are ignored.
+	 * @return The positions the given shapes had in the list (in the order of the given list); -1 for the shapes
+	 * that were not in the list.
+	 */
+	int[] removeShapes(final List<IShape> toRemove) {
+		final Map<Object, Integer> positions = new IdentityHashMap<>();
+		toRemove.forEach(sh -> positions.put(sh, -1));
+		removeShapes(positions);
+		return toRemove.stream().mapToInt(sh -> sh == null ? -1 : positions.get(sh)).toArray();
+	}
+
+	/**
+	 * Removes the shapes in a single pass: the kept shapes are copied in a new list.
+	 * @param positions The shapes to remove mapped to -1. Once removed, a shape is mapped to its former position.
+	 * @return The number of removed shapes.
+	 */
+	private int removeShapes(final Map<Object, Integer> positions) {
+		if(positions.isEmpty() || shapes.isEmpty()) return 0;
+
+		final List<IShape> kept = new ArrayList<>(shapes.size());
+		int nbRemoved = 0;
+
+		beginChange();
+		try {
+			for(int i = 0, size = shapes.size(); i < size; i++) {
+				final IShape sh = shapes.get(i);
+				final Integer pos = positions.get(sh);
+				if(pos != null && pos == -1) {
+					positions.put(sh, i);
+					// The position of the removal is given in the list updated by the previous removals.
+					nextRemove(kept.size(), sh);
+					nbRemoved++;
+				}else {
+					kept.add(sh);
+				}
+			}
+			if(nbRemoved > 0) {
+				shapes = kept;
+				modCount++;
+			}
+		}finally {
+			endChange();
+		}
+
+		return nbRemoved;
+	}
+
+	/**
+	 * Inserts shapes at the given positions (e.g. to put back removed shapes).
+	 * The shapes are inserted by increasing position so that each shape is at its position in the resulting list
+	 * when all the removed shapes are inserted back.
+	 * @param toAdd The shapes to add. The null shapes are ignored.
+	 * @param positions The positions of the shapes to add. Negative positions are ignored; positions greater
+	 * than the size of the list put the shapes at the end.
+	 * @throws IllegalArgumentException If the number of positions does not match the number of shapes.
+	 */
+	void addShapes(final List<IShape> toAdd, final int[] positions) {
+		if(positions.length != toAdd.size()) {
+			throw new IllegalArgumentException("The number of positions does not match the number of shapes: " + //$NON-NLS-1$
+				Arrays.toString(positions) + ", " + toAdd.size()); //$NON-NLS-1$
+		}
+
+		final int[] order = IntStream.range(0, positions.length).filter(i -> positions[i] >= 0 && toAdd.get(i) != null).boxed().
+			sorted(Comparator.comparingInt(i -> positions[i])).mapToInt(i -> i).toArray();
+
+		if(order.length == 0) return;
+
+		final List<IShape> merged = new ArrayList<>(shapes.size() + order.length);
+		int src = 0;
+
+		beginChange();
+		try {
+			for(final int i : order) {
+				while(merged.size() < positions[i] && src < shapes.size()) {
+					merged.add(shapes.get(src));
+					src++;
+				}
+				nextAdd(merged.size(), merged.size() + 1);
+				merged.add(toAdd.get(i));
+			}
+			merged.addAll(shapes.subList(src, shapes.size()));
+			shapes = merged;
+			modCount++;
+		}finally {
+			endChange();
+		}
+	}
+}
@@ -26,6 +26,7 @@ class LSquare extends LSquaredShape implements ISquare {
 	LSquare(final IPoint tl, final double width) {
 		super(tl, width);
 		lineArcProp = new LineArcProp();
+		lineArcProp.frameArc.addListener(stampUpdater);
 	}
 
 	@Override
@@ -49,6 +49,7 @@ class LText extends LPositionShape implements IText {
 
 		this.text = new SimpleStringProperty(text == null || text.isEmpty() ? "text" : text); //$NON-NLS-1$
 		textPosition = TextPosition.BOT_LEFT;
+		this.text.addListener(stampUpdater);
 	}
 
 	@Override
@@ -104,6 +105,7 @@ class LText extends LPositionShape implements IText {
 	public void setTextPosition(final TextPosition textPosition) {
 		if(textPosition != null) {
 			this.textPosition = textPosition;
+			updateModificationStamp();
 		}
 	}
 
@@ -0,0 +1,206 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import net.sf.latexdraw.actions.ExportFormat;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.util.LPath;
+import net.sf.latexdraw.view.pst.PSTricksConstants;
+import org.sourceforge.jlibeps.epsgraphics.EpsGraphics2D;
+
+/**
+ * The images and the EPS pictures of the pictures, identified by the path and the modification date of their source file.
+ * The pictures that have the same source (e.g. duplicated pictures, undo/redo) share the same image, loaded when
+ * required and kept while the memory allows it: the pictures do not keep their image, only its size.
+ * The EPS picture of a source is created once, in background, the first time it is required.
+ * This class is thread-safe.
+ * @author Arnaud Blouin
+ */
+final class PictureCache {
+	static final PictureCache INSTANCE = new PictureCache();
+
+	/** The loaded images. */
+	private final Map<String, SoftReference<Image>> images;
+	/** The EPS pictures being created or created. */
+	private final Map<String, CompletableFuture<String>> epsPictures;
+	/** Creates the EPS pictures one at a time (the encoding of large pictures requires a lot of memory). */
+	private final ExecutorService pool;
+
+
+	private PictureCache() {
+		super();
+		images = new HashMap<>();
+		epsPictures = new HashMap<>();
+		pool = Executors.newSingleThreadExecutor(task -> {
+			final Thread thread = new Thread(task, "latexdraw-eps-pictures"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+
+	/**
+	 * @return The key of the given source file: its path and its modification date.
+	 */
+	private static String getKey(final String pathSource) {
+		return pathSource + '#' + new File(pathSource).lastModified();
+	}
+
+
+	/**
+	 * @param pathSource The path of the source file.
+	 * @return The image of the given source file (loaded if not cached).
+	 */
+	Image getImage(final String pathSource) {
+		final String key = getKey(pathSource);
+
+		synchronized(images) {
+			final SoftReference<Image> ref = images.get(key);
+			final Image cached = ref == null ? null : ref.get();
+			if(cached != null) return cached;
+		}
+
+		final Image image = new Image(new File(pathSource).toURI().toString());
+
+		// Images that cannot be loaded are not cached so that a next attempt loads them again.
+		if(!image.isError()) {
+			synchronized(images) {
+				images.values().removeIf(ref -> ref.get() == null);
+				images.put(key, new SoftReference<>(image));
+			}
+		}
+
+		return image;
+	}
+
+
+	/**
+	 * @param pathSource The path of the source file.
+	 * @return The width and the height of the image of the given source file, read from the header of the file when
+	 * possible (the image is not decoded). {0, 0} if the image cannot be read.
+	 */
+	double[] getImageSize(final String pathSource) {
+		try(final ImageInputStream input = ImageIO.createImageInputStream(new File(pathSource))) {
+			final Iterator<ImageReader> readers = input == null ? Collections.emptyIterator() : ImageIO.getImageReaders(input);
+			if(readers.hasNext()) {
+				final ImageReader reader = readers.next();
+				try {
+					reader.setInput(input, true, true);
+					return new double[] {reader.getWidth(0), reader.getHeight(0)};
+				}finally {
+					reader.dispose();
+				}
+			}
+		}catch(final IOException | RuntimeException ignored) {
+			// The image is decoded below.
+		}
+
+		final Image image = getImage(pathSource);
+		return image.isError() ? new double[] {0d, 0d} : new double[] {image.getWidth(), image.getHeight()};
+	}
+
+
+	/**
+	 * @param pathSource The path of the source file.
+	 * @return The path of the EPS picture of the given source file: next to the source file if possible, in the cache
+	 * directory of LaTeXDraw otherwise. The EPS picture may not be created yet.
+	 */
+	static String getPathTarget(final String pathSource) {
+		final int indexName = pathSource.lastIndexOf(File.separator) + 1;
+		final int indexExt = pathSource.lastIndexOf('.');
+		final String name = pathSource.substring(indexName, indexExt < indexName ? pathSource.length() : indexExt) + ExportFormat.EPS_LATEX.getFileExtension();
+		final File file = new File(pathSource.substring(0, indexName) + name);
+		final File dir = file.getAbsoluteFile().getParentFile();
+
+		if(file.exists() ? file.canWrite() : dir != null && dir.canWrite()) {
+			return file.getPath();
+		}
+
+		return LPath.PATH_CACHE_DIR + File.separator + name;
+	}
+
+
+	/**
+	 * Creates in background the EPS picture of the given source file if it is not already created.
+	 * @param pathSource The path of the source file.
+	 * @return The path of the EPS picture once written; completed exceptionally if the picture cannot be written.
+	 */
+	CompletableFuture<String> getEPSPicture(final String pathSource) {
+		final String key = getKey(pathSource);
+		final String pathTarget = getPathTarget(pathSource);
+
+		synchronized(epsPictures) {
+			final CompletableFuture<String> eps = epsPictures.get(key);
+
+			// The EPS picture is created again if it failed or if it has been removed since.
+			if(eps != null && (!eps.isDone() || !eps.isCompletedExceptionally() && new File(pathTarget).exists())) {
+				return eps;
+			}
+
+			final CompletableFuture<String> newEps = CompletableFuture.supplyAsync(() -> {
+				try {
+					// The image is decoded in background too.
+					createEPSImage(getImage(pathSource), pathTarget);
+					return pathTarget;
+				}catch(final IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}, pool);
+			epsPictures.put(key, newEps);
+			return newEps;
+		}
+	}
+
+
+	/**
+	 * Creates an EPS image from the source one.
+	 * @throws IOException If a problem while reading/writing files occurs.
+	 */
+	private static void createEPSImage(final Image image, final String pathTarget) throws IOException {
+		final File file = new File(pathTarget);
+		final File dir = file.getAbsoluteFile().getParentFile();
+
+		if(dir != null) {
+			dir.mkdirs();
+		}
+
+		// Within jlibeps, graphics are defined using 72 DPI (72/2.54=28,3465 PPC), but latexdraw uses 50 PPC.
+		// That's why, we need the scale the graphics to have a 50 PPC eps picture.
+		final double scale = 72.0 / PSTricksConstants.INCH_VAL_CM / IShape.PPC;// 72 DPI / 2.54 / 50 PPC
+		try(FileOutputStream finalImage = new FileOutputStream(file)) {
+			final EpsGraphics2D g = new EpsGraphics2D("LaTeXDrawPicture", finalImage, 0, 0, (int) (image.getWidth() * scale), (int) (image.getHeight() * scale));//$NON-NLS-1$
+			g.scale(scale, scale);
+			final BufferedImage buff = SwingFXUtils.fromFXImage(image, null);
+			g.drawImage(buff, 0, 0, null);
+			g.flush();
+			g.close();
+			buff.flush();
+		}
+	}
+}
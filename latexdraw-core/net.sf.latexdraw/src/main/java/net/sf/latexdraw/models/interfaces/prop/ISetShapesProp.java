@@ -10,6 +10,7 @@
  */
 package net.sf.latexdraw.models.interfaces.prop;
 
+import java.util.List;
 import javafx.collections.ObservableList;
 import net.sf.latexdraw.models.interfaces.shape.IShape;
 
@@ -46,6 +47,50 @@ public interface ISetShapesProp {
 	 */
 	IShape removeShape(final int i);
 
+	/**
+	 * Adds shapes at the end of the drawing. The listeners of the shapes list are notified once.
+	 * @param shapes The shapes to add. The null shapes and the empty sets of shapes are ignored (as addShape does).
+	 * @since 4.0
+	 */
+	void addShapes(final List<IShape> shapes);
+
+	/**
+	 * Inserts shapes at the given positions, e.g. to put back the shapes removed by removeShapes.
+	 * The shapes are inserted by increasing position: once all the shapes are inserted, each shape is at its position.
+	 * The listeners of the shapes list are notified once.
+	 * @param shapes The shapes to insert. The null shapes and the empty sets of shapes are ignored.
+	 * @param positions The positions of the shapes (positions[i] is the position of shapes.get(i)). Negative positions
+	 * are ignored. The shapes whose position is greater than the size of the drawing are added at the end.
+	 * @throws IllegalArgumentException If the number of positions does not match the number of shapes.
+	 * @since 4.0
+	 */
+	void addShapes(final List<IShape> shapes, final int[] positions);
+
+	/**
+	 * Removes shapes from the drawing. The listeners of the shapes list are notified once.
+	 * @param shapes The shapes to remove. The null shapes and the shapes that are not in the drawing are ignored.
+	 * @return The positions the given shapes had in the drawing (positions[i] is the position of shapes.get(i));
+	 * -1 for the ignored shapes. Can be given to addShapes to put back the shapes.
+	 * @since 4.0
+	 */
+	int[] removeShapes(final List<IShape> shapes);
+
+	/**
+	 * Removes the shapes located in the given range. The listeners of the shapes list are notified once.
+	 * @param from The position of the first shape to remove (inclusive).
+	 * @param to The position of the last shape to remove (exclusive).
+	 * @return The removed shapes. Empty if the range is not valid.
+	 * @since 4.0
+	 */
+	List<IShape> removeShapes(final int from, final int to);
+
+	/**
+	 * Replaces the shapes of the drawing by the given ones. The listeners of the shapes list are notified once.
+	 * @param shapes The new shapes. The null shapes and the empty sets of shapes are ignored.
+	 * @since 4.0
+	 */
+	void setShapes(final List<IShape> shapes);
+
 	/**
 	 * Allows to get the shape located at the given position.
 	 * @param i The position of the figure (-1: the last shape of the drawing).
@@ -12,6 +12,7 @@ package net.sf.latexdraw.models.interfaces.shape;
 
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import net.sf.latexdraw.models.interfaces.prop.IFreeHandProp;
 
 /**
@@ -29,6 +30,19 @@ public interface IFreehand extends IFreeHandProp, ISingleShape, IClosable {
 	 */
 	IntegerProperty intervalProperty();
 
+	/**
+	 * Adds a point at the end of the shape (e.g. while the shape is drawn).
+	 * @param pt The point to add. Its coordinates are copied. Nothing is done if the point is not valid.
+	 * @since 4.0
+	 */
+	void addPoint(final IPoint pt);
+
+	/**
+	 * @return The property of the number of points of the shape. Changes each time a point is added.
+	 * @since 4.0
+	 */
+	ReadOnlyIntegerProperty nbPointsProperty();
+
 	@Override
 	IFreehand duplicate();
 }
@@ -11,6 +11,7 @@
 package net.sf.latexdraw.models.interfaces.shape;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import javafx.scene.image.Image;
 
 /**
@@ -31,12 +32,20 @@ public interface IPicture extends IPositionShape {
 	void setPathSource(final String pathSource) throws IOException;
 
 	/**
-	 * @return the pathTarget.
+	 * @return The path of the EPS picture used by the PST code. The EPS picture is created in background if it does not
+	 * exist yet: use getEPSPicture to wait for it.
 	 */
 	String getPathTarget();
 
 	/**
-	 * @return the image.
+	 * Creates in background the EPS picture if it does not exist yet.
+	 * @return The path of the EPS picture once it is written (completed exceptionally if it cannot be written).
+	 * @since 4.0
+	 */
+	CompletableFuture<String> getEPSPicture();
+
+	/**
+	 * @return The image at full resolution (decoded if it is not cached: prefer getWidth and getHeight to get its size).
 	 */
 	Image getImage();
 
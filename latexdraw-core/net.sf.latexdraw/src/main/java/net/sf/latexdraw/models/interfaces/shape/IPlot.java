@@ -28,6 +28,14 @@ public interface IPlot extends IPositionShape, IPlotProp {
 	 */
 	double getY(final double x);
 
+	/**
+	 * Computes the Y coordinates of several X coordinates in a row (faster than calling getY(double) for each X).
+	 * @param xs The X coordinates.
+	 * @param ys The array to fill with the corresponding Y coordinates. Must be at least as long as xs.
+	 * @since 4.0
+	 */
+	void getY(final double[] xs, final double[] ys);
+
 	BooleanProperty polarProperty();
 
 	StringProperty plotEquationProperty();
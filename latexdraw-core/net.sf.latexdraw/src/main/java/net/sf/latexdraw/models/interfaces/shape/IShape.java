@@ -141,6 +141,42 @@ public interface IShape extends Modifiable {
 	 */
 	IPoint getBottomLeftPoint();
 
+	/**
+	 * @return The minimal X-coordinate of the shape, i.e. the X-coordinate of the top left point.
+	 * In contrary to getTopLeftPoint(), no point is created.
+	 * @since 4.0
+	 */
+	double getMinX();
+
+	/**
+	 * @return The minimal Y-coordinate of the shape, i.e. the Y-coordinate of the top left point.
+	 * In contrary to getTopLeftPoint(), no point is created.
+	 * @since 4.0
+	 */
+	double getMinY();
+
+	/**
+	 * @return The maximal X-coordinate of the shape, i.e. the X-coordinate of the bottom right point.
+	 * In contrary to getBottomRightPoint(), no point is created.
+	 * @since 4.0
+	 */
+	double getMaxX();
+
+	/**
+	 * @return The maximal Y-coordinate of the shape, i.e. the Y-coordinate of the bottom right point.
+	 * In contrary to getBottomRightPoint(), no point is created.
+	 * @since 4.0
+	 */
+	double getMaxY();
+
+	/**
+	 * @return A stamp that changes each time the shape is modified, i.e. when its geometry changes or when it is
+	 * flagged as modified (setModified(true)). Two successive stamps of a shape are not equal if the shape has been
+	 * modified in between. Useful to cache data computed from the shape.
+	 * @since 4.0
+	 */
+	long getModificationStamp();
+
 	/**
 	 * @return The top left point of the shape. It takes account
 	 * of the thickness, the rotation angle, the double border, or any
@@ -10,51 +10,88 @@
  */
 package net.sf.latexdraw.parsers.ps;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
+import net.sf.latexdraw.models.MathUtils;
 import net.sf.latexdraw.util.Tuple;
 
 /**
  * A postscript function parser.
+ * The function is compiled once into a program of op codes that is evaluated on a stack of primitive doubles:
+ * the evaluation of the function does not allocate any object. The stack is reused between two evaluations so
+ * that a parser must not be used by several threads at the same time.
  * @author Arnaud Blouin
  */
 public class PSFunctionParser {
-	/** The postscript function. */
-	private final String function;
-	private final List<PSArithemticCommand> commands;
-	private static final Map<String, Supplier<PSArithemticCommand>> factoryMap;
+	private static final int OP_VALUE = 0;
+	private static final int OP_X = 1;
+	private static final int OP_ADD = 2;
+	private static final int OP_SUB = 3;
+	private static final int OP_MUL = 4;
+	private static final int OP_DIV = 5;
+	private static final int OP_IDIV = 6;
+	private static final int OP_MOD = 7;
+	private static final int OP_EXP = 8;
+	private static final int OP_SIN = 9;
+	private static final int OP_COS = 10;
+	private static final int OP_LOG = 11;
+	private static final int OP_SQRT = 12;
+	private static final int OP_NEG = 13;
+	private static final int OP_ABS = 14;
+	private static final int OP_FLOOR = 15;
+	private static final int OP_CEILING = 16;
+	private static final int OP_EXCH = 17;
+	private static final int OP_CLEAR = 18;
+	private static final int OP_DUP = 19;
+	private static final int OP_POP = 20;
+	private static final int OP_COUNT = 21;
+	private static final int OP_ROLL = 22;
+
+	/** The number of operands popped by each op code (indexed by op code). */
+	private static final int[] NB_OPERANDS = {0, 0, 2, 2, 2, 2, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1, 2, 0, 1, 1, 0, 2};
+	/** The number of values pushed by each op code (indexed by op code). */
+	private static final int[] NB_RESULTS = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 2, 0, 2, 0, 1, 0};
+
+	private static final Map<String, Integer> opCodes;
 
 	static {
-		factoryMap = new HashMap<>();
-		factoryMap.put("add", () -> new PSAddCommand());
-		factoryMap.put("mul", () -> new PSMulCommand());
-		factoryMap.put("sub", () -> new PSSubCommand());
-		factoryMap.put("sin", () -> new PSSinCommand());
-		factoryMap.put("cos", () -> new PSCosCommand());
-		factoryMap.put("div", () -> new PSDivCommand());
-		factoryMap.put("idiv", () -> new PSIDivCommand());
-		factoryMap.put("mod", () -> new PSModCommand());
-		factoryMap.put("neg", () -> new PSNegCommand());
-		factoryMap.put("exch", () -> new PSExchCommand());
-		factoryMap.put("clear", () -> new PSClearCommand());
-		factoryMap.put("dup", () -> new PSDupCommand());
-		factoryMap.put("pop", () -> new PSPopCommand());
-		factoryMap.put("roll", () -> null);
-		factoryMap.put("sqrt", () -> null);
-		factoryMap.put("exp", () -> new PSExpCommand());
-		factoryMap.put("abs", () -> new PSAbsCommand());
-		factoryMap.put("floor", () -> new PSFloorCommand());
-		factoryMap.put("ceiling", () -> new PSCeilingCommand());
-		factoryMap.put("count", () -> new PSCountCommand());
-		factoryMap.put("x", () -> new PSPlotXVariable());
-		factoryMap.put("log", () -> new PSLogCommand());
+		opCodes = new HashMap<>();
+		opCodes.put("add", OP_ADD);
+		opCodes.put("mul", OP_MUL);
+		opCodes.put("sub", OP_SUB);
+		opCodes.put("sin", OP_SIN);
+		opCodes.put("cos", OP_COS);
+		opCodes.put("div", OP_DIV);
+		opCodes.put("idiv", OP_IDIV);
+		opCodes.put("mod", OP_MOD);
+		opCodes.put("neg", OP_NEG);
+		opCodes.put("exch", OP_EXCH);
+		opCodes.put("clear", OP_CLEAR);
+		opCodes.put("dup", OP_DUP);
+		opCodes.put("pop", OP_POP);
+		opCodes.put("roll", OP_ROLL);
+		opCodes.put("sqrt", OP_SQRT);
+		opCodes.put("exp", OP_EXP);
+		opCodes.put("abs", OP_ABS);
+		opCodes.put("floor", OP_FLOOR);
+		opCodes.put("ceiling", OP_CEILING);
+		opCodes.put("count", OP_COUNT);
+		opCodes.put("x", OP_X);
+		opCodes.put("log", OP_LOG);
 	}
 
+	/** The postscript function. */
+	private final String function;
+	/** The compiled function: one op code per command. */
+	private int[] program;
+	/** The constants used by the OP_VALUE op codes (same indexes as the program). */
+	private double[] values;
+	/** The stack used to evaluate the program. Its size is the maximal depth the program can reach. */
+	private double[] stack;
+	/** False if the stack of the program underflows or if the program produces no value. */
+	private boolean valid;
+
 	/**
 	 * Creates and parser from postscript functions.
 	 * @param fct The function to parse.
@@ -65,10 +102,12 @@ public class PSFunctionParser {
 		super();
 		if(fct == null || fct.isEmpty()) throw new IllegalArgumentException();
 
-		commands = new ArrayList<>();
 		function = fct;
+		program = new int[0];
+		values = new double[0];
 
 		parseFunction();
+		checkProgram();
 	}
 
 	/**
@@ -114,13 +153,159 @@ public class PSFunctionParser {
 	 * @throws ArithmeticException If an error occurs during the computation of the points (e.g. division by 0).
 	 */
 	public double getY(final double x) {
-		final Deque<Double> stack = new ArrayDeque<>();
+		if(!valid) throw new InvalidFormatPSFunctionException();
+		return execute(x);
+	}
+
+	/**
+	 * Computes the Y-coordinates of several X-coordinates in a row.
+	 * @param xs The X-coordinates used to compute the Y using the function.
+	 * @param ys The array to fill with the computed Y-coordinates. Must be at least as long as xs. Can be xs itself.
+	 * @throws InvalidFormatPSFunctionException If the function is not correct.
+	 * @throws ArithmeticException If an error occurs during the computation of the points (e.g. division by 0).
+	 * @throws IllegalArgumentException If ys is shorter than xs.
+	 * @since 4.0
+	 */
+	public void getY(final double[] xs, final double[] ys) {
+		if(ys.length < xs.length) throw new IllegalArgumentException();
+		if(!valid) throw new InvalidFormatPSFunctionException();
+
+		for(int i = 0; i < xs.length; i++) {
+			ys[i] = execute(xs[i]);
+		}
+	}
+
+	/**
+	 * Evaluates the compiled program. The depth of the stack is known at each step since the program has been checked:
+	 * only the roll command, whose operands are computed, requires checks.
+	 */
+	private double execute(final double x) {
+		final int[] ops = program;
+		final double[] st = stack;
+		int top = 0;
+		double a;
+		double b;
 
-		commands.forEach(cmd -> cmd.execute(stack, x));
+		for(int i = 0; i < ops.length; i++) {
+			switch(ops[i]) {
+				case OP_VALUE:
+					st[top++] = values[i];
+					break;
+				case OP_X:
+					st[top++] = x;
+					break;
+				case OP_ADD:
+					top--;
+					st[top - 1] += st[top];
+					break;
+				case OP_SUB:
+					top--;
+					st[top - 1] -= st[top];
+					break;
+				case OP_MUL:
+					top--;
+					st[top - 1] *= st[top];
+					break;
+				case OP_DIV:
+					a = checkDivisor(st[--top]);
+					st[top - 1] /= a;
+					break;
+				case OP_IDIV:
+					a = checkDivisor(st[--top]);
+					st[top - 1] = Math.floor(st[top - 1] / a);
+					break;
+				case OP_MOD:
+					a = checkDivisor(st[--top]);
+					st[top - 1] %= a;
+					break;
+				case OP_EXP:
+					top--;
+					st[top - 1] = Math.pow(st[top - 1], st[top]);
+					break;
+				case OP_SIN:
+					st[top - 1] = Math.sin(Math.toRadians(st[top - 1]));
+					break;
+				case OP_COS:
+					st[top - 1] = Math.cos(Math.toRadians(st[top - 1]));
+					break;
+				case OP_LOG:
+					st[top - 1] = Math.log10(st[top - 1]);
+					break;
+				case OP_SQRT:
+					st[top - 1] = Math.sqrt(st[top - 1]);
+					break;
+				case OP_NEG:
+					st[top - 1] = -st[top - 1];
+					break;
+				case OP_ABS:
+					st[top - 1] = Math.abs(st[top - 1]);
+					break;
+				case OP_FLOOR:
+					st[top - 1] = Math.floor(st[top - 1]);
+					break;
+				case OP_CEILING:
+					st[top - 1] = Math.ceil(st[top - 1]);
+					break;
+				case OP_EXCH:
+					b = st[top - 1];
+					st[top - 1] = st[top - 2];
+					st[top - 2] = b;
+					break;
+				case OP_CLEAR:
+					top = 0;
+					break;
+				case OP_DUP:
+					st[top] = st[top - 1];
+					top++;
+					break;
+				case OP_POP:
+					top--;
+					break;
+				case OP_COUNT:
+					st[top] = top;
+					top++;
+					break;
+				case OP_ROLL:
+					top -= 2;
+					roll(st, top, st[top], st[top + 1]);
+					break;
+				default:
+					throw new InvalidFormatPSFunctionException();
+			}
+		}
 
-		if(stack.isEmpty()) throw new InvalidFormatPSFunctionException();
+		return st[top - 1];
+	}
 
-		return stack.pop();
+	private static double checkDivisor(final double divisor) {
+		if(MathUtils.INST.equalsDouble(divisor, 0d)) throw new ArithmeticException();
+		return divisor;
+	}
+
+	/**
+	 * Performs a circular shift of the n top values of the stack by j positions (upward if j is positive).
+	 */
+	private static void roll(final double[] st, final int top, final double n, final double j) {
+		if(n < 0d || n > top || n != Math.floor(n) || j != Math.floor(j)) throw new InvalidFormatPSFunctionException();
+
+		final int nb = (int) n;
+		if(nb == 0) return;
+
+		final int shift = Math.floorMod((int) j, nb);
+		if(shift == 0) return;
+
+		final int first = top - nb;
+		reverse(st, first, top - 1);
+		reverse(st, first, first + shift - 1);
+		reverse(st, first + shift, top - 1);
+	}
+
+	private static void reverse(final double[] st, final int from, final int to) {
+		for(int i = from, k = to; i < k; i++, k--) {
+			final double tmp = st[i];
+			st[i] = st[k];
+			st[k] = tmp;
+		}
 	}
 
 	/**
@@ -145,25 +330,56 @@ public class PSFunctionParser {
 			}
 
 			if(cmd.length() > 0) {
-				commands.add(identifyCommand(cmd.toString()));
+				addCommand(cmd.toString());
 			}
 		}
 	}
 
 	/**
+	 * Compiles the given command and appends it to the program.
 	 * @param cmd The arithmetic command to analyse.
-	 * @return The arithmetic instance corresponding to the given command.
 	 * @throws InvalidFormatPSFunctionException If the function is not correct.
-	 * @throws NumberFormatException If the function is not correct.
-	 * @since 3.0
 	 */
-	protected PSArithemticCommand identifyCommand(final String cmd) {
-		if(cmd == null || cmd.isEmpty()) throw new InvalidFormatPSFunctionException();
+	private void addCommand(final String cmd) {
+		final int pos = program.length;
+		final Integer op = opCodes.get(cmd);
 
-		try {
-			return factoryMap.getOrDefault(cmd, () -> new PSValue(Double.parseDouble(cmd))).get();
-		}catch(final NumberFormatException ex) {
-			throw new InvalidFormatPSFunctionException("Cannot parse: " + cmd); //$NON-NLS-1$
+		program = Arrays.copyOf(program, pos + 1);
+		values = Arrays.copyOf(values, pos + 1);
+
+		if(op == null) {
+			try {
+				values[pos] = Double.parseDouble(cmd);
+				program[pos] = OP_VALUE;
+			}catch(final NumberFormatException ex) {
+				throw new InvalidFormatPSFunctionException("Cannot parse: " + cmd); //$NON-NLS-1$
+			}
+		}else {
+			program[pos] = op;
 		}
 	}
+
+	/**
+	 * Computes the depth of the stack at each step of the program to check that the stack never underflows and
+	 * to allocate the stack once.
+	 */
+	private void checkProgram() {
+		int depth = 0;
+		int maxDepth = 0;
+		valid = true;
+
+		for(int i = 0; i < program.length && valid; i++) {
+			final int op = program[i];
+
+			if(depth < NB_OPERANDS[op]) {
+				valid = false;
+			}else {
+				depth = op == OP_CLEAR ? 0 : depth - NB_OPERANDS[op] + NB_RESULTS[op];
+				maxDepth = Math.max(maxDepth, depth);
+			}
+		}
+
+		valid = valid && depth > 0;
+		stack = new double[maxDepth];
+	}
 }
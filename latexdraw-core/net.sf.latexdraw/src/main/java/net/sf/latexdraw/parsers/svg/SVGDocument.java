@@ -10,9 +10,12 @@
  */
 package net.sf.latexdraw.parsers.svg;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -20,6 +23,7 @@ import java.nio.charset.Charset;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import net.sf.latexdraw.badaboom.BadaboomCollector;
 import org.w3c.dom.Attr;
 import org.w3c.dom.CDATASection;
@@ -69,15 +73,46 @@ public class SVGDocument implements Document {
 	/**
 	 * The constructor. An URI defines the location of the SVG document to parse. If the document is valid,
 	 * the document is read an place in the <code>root</code> attribute.
+	 * The document is read in a single pass using a streaming parser.
 	 * @param uri The file to parse.
 	 * @throws MalformedSVGDocument If an error occurs.
 	 * @throws IOException If the document cannot be opened.
 	 * @throws IllegalArgumentException If a n argument is not valid.
 	 */
 	public SVGDocument(final URI uri) throws MalformedSVGDocument, IOException {
+		this(uri, false);
+	}
+
+
+	/**
+	 * The constructor. An URI defines the location of the SVG document to parse. If the document is valid,
+	 * the document is read an place in the <code>root</code> attribute.
+	 * @param uri The file to parse.
+	 * @param useDOM True: the document is first parsed into a DOM document that is then copied (requires more time and memory).
+	 * False: the document is read in a single pass using a streaming parser. If the streaming parser fails, the DOM parsing is used.
+	 * @throws MalformedSVGDocument If an error occurs.
+	 * @throws IOException If the document cannot be opened.
+	 * @throws IllegalArgumentException If a n argument is not valid.
+	 * @since 4.0
+	 */
+	public SVGDocument(final URI uri, final boolean useDOM) throws MalformedSVGDocument, IOException {
 		super();
 		if(uri == null) throw new IllegalArgumentException();
 
+		if(useDOM) {
+			parseDOM(uri);
+		}else {
+			try(final InputStream in = new BufferedInputStream(new FileInputStream(uri.getPath()))) {
+				root = new SVGStreamReader(this).read(in);
+			}catch(final XMLStreamException ex) {
+				// The DOM parser reports the errors of the document, if any.
+				parseDOM(uri);
+			}
+		}
+	}
+
+
+	private void parseDOM(final URI uri) throws MalformedSVGDocument, IOException {
 		try {
 			final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 			final DocumentBuilder builder = factory.newDocumentBuilder();
@@ -179,6 +214,14 @@ public class SVGDocument implements Document {
 	}
 
 
+	/**
+	 * @param encoding The encoding of the document.
+	 */
+	void setXmlEncoding(final String encoding) {
+		xmlEncoding = encoding;
+	}
+
+
 	@Override
 	public void setXmlStandalone(final boolean xmlStandalone) {
 		this.xmlStandalone = xmlStandalone;
@@ -101,7 +101,9 @@ public abstract class SVGElement implements LElement, Cloneable {
 
 		if(p != null) {
 			ownerDocument = p.getOwnerDocument();
-			setParent(p);
+			// The element is new so that it cannot already be a child of p (setParent would check that in linear time).
+			parent = p;
+			p.children.getNodes().add(this);
 		}
 
 		setAttributes(n);
@@ -0,0 +1,244 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.parsers.svg;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.w3c.dom.Node;
+
+/**
+ * Builds the SVG elements of an SVG document in a single pass using a StAX parser.
+ * Contrary to the DOM parsing, no intermediate DOM document is created: each SVG element is created as soon as its
+ * start tag is read. The SVG elements are created by the SVG element factory from a lightweight node that contains
+ * the name and the attributes of the element only: the children are then added one by one to the created element.
+ * @author Arnaud Blouin
+ */
+final class SVGStreamReader {
+	/** The property of the JDK StAX parser that reports CDATA sections as such (to follow the DOM parsing). */
+	private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event"; //$NON-NLS-1$
+
+	/** The document to fill. */
+	private final SVGDocument doc;
+	/** The elements currently read (their end tag has not been read yet). */
+	private final Deque<ReadElement> openElements;
+	/** The depth of the current element in a sub-tree that is ignored (0 if the current element is not ignored). */
+	private int skipDepth;
+	/** The root element. */
+	private SVGSVGElement root;
+
+
+	/**
+	 * Creates the reader.
+	 * @param document The document to fill.
+	 */
+	SVGStreamReader(final SVGDocument document) {
+		super();
+		doc = document;
+		openElements = new ArrayDeque<>();
+	}
+
+
+	/**
+	 * Reads the given SVG document and sets the XML properties of the document.
+	 * @param in The stream of the SVG document.
+	 * @return The root of the SVG document or null if the document element is not an SVG element.
+	 * @throws XMLStreamException If the document is not a well-formed XML document.
+	 * @throws MalformedSVGDocument If the SVG root element is not valid.
+	 */
+	SVGSVGElement read(final InputStream in) throws XMLStreamException, MalformedSVGDocument {
+		final XMLStreamReader reader = createFactory().createXMLStreamReader(in);
+
+		try {
+			doc.setXmlVersion(reader.getVersion() == null ? "1.0" : reader.getVersion()); //$NON-NLS-1$
+			doc.setXmlStandalone(reader.isStandalone());
+			doc.setXmlEncoding(reader.getCharacterEncodingScheme());
+
+			while(reader.hasNext()) {
+				switch(reader.next()) {
+					case XMLStreamConstants.START_ELEMENT:
+						startElement(reader);
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						endElement();
+						break;
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.SPACE:
+						if(isReadingElement()) {
+							openElements.peek().addText(reader.getText(), false);
+						}
+						break;
+					case XMLStreamConstants.CDATA:
+						if(isReadingElement()) {
+							openElements.peek().addText(reader.getText(), true);
+						}
+						break;
+					case XMLStreamConstants.COMMENT:
+					case XMLStreamConstants.PROCESSING_INSTRUCTION:
+						if(isReadingElement()) {
+							openElements.peek().addNode();
+						}
+						break;
+					default:
+						break;
+				}
+			}
+		}finally {
+			reader.close();
+		}
+
+		return root;
+	}
+
+
+	private static XMLInputFactory createFactory() {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+
+		// The internal DTD subset is supported (entities) but external DTDs must not be loaded (this may freeze the loading).
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.TRUE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		factory.setXMLResolver((publicID, systemID, baseURI, namespace) -> new ByteArrayInputStream(new byte[0]));
+
+		if(factory.isPropertySupported(REPORT_CDATA)) {
+			factory.setProperty(REPORT_CDATA, Boolean.TRUE);
+		}
+
+		return factory;
+	}
+
+
+	private boolean isReadingElement() {
+		return skipDepth == 0 && !openElements.isEmpty();
+	}
+
+
+	private void startElement(final XMLStreamReader reader) throws MalformedSVGDocument {
+		if(skipDepth > 0) {
+			skipDepth++;
+			return;
+		}
+
+		final OtherNSElement node = createNode(reader);
+
+		if(openElements.isEmpty()) {
+			// The document element.
+			if(root == null && node.getNodeName().endsWith(SVGElements.SVG_SVG)) {
+				root = new SVGSVGElement(doc, (Node) node);
+				openElements.push(new ReadElement(root));
+			}else {
+				skipDepth = 1;
+			}
+		}else {
+			final ReadElement parent = openElements.peek();
+			parent.addNode();
+			final SVGElement elt = SVGElementsFactory.INSTANCE.createSVGElement(node, parent.elt);
+
+			// As for the DOM parsing, the sub-tree of an element that cannot be created is ignored.
+			if(elt == null) {
+				skipDepth = 1;
+			}else {
+				openElements.push(new ReadElement(elt));
+			}
+		}
+	}
+
+
+	private void endElement() {
+		if(skipDepth > 0) {
+			skipDepth--;
+		}else {
+			openElements.pop().end();
+		}
+	}
+
+
+	/**
+	 * @return A node that contains the name and the attributes (including the namespace declarations) of the current element.
+	 */
+	private OtherNSElement createNode(final XMLStreamReader reader) {
+		final OtherNSElement node = new OtherNSElement(doc);
+
+		node.setNodeName(getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+
+		for(int i = 0, size = reader.getNamespaceCount(); i < size; i++) {
+			final String prefix = reader.getNamespacePrefix(i);
+			final String uri = reader.getNamespaceURI(i);
+			node.attributes.getAttributes().add(new SVGAttr(prefix == null || prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix, //$NON-NLS-1$ //$NON-NLS-2$
+				uri == null ? "" : uri, node)); //$NON-NLS-1$
+		}
+
+		for(int i = 0, size = reader.getAttributeCount(); i < size; i++) {
+			node.attributes.getAttributes().add(new SVGAttr(getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+				reader.getAttributeValue(i), node));
+		}
+
+		// The DOM parser sorts the attributes by name.
+		node.attributes.getAttributes().sort(Comparator.comparing(SVGAttr::getName));
+
+		return node;
+	}
+
+
+	private static String getQualifiedName(final String prefix, final String localName) {
+		return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+	}
+
+
+	/**
+	 * An element being read. Follows the child nodes of the element to set its text content as the DOM parsing does:
+	 * only when the element contains a single text (or CDATA) node.
+	 */
+	private static final class ReadElement {
+		final SVGElement elt;
+		/** The number of child nodes (elements, texts, comments, etc.) read so far. */
+		int nbNodes;
+		/** True if the last child node is a text node that can be continued (the parser may split a text). */
+		boolean textNode;
+		/** The text of the first child node if it is a text one. */
+		StringBuilder text;
+
+		ReadElement(final SVGElement element) {
+			super();
+			elt = element;
+		}
+
+		void addNode() {
+			nbNodes++;
+			textNode = false;
+		}
+
+		void addText(final String txt, final boolean cdata) {
+			if(textNode && !cdata) {
+				if(nbNodes == 1) {
+					text.append(txt);
+				}
+			}else {
+				nbNodes++;
+				textNode = !cdata;
+				if(nbNodes == 1) {
+					text = new StringBuilder(txt);
+				}
+			}
+		}
+
+		void end() {
+			if(nbNodes == 1 && text != null) {
+				elt.setTextContent(text.toString());
+			}
+		}
+	}
+}
@@ -11,43 +11,68 @@
 package net.sf.latexdraw.util;
 
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 /**
- * This singleton removes white margins of an image.
+ * This singleton removes the empty margins of an image: a pixel is empty when its ARGB value is 0 (transparent).
+ * The pixels of the ARGB images are directly read from their data buffer (int and byte rasters); the other images
+ * are read row by row. The margins are found from the top and bottom rows, then the left and right margins are
+ * narrowed row by row, each row being scanned until the current margins only.
  * @author Arnaud BLOUIN
  */
 public final class ImageCropper {
 	public static final ImageCropper INSTANCE = new ImageCropper();
 
+	/** The minimal number of rows processed by a thread when the rows are processed in parallel. */
+	private static final int MIN_ROWS_PER_TASK = 64;
+
 	private ImageCropper() {
 		super();
 	}
 
 	/**
-	 * Removes the white margins of the given image.
+	 * Removes the empty margins of the given image.
 	 * @param img The image to crop.
-	 * @return The cropped image or null if the given image is null or fully white.
+	 * @return The cropped image or null if the given image is null or fully empty.
 	 * @since 3.0
 	 */
 	public BufferedImage cropImage(final BufferedImage img) {
+		return cropImage(img, false);
+	}
+
+	/**
+	 * Removes the empty margins of the given image.
+	 * @param img The image to crop.
+	 * @param parallel True: the rows of the image are processed in parallel (worth it for multi-megapixel images).
+	 * @return The cropped image or null if the given image is null or fully empty. The returned image shares the
+	 * pixels of the given image when this last is an ARGB int image (a sub-image); otherwise it is a copy of
+	 * type TYPE_INT_ARGB_PRE.
+	 */
+	public BufferedImage cropImage(final BufferedImage img, final boolean parallel) {
 		if(img == null) return null;
 
-		final int width = img.getWidth();
-		final int height = img.getHeight();
+		final Optional<Rectangle> bounds = getContentBounds(img, parallel);
 
-		if(width == 0 && height == 0) return null;
+		if(!bounds.isPresent()) return null;
 
-		final int left = getLeft(img, width, height);
-		final int right = getRight(img, width, height);
-		final int top = getTop(img, width, height, left, right);
-		final int bottom = getBottom(img, width, height, left, right);
-		final int newWidth = img.getWidth(null) - left - right;
-		final int newHeight = img.getHeight(null) - top - bottom;
-		final BufferedImage cropped = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB_PRE);
-		Graphics g = cropped.getGraphics();
+		final Rectangle rec = bounds.get();
 
-		g.drawImage(img, 0, 0, newWidth, newHeight, left, top, newWidth + left, newHeight + top, null);
+		if(img.getType() == BufferedImage.TYPE_INT_ARGB_PRE || img.getType() == BufferedImage.TYPE_INT_ARGB) {
+			return img.getSubimage(rec.x, rec.y, rec.width, rec.height);
+		}
+
+		final BufferedImage cropped = new BufferedImage(rec.width, rec.height, BufferedImage.TYPE_INT_ARGB_PRE);
+		final Graphics g = cropped.getGraphics();
+		g.drawImage(img, 0, 0, rec.width, rec.height, rec.x, rec.y, rec.x + rec.width, rec.y + rec.height, null);
 		g.dispose();
 
 		return cropped;
@@ -55,79 +80,229 @@ public final class ImageCropper {
 
 
 	/**
-	 * Gets the bottom position where a pixel is not white.
+	 * @param img The image to analyse.
+	 * @param parallel True: the rows of the image are processed in parallel.
+	 * @return The smallest rectangle that contains the non-empty pixels of the image or nothing if the image is null or fully empty.
 	 */
-	private int getBottom(final BufferedImage img, final int width, final int height, final int left, final int right) {
-		int bottom = 0;
-		int y = height - 1;
+	public Optional<Rectangle> getContentBounds(final BufferedImage img, final boolean parallel) {
+		if(img == null || img.getWidth() == 0 || img.getHeight() == 0) return Optional.empty();
+
+		final int width = img.getWidth();
+		final int height = img.getHeight();
 
-		while(y >= 0 && !hasColouredPixelRow(img, y, left, width - right)) {
-			bottom++;
-			y--;
+		// Without alpha, no pixel has a 0 ARGB value.
+		if(!img.getColorModel().hasAlpha()) {
+			return Optional.of(new Rectangle(0, 0, width, height));
 		}
-		return bottom;
+
+		final RowScanner scanner = createScanner(img);
+		int top = 0;
+
+		while(top < height && scanner.first(top, 0, width) < 0) {
+			top++;
+		}
+
+		if(top == height) return Optional.empty();
+
+		int bottom = height - 1;
+
+		while(scanner.first(bottom, 0, width) < 0) {
+			bottom--;
+		}
+
+		final int[] leftRight;
+
+		if(parallel && bottom - top + 1 >= 2 * MIN_ROWS_PER_TASK) {
+			final int nbTasks = Math.min((bottom - top + 1) / MIN_ROWS_PER_TASK, Runtime.getRuntime().availableProcessors() * 4);
+			final int firstRow = top;
+			final int nbRows = bottom - top + 1;
+			leftRight = IntStream.range(0, nbTasks).parallel().
+				mapToObj(task -> getLeftRight(scanner, firstRow + nbRows * task / nbTasks, firstRow + nbRows * (task + 1) / nbTasks - 1, width)).
+				reduce((lr1, lr2) -> new int[] {Math.min(lr1[0], lr2[0]), Math.max(lr1[1], lr2[1])}).
+				orElseGet(() -> getLeftRight(scanner, firstRow, firstRow + nbRows - 1, width));
+		}else {
+			leftRight = getLeftRight(scanner, top, bottom, width);
+		}
+
+		return Optional.of(new Rectangle(leftRight[0], top, leftRight[1] - leftRight[0] + 1, bottom - top + 1));
 	}
 
 
 	/**
-	 * Gets the top position where a pixel is not white.
+	 * @return The leftmost and rightmost non-empty columns of the given rows (that contain at least one non-empty pixel).
 	 */
-	private int getTop(final BufferedImage img, final int width, final int height, final int left, final int right) {
-		int top = 0;
+	private static int[] getLeftRight(final RowScanner scanner, final int fromRow, final int toRow, final int width) {
+		int left = width;
+		int right = -1;
 
-		while(top < height && !hasColouredPixelRow(img, top, left, width - right)) {
-			top++;
+		for(int y = fromRow; y <= toRow && (left > 0 || right < width - 1); y++) {
+			// Only the pixels outside the current margins are scanned.
+			final int first = scanner.first(y, 0, left);
+			if(first >= 0) {
+				left = first;
+			}
+			final int last = scanner.last(y, right + 1, width);
+			if(last >= 0) {
+				right = last;
+			}
+		}
+
+		return new int[] {left, right};
+	}
+
+
+	private static RowScanner createScanner(final BufferedImage img) {
+		final WritableRaster raster = img.getRaster();
+		final DataBuffer buffer = raster.getDataBuffer();
+		final int offsetX = -raster.getSampleModelTranslateX();
+		final int offsetY = -raster.getSampleModelTranslateY();
+
+		if((img.getType() == BufferedImage.TYPE_INT_ARGB || img.getType() == BufferedImage.TYPE_INT_ARGB_PRE) &&
+			buffer instanceof DataBufferInt && raster.getSampleModel() instanceof SinglePixelPackedSampleModel) {
+			final SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) raster.getSampleModel();
+			return new IntRowScanner(((DataBufferInt) buffer).getData(), buffer.getOffset() + offsetY * model.getScanlineStride() + offsetX,
+				model.getScanlineStride());
+		}
+
+		if((img.getType() == BufferedImage.TYPE_4BYTE_ABGR || img.getType() == BufferedImage.TYPE_4BYTE_ABGR_PRE) &&
+			buffer instanceof DataBufferByte && raster.getSampleModel() instanceof PixelInterleavedSampleModel) {
+			final PixelInterleavedSampleModel model = (PixelInterleavedSampleModel) raster.getSampleModel();
+			return new ByteRowScanner(((DataBufferByte) buffer).getData(), buffer.getOffset() + offsetY * model.getScanlineStride() +
+				offsetX * model.getPixelStride(), model.getScanlineStride(), model.getPixelStride());
 		}
 
-		return top;
+		return new RGBRowScanner(img);
 	}
 
 
 	/**
-	 * Gets the right position where a pixel is not white.
+	 * Finds the non-empty pixels of the rows of an image.
 	 */
-	private int getRight(final BufferedImage img, final int width, final int height) {
-		int right = 0;
-		int x = width - 1;
+	private interface RowScanner {
+		/**
+		 * @return The first x in [from, to[ of the given row whose pixel is not empty, or -1.
+		 */
+		int first(final int y, final int from, final int to);
 
-		while(x >= 0 && !hasColouredPixelColumn(img, x, height)) {
-			right++;
-			x--;
-		}
-		return right;
+		/**
+		 * @return The last x in [from, to[ of the given row whose pixel is not empty, or -1.
+		 */
+		int last(final int y, final int from, final int to);
 	}
 
 
 	/**
-	 * Gets the left position where a pixel is not white.
+	 * Scans the pixels of the ARGB int images (one int per pixel).
 	 */
-	private int getLeft(final BufferedImage img, final int width, final int height) {
-		int left = 0;
+	private static final class IntRowScanner implements RowScanner {
+		private final int[] data;
+		private final int offset;
+		private final int scanline;
 
-		while(left < width && !hasColouredPixelColumn(img, left, height)) {
-			left++;
+		IntRowScanner(final int[] data, final int offset, final int scanline) {
+			super();
+			this.data = data;
+			this.offset = offset;
+			this.scanline = scanline;
 		}
 
-		return left;
+		@Override
+		public int first(final int y, final int from, final int to) {
+			final int row = offset + y * scanline;
+			for(int x = from; x < to; x++) {
+				if(data[row + x] != 0) return x;
+			}
+			return -1;
+		}
+
+		@Override
+		public int last(final int y, final int from, final int to) {
+			final int row = offset + y * scanline;
+			for(int x = to - 1; x >= from; x--) {
+				if(data[row + x] != 0) return x;
+			}
+			return -1;
+		}
 	}
 
 
-	private boolean hasColouredPixelColumn(final BufferedImage img, final int x, final int imgHeight) {
-		for(int y = 0; y < imgHeight; y++) {
-			if(img.getRGB(x, y) != 0) {
-				return true;
+	/**
+	 * Scans the pixels of the ABGR byte images (four bytes per pixel).
+	 */
+	private static final class ByteRowScanner implements RowScanner {
+		private final byte[] data;
+		private final int offset;
+		private final int scanline;
+		private final int pixelStride;
+
+		ByteRowScanner(final byte[] data, final int offset, final int scanline, final int pixelStride) {
+			super();
+			this.data = data;
+			this.offset = offset;
+			this.scanline = scanline;
+			this.pixelStride = pixelStride;
+		}
+
+		private boolean isEmpty(final int pos) {
+			return data[pos] == 0 && data[pos + 1] == 0 && data[pos + 2] == 0 && data[pos + 3] == 0;
+		}
+
+		@Override
+		public int first(final int y, final int from, final int to) {
+			final int row = offset + y * scanline;
+			for(int x = from; x < to; x++) {
+				if(!isEmpty(row + x * pixelStride)) return x;
 			}
+			return -1;
+		}
+
+		@Override
+		public int last(final int y, final int from, final int to) {
+			final int row = offset + y * scanline;
+			for(int x = to - 1; x >= from; x--) {
+				if(!isEmpty(row + x * pixelStride)) return x;
+			}
+			return -1;
 		}
-		return false;
 	}
 
 
-	private boolean hasColouredPixelRow(final BufferedImage img, final int y, final int min, final int max) {
-		for(int x = min; x < max; x++) {
-			if(img.getRGB(x, y) != 0) {
-				return true;
+	/**
+	 * Scans the pixels of the other images using their ARGB values (fetched by row chunks).
+	 */
+	private static final class RGBRowScanner implements RowScanner {
+		private static final int CHUNK = 256;
+		private final BufferedImage img;
+
+		RGBRowScanner(final BufferedImage img) {
+			super();
+			this.img = img;
+		}
+
+		@Override
+		public int first(final int y, final int from, final int to) {
+			final int[] pixels = new int[CHUNK];
+			for(int x = from; x < to; x += CHUNK) {
+				final int size = Math.min(CHUNK, to - x);
+				img.getRGB(x, y, size, 1, pixels, 0, size);
+				for(int i = 0; i < size; i++) {
+					if(pixels[i] != 0) return x + i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public int last(final int y, final int from, final int to) {
+			final int[] pixels = new int[CHUNK];
+			for(int x = to; x > from; x -= CHUNK) {
+				final int size = Math.min(CHUNK, x - from);
+				img.getRGB(x - size, y, size, 1, pixels, 0, size);
+				for(int i = size - 1; i >= 0; i--) {
+					if(pixels[i] != 0) return x - size + i;
+				}
 			}
+			return -1;
 		}
-		return false;
 	}
 }
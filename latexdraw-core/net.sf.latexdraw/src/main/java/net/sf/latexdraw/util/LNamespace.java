@@ -70,6 +70,10 @@ public final class LNamespace {
 	public static final String XML_ROOT_PREFERENCES 	= "preferences";		//$NON-NLS-1$
 	public static final String XML_OPENGL	 			= "openGL";				//$NON-NLS-1$
 	public static final String XML_PATH_EXPORT 			= "pathExport";			//$NON-NLS-1$
+	public static final String XML_EXPORT_DPI 			= "exportDPI";			//$NON-NLS-1$
+	public static final String XML_VIRTUALISED 			= "virtualised";		//$NON-NLS-1$
+	public static final String XML_FREE_HAND_TOLERANCE 	= "freeHandTolerance";	//$NON-NLS-1$
+	public static final String XML_LOD_QUALITY 		= "lodQuality";			//$NON-NLS-1$
 	public static final String XML_PATH_OPEN 			= "pathOpen";			//$NON-NLS-1$
 	public static final String XML_CHECK_VERSION 		= "checkVersion";		//$NON-NLS-1$
 	public static final String XML_LANG 				= "lang";				//$NON-NLS-1$
@@ -220,7 +220,7 @@ public final class LSystem {
 	}
 
 	/**
-	 * Executes a command.
+	 * Executes a command. If the current thread is interrupted while waiting for the command, the process is killed.
 	 * @param cmd The execution command
 	 * @param tmpdir The working dir
 	 * @return The log.
@@ -231,9 +231,11 @@ public final class LSystem {
 			return null;
 		}
 
+		Process process = null;
+
 		try {
 			// Command launched
-			final Process process = Runtime.getRuntime().exec(cmd, null, tmpdir);
+			process = Runtime.getRuntime().exec(cmd, null, tmpdir);
 			// Catch the error log
 			final StreamExecReader err = new StreamExecReader(process.getErrorStream());
 			// Catch the log
@@ -246,7 +248,12 @@ public final class LSystem {
 			process.waitFor();
 
 			return err.getLog() + EOL + inp.getLog();
-		}catch(final IOException | SecurityException | InterruptedException ex) {
+		}catch(final InterruptedException ex) {
+			// The calling task is cancelled: the process is killed and the thread stays interrupted.
+			process.destroyForcibly();
+			Thread.currentThread().interrupt();
+			return "Cancelled command: " + Arrays.toString(cmd); //$NON-NLS-1$
+		}catch(final IOException | SecurityException ex) {
 			return "ERR while execute the command : " + Arrays.toString(cmd) + ": " + ex.getMessage(); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 	}
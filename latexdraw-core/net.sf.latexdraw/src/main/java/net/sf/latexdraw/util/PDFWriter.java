@@ -0,0 +1,230 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a PDF document object by object: the objects are written as soon as they are given, the cross-reference
+ * table is written when the writer is closed.
+ * The objects are identified by their number, given by the writer. An object can be referenced before being written
+ * by reserving its number.
+ * @author Arnaud Blouin
+ */
+public final class PDFWriter implements Closeable {
+	private static final byte[] HEADER = "%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n".getBytes(StandardCharsets.ISO_8859_1); //$NON-NLS-1$
+
+	private final CountingOutputStream out;
+	/** The position of the objects in the document (-1 if not written yet); the index 0 is the object 1. */
+	private final List<Long> offsets;
+	/** The number of the catalog of the document. */
+	private int root;
+
+
+	/**
+	 * Creates the writer and writes the header of the document.
+	 * @param output The stream where the document is written. Not closed by the writer.
+	 * @throws IOException If the header cannot be written.
+	 */
+	public PDFWriter(final OutputStream output) throws IOException {
+		super();
+		out = new CountingOutputStream(output);
+		offsets = new ArrayList<>();
+		root = -1;
+		out.write(HEADER);
+	}
+
+
+	/**
+	 * @param value The number to format.
+	 * @return The given number formatted for PDF: no exponent, 4 decimals at most.
+	 */
+	public static String format(final double value) {
+		if(!Double.isFinite(value)) return "0"; //$NON-NLS-1$
+		final BigDecimal dec = BigDecimal.valueOf(Math.round(value * 10000d), 4).stripTrailingZeros();
+		return dec.signum() == 0 ? "0" : dec.toPlainString(); //$NON-NLS-1$
+	}
+
+
+	/**
+	 * @param num The number of an object.
+	 * @return The reference to the given object.
+	 */
+	public static String ref(final int num) {
+		return num + " 0 R"; //$NON-NLS-1$
+	}
+
+
+	/**
+	 * Reserves the number of an object that will be written later.
+	 * @return The number of the object.
+	 */
+	public int reserve() {
+		offsets.add(-1L);
+		return offsets.size();
+	}
+
+
+	/**
+	 * Writes an object.
+	 * @param content The content of the object (e.g. a dictionary).
+	 * @return The number of the object.
+	 * @throws IOException If the object cannot be written.
+	 */
+	public int addObject(final String content) throws IOException {
+		final int num = reserve();
+		writeObject(num, content);
+		return num;
+	}
+
+
+	/**
+	 * Writes a stream compressed with the Flate filter.
+	 * @param dictionary The entries of the dictionary of the stream, without the length and the filter.
+	 * @param data The data of the stream.
+	 * @return The number of the object.
+	 * @throws IOException If the object cannot be written.
+	 */
+	public int addStream(final String dictionary, final byte[] data) throws IOException {
+		final int num = reserve();
+		writeStream(num, dictionary, data);
+		return num;
+	}
+
+
+	/**
+	 * Writes a reserved object.
+	 * @param num The number of the object.
+	 * @param content The content of the object (e.g. a dictionary).
+	 * @throws IOException If the object cannot be written.
+	 * @throws IllegalArgumentException If the object is not reserved or already written.
+	 */
+	public void writeObject(final int num, final String content) throws IOException {
+		beginObject(num);
+		out.write(content.getBytes(StandardCharsets.ISO_8859_1));
+		endObject();
+	}
+
+
+	/**
+	 * Writes a reserved stream compressed with the Flate filter.
+	 * @param num The number of the object.
+	 * @param dictionary The entries of the dictionary of the stream, without the length and the filter.
+	 * @param data The data of the stream.
+	 * @throws IOException If the object cannot be written.
+	 * @throws IllegalArgumentException If the object is not reserved or already written.
+	 */
+	public void writeStream(final int num, final String dictionary, final byte[] data) throws IOException {
+		final ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2 + 64);
+		final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+		try(final DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater)) {
+			deflate.write(data);
+		}finally {
+			deflater.end();
+		}
+
+		beginObject(num);
+		out.write(("<<" + dictionary + "/Length " + compressed.size() + "/Filter/FlateDecode>>\nstream\n"). //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			getBytes(StandardCharsets.ISO_8859_1));
+		compressed.writeTo(out);
+		out.write("\nendstream".getBytes(StandardCharsets.ISO_8859_1)); //$NON-NLS-1$
+		endObject();
+	}
+
+
+	/**
+	 * @param catalog The number of the catalog of the document.
+	 */
+	public void setRoot(final int catalog) {
+		root = catalog;
+	}
+
+
+	private void beginObject(final int num) throws IOException {
+		if(num < 1 || num > offsets.size() || offsets.get(num - 1) >= 0L) {
+			throw new IllegalArgumentException("Object not reserved or already written: " + num); //$NON-NLS-1$
+		}
+		offsets.set(num - 1, out.count);
+		out.write((num + " 0 obj\n").getBytes(StandardCharsets.ISO_8859_1)); //$NON-NLS-1$
+	}
+
+
+	private void endObject() throws IOException {
+		out.write("\nendobj\n".getBytes(StandardCharsets.ISO_8859_1)); //$NON-NLS-1$
+	}
+
+
+	/**
+	 * Writes the cross-reference table and the trailer of the document. The stream is flushed but not closed.
+	 * @throws IllegalStateException If the catalog is not set or if a reserved object is not written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if(root < 1 || root > offsets.size()) {
+			throw new IllegalStateException("No catalog"); //$NON-NLS-1$
+		}
+		if(offsets.contains(-1L)) {
+			throw new IllegalStateException("Object not written: " + (offsets.indexOf(-1L) + 1)); //$NON-NLS-1$
+		}
+
+		final long xref = out.count;
+		final StringBuilder table = new StringBuilder();
+		table.append("xref\n0 ").append(offsets.size() + 1).append("\n0000000000 65535 f \n"); //$NON-NLS-1$ //$NON-NLS-2$
+		offsets.forEach(offset -> table.append(String.format(Locale.ROOT, "%010d 00000 n \n", offset))); //$NON-NLS-1$
+		table.append("trailer\n<</Size ").append(offsets.size() + 1).append("/Root ").append(ref(root)). //$NON-NLS-1$ //$NON-NLS-2$
+			append(">>\nstartxref\n").append(xref).append("\n%%EOF\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		out.write(table.toString().getBytes(StandardCharsets.ISO_8859_1));
+		out.flush();
+	}
+
+
+	/**
+	 * Counts the written bytes to compute the position of the objects.
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+		private final OutputStream output;
+		long count;
+
+		CountingOutputStream(final OutputStream stream) {
+			super();
+			output = stream;
+			count = 0L;
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			output.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			output.write(b, off, len);
+			count += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			output.flush();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.util;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an opaque RGB PNG image row by row: the image is never entirely in memory.
+ * The rows are given as ARGB pixels (the alpha is ignored) and are encoded with the Sub filter.
+ * @author Arnaud Blouin
+ */
+public final class PNGStreamWriter implements Closeable {
+	private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+	/** The maximal size of the IDAT chunks. */
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private final DataOutputStream out;
+	private final int width;
+	private final int height;
+	private final DeflaterOutputStream data;
+	private final Deflater deflater;
+	/** The filtered bytes of a row. */
+	private final byte[] row;
+	private int nbRows;
+
+
+	/**
+	 * Creates the writer and writes the header of the image.
+	 * @param output The stream where the image is written. Not closed by the writer.
+	 * @param imgWidth The width of the image.
+	 * @param imgHeight The height of the image.
+	 * @param dpi The resolution of the image (dots per inch) written in the image; ignored if not positive.
+	 * @throws IOException If the header cannot be written.
+	 * @throws IllegalArgumentException If the size of the image is not valid.
+	 */
+	public PNGStreamWriter(final OutputStream output, final int imgWidth, final int imgHeight, final double dpi) throws IOException {
+		super();
+		if(imgWidth < 1 || imgHeight < 1 || (long) imgWidth * 3L + 1L > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid size: " + imgWidth + 'x' + imgHeight); //$NON-NLS-1$
+		}
+
+		out = new DataOutputStream(output);
+		width = imgWidth;
+		height = imgHeight;
+		row = new byte[width * 3 + 1];
+		nbRows = 0;
+		out.write(SIGNATURE);
+
+		final byte[] header = new byte[13];
+		writeInt(header, 0, width);
+		writeInt(header, 4, height);
+		header[8] = 8; // 8 bits per channel
+		header[9] = 2; // RGB
+		writeChunk("IHDR", header, 0, header.length); //$NON-NLS-1$
+
+		if(dpi > 0d) {
+			final byte[] phys = new byte[9];
+			final int ppm = (int) Math.round(dpi / 0.0254);
+			writeInt(phys, 0, ppm);
+			writeInt(phys, 4, ppm);
+			phys[8] = 1; // The unit is the metre.
+			writeChunk("pHYs", phys, 0, phys.length); //$NON-NLS-1$
+		}
+
+		deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+		data = new DeflaterOutputStream(new ChunkStream(), deflater, CHUNK_SIZE);
+	}
+
+
+	/**
+	 * Writes rows of the image.
+	 * @param argb The pixels of the rows (ARGB, the alpha is ignored).
+	 * @param offset The position of the first pixel of the first row in the given array.
+	 * @param scanline The distance between the first pixels of two consecutive rows in the given array.
+	 * @param rows The number of rows to write.
+	 * @throws IOException If the rows cannot be written.
+	 * @throws IllegalStateException If more rows than the height of the image are written.
+	 */
+	public void writeRows(final int[] argb, final int offset, final int scanline, final int rows) throws IOException {
+		if(nbRows + rows > height) {
+			throw new IllegalStateException("Too many rows"); //$NON-NLS-1$
+		}
+
+		for(int y = 0; y < rows; y++) {
+			final int start = offset + y * scanline;
+			int prev = 0;
+			row[0] = 1; // Sub filter: each byte minus the same byte of the previous pixel.
+			for(int x = 0, pos = 1; x < width; x++, pos += 3) {
+				final int px = argb[start + x];
+				row[pos] = (byte) ((px >> 16) - (prev >> 16));
+				row[pos + 1] = (byte) ((px >> 8) - (prev >> 8));
+				row[pos + 2] = (byte) (px - prev);
+				prev = px;
+			}
+			data.write(row);
+		}
+
+		nbRows += rows;
+	}
+
+
+	/**
+	 * Ends the image. The given output stream is not closed.
+	 * @throws IOException If the image cannot be ended.
+	 * @throws IllegalStateException If some rows are missing.
+	 */
+	@Override
+	public void close() throws IOException {
+		if(nbRows != height) {
+			throw new IllegalStateException("Missing rows: " + (height - nbRows)); //$NON-NLS-1$
+		}
+		data.finish();
+		deflater.end();
+		writeChunk("IEND", new byte[0], 0, 0); //$NON-NLS-1$
+		out.flush();
+	}
+
+
+	private void writeChunk(final String type, final byte[] bytes, final int offset, final int length) throws IOException {
+		final byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+		final CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(bytes, offset, length);
+		out.writeInt(length);
+		out.write(typeBytes);
+		out.write(bytes, offset, length);
+		out.writeInt((int) crc.getValue());
+	}
+
+
+	private static void writeInt(final byte[] bytes, final int pos, final int value) {
+		bytes[pos] = (byte) (value >>> 24);
+		bytes[pos + 1] = (byte) (value >>> 16);
+		bytes[pos + 2] = (byte) (value >>> 8);
+		bytes[pos + 3] = (byte) value;
+	}
+
+
+	/**
+	 * Writes the compressed data as IDAT chunks.
+	 */
+	private final class ChunkStream extends OutputStream {
+		@Override
+		public void write(final int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			for(int pos = off, end = off + len; pos < end; pos += CHUNK_SIZE) {
+				writeChunk("IDAT", b, pos, Math.min(CHUNK_SIZE, end - pos)); //$NON-NLS-1$
+			}
+		}
+	}
+}
@@ -0,0 +1,447 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A R-tree (Guttman, quadratic split) that indexes objects by their axis-aligned bounding box.
+ * Each object can be indexed only once: inserting an already indexed object updates its bounds.
+ * Lookups of the objects intersecting a rectangle are logarithmic in the number of indexed objects.
+ * This class is not thread-safe.
+ * @param <T> The type of the indexed objects.
+ * @author Arnaud Blouin
+ */
+public class RTree<T> {
+	/** The maximal number of children of a node. */
+	static final int MAX_ENTRIES = 16;
+	/** The minimal number of children of a node (the root excepted). */
+	static final int MIN_ENTRIES = 6;
+
+	/** The entries of the tree, used to find the leaf of an object without browsing the tree. */
+	private final Map<T, Entry<T>> entries;
+
+	private Node root;
+
+	/**
+	 * Creates an empty R-tree.
+	 */
+	public RTree() {
+		super();
+		entries = new HashMap<>();
+		root = new Node(true);
+	}
+
+	/**
+	 * @return The number of indexed objects.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return True if no object is indexed.
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * @param obj The object to look for.
+	 * @return True if the given object is indexed.
+	 */
+	public boolean contains(final T obj) {
+		return obj != null && entries.containsKey(obj);
+	}
+
+	/**
+	 * Removes all the indexed objects.
+	 */
+	public void clear() {
+		entries.clear();
+		root = new Node(true);
+	}
+
+	/**
+	 * Indexes the given object using the given bounds. If the object is already indexed, its bounds are updated.
+	 * Does nothing if the object is null or if the bounds are not valid.
+	 * @param obj The object to index.
+	 * @param minX The min X-coordinate of the bounds of the object.
+	 * @param minY The min Y-coordinate of the bounds of the object.
+	 * @param maxX The max X-coordinate of the bounds of the object.
+	 * @param maxY The max Y-coordinate of the bounds of the object.
+	 */
+	public void insert(final T obj, final double minX, final double minY, final double maxX, final double maxY) {
+		if(obj == null || !isValidBox(minX, minY, maxX, maxY)) return;
+
+		final Entry<T> existing = entries.get(obj);
+
+		if(existing != null) {
+			if(existing.minX == minX && existing.minY == minY && existing.maxX == maxX && existing.maxY == maxY) {
+				return;
+			}
+			remove(obj);
+		}
+
+		final Entry<T> entry = new Entry<>(obj, minX, minY, maxX, maxY);
+		entries.put(obj, entry);
+		insertEntry(entry);
+	}
+
+	/**
+	 * Removes the given object from the index.
+	 * @param obj The object to remove.
+	 * @return True if the object was indexed.
+	 */
+	public boolean remove(final T obj) {
+		if(obj == null) return false;
+
+		final Entry<T> entry = entries.remove(obj);
+
+		if(entry == null) return false;
+
+		final Node leaf = entry.parent;
+		leaf.children.remove(entry);
+		condenseTree(leaf);
+		return true;
+	}
+
+	/**
+	 * Gathers the objects whose bounds intersect the given rectangle.
+	 * @param minX The min X-coordinate of the rectangle.
+	 * @param minY The min Y-coordinate of the rectangle.
+	 * @param maxX The max X-coordinate of the rectangle.
+	 * @param maxY The max Y-coordinate of the rectangle.
+	 * @return The found objects. Cannot be null.
+	 */
+	public List<T> search(final double minX, final double minY, final double maxX, final double maxY) {
+		final List<T> found = new ArrayList<>();
+		search(minX, minY, maxX, maxY, found::add);
+		return found;
+	}
+
+	/**
+	 * Calls the given consumer on each object whose bounds intersect the given rectangle.
+	 * @param minX The min X-coordinate of the rectangle.
+	 * @param minY The min Y-coordinate of the rectangle.
+	 * @param maxX The max X-coordinate of the rectangle.
+	 * @param maxY The max Y-coordinate of the rectangle.
+	 * @param consumer The consumer that receives the found objects. Does nothing if null.
+	 */
+	public void search(final double minX, final double minY, final double maxX, final double maxY, final Consumer<T> consumer) {
+		if(consumer != null && isValidBox(minX, minY, maxX, maxY) && !entries.isEmpty()) {
+			search(root, minX, minY, maxX, maxY, consumer);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void search(final Node node, final double minX, final double minY, final double maxX, final double maxY, final Consumer<T> consumer) {
+		for(final Box box : node.children) {
+			if(box.intersects(minX, minY, maxX, maxY)) {
+				if(node.leaf) {
+					consumer.accept(((Entry<T>) box).obj);
+				}else {
+					search((Node) box, minX, minY, maxX, maxY, consumer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The height of the tree (1 when the root is a leaf).
+	 */
+	int getHeight() {
+		int height = 1;
+		Node node = root;
+		while(!node.leaf) {
+			node = (Node) node.children.get(0);
+			height++;
+		}
+		return height;
+	}
+
+	private static boolean isValidBox(final double minX, final double minY, final double maxX, final double maxY) {
+		return !Double.isNaN(minX) && !Double.isNaN(minY) && !Double.isNaN(maxX) && !Double.isNaN(maxY) && minX <= maxX && minY <= maxY;
+	}
+
+	private void insertEntry(final Entry<T> entry) {
+		final Node leaf = chooseLeaf(entry);
+		leaf.add(entry);
+		adjustTree(leaf);
+	}
+
+	private Node chooseLeaf(final Box box) {
+		Node node = root;
+
+		while(!node.leaf) {
+			Box best = null;
+			double bestEnlargement = Double.MAX_VALUE;
+			double bestArea = Double.MAX_VALUE;
+
+			for(final Box child : node.children) {
+				final double area = child.area();
+				final double enlargement = child.unionArea(box) - area;
+				if(enlargement < bestEnlargement || enlargement == bestEnlargement && area < bestArea) {
+					best = child;
+					bestEnlargement = enlargement;
+					bestArea = area;
+				}
+			}
+			node = (Node) best;
+		}
+
+		return node;
+	}
+
+	/**
+	 * Propagates the bounds of the given node up to the root, splitting the overflowing nodes.
+	 */
+	private void adjustTree(final Node from) {
+		Node node = from;
+
+		while(node != null) {
+			if(node.children.size() > MAX_ENTRIES) {
+				final Node sibling = split(node);
+				if(node == root) {
+					root = new Node(false);
+					root.add(node);
+					root.add(sibling);
+					return;
+				}
+				node.parent.add(sibling);
+			}else {
+				node.updateBounds();
+			}
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * Splits the given node using the quadratic algorithm.
+	 * @return The created sibling node. The given node keeps the first group.
+	 */
+	private Node split(final Node node) {
+		final List<Box> remaining = new ArrayList<>(node.children);
+		final Node sibling = new Node(node.leaf);
+		int seed1 = 0;
+		int seed2 = 1;
+		double worst = -Double.MAX_VALUE;
+
+		for(int i = 0, size = remaining.size(); i < size - 1; i++) {
+			final Box b1 = remaining.get(i);
+			for(int j = i + 1; j < size; j++) {
+				final Box b2 = remaining.get(j);
+				final double waste = b1.unionArea(b2) - b1.area() - b2.area();
+				if(waste > worst) {
+					worst = waste;
+					seed1 = i;
+					seed2 = j;
+				}
+			}
+		}
+
+		node.clear();
+		node.add(remaining.get(seed1));
+		sibling.add(remaining.get(seed2));
+		// seed2 > seed1
+		remaining.remove(seed2);
+		remaining.remove(seed1);
+
+		while(!remaining.isEmpty()) {
+			if(node.children.size() + remaining.size() == MIN_ENTRIES) {
+				remaining.forEach(node::add);
+				break;
+			}
+			if(sibling.children.size() + remaining.size() == MIN_ENTRIES) {
+				remaining.forEach(sibling::add);
+				break;
+			}
+
+			int next = 0;
+			double maxDiff = -1d;
+			double nextD1 = 0d;
+			double nextD2 = 0d;
+
+			for(int i = 0, size = remaining.size(); i < size; i++) {
+				final Box box = remaining.get(i);
+				final double d1 = node.unionArea(box) - node.area();
+				final double d2 = sibling.unionArea(box) - sibling.area();
+				final double diff = Math.abs(d1 - d2);
+				if(diff > maxDiff) {
+					maxDiff = diff;
+					next = i;
+					nextD1 = d1;
+					nextD2 = d2;
+				}
+			}
+
+			final Box box = remaining.remove(next);
+			final Node target;
+
+			if(nextD1 < nextD2) {
+				target = node;
+			}else if(nextD2 < nextD1) {
+				target = sibling;
+			}else if(node.area() != sibling.area()) {
+				target = node.area() < sibling.area() ? node : sibling;
+			}else {
+				target = node.children.size() <= sibling.children.size() ? node : sibling;
+			}
+
+			target.add(box);
+		}
+
+		return sibling;
+	}
+
+	/**
+	 * Removes the underfull nodes from the given leaf up to the root and re-inserts their entries.
+	 */
+	private void condenseTree(final Node leaf) {
+		final List<Entry<T>> orphans = new ArrayList<>();
+		Node node = leaf;
+
+		while(node != root) {
+			final Node parent = node.parent;
+			if(node.children.size() < MIN_ENTRIES) {
+				parent.children.remove(node);
+				collectEntries(node, orphans);
+			}else {
+				node.updateBounds();
+			}
+			node = parent;
+		}
+
+		root.updateBounds();
+
+		while(!root.leaf && root.children.size() == 1) {
+			root = (Node) root.children.get(0);
+			root.parent = null;
+		}
+
+		if(!root.leaf && root.children.isEmpty()) {
+			root = new Node(true);
+		}
+
+		orphans.forEach(this::insertEntry);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void collectEntries(final Node node, final List<Entry<T>> collected) {
+		if(node.leaf) {
+			node.children.forEach(box -> collected.add((Entry<T>) box));
+		}else {
+			node.children.forEach(box -> collectEntries((Node) box, collected));
+		}
+	}
+
+
+	/**
+	 * An axis-aligned box of the tree.
+	 */
+	private abstract static class Box {
+		double minX;
+		double minY;
+		double maxX;
+		double maxY;
+		Node parent;
+
+		Box(final double minX, final double minY, final double maxX, final double maxY) {
+			super();
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+		}
+
+		double area() {
+			return (maxX - minX) * (maxY - minY);
+		}
+
+		double unionArea(final Box box) {
+			return (Math.max(maxX, box.maxX) - Math.min(minX, box.minX)) * (Math.max(maxY, box.maxY) - Math.min(minY, box.minY));
+		}
+
+		boolean intersects(final double x1, final double y1, final double x2, final double y2) {
+			return minX <= x2 && maxX >= x1 && minY <= y2 && maxY >= y1;
+		}
+	}
+
+	/**
+	 * A leaf element of the tree.
+	 */
+	private static final class Entry<T> extends Box {
+		final T obj;
+
+		Entry(final T obj, final double minX, final double minY, final double maxX, final double maxY) {
+			super(minX, minY, maxX, maxY);
+			this.obj = obj;
+		}
+	}
+
+	/**
+	 * A node of the tree. The children of a leaf node are entries, the children of the other nodes are nodes.
+	 */
+	private static final class Node extends Box {
+		final List<Box> children;
+		final boolean leaf;
+
+		Node(final boolean leaf) {
+			super(Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE);
+			this.leaf = leaf;
+			children = new ArrayList<>(MAX_ENTRIES + 1);
+		}
+
+		void add(final Box box) {
+			children.add(box);
+			box.parent = this;
+			minX = Math.min(minX, box.minX);
+			minY = Math.min(minY, box.minY);
+			maxX = Math.max(maxX, box.maxX);
+			maxY = Math.max(maxY, box.maxY);
+		}
+
+		void clear() {
+			children.clear();
+			minX = Double.MAX_VALUE;
+			minY = Double.MAX_VALUE;
+			maxX = -Double.MAX_VALUE;
+			maxY = -Double.MAX_VALUE;
+		}
+
+		void updateBounds() {
+			minX = Double.MAX_VALUE;
+			minY = Double.MAX_VALUE;
+			maxX = -Double.MAX_VALUE;
+			maxY = -Double.MAX_VALUE;
+			for(final Box box : children) {
+				minX = Math.min(minX, box.minX);
+				minY = Math.min(minY, box.minY);
+				maxX = Math.max(maxX, box.maxX);
+				maxY = Math.max(maxY, box.maxY);
+			}
+		}
+
+		@Override
+		double area() {
+			return children.isEmpty() ? 0d : super.area();
+		}
+
+		@Override
+		double unionArea(final Box box) {
+			return children.isEmpty() ? box.area() : super.unionArea(box);
+		}
+	}
+}
@@ -34,8 +34,7 @@ public final class PlotViewHelper {
 	}
 
 
-	private IPoint getPolarPoint(final IPlot shape, final double x, final double xs, final double ys, final double posX, final double posY) {
-		final double radius = shape.getY(x);
+	private IPoint getPolarPoint(final double x, final double radius, final double xs, final double ys, final double posX, final double posY) {
 		final double angle = Math.toRadians(x);
 		final double x1 = radius * Math.cos(angle);
 		final double y1 = -radius * Math.sin(angle);
@@ -46,17 +45,32 @@ public final class PlotViewHelper {
 						   final double maxX, final double step) {
 		final double xs = shape.getXScale();
 		final double ys = shape.getYScale();
+		final boolean polar = shape.isPolar();
+		final int nbPts = shape.getNbPlottedPoints();
+		// The polar plots have an extra point at maxX.
+		final double[] xCoords = new double[polar ? nbPts + 1 : nbPts];
+		final double[] yCoords = new double[xCoords.length];
 		double x = minX;
-		final List<IPoint> pts = new ArrayList<>();
 
-		if(shape.isPolar()) {
-			for(int i = 0; i < shape.getNbPlottedPoints(); i++, x += step) {
-				pts.add(getPolarPoint(shape, x, xs, ys, posX, posY));
+		for(int i = 0; i < nbPts; i++, x += step) {
+			xCoords[i] = x;
+		}
+		if(polar) {
+			xCoords[nbPts] = maxX;
+		}
+
+		// All the Y coordinates are computed in a row.
+		shape.getY(xCoords, yCoords);
+
+		final List<IPoint> pts = new ArrayList<>(xCoords.length);
+
+		if(polar) {
+			for(int i = 0; i < xCoords.length; i++) {
+				pts.add(getPolarPoint(xCoords[i], yCoords[i], xs, ys, posX, posY));
 			}
-			pts.add(getPolarPoint(shape, maxX, xs, ys, posX, posY));
 		}else {
-			for(int i = 0; i < shape.getNbPlottedPoints(); i++, x += step) {
-				pts.add(ShapeFactory.INST.createPoint(x * IShape.PPC * xs + posX, -shape.getY(x) * IShape.PPC * ys + posY));
+			for(int i = 0; i < xCoords.length; i++) {
+				pts.add(ShapeFactory.INST.createPoint(xCoords[i] * IShape.PPC * xs + posX, -yCoords[i] * IShape.PPC * ys + posY));
 			}
 		}
 
@@ -65,7 +79,17 @@ public final class PlotViewHelper {
 
 
 	public List<IDot> updatePoints(final IPlot shape, final double posX, final double posY, final double minX, final double maxX, final double step) {
-		return ShapeFactory.INST.createPolyline(fillPoints(shape, posX, posY, minX, maxX, step)).getPoints().stream().map(pt -> {
+		return updatePoints(shape, fillPoints(shape, posX, posY, minX, maxX, step));
+	}
+
+
+	/**
+	 * @param shape The plot.
+	 * @param pts The plotted points (e.g. produced by fillPoints).
+	 * @return The dots of the given points styled as the plot.
+	 */
+	public List<IDot> updatePoints(final IPlot shape, final List<IPoint> pts) {
+		return ShapeFactory.INST.createPolyline(pts).getPoints().stream().map(pt -> {
 			final IDot dot = ShapeFactory.INST.createDot(pt);
 			dot.copy(shape);
 			dot.setPosition(pt);
@@ -76,24 +100,54 @@ public final class PlotViewHelper {
 
 
 	public IPolygon updatePolygon(final IPlot shape, final double posX, final double posY, final double minX, final double maxX, final double step) {
-		final IPolygon pg = ShapeFactory.INST.createPolygon(fillPoints(shape, posX, posY, minX, maxX, step));
+		return updatePolygon(shape, fillPoints(shape, posX, posY, minX, maxX, step));
+	}
+
+
+	/**
+	 * @param shape The plot.
+	 * @param pts The plotted points (e.g. produced by fillPoints).
+	 * @return The polygon of the given points styled as the plot.
+	 */
+	public IPolygon updatePolygon(final IPlot shape, final List<IPoint> pts) {
+		final IPolygon pg = ShapeFactory.INST.createPolygon(pts);
 		pg.copy(shape);
 		return pg;
 	}
 
 
 	public IPolyline updateLine(final IPlot shape, final double posX, final double posY, final double minX, final double maxX, final double step) {
-		final IPolyline pl = ShapeFactory.INST.createPolyline(fillPoints(shape, posX, posY, minX, maxX, step));
+		return updateLine(shape, fillPoints(shape, posX, posY, minX, maxX, step));
+	}
+
+
+	/**
+	 * @param shape The plot.
+	 * @param pts The plotted points (e.g. produced by fillPoints).
+	 * @return The polyline of the given points styled as the plot.
+	 */
+	public IPolyline updateLine(final IPlot shape, final List<IPoint> pts) {
+		final IPolyline pl = ShapeFactory.INST.createPolyline(pts);
 		pl.copy(shape);
 		return pl;
 	}
 
 
 	public IBezierCurve updateCurve(final IPlot shape, final double posX, final double posY, final double minX, final double maxX, final double step) {
+		return updateCurve(shape, fillPoints(shape, posX, posY, minX, maxX, step));
+	}
+
+
+	/**
+	 * @param shape The plot.
+	 * @param pts The plotted points (e.g. produced by fillPoints). At least two points.
+	 * @return The curve that goes through the given points styled as the plot.
+	 */
+	public IBezierCurve updateCurve(final IPlot shape, final List<IPoint> pts) {
 		// The algorithm follows this definition:
 		// https://stackoverflow.com/questions/15864441/how-to-make-a-line-curve-through-points
 		final double scale = 0.33d;
-		final IBezierCurve bc = ShapeFactory.INST.createBezierCurve(fillPoints(shape, posX, posY, minX, maxX, step));
+		final IBezierCurve bc = ShapeFactory.INST.createBezierCurve(pts);
 
 		bc.setOpened(shape.getPlotStyle() != PlotStyle.CCURVE);
 		bc.copy(shape);
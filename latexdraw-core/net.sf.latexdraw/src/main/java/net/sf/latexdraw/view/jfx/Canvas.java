@@ -13,20 +13,34 @@ package net.sf.latexdraw.view.jfx;
 import java.awt.Point;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.ParallelTransition;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
+import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.scene.Cursor;
 import javafx.scene.Group;
@@ -37,6 +51,8 @@ import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.transform.NonInvertibleTransformException;
+import javafx.scene.transform.Transform;
 import javafx.util.Duration;
 import net.sf.latexdraw.actions.DrawingAction;
 import net.sf.latexdraw.actions.ShapeAction;
@@ -46,10 +62,12 @@ import net.sf.latexdraw.actions.shape.ShapePropertyAction;
 import net.sf.latexdraw.models.MathUtils;
 import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IGroup;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
 import net.sf.latexdraw.models.interfaces.shape.IShape;
 import net.sf.latexdraw.util.LNamespace;
 import net.sf.latexdraw.util.Page;
+import net.sf.latexdraw.util.RTree;
 import net.sf.latexdraw.view.MagneticGrid;
 import net.sf.latexdraw.view.ViewsSynchroniserHandler;
 import org.malai.action.Action;
@@ -79,6 +97,13 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 	/** The origin of the drawing in the whole drawing area. */
 	public static final IPoint ORIGIN = ShapeFactory.INST.createPoint(MARGINS, MARGINS);
 
+	/**
+	 * In the virtualised mode, the margin around the visible area in which the shapes get a view.
+	 * The views are released when their shape is beyond twice this margin (so that scrolling back and forth does not
+	 * create and release the same views).
+	 */
+	static final double VIRTUALISATION_MARGIN = 500d;
+
 	/** The model of the view. */
 	private final IDrawing drawing;
 
@@ -100,6 +125,15 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 
 	private final Map<IShape, ViewShape<?>> shapesToViewMap;
 
+	/** The positions of the shapes in the drawing, used to order the views without browsing the drawing. Null when the shapes have changed. */
+	private Map<IShape, Integer> shapesPositions;
+
+	/** The spatial index of the views of the shapes. Based on the bounds of the views in the coordinate system of the drawing. */
+	private final RTree<ViewShape<?>> viewsIndex;
+
+	/** Updates the spatial index of the views when the bounds of a view change. */
+	private final ChangeListener<Bounds> viewBoundsListener;
+
 	/** The magnetic grid of the canvas. */
 	private final MagneticGridImpl magneticGrid;
 
@@ -109,6 +143,21 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 	/** The temporary view that the canvas may contain. */
 	private Optional<ViewShape<?>> tempView;
 
+	/** Defines whether only the shapes located in (or close to) the visible area and the selected shapes have a view. */
+	private final BooleanProperty virtualised;
+
+	/** In the virtualised mode, the scroll pane whose visible area is followed. */
+	private Optional<ScrollPane> viewport;
+
+	/** Plans an update of the views when the visible area changes (virtualised mode). */
+	private final InvalidationListener viewportListener;
+
+	/** True when an update of the views is planned. */
+	private boolean viewsUpdateRequested;
+
+	/** The views transformed by the ongoing preview, mapped to their transformation (to their parent) before the preview. */
+	private final Map<ViewShape<?>, Transform> previewedViews;
+
 	/**
 	 * Creates the canvas.
 	 */
@@ -119,6 +168,10 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 		drawing = ShapeFactory.INST.createDrawing();
 		zoom = new SimpleDoubleProperty(1d);
 		tempView = Optional.empty();
+		virtualised = new SimpleBooleanProperty(false);
+		viewport = Optional.empty();
+		viewportListener = obs -> requestViewsUpdate();
+		previewedViews = new IdentityHashMap<>();
 		page = new PageView(Page.USLETTER, getOrigin());
 
 		setPrefWidth(MARGINS * 2d + page.getPage().getWidth() * IShape.PPC);
@@ -129,6 +182,13 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 		widgetsPane = new Group();
 		shapesPane = new Group();
 		shapesToViewMap = new HashMap<>();
+		viewsIndex = new RTree<>();
+		viewBoundsListener = (observable, oldBounds, newBounds) -> {
+			final Object bean = ((ReadOnlyProperty<?>) observable).getBean();
+			if(bean instanceof ViewShape<?>) {
+				indexView((ViewShape<?>) bean, newBounds);
+			}
+		};
 		selectionBorder = new Rectangle();
 		ongoingSelectionBorder = new Rectangle();
 
@@ -151,6 +211,7 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 
 		defineShapeListToViewBinding();
 		configureSelection();
+		configureVirtualisation();
 
 		ActionsRegistry.INSTANCE.addHandler(this);
 
@@ -172,7 +233,213 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 		selectionBorder.addEventHandler(MouseEvent.MOUSE_ENTERED, evt -> setCursor(Cursor.HAND));
 		selectionBorder.addEventHandler(MouseEvent.MOUSE_EXITED, evt -> setCursor(Cursor.DEFAULT));
 
-		drawing.getSelection().getShapes().addListener((Change<? extends IShape> evt) -> updateSelectionBorders());
+		drawing.getSelection().getShapes().addListener((Change<? extends IShape> evt) -> {
+			// The selected shapes must have a view (handlers, selection borders, etc.). The unselected ones may lose their view.
+			if(viewport.isPresent()) {
+				final List<IShape> shapes = new ArrayList<>();
+				while(evt.next()) {
+					shapes.addAll(evt.getAddedSubList());
+					shapes.addAll(evt.getRemoved());
+				}
+				updateViews(shapes);
+			}
+			updateSelectionBorders();
+		});
+	}
+
+
+	private void configureVirtualisation() {
+		virtualised.addListener((observable, oldValue, newValue) -> {
+			followViewport();
+			updateViews();
+		});
+		// The canvas may be put in its scroll pane after its creation.
+		sceneProperty().addListener((observable, oldValue, newValue) -> {
+			followViewport();
+			requestViewsUpdate();
+		});
+		// Zooming.
+		scaleXProperty().addListener(viewportListener);
+		scaleYProperty().addListener(viewportListener);
+		// The views simplify their geometry when zoomed out. The level of detail is shared by all the views:
+		// it follows the zoom of the canvas of the application, the only one that displays the drawing.
+		zoom.addListener((observable, oldValue, newValue) -> LevelOfDetail.INSTANCE.setScale(newValue.doubleValue()));
+	}
+
+
+	/**
+	 * Follows the scroll pane of the canvas in the virtualised mode (and stops following it in the normal mode).
+	 */
+	private void followViewport() {
+		viewport.ifPresent(sp -> {
+			sp.hvalueProperty().removeListener(viewportListener);
+			sp.vvalueProperty().removeListener(viewportListener);
+			sp.viewportBoundsProperty().removeListener(viewportListener);
+		});
+
+		viewport = isVirtualised() ? Optional.ofNullable(getScrollPane()) : Optional.empty();
+
+		viewport.ifPresent(sp -> {
+			sp.hvalueProperty().addListener(viewportListener);
+			sp.vvalueProperty().addListener(viewportListener);
+			sp.viewportBoundsProperty().addListener(viewportListener);
+		});
+	}
+
+
+	/**
+	 * Plans an update of the views at the next pulse (several requests during a pulse, e.g. while scrolling, lead to a single update).
+	 */
+	private void requestViewsUpdate() {
+		if(!viewport.isPresent() || viewsUpdateRequested) return;
+
+		viewsUpdateRequested = true;
+		Platform.runLater(() -> {
+			viewsUpdateRequested = false;
+			updateViews();
+		});
+	}
+
+
+	/**
+	 * Creates the missing views and, in the virtualised mode, releases the views of the shapes far from the visible area.
+	 * The views are then put in the canvas following the order of the shapes (a single scene graph operation).
+	 */
+	private void updateViews() {
+		final Optional<Bounds> area = getVirtualisedArea(VIRTUALISATION_MARGIN);
+		final Optional<Bounds> keptArea = getVirtualisedArea(VIRTUALISATION_MARGIN * 2d);
+		final Set<IShape> selection = Collections.newSetFromMap(new IdentityHashMap<>());
+		final List<javafx.scene.Node> views = new ArrayList<>();
+		final List<ViewShape<?>> released = new ArrayList<>();
+
+		selection.addAll(drawing.getSelection().getShapes());
+
+		drawing.getShapes().forEach(sh -> {
+			final ViewShape<?> view = shapesToViewMap.get(sh);
+			if(view == null) {
+				if(selection.contains(sh) || isInArea(sh, area)) {
+					createView(sh).ifPresent(v -> views.add(v));
+				}
+			}else {
+				if(selection.contains(sh) || isInArea(sh, keptArea)) {
+					views.add(view);
+				}else {
+					releaseView(sh);
+					released.add(view);
+				}
+			}
+		});
+
+		tempView.ifPresent(v -> views.add(v));
+
+		if(!views.equals(shapesPane.getChildren())) {
+			shapesPane.getChildren().setAll(views);
+		}
+
+		released.forEach(v -> v.flush());
+	}
+
+
+	/**
+	 * In the virtualised mode, creates or releases the views of the given shapes depending on their position (the other
+	 * shapes are not browsed), e.g. for the modified or (un)selected shapes.
+	 * @param shapes The shapes to update. The shapes that are not in the drawing do not get a view.
+	 */
+	private void updateViews(final Collection<? extends IShape> shapes) {
+		final Optional<Bounds> area = getVirtualisedArea(VIRTUALISATION_MARGIN);
+		final Optional<Bounds> keptArea = getVirtualisedArea(VIRTUALISATION_MARGIN * 2d);
+		final Set<IShape> selection = Collections.newSetFromMap(new IdentityHashMap<>());
+		final Set<IShape> missing = Collections.newSetFromMap(new IdentityHashMap<>());
+		final List<IShape> released = new ArrayList<>();
+
+		selection.addAll(drawing.getSelection().getShapes());
+
+		shapes.forEach(sh -> {
+			if(shapesToViewMap.containsKey(sh)) {
+				if(!selection.contains(sh) && !isInArea(sh, keptArea)) {
+					released.add(sh);
+				}
+			}else {
+				if(selection.contains(sh) || isInArea(sh, area)) {
+					missing.add(sh);
+				}
+			}
+		});
+
+		removeViews(released);
+		insertViews(missing);
+	}
+
+
+	/**
+	 * Creates the views of the given shapes and inserts them in the canvas following the order of the shapes.
+	 * @param shapes The shapes that have no view. Emptied by the method.
+	 */
+	private void insertViews(final Set<IShape> shapes) {
+		final List<IShape> sorted = shapes.stream().filter(sh -> getShapePosition(sh) != -1).
+			sorted(Comparator.comparingInt(this::getShapePosition)).collect(Collectors.toList());
+		final int[] positions = sorted.stream().mapToInt(sh -> getViewPositionOf(getShapePosition(sh))).toArray();
+
+		shapes.clear();
+
+		// The shapes having the same view position form a run inserted with a single scene graph operation. The runs are
+		// inserted from the last one so that the computed positions of the other runs remain valid.
+		int end = sorted.size();
+		while(end > 0) {
+			int start = end - 1;
+			while(start > 0 && positions[start - 1] == positions[end - 1]) {
+				start--;
+			}
+			final List<ViewShape<?>> views = new ArrayList<>(end - start);
+			sorted.subList(start, end).forEach(sh -> createView(sh).ifPresent(v -> views.add(v)));
+			if(!views.isEmpty()) {
+				shapesPane.getChildren().addAll(positions[start], views);
+			}
+			end = start;
+		}
+	}
+
+
+	/**
+	 * @param margin The margin to add around the visible area.
+	 * @return In the virtualised mode, the visible area of the scroll pane plus the given margin, in the coordinate
+	 * system of the drawing. Nothing in the normal mode (the whole drawing).
+	 */
+	private Optional<Bounds> getVirtualisedArea(final double margin) {
+		return viewport.map(sp -> {
+			final Bounds visible = shapesPane.sceneToLocal(sp.localToScene(sp.getLayoutBounds()));
+			return new BoundingBox(visible.getMinX() - margin, visible.getMinY() - margin,
+				visible.getWidth() + 2d * margin, visible.getHeight() + 2d * margin);
+		});
+	}
+
+
+	/**
+	 * @param sh The shape to test.
+	 * @param area The area in the coordinate system of the drawing. Nothing means the whole drawing.
+	 * @return True if the cached bounds of the given shape (the circle that surrounds them for rotated shapes) intersect the area.
+	 */
+	static boolean isInArea(final IShape sh, final Optional<Bounds> area) {
+		if(!area.isPresent()) return true;
+
+		double minX = sh.getMinX();
+		double minY = sh.getMinY();
+		double maxX = sh.getMaxX();
+		double maxY = sh.getMaxY();
+
+		if(!MathUtils.INST.isValidPt(minX, minY) || !MathUtils.INST.isValidPt(maxX, maxY)) return true;
+
+		if(!MathUtils.INST.equalsDouble(sh.getRotationAngle(), 0d)) {
+			final double radius = Math.hypot(maxX - minX, maxY - minY) / 2d;
+			final double centreX = (minX + maxX) / 2d;
+			final double centreY = (minY + maxY) / 2d;
+			minX = centreX - radius;
+			minY = centreY - radius;
+			maxX = centreX + radius;
+			maxY = centreY + radius;
+		}
+
+		return area.get().intersects(minX, minY, maxX - minX, maxY - minY);
 	}
 
 
@@ -220,35 +487,246 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 	}
 
 
+	/**
+	 * Previews a transformation of the selected shapes during an interaction (drag, scaling, rotation) without modifying
+	 * the shapes: the views of the selected shapes and the widgets (selection border, handlers) are transformed.
+	 * The shapes are expected to be modified once at the end of the interaction.
+	 * @param transform The transformation to preview, in the coordinate system of the drawing. Replaces the previous one.
+	 * If null, the preview is cleared.
+	 */
+	public void setSelectionPreview(final Transform transform) {
+		if(transform == null) {
+			clearSelectionPreview();
+			return;
+		}
+
+		if(previewedViews.isEmpty()) {
+			getSelectedViews().stream().filter(view -> view != null).forEach(view -> previewedViews.put(view, view.getLocalToParentTransform()));
+		}
+
+		// The transforms of a node are applied before its rotation and translation: the transformation is expressed in the
+		// coordinate system of the view (N^-1 * T * N) so that it applies in the coordinate system of the drawing.
+		previewedViews.forEach((view, toParent) -> {
+			try {
+				view.getTransforms().setAll(toParent.createInverse().createConcatenation(transform).createConcatenation(toParent));
+			}catch(final NonInvertibleTransformException ex) {
+				view.getTransforms().clear();
+			}
+		});
+
+		widgetsPane.getTransforms().setAll(transform);
+	}
+
+	/**
+	 * Removes the transformations of the ongoing preview (if any).
+	 */
+	public void clearSelectionPreview() {
+		previewedViews.keySet().forEach(view -> view.getTransforms().clear());
+		previewedViews.clear();
+		widgetsPane.getTransforms().clear();
+	}
+
+	/**
+	 * @return True if a preview of a transformation of the selected shapes is ongoing.
+	 */
+	public boolean isSelectionPreviewed() {
+		return !widgetsPane.getTransforms().isEmpty();
+	}
+
+
 	private void defineShapeListToViewBinding() {
 		drawing.getShapes().addListener((Change<? extends IShape> evt) -> {
+			shapesPositions = null;
 			while(evt.next()) {
+				// A change can be a replacement (e.g. setShapes): the removed shapes are processed first.
+				if(evt.wasRemoved()) {
+					removeViews(evt.getRemoved());
+				}
 				if(evt.wasAdded()) {
-					evt.getAddedSubList().forEach(sh -> ViewFactory.INSTANCE.createView(sh).ifPresent(v -> {
-						final int index = drawing.getShapes().indexOf(sh);
-						if(index != -1) {
-							shapesToViewMap.put(sh, v);
-							if(index == drawing.size()) {
-								shapesPane.getChildren().add(v);
-							}else {
-								shapesPane.getChildren().add(index, v);
-							}
-						}
-					}));
-				}else {
-					if(evt.wasRemoved()) {
-						evt.getRemoved().forEach(sh -> {
-							final ViewShape<?> toRemove = shapesToViewMap.remove(sh);
-							shapesPane.getChildren().remove(toRemove);
-							toRemove.flush();
-						});
-					}
+					addViews(evt.getFrom(), evt.getAddedSubList());
 				}
 			}
 		});
 	}
 
 
+	/**
+	 * Removes the views of the given shapes from the canvas in a single pass over the views.
+	 * @param shapes The removed shapes.
+	 */
+	private void removeViews(final List<? extends IShape> shapes) {
+		final Set<ViewShape<?>> views = new HashSet<>();
+
+		shapes.forEach(sh -> releaseView(sh).ifPresent(view -> views.add(view)));
+
+		if(!views.isEmpty()) {
+			shapesPane.getChildren().removeAll(views);
+			views.forEach(view -> view.flush());
+		}
+	}
+
+
+	/**
+	 * Creates the views of contiguous added shapes and inserts them in the canvas with a single scene graph operation.
+	 * In the virtualised mode, only the added shapes close to the visible area get a view (the other shapes are not browsed).
+	 * @param from The position of the first added shape in the drawing.
+	 * @param shapes The added shapes.
+	 */
+	private void addViews(final int from, final List<? extends IShape> shapes) {
+		final List<ViewShape<?>> views = new ArrayList<>(shapes.size());
+		final Optional<Bounds> area = getVirtualisedArea(VIRTUALISATION_MARGIN);
+
+		shapes.stream().filter(sh -> isInArea(sh, area)).forEach(sh -> createView(sh).ifPresent(v -> views.add(v)));
+
+		if(!views.isEmpty()) {
+			shapesPane.getChildren().addAll(getViewPosition(from), views);
+		}
+	}
+
+
+	/**
+	 * Creates the view of the given shape and registers it (map and spatial index). The view is not added to the canvas.
+	 * @param sh The shape.
+	 * @return The created view or nothing if the shape has no view.
+	 */
+	private Optional<ViewShape<?>> createView(final IShape sh) {
+		final Optional<ViewShape<?>> view = ViewFactory.INSTANCE.createView(sh).map(v -> (ViewShape<?>) v);
+		view.ifPresent(v -> {
+			shapesToViewMap.put(sh, v);
+			indexView(v, v.getBoundsInParent());
+			v.boundsInParentProperty().addListener(viewBoundsListener);
+		});
+		return view;
+	}
+
+
+	/**
+	 * Unregisters the view of the given shape (map and spatial index). The view is neither removed from the canvas nor flushed.
+	 * @param sh The shape.
+	 * @return The view of the shape or nothing if the shape has no view.
+	 */
+	private Optional<ViewShape<?>> releaseView(final IShape sh) {
+		final ViewShape<?> view = shapesToViewMap.remove(sh);
+		if(view != null) {
+			view.boundsInParentProperty().removeListener(viewBoundsListener);
+			viewsIndex.remove(view);
+		}
+		return Optional.ofNullable(view);
+	}
+
+
+	/**
+	 * @param shapeIndex The position of a shape in the drawing.
+	 * @return The position in the views of the view of the shape at the given position in the drawing, i.e. just after
+	 * the view of the previous shape (some shapes may have no view and the temporary view is the last view).
+	 */
+	private int getViewPosition(final int shapeIndex) {
+		final ObservableList<javafx.scene.Node> views = shapesPane.getChildren();
+
+		for(int i = shapeIndex - 1; i >= 0; i--) {
+			final ViewShape<?> previous = shapesToViewMap.get(drawing.getShapeAt(i));
+			if(previous != null) {
+				// Usually each shape has a view so that the positions of the shapes and the views are the same.
+				if(i < views.size() && views.get(i) == previous) {
+					return i + 1;
+				}
+				return views.indexOf(previous) + 1;
+			}
+		}
+
+		return 0;
+	}
+
+
+	/**
+	 * @param shapePosition The position of a shape in the drawing.
+	 * @return The position in the views where the view of the shape at the given position goes. The views follow the order
+	 * of the shapes: the position is found using a binary search on the positions of the shapes of the views (the drawing
+	 * is not browsed). Must not be used while the views are updated after a change of the shapes of the drawing.
+	 */
+	private int getViewPositionOf(final int shapePosition) {
+		final ObservableList<javafx.scene.Node> views = shapesPane.getChildren();
+		int low = 0;
+		int high = views.size();
+
+		// The temporary view is the last view.
+		if(high > 0 && tempView.isPresent() && views.get(high - 1) == tempView.get()) {
+			high--;
+		}
+
+		while(low < high) {
+			final int middle = (low + high) >>> 1;
+			if(getShapePosition(((ViewShape<?>) views.get(middle)).getModel()) < shapePosition) {
+				low = middle + 1;
+			}else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+
+	/**
+	 * @param sh A shape.
+	 * @return The position of the given shape in the drawing or -1 if the shape is not in the drawing.
+	 * The positions are computed once after each change of the shapes of the drawing.
+	 */
+	private int getShapePosition(final IShape sh) {
+		if(shapesPositions == null) {
+			final List<IShape> shapes = drawing.getShapes();
+			shapesPositions = new IdentityHashMap<>(shapes.size());
+			for(int i = 0, size = shapes.size(); i < size; i++) {
+				shapesPositions.put(shapes.get(i), i);
+			}
+		}
+
+		final Integer position = shapesPositions.get(sh);
+		return position == null ? -1 : position;
+	}
+
+
+	private void indexView(final ViewShape<?> view, final Bounds bounds) {
+		if(bounds == null || bounds.isEmpty()) {
+			viewsIndex.remove(view);
+		}else {
+			viewsIndex.insert(view, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+		}
+	}
+
+
+	/**
+	 * Looks for the views whose bounds intersect the given bounds using the spatial index of the views.
+	 * The real geometry of the returned views may not intersect the given bounds: they are only candidates.
+	 * @param bounds The bounds in the coordinate system of the drawing (i.e. the origin of the canvas is not considered).
+	 * @return The candidate views sorted following the order of the drawing. Cannot be null.
+	 */
+	public List<ViewShape<?>> getViewsInBounds(final Bounds bounds) {
+		if(bounds == null) return Collections.emptyList();
+
+		final List<ViewShape<?>> found = viewsIndex.search(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+
+		if(found.size() > 1) {
+			found.sort(Comparator.comparingInt(view -> getShapePosition(view.getModel())));
+		}
+
+		return found;
+	}
+
+
+	/**
+	 * Looks for the top view that contains the given point using the spatial index of the views.
+	 * @param x The X-coordinate of the point in the coordinate system of the drawing.
+	 * @param y The Y-coordinate of the point in the coordinate system of the drawing.
+	 * @return The found view or nothing.
+	 */
+	public Optional<ViewShape<?>> getViewAt(final double x, final double y) {
+		return viewsIndex.search(x, y, x, y).stream().
+			filter(view -> view.contains(view.parentToLocal(x, y))).
+			max(Comparator.comparingInt(view -> getShapePosition(view.getModel())));
+	}
+
+
 	/**
 	 * @return The point where the page is located.
 	 */
@@ -270,6 +748,60 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 
 	public void update() {
 		updateSelectionBorders();
+		// The modified shapes may have moved in or out of the visible area.
+		requestViewsUpdate();
+	}
+
+	/**
+	 * Updates the canvas after a modification of the given shapes only: in the virtualised mode, the views of these shapes
+	 * are created or released depending on their position, the other shapes are not browsed.
+	 * @param shapes The modified shapes.
+	 */
+	public void update(final Collection<? extends IShape> shapes) {
+		updateSelectionBorders();
+		if(viewport.isPresent()) {
+			updateViews(shapes);
+		}
+	}
+
+	/**
+	 * @return The property that defines whether the canvas is virtualised: in this mode only the shapes located in (or close to)
+	 * the visible area of the scroll pane of the canvas and the selected shapes have a view. Views are created and released
+	 * while scrolling and zooming. False by default. Without scroll pane, all the shapes have a view.
+	 */
+	public BooleanProperty virtualisedProperty() {
+		return virtualised;
+	}
+
+	/**
+	 * @return True if the canvas is virtualised.
+	 */
+	public boolean isVirtualised() {
+		return virtualised.get();
+	}
+
+	/**
+	 * @param virtual True: only the shapes located in (or close to) the visible area and the selected shapes have a view.
+	 */
+	public void setVirtualised(final boolean virtual) {
+		virtualised.set(virtual);
+	}
+
+	/**
+	 * Runs the given task while all the shapes have a view (e.g. to export the drawing when the canvas is virtualised).
+	 * @param task The task to run.
+	 * @param <T> The type of the result of the task.
+	 * @return The result of the task.
+	 */
+	public <T> T withAllViews(final Supplier<T> task) {
+		if(!isVirtualised()) return task.get();
+
+		setVirtualised(false);
+		try {
+			return task.get();
+		}finally {
+			setVirtualised(true);
+		}
 	}
 
 	public Rectangle getSelectionBorder() {
@@ -287,8 +819,22 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 
 	@Override
 	public void onActionExecuted(final Action act) {
-		if(act instanceof ShapesAction || act instanceof DrawingAction || act instanceof IOAction || act instanceof ShapePropertyAction ||
-			act instanceof ShapeAction || act instanceof Undo || act instanceof Redo || act instanceof MovePoint) {
+		// The added and removed shapes are processed by the binding between the shapes and the views:
+		// only the shapes of the action are updated when they are known.
+		if(act instanceof ShapeAction<?>) {
+			final List<IShape> shapes = new ArrayList<>();
+			((ShapeAction<?>) act).getShape().ifPresent(sh -> {
+				shapes.add(sh);
+				// The shapes of the actions are usually groups of the concerned shapes (e.g. the selection).
+				if(sh instanceof IGroup) {
+					shapes.addAll(((IGroup) sh).getShapes());
+				}
+			});
+			update(shapes);
+		}else if(act instanceof ShapesAction) {
+			update(((ShapesAction) act).getShapes());
+		}else if(act instanceof DrawingAction || act instanceof IOAction || act instanceof ShapePropertyAction || act instanceof Undo ||
+			act instanceof Redo || act instanceof MovePoint) {
 			update();
 		}
 	}
@@ -384,21 +930,49 @@ public class Canvas extends Pane implements Preferenciable, Modifiable, Reinitia
 		update();
 	}
 
+	/**
+	 * @return The bounds of the views. In the virtualised mode, the bounds of the shapes that have no view are computed
+	 * from their model.
+	 */
+	private Bounds getDrawingBounds() {
+		final Bounds bounds = shapesPane.getBoundsInLocal();
+
+		if(!viewport.isPresent()) return bounds;
+
+		double minX = bounds.isEmpty() ? Double.MAX_VALUE : bounds.getMinX();
+		double minY = bounds.isEmpty() ? Double.MAX_VALUE : bounds.getMinY();
+		double maxX = bounds.isEmpty() ? -Double.MAX_VALUE : bounds.getMaxX();
+		double maxY = bounds.isEmpty() ? -Double.MAX_VALUE : bounds.getMaxY();
+
+		for(final IShape sh : drawing.getShapes()) {
+			if(!shapesToViewMap.containsKey(sh)) {
+				// The cached bounds plus the border gap, i.e. the full bounds without creating points.
+				final double gap = sh.getBorderGap();
+				minX = Math.min(minX, sh.getMinX() - gap);
+				minY = Math.min(minY, sh.getMinY() - gap);
+				maxX = Math.max(maxX, sh.getMaxX() + gap);
+				maxY = Math.max(maxY, sh.getMaxY() + gap);
+			}
+		}
+
+		return minX > maxX || minY > maxY ? bounds : new BoundingBox(minX, minY, maxX - minX, maxY - minY);
+	}
+
 	@Override
 	public IPoint getTopRightDrawingPoint() {
-		final Bounds border = shapesPane.getBoundsInLocal();
+		final Bounds border = getDrawingBounds();
 		return ShapeFactory.INST.createPoint(border.getMaxX(), border.getMinY());
 	}
 
 	@Override
 	public IPoint getBottomLeftDrawingPoint() {
-		final Bounds border = shapesPane.getBoundsInLocal();
+		final Bounds border = getDrawingBounds();
 		return ShapeFactory.INST.createPoint(border.getMinX(), border.getMaxY());
 	}
 
 	@Override
 	public IPoint getOriginDrawingPoint() {
-		final Bounds border = shapesPane.getBoundsInLocal();
+		final Bounds border = getDrawingBounds();
 		return ShapeFactory.INST.createPoint(border.getMinX(), (border.getMaxY() - border.getMinY()) / 2.0);
 	}
 
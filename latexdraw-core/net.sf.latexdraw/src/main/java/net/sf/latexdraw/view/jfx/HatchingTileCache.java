@@ -0,0 +1,335 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.transform.Scale;
+import net.sf.latexdraw.models.interfaces.shape.FillingStyle;
+
+/**
+ * A bounded cache of the tiles of the hatchings fillings.
+ * A hatching filling is a repeating image pattern anchored in the coordinate system of the filled shape: moving or
+ * resizing a shape does not produce a new tile and shapes with the same hatching style share the same pattern.
+ * A tile is a square whose side is chosen so that the hatchings are periodic in both directions: the angle of the
+ * hatchings is snapped to the closest angle atan(b/a), a and b being integers lower than MAX_TILE_SIZE / period (and
+ * than 32). With the usual separations, the difference is lower than a quarter of a degree. The least recently used tiles are removed when the cache contains too many pixels.
+ * This class is thread-safe.
+ * @author Arnaud Blouin
+ */
+public final class HatchingTileCache {
+	/** The singleton. */
+	public static final HatchingTileCache INSTANCE = new HatchingTileCache(4_000_000L);
+
+	/** Bounds the size of the tiles: max(|a|, |b|) * period is lower than this value. */
+	static final double MAX_TILE_SIZE = 1024d;
+
+	/** The maximal value of the integers used to snap the angle of the hatchings. */
+	private static final int MAX_ANGLE_STEPS = 32;
+
+	/** The maximal number of pixels the cache can contain. */
+	private final long maxPixels;
+	/** The tiles sorted from the least recently used one to the most recently used one. */
+	private final Map<TileKey, ImagePattern> tiles;
+	/** The keys of the created patterns (even the removed ones still used by views) to get back their vector tile. */
+	private final Map<ImagePattern, TileKey> keys;
+	/** The number of pixels of the cached tiles. */
+	private long nbPixels;
+	private long nbHits;
+	private long nbMisses;
+
+
+	/**
+	 * Creates the cache.
+	 * @param maxNbPixels The maximal number of pixels the cache can contain.
+	 */
+	HatchingTileCache(final long maxNbPixels) {
+		super();
+		maxPixels = maxNbPixels;
+		tiles = new LinkedHashMap<>(16, 0.75f, true);
+		keys = new WeakHashMap<>();
+	}
+
+
+	/**
+	 * @param style The filling style. Must be a hatching style.
+	 * @param angle The angle of the hatchings (radian).
+	 * @param sep The separation between the hatchings.
+	 * @param width The width of the hatchings.
+	 * @param hatchingsCol The colour of the hatchings.
+	 * @param fillingCol The colour of the background (used if the style is filled only).
+	 * @return The repeating pattern of the given hatchings or nothing if the style is not a hatching one.
+	 */
+	public Optional<ImagePattern> getPattern(final FillingStyle style, final double angle, final double sep, final double width,
+											final Color hatchingsCol, final Color fillingCol) {
+		if(!style.isHatchings() || !(width > 0d) || sep < 0d || !(width + sep > 0d)) return Optional.empty();
+
+		final TileKey key = new TileKey(style, angle, sep, width, hatchingsCol, style.isFilled() ? fillingCol : null);
+
+		synchronized(tiles) {
+			final ImagePattern pattern = tiles.get(key);
+			if(pattern != null) {
+				nbHits++;
+				return Optional.of(pattern);
+			}
+			nbMisses++;
+		}
+
+		final ImagePattern pattern = createPattern(key);
+
+		synchronized(tiles) {
+			keys.put(pattern, key);
+			final ImagePattern old = tiles.put(key, pattern);
+			if(old != null) {
+				nbPixels -= getNbPixels(old);
+			}
+			nbPixels += getNbPixels(pattern);
+
+			// Removing the least recently used tiles (but the added one).
+			final Iterator<ImagePattern> it = tiles.values().iterator();
+			while(nbPixels > maxPixels && tiles.size() > 1) {
+				nbPixels -= getNbPixels(it.next());
+				it.remove();
+			}
+		}
+
+		return Optional.of(pattern);
+	}
+
+
+	/**
+	 * @param pattern A pattern returned by the cache.
+	 * @return The vector tile of the given hatchings (the tile of the pattern before its rasterisation), or nothing if
+	 * the pattern was not created by the cache. Its clip is a square of the size of the tile.
+	 */
+	public Optional<Group> getTile(final ImagePattern pattern) {
+		final TileKey key;
+		synchronized(tiles) {
+			key = keys.get(pattern);
+		}
+		return key == null ? Optional.empty() : Optional.of(createTile(key));
+	}
+
+
+	/**
+	 * Removes all the tiles.
+	 */
+	public void clear() {
+		synchronized(tiles) {
+			tiles.clear();
+			nbPixels = 0L;
+		}
+	}
+
+	/**
+	 * @return The number of cached tiles.
+	 */
+	public int getNbTiles() {
+		synchronized(tiles) {
+			return tiles.size();
+		}
+	}
+
+	/**
+	 * @return The number of pixels of the cached tiles (4 bytes per pixel).
+	 */
+	public long getNbPixels() {
+		synchronized(tiles) {
+			return nbPixels;
+		}
+	}
+
+	/**
+	 * @return The maximal number of pixels the cache can contain.
+	 */
+	public long getMaxPixels() {
+		return maxPixels;
+	}
+
+	/**
+	 * @return A description of the state of the cache (for diagnostics).
+	 */
+	public String getDiagnostic() {
+		synchronized(tiles) {
+			return tiles.size() + " tiles, " + nbPixels * 4L / 1024L + " KB / " + maxPixels * 4L / 1024L + " KB, " + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				nbHits + " hits, " + nbMisses + " misses"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+
+	private static long getNbPixels(final ImagePattern pattern) {
+		return (long) pattern.getImage().getWidth() * (long) pattern.getImage().getHeight();
+	}
+
+
+	private static ImagePattern createPattern(final TileKey key) {
+		final Group tile = createTile(key);
+		final double size = ((Rectangle) tile.getClip()).getWidth();
+		final int imgSize = Math.max(1, (int) Math.ceil(size));
+		final WritableImage image = new WritableImage(imgSize, imgSize);
+		final SnapshotParameters params = new SnapshotParameters();
+		params.setFill(Color.TRANSPARENT);
+		// The tile is stretched to fill the pixels of the image; the pattern draws the image at the size of the tile.
+		params.setTransform(new Scale(imgSize / size, imgSize / size));
+
+		if(Platform.isFxApplicationThread()) {
+			tile.snapshot(params, image);
+		}else {
+			Platform.runLater(() -> tile.snapshot(params, image));
+		}
+
+		return new ImagePattern(image, 0d, 0d, size, size, false);
+	}
+
+
+	private static Group createTile(final TileKey key) {
+		final double period = key.width + key.sep;
+		final double hatchAngle;
+
+		// The hatchings of the HLINES styles are perpendicular to the ones of the VLINES styles.
+		if(key.style == FillingStyle.HLINES || key.style == FillingStyle.HLINES_PLAIN) {
+			hatchAngle = key.angle > 0d ? key.angle - Math.PI / 2d : key.angle + Math.PI / 2d;
+		}else {
+			hatchAngle = key.angle;
+		}
+
+		// The normal of the hatchings is (a, b): translating the hatchings by (size, 0) or (0, size) shifts them by a and b periods.
+		final int[] steps = snapAngle(hatchAngle, (int) Math.min(MAX_ANGLE_STEPS, Math.max(1d, MAX_TILE_SIZE / period)));
+		final double norm = Math.hypot(steps[0], steps[1]);
+		final double size = period * norm;
+		final Group tile = new Group();
+		final Rectangle background = new Rectangle(size, size, key.fillingCol == null ? Color.TRANSPARENT : key.fillingCol);
+
+		tile.getChildren().add(background);
+		addHatchings(tile, steps[0] / norm, steps[1] / norm, period, size, key);
+
+		if(key.style == FillingStyle.CLINES || key.style == FillingStyle.CLINES_PLAIN) {
+			// The perpendicular hatchings: their normal is (-b, a).
+			addHatchings(tile, -steps[1] / norm, steps[0] / norm, period, size, key);
+		}
+
+		tile.setClip(new Rectangle(size, size));
+		return tile;
+	}
+
+
+	/**
+	 * Adds to the tile the hatchings {P | P.(nx, ny) = k * period}.
+	 */
+	private static void addHatchings(final Group tile, final double nx, final double ny, final double period, final double size,
+									final TileKey key) {
+		// The projections of the corners of the tile on the normal.
+		final double[] projs = {0d, nx * size, ny * size, (nx + ny) * size};
+		double min = projs[0];
+		double max = projs[0];
+		for(final double proj : projs) {
+			min = Math.min(min, proj);
+			max = Math.max(max, proj);
+		}
+
+		// The direction of the hatchings; long enough to go through the tile.
+		final double dx = -ny * size * 2d;
+		final double dy = nx * size * 2d;
+
+		for(long k = (long) Math.floor(min / period) - 1L, last = (long) Math.ceil(max / period) + 1L; k <= last; k++) {
+			final double cx = nx * k * period;
+			final double cy = ny * k * period;
+			final Line line = new Line(cx - dx, cy - dy, cx + dx, cy + dy);
+			line.setStrokeWidth(key.width);
+			line.setStrokeLineCap(StrokeLineCap.BUTT);
+			line.setStroke(key.hatchingsCol);
+			tile.getChildren().add(line);
+		}
+	}
+
+
+	/**
+	 * @param angle The angle of the normal of the hatchings (radian). The hatchings are vertical for an angle of 0.
+	 * @param maxSteps The maximal value of the integers.
+	 * @return The integers (a, b) such that atan2(b, a) is the closest angle to the given one (modulo PI).
+	 * The smallest integers are preferred when their angle is close enough (a quarter of a degree).
+	 */
+	static int[] snapAngle(final double angle, final int maxSteps) {
+		final double tolerance = Math.toRadians(0.25);
+		final double cos = Math.cos(angle);
+		final double sin = Math.sin(angle);
+		int[] best = {1, 0};
+		double bestError = Double.MAX_VALUE;
+
+		for(int n = 1; n <= maxSteps && bestError > tolerance; n++) {
+			// The candidates (a, b) such that max(|a|, |b|) == n.
+			for(int i = -n; i <= n; i++) {
+				for(final int[] cand : new int[][] {{n, i}, {i, n}}) {
+					final double norm = Math.hypot(cand[0], cand[1]);
+					// The angle between the lines (modulo PI).
+					final double error = Math.asin(Math.min(1d, Math.abs(cos * cand[1] - sin * cand[0]) / norm));
+					if(error < bestError - 1e-12) {
+						bestError = error;
+						best = cand;
+					}
+				}
+			}
+		}
+
+		return best;
+	}
+
+
+	/**
+	 * The key of a tile.
+	 */
+	private static final class TileKey {
+		final FillingStyle style;
+		final double angle;
+		final double sep;
+		final double width;
+		final Color hatchingsCol;
+		final Color fillingCol;
+
+		TileKey(final FillingStyle style, final double angle, final double sep, final double width, final Color hatchingsCol,
+				final Color fillingCol) {
+			super();
+			this.style = style;
+			this.angle = angle;
+			this.sep = sep;
+			this.width = width;
+			this.hatchingsCol = hatchingsCol;
+			this.fillingCol = fillingCol;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if(this == obj) return true;
+			if(!(obj instanceof TileKey)) return false;
+			final TileKey key = (TileKey) obj;
+			return style == key.style && Double.compare(angle, key.angle) == 0 && Double.compare(sep, key.sep) == 0 &&
+				Double.compare(width, key.width) == 0 && Objects.equals(hatchingsCol, key.hatchingsCol) && Objects.equals(fillingCol, key.fillingCol);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(style, angle, sep, width, hatchingsCol, fillingCol);
+		}
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.SimpleDoubleProperty;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
+
+/**
+ * The level of detail of the views: when the drawing is zoomed out, the views of the shapes made of many elements
+ * (free hand shapes, plots, grids) use a simplified geometry whose error is lower than a device pixel threshold.
+ * The scale is quantised in powers of two (levels) so that the views are rebuilt when the level changes only
+ * (and not at each zoom step). At a scale of 1 or more, the views use their full detail.
+ * The pictures are displayed using an image whose resolution is divided by 2^imageLevel.
+ * The level of detail is a singleton shared by all the views: it assumes that the application has a single canvas,
+ * whose zoom sets the scale. The exports must not depend on the zoom and use {@link #withFullDetail(Supplier)}.
+ * The quality is set in the preferences.
+ * @author Arnaud Blouin
+ */
+public final class LevelOfDetail {
+	/** The singleton. */
+	public static final LevelOfDetail INSTANCE = new LevelOfDetail();
+
+	/** The default maximal error (in device pixels) of the simplified geometries. */
+	public static final double DEFAULT_QUALITY = 0.5;
+
+	/** The ratio between the minimal spacing of repeated elements (grid subdivisions, dots) and the tolerance. */
+	private static final double SPACING_RATIO = 4d;
+
+	/** The scale of the canvas (its zoom). */
+	private final DoubleProperty scale;
+
+	/** The maximal error (in device pixels) of the simplified geometries. 0 disables the simplification. */
+	private final DoubleProperty quality;
+
+	/** The maximal error (in pixels of the drawing) of the simplified geometries for the current level. 0: full detail. */
+	private final ReadOnlyDoubleWrapper tolerance;
+
+	/** The resolution of the displayed pictures is divided by 2^imageLevel. 0: full resolution. */
+	private final ReadOnlyIntegerWrapper imageLevel;
+
+	/** True while running a task that requires the full detail. */
+	private boolean fullDetail;
+
+	private LevelOfDetail() {
+		super();
+		scale = new SimpleDoubleProperty(1d);
+		quality = new SimpleDoubleProperty(DEFAULT_QUALITY);
+		tolerance = new ReadOnlyDoubleWrapper(0d);
+		imageLevel = new ReadOnlyIntegerWrapper(0);
+		fullDetail = false;
+		scale.addListener((observable, oldValue, newValue) -> {
+			updateTolerance();
+			updateImageLevel();
+		});
+		quality.addListener((observable, oldValue, newValue) -> updateTolerance());
+	}
+
+	private void updateImageLevel() {
+		final double sc = scale.get();
+
+		if(fullDetail || !(sc > 0d) || sc >= 1d) {
+			imageLevel.set(0);
+		}else {
+			// The highest level whose resolution is not lower than the displayed one: 2^-level >= scale.
+			imageLevel.set((int) Math.floor(-Math.log(sc) / Math.log(2d) + 1e-9));
+		}
+	}
+
+	private void updateTolerance() {
+		final double sc = scale.get();
+		final double q = quality.get();
+
+		if(!(sc > 0d) || sc >= 1d || !(q > 0d)) {
+			tolerance.set(0d);
+		}else {
+			// The level: the scale is lower or equal to 2^-level.
+			final double level = Math.ceil(-Math.log(sc) / Math.log(2d) - 1e-9);
+			tolerance.set(q * Math.pow(2d, level));
+		}
+	}
+
+	/**
+	 * @return The scale of the canvas (its zoom).
+	 */
+	public DoubleProperty scaleProperty() {
+		return scale;
+	}
+
+	/**
+	 * @param sc The scale of the canvas (its zoom).
+	 */
+	public void setScale(final double sc) {
+		scale.set(sc);
+	}
+
+	/**
+	 * @return The maximal error (in device pixels) of the simplified geometries. 0 disables the simplification.
+	 */
+	public DoubleProperty qualityProperty() {
+		return quality;
+	}
+
+	/**
+	 * @param q The maximal error (in device pixels) of the simplified geometries. 0 disables the simplification.
+	 */
+	public void setQuality(final double q) {
+		quality.set(q);
+	}
+
+	/**
+	 * @return The maximal error (in pixels of the drawing) of the simplified geometries for the current level.
+	 * Changes when the level changes only: the views listen to it to update their geometry.
+	 */
+	public ReadOnlyDoubleProperty toleranceProperty() {
+		return tolerance.getReadOnlyProperty();
+	}
+
+	/**
+	 * @return The maximal error (in pixels of the drawing) of the simplified geometries for the current level. 0: full detail.
+	 */
+	public double getTolerance() {
+		return tolerance.get();
+	}
+
+	/**
+	 * @return The minimal spacing (in pixels of the drawing) of repeated elements such as grid subdivisions or dots:
+	 * closer elements merge on screen and are suppressed or decimated. 0: full detail.
+	 */
+	public double getMinSpacing() {
+		return getTolerance() * SPACING_RATIO;
+	}
+
+	/**
+	 * @return The level of the displayed pictures: their resolution is divided by 2^level.
+	 * Changes when the level changes only: the views listen to it to update their image.
+	 */
+	public ReadOnlyIntegerProperty imageLevelProperty() {
+		return imageLevel.getReadOnlyProperty();
+	}
+
+	/**
+	 * @return The level of the displayed pictures: their resolution is divided by 2^level. 0: full resolution.
+	 */
+	public int getImageLevel() {
+		return imageLevel.get();
+	}
+
+	/**
+	 * Runs the given task with the full detail (e.g. to export the drawing).
+	 * @param task The task to run.
+	 * @param <T> The type of the result of the task.
+	 * @return The result of the task.
+	 */
+	public <T> T withFullDetail(final Supplier<T> task) {
+		final double q = quality.get();
+		final boolean full = fullDetail;
+		if(getTolerance() > 0d) {
+			quality.set(0d);
+		}
+		fullDetail = true;
+		updateImageLevel();
+		try {
+			return task.get();
+		}finally {
+			fullDetail = full;
+			updateImageLevel();
+			quality.set(q);
+		}
+	}
+
+	/**
+	 * Simplifies a polyline using the Douglas-Peucker algorithm.
+	 * @param pts The points of the polyline.
+	 * @param interval Only one point every interval points is considered (the last point is always considered).
+	 * @param tol The maximal distance between the removed points and the simplified polyline.
+	 * @return The kept points (the first and last points are always kept). The given list if nothing can be simplified.
+	 */
+	public List<IPoint> simplify(final List<IPoint> pts, final int interval, final double tol) {
+		final int step = Math.max(1, interval);
+		final int size = pts.size();
+
+		if(size < 3 || (!(tol > 0d) && step == 1)) return pts;
+
+		// The considered points.
+		final int nb = (size - 1) / step + ((size - 1) % step == 0 ? 1 : 2);
+		final double[] xs = new double[nb];
+		final double[] ys = new double[nb];
+		final int[] indexes = new int[nb];
+
+		for(int i = 0, j = 0; j < nb; i = Math.min(i + step, size - 1), j++) {
+			indexes[j] = i;
+			xs[j] = pts.get(i).getX();
+			ys[j] = pts.get(i).getY();
+		}
+
+		final boolean[] kept = new boolean[nb];
+		kept[0] = true;
+		kept[nb - 1] = true;
+
+		if(tol > 0d) {
+			markKeptPoints(xs, ys, kept, tol);
+		}else {
+			for(int i = 1; i < nb - 1; i++) {
+				kept[i] = true;
+			}
+		}
+
+		final List<IPoint> result = new ArrayList<>();
+		for(int i = 0; i < nb; i++) {
+			if(kept[i]) {
+				result.add(pts.get(indexes[i]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The Douglas-Peucker algorithm (iterative to support long polylines).
+	 */
+	private static void markKeptPoints(final double[] xs, final double[] ys, final boolean[] kept, final double tol) {
+		final double tol2 = tol * tol;
+		final int[] stack = new int[xs.length * 2];
+		int top = 0;
+
+		stack[top++] = 0;
+		stack[top++] = xs.length - 1;
+
+		while(top > 0) {
+			final int last = stack[--top];
+			final int first = stack[--top];
+			final double dx = xs[last] - xs[first];
+			final double dy = ys[last] - ys[first];
+			final double len2 = dx * dx + dy * dy;
+			double max = -1d;
+			int farthest = -1;
+
+			for(int i = first + 1; i < last; i++) {
+				final double d2 = distance2(xs[i] - xs[first], ys[i] - ys[first], dx, dy, len2);
+				if(d2 > max) {
+					max = d2;
+					farthest = i;
+				}
+			}
+
+			if(farthest != -1 && max > tol2) {
+				kept[farthest] = true;
+				stack[top++] = first;
+				stack[top++] = farthest;
+				stack[top++] = farthest;
+				stack[top++] = last;
+			}
+		}
+	}
+
+	/**
+	 * @return The square of the distance between the point (px, py) and the segment ((0,0), (dx, dy)).
+	 */
+	private static double distance2(final double px, final double py, final double dx, final double dy, final double len2) {
+		if(len2 <= 0d) return px * px + py * py;
+
+		final double t = Math.max(0d, Math.min(1d, (px * dx + py * dy) / len2));
+		final double ex = px - t * dx;
+		final double ey = py - t * dy;
+		return ex * ex + ey * ey;
+	}
+
+	/**
+	 * Decimates points (e.g. dots): a point is kept if it is not closer than the given spacing to the last kept point.
+	 * @param pts The points.
+	 * @param spacing The minimal spacing between the kept points.
+	 * @return The kept points. The given list if nothing is decimated.
+	 */
+	public List<IPoint> decimate(final List<IPoint> pts, final double spacing) {
+		if(pts.size() < 2 || !(spacing > 0d)) return pts;
+
+		final List<IPoint> result = new ArrayList<>();
+		IPoint last = null;
+
+		for(final IPoint pt : pts) {
+			if(last == null || Math.abs(pt.getX() - last.getX()) >= spacing || Math.abs(pt.getY() - last.getY()) >= spacing) {
+				result.add(pt);
+				last = pt;
+			}
+		}
+
+		return result.size() == pts.size() ? pts : result;
+	}
+}
@@ -10,13 +10,12 @@
  */
 package net.sf.latexdraw.view.jfx;
 
-import java.util.List;
 import javafx.geometry.Point3D;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.PathElement;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.shape.Rectangle;
 import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
 import net.sf.latexdraw.ui.ScaleRuler;
@@ -33,9 +32,18 @@ import org.w3c.dom.NodeList;
 
 /**
  * Implementation of a magnetic grid.
+ * The grid is painted as a rectangle that covers the canvas and that is filled with a repeating tile (an image pattern
+ * of one cell of the grid): the rendering of the grid only concerns the visible region of the canvas and scrolling does
+ * not require any update. The tile is regenerated when the spacing of the grid or the zoom level changes only
+ * (its resolution follows the zoom to keep the lines sharp).
  * @author Arnaud Blouin
  */
-public class MagneticGridImpl extends Path implements MagneticGrid {
+public class MagneticGridImpl extends Rectangle implements MagneticGrid {
+	/** The colour of the lines of the grid. */
+	private static final Color LINE_COLOUR = new Color(0d, 0d, 1d, 0.3d);
+	/** The maximal size (in pixels) of the side of the tile. */
+	private static final int MAX_TILE_SIZE = 2048;
+
 	/** The canvas that paints the grid. */
 	private final Canvas canvas;
 	/** Allows to know if the grid is magnetic or not. */
@@ -46,6 +54,8 @@ public class MagneticGridImpl extends Path implements MagneticGrid {
 	private GridStyle style;
 	/** Defined if the canvas has been modified. */
 	private boolean modified;
+	/** The current tile (null if no grid is painted). */
+	private ImagePattern tile;
 
 
 	/**
@@ -57,9 +67,11 @@ public class MagneticGridImpl extends Path implements MagneticGrid {
 		super();
 		modified = false;
 		canvas = canv;
+		tile = null;
 		reinitGrid();
-		setStroke(new Color(0d, 0d, 1d, 0.3d));
-		setStrokeWidth(1);
+		setMouseTransparent(true);
+		widthProperty().bind(canvas.prefWidthProperty());
+		heightProperty().bind(canvas.prefHeightProperty());
 		canvas.zoomProperty().addListener((observable, oldValue, newValue) -> update());
 	}
 
@@ -68,66 +80,77 @@ public class MagneticGridImpl extends Path implements MagneticGrid {
 	public void update() {
 		if(isDisable()) return;
 
-		getElements().clear();
-
 		switch(style) {
 			case STANDARD:
 				double ppc = canvas.getPPCDrawing();
 				if(ScaleRuler.getUnit() == Unit.INCH) {
 					ppc *= PSTricksConstants.INCH_VAL_CM;
 				}
-
-//				paintSubLines(getElements(), canvas.getLayoutBounds());
-				paintMainLines(getElements(), ppc);
+				updateTile(ppc);
 				break;
 			case CUSTOMISED:
-				paintMainLines(getElements(), gridSpacing);
+				updateTile(gridSpacing);
 				break;
 			case NONE:
+				tile = null;
 				break;
 		}
-	}
-
 
-	private void createLine(final List<PathElement> elts, final double x1, final double y1, final double x2, final double y2) {
-		elts.add(new MoveTo(x1, y1));
-		elts.add(new LineTo(x2, y2));
+		setFill(tile);
 	}
 
 
-	private void paintSubLines(final List<PathElement> elts) {
-		double pixPerCm10 = canvas.getPPCDrawing() / 10d;
+	/**
+	 * Regenerates the tile if its spacing or its resolution changed.
+	 * @param gap The spacing between the lines of the grid.
+	 */
+	private void updateTile(final double gap) {
+		final int size = getTileSize(gap, canvas.getZoom());
 
-		if(ScaleRuler.getUnit() == Unit.INCH) {
-			pixPerCm10 *= PSTricksConstants.INCH_VAL_CM;
+		if(tile == null || Double.compare(tile.getWidth(), gap) != 0 || (int) tile.getImage().getWidth() != size) {
+			tile = new ImagePattern(createTileImage(size, getLineThickness(gap, size)), 0d, 0d, gap, gap, false);
 		}
+	}
 
-		if(Double.compare(pixPerCm10, 4d) > 0d) {
-			final double height = canvas.getPrefHeight();
-			final double width = canvas.getPrefWidth();
-
-			for(double i = 0d; i < width; i += pixPerCm10) {
-				createLine(elts, i, 0d, i, height);
-			}
 
-			for(double j = 0d; j < height; j += pixPerCm10) {
-				createLine(elts, 0d, j, width, j);
-			}
-		}
+	/**
+	 * @param gap The spacing between the lines of the grid.
+	 * @param zoom The zoom level of the canvas.
+	 * @return The size in pixels of the side of the tile.
+	 */
+	static int getTileSize(final double gap, final double zoom) {
+		return (int) Math.max(1L, Math.min(MAX_TILE_SIZE, Math.round(gap * Math.max(1d, zoom))));
 	}
 
 
-	private void paintMainLines(final List<PathElement> elts, final double gap) {
-		final double height = canvas.getPrefHeight();
-		final double width = canvas.getPrefWidth();
+	/**
+	 * @return The thickness in pixels of the lines in the tile: the lines are one pixel width in the canvas.
+	 */
+	static int getLineThickness(final double gap, final int size) {
+		return (int) Math.max(1L, Math.round(size / gap));
+	}
 
-		for(double i = 0d; i < width; i += gap) {
-			createLine(elts, i, 0d, i, height);
-		}
 
-		for(double j = 0d; j < height; j += gap) {
-			createLine(elts, 0d, j, width, j);
+	/**
+	 * Creates the image of one cell of the grid: the lines are located on the edges of the tile (centred on them when
+	 * the tiles are repeated).
+	 */
+	private static WritableImage createTileImage(final int size, final int thickness) {
+		final WritableImage image = new WritableImage(size, size);
+		final PixelWriter writer = image.getPixelWriter();
+		final int before = Math.min(size, (thickness + 1) / 2);
+		final int after = Math.min(size - before, thickness / 2);
+
+		for(int i = 0; i < size; i++) {
+			if(i < before || i >= size - after) {
+				for(int j = 0; j < size; j++) {
+					writer.setColor(i, j, LINE_COLOUR);
+					writer.setColor(j, i, LINE_COLOUR);
+				}
+			}
 		}
+
+		return image;
 	}
 
 
@@ -0,0 +1,839 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.paint.Stop;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurve;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.FillRule;
+import javafx.scene.shape.HLineTo;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Polyline;
+import javafx.scene.shape.QuadCurve;
+import javafx.scene.shape.QuadCurveTo;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.shape.StrokeLineJoin;
+import javafx.scene.shape.StrokeType;
+import javafx.scene.shape.VLineTo;
+import javafx.scene.transform.Affine;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Transform;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.util.PDFWriter;
+import net.sf.latexdraw.view.pst.PSTricksConstants;
+
+/**
+ * Exports a node (e.g. the views of the canvas) as a single page vector PDF document, without latex.
+ * The JFX shapes of the views (lines, fillings, gradients, hatchings, arrows, dots) are converted to PDF path
+ * operators and the pictures (including the compiled texts) are embedded as images. The hatchings are exported as
+ * vector tiling patterns. The nodes that have no vector equivalent (e.g. the JFX texts) are embedded as images.
+ * The result is a draft of the latex export: the texts are not typeset by latex in the document and some details of
+ * the JFX rendering are approximated: the cycles of the gradients are not exported and the opacity of the stops of
+ * the gradients is ignored (the gradients are opaque, only the opacity of the nodes is applied).
+ * Must be used in the JFX thread.
+ * @author Arnaud Blouin
+ */
+public final class PDFExporter {
+	/** The number of points per pixel of the drawing (50 pixels per cm). */
+	static final double PT_PER_PX = PSTricksConstants.CM_VAL_PT / IShape.PPC;
+
+	/** The scale of the nodes embedded as images (see RasterExporter.DEFAULT_DPI). */
+	private static final double RASTER_SCALE = 3d;
+
+	private final Node node;
+	/** The bounds of the node (its transformations are applied). */
+	private final Bounds bounds;
+
+
+	/**
+	 * Creates the exporter.
+	 * @param toExport The node to export.
+	 */
+	public PDFExporter(final Node toExport) {
+		super();
+		node = toExport;
+		bounds = node.getBoundsInParent();
+	}
+
+
+	/**
+	 * @return The width of the page in points.
+	 */
+	public double getWidth() {
+		return Math.max(1d, bounds.getWidth() * PT_PER_PX);
+	}
+
+
+	/**
+	 * @return The height of the page in points.
+	 */
+	public double getHeight() {
+		return Math.max(1d, bounds.getHeight() * PT_PER_PX);
+	}
+
+
+	/**
+	 * Exports the node as a PDF document.
+	 * @param file The file to create.
+	 * @throws IOException If the document cannot be written.
+	 */
+	public void write(final File file) throws IOException {
+		try(final OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+			write(output);
+		}
+	}
+
+
+	/**
+	 * Exports the node as a PDF document.
+	 * @param output The stream where the document is written (not closed).
+	 * @throws IOException If the document cannot be written.
+	 */
+	public void write(final OutputStream output) throws IOException {
+		try(final PDFWriter writer = new PDFWriter(output)) {
+			new Page(writer).write();
+		}
+	}
+
+
+	/**
+	 * Appends the given numbers followed by an operator.
+	 */
+	static void append(final StringBuilder out, final String operator, final double... values) {
+		for(final double value : values) {
+			out.append(PDFWriter.format(value)).append(' ');
+		}
+		out.append(operator).append('\n');
+	}
+
+
+	/**
+	 * Appends the matrix of the given transformation followed by an operator.
+	 */
+	static void appendMatrix(final StringBuilder out, final String operator, final Transform tr) {
+		append(out, operator, tr.getMxx(), tr.getMyx(), tr.getMxy(), tr.getMyy(), tr.getTx(), tr.getTy());
+	}
+
+
+	/**
+	 * @return True if the path of the given shape can be exported (the JFX texts cannot).
+	 */
+	static boolean isSupported(final Shape shape) {
+		return shape instanceof Path || shape instanceof Rectangle || shape instanceof Ellipse || shape instanceof Circle ||
+			shape instanceof Arc || shape instanceof Line || shape instanceof Polygon || shape instanceof Polyline ||
+			shape instanceof CubicCurve || shape instanceof QuadCurve;
+	}
+
+
+	/**
+	 * Appends the path of the given shape, in the coordinates of the shape. Nothing is appended if the shape is not supported.
+	 */
+	static void appendGeometry(final StringBuilder out, final Shape shape) {
+		if(shape instanceof Path) {
+			appendPath(out, ((Path) shape).getElements());
+		}else if(shape instanceof Rectangle) {
+			appendRectangle(out, (Rectangle) shape);
+		}else if(shape instanceof Ellipse) {
+			final Ellipse ell = (Ellipse) shape;
+			appendEllipse(out, ell.getCenterX(), ell.getCenterY(), ell.getRadiusX(), ell.getRadiusY());
+		}else if(shape instanceof Circle) {
+			final Circle circle = (Circle) shape;
+			appendEllipse(out, circle.getCenterX(), circle.getCenterY(), circle.getRadius(), circle.getRadius());
+		}else if(shape instanceof Arc) {
+			appendArc(out, (Arc) shape);
+		}else if(shape instanceof Line) {
+			final Line line = (Line) shape;
+			append(out, "m", line.getStartX(), line.getStartY()); //$NON-NLS-1$
+			append(out, "l", line.getEndX(), line.getEndY()); //$NON-NLS-1$
+		}else if(shape instanceof Polygon) {
+			appendPoints(out, ((Polygon) shape).getPoints(), true);
+		}else if(shape instanceof Polyline) {
+			appendPoints(out, ((Polyline) shape).getPoints(), false);
+		}else if(shape instanceof CubicCurve) {
+			final CubicCurve curve = (CubicCurve) shape;
+			append(out, "m", curve.getStartX(), curve.getStartY()); //$NON-NLS-1$
+			append(out, "c", curve.getControlX1(), curve.getControlY1(), curve.getControlX2(), curve.getControlY2(), curve.getEndX(), curve.getEndY()); //$NON-NLS-1$
+		}else if(shape instanceof QuadCurve) {
+			final QuadCurve curve = (QuadCurve) shape;
+			append(out, "m", curve.getStartX(), curve.getStartY()); //$NON-NLS-1$
+			appendQuadCurve(out, curve.getStartX(), curve.getStartY(), curve.getControlX(), curve.getControlY(), curve.getEndX(), curve.getEndY());
+		}
+	}
+
+
+	private static void appendPath(final StringBuilder out, final List<PathElement> elements) {
+		// The current point and the first point of the current sub-path.
+		double x = 0d;
+		double y = 0d;
+		double startX = 0d;
+		double startY = 0d;
+
+		for(final PathElement elt : elements) {
+			final double dx = elt.isAbsolute() ? 0d : x;
+			final double dy = elt.isAbsolute() ? 0d : y;
+
+			if(elt instanceof MoveTo) {
+				x = ((MoveTo) elt).getX() + dx;
+				y = ((MoveTo) elt).getY() + dy;
+				startX = x;
+				startY = y;
+				append(out, "m", x, y); //$NON-NLS-1$
+			}else if(elt instanceof LineTo) {
+				x = ((LineTo) elt).getX() + dx;
+				y = ((LineTo) elt).getY() + dy;
+				append(out, "l", x, y); //$NON-NLS-1$
+			}else if(elt instanceof HLineTo) {
+				x = ((HLineTo) elt).getX() + dx;
+				append(out, "l", x, y); //$NON-NLS-1$
+			}else if(elt instanceof VLineTo) {
+				y = ((VLineTo) elt).getY() + dy;
+				append(out, "l", x, y); //$NON-NLS-1$
+			}else if(elt instanceof CubicCurveTo) {
+				final CubicCurveTo cc = (CubicCurveTo) elt;
+				append(out, "c", cc.getControlX1() + dx, cc.getControlY1() + dy, cc.getControlX2() + dx, cc.getControlY2() + dy, //$NON-NLS-1$
+					cc.getX() + dx, cc.getY() + dy);
+				x = cc.getX() + dx;
+				y = cc.getY() + dy;
+			}else if(elt instanceof QuadCurveTo) {
+				final QuadCurveTo qc = (QuadCurveTo) elt;
+				appendQuadCurve(out, x, y, qc.getControlX() + dx, qc.getControlY() + dy, qc.getX() + dx, qc.getY() + dy);
+				x = qc.getX() + dx;
+				y = qc.getY() + dy;
+			}else if(elt instanceof ArcTo) {
+				final ArcTo arc = (ArcTo) elt;
+				appendArcTo(out, x, y, arc, arc.getX() + dx, arc.getY() + dy);
+				x = arc.getX() + dx;
+				y = arc.getY() + dy;
+			}else if(elt instanceof ClosePath) {
+				out.append("h\n"); //$NON-NLS-1$
+				x = startX;
+				y = startY;
+			}
+		}
+	}
+
+
+	private static void appendQuadCurve(final StringBuilder out, final double x1, final double y1, final double ctrlX, final double ctrlY,
+										final double x2, final double y2) {
+		append(out, "c", x1 + 2d / 3d * (ctrlX - x1), y1 + 2d / 3d * (ctrlY - y1), x2 + 2d / 3d * (ctrlX - x2), y2 + 2d / 3d * (ctrlY - y2), x2, y2); //$NON-NLS-1$
+	}
+
+
+	private static void appendPoints(final StringBuilder out, final List<Double> points, final boolean closed) {
+		for(int i = 0; i + 1 < points.size(); i += 2) {
+			append(out, i == 0 ? "m" : "l", points.get(i), points.get(i + 1)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if(closed && points.size() > 1) {
+			out.append("h\n"); //$NON-NLS-1$
+		}
+	}
+
+
+	private static void appendRectangle(final StringBuilder out, final Rectangle rec) {
+		final double x = rec.getX();
+		final double y = rec.getY();
+		final double w = rec.getWidth();
+		final double h = rec.getHeight();
+		final double rx = Math.min(rec.getArcWidth() / 2d, w / 2d);
+		final double ry = Math.min(rec.getArcHeight() / 2d, h / 2d);
+
+		if(!(rx > 0d) || !(ry > 0d)) {
+			append(out, "re", x, y, w, h); //$NON-NLS-1$
+			return;
+		}
+
+		append(out, "m", x + rx, y); //$NON-NLS-1$
+		append(out, "l", x + w - rx, y); //$NON-NLS-1$
+		appendEllipticArc(out, x + w - rx, y + ry, rx, ry, 0d, -Math.PI / 2d, Math.PI / 2d);
+		append(out, "l", x + w, y + h - ry); //$NON-NLS-1$
+		appendEllipticArc(out, x + w - rx, y + h - ry, rx, ry, 0d, 0d, Math.PI / 2d);
+		append(out, "l", x + rx, y + h); //$NON-NLS-1$
+		appendEllipticArc(out, x + rx, y + h - ry, rx, ry, 0d, Math.PI / 2d, Math.PI / 2d);
+		append(out, "l", x, y + ry); //$NON-NLS-1$
+		appendEllipticArc(out, x + rx, y + ry, rx, ry, 0d, Math.PI, Math.PI / 2d);
+		out.append("h\n"); //$NON-NLS-1$
+	}
+
+
+	private static void appendEllipse(final StringBuilder out, final double cx, final double cy, final double rx, final double ry) {
+		append(out, "m", cx + rx, cy); //$NON-NLS-1$
+		appendEllipticArc(out, cx, cy, rx, ry, 0d, 0d, 2d * Math.PI);
+		out.append("h\n"); //$NON-NLS-1$
+	}
+
+
+	private static void appendArc(final StringBuilder out, final Arc arc) {
+		final double cx = arc.getCenterX();
+		final double cy = arc.getCenterY();
+		// The angles of the JFX arcs are counter-clockwise on the screen (the y-axis goes down).
+		final double start = -Math.toRadians(arc.getStartAngle());
+		final double extent = -Math.toRadians(arc.getLength());
+		final double x = cx + arc.getRadiusX() * Math.cos(start);
+		final double y = cy + arc.getRadiusY() * Math.sin(start);
+
+		switch(arc.getType()) {
+			case ROUND:
+				append(out, "m", cx, cy); //$NON-NLS-1$
+				append(out, "l", x, y); //$NON-NLS-1$
+				appendEllipticArc(out, cx, cy, arc.getRadiusX(), arc.getRadiusY(), 0d, start, extent);
+				out.append("h\n"); //$NON-NLS-1$
+				break;
+			case CHORD:
+				append(out, "m", x, y); //$NON-NLS-1$
+				appendEllipticArc(out, cx, cy, arc.getRadiusX(), arc.getRadiusY(), 0d, start, extent);
+				out.append("h\n"); //$NON-NLS-1$
+				break;
+			default:
+				append(out, "m", x, y); //$NON-NLS-1$
+				appendEllipticArc(out, cx, cy, arc.getRadiusX(), arc.getRadiusY(), 0d, start, extent);
+				break;
+		}
+	}
+
+
+	/**
+	 * Appends an arc of a path (SVG-like arc) converted to its centre parametrisation.
+	 */
+	private static void appendArcTo(final StringBuilder out, final double x1, final double y1, final ArcTo arc, final double x2, final double y2) {
+		double rx = Math.abs(arc.getRadiusX());
+		double ry = Math.abs(arc.getRadiusY());
+
+		if(!(rx > 0d) || !(ry > 0d)) {
+			append(out, "l", x2, y2); //$NON-NLS-1$
+			return;
+		}
+		if(Double.compare(x1, x2) == 0 && Double.compare(y1, y2) == 0) return;
+
+		final double phi = Math.toRadians(arc.getXAxisRotation());
+		final double cos = Math.cos(phi);
+		final double sin = Math.sin(phi);
+		final double mx = (x1 - x2) / 2d;
+		final double my = (y1 - y2) / 2d;
+		final double x1p = cos * mx + sin * my;
+		final double y1p = -sin * mx + cos * my;
+		// The radii are scaled up if they are too small to join the two points.
+		final double lambda = x1p * x1p / (rx * rx) + y1p * y1p / (ry * ry);
+
+		if(lambda > 1d) {
+			rx *= Math.sqrt(lambda);
+			ry *= Math.sqrt(lambda);
+		}
+
+		final double num = rx * rx * ry * ry - rx * rx * y1p * y1p - ry * ry * x1p * x1p;
+		final double den = rx * rx * y1p * y1p + ry * ry * x1p * x1p;
+		final double coef = Math.sqrt(Math.max(0d, num / den)) * (arc.isLargeArcFlag() == arc.isSweepFlag() ? -1d : 1d);
+		final double cxp = coef * rx * y1p / ry;
+		final double cyp = -coef * ry * x1p / rx;
+		final double cx = cos * cxp - sin * cyp + (x1 + x2) / 2d;
+		final double cy = sin * cxp + cos * cyp + (y1 + y2) / 2d;
+		final double theta = Math.atan2((y1p - cyp) / ry, (x1p - cxp) / rx);
+		double extent = Math.atan2((-y1p - cyp) / ry, (-x1p - cxp) / rx) - theta;
+
+		if(arc.isSweepFlag() && extent < 0d) {
+			extent += 2d * Math.PI;
+		}else if(!arc.isSweepFlag() && extent > 0d) {
+			extent -= 2d * Math.PI;
+		}
+
+		appendEllipticArc(out, cx, cy, rx, ry, phi, theta, extent);
+	}
+
+
+	/**
+	 * Appends the Bezier curves of an elliptic arc, from the current point (the point at the start angle).
+	 * A point of the ellipse is (cx, cy) + R(phi).(rx.cos(t), ry.sin(t)): the angles go clockwise on the screen.
+	 */
+	static void appendEllipticArc(final StringBuilder out, final double cx, final double cy, final double rx, final double ry,
+								final double phi, final double start, final double extent) {
+		// At most a quarter of ellipse per curve.
+		final int nbCurves = Math.max(1, (int) Math.ceil(Math.abs(extent) / (Math.PI / 2d) - 1e-9));
+		final double step = extent / nbCurves;
+		final double k = 4d / 3d * Math.tan(step / 4d);
+		final double cosPhi = Math.cos(phi);
+		final double sinPhi = Math.sin(phi);
+		double t1 = start;
+
+		for(int i = 0; i < nbCurves; i++) {
+			final double t2 = t1 + step;
+			final double cos1 = Math.cos(t1);
+			final double sin1 = Math.sin(t1);
+			final double cos2 = Math.cos(t2);
+			final double sin2 = Math.sin(t2);
+			// The points and the derivatives in the coordinates of the ellipse.
+			final double x1 = rx * cos1 - k * rx * sin1;
+			final double y1 = ry * sin1 + k * ry * cos1;
+			final double x2 = rx * cos2 + k * rx * sin2;
+			final double y2 = ry * sin2 - k * ry * cos2;
+			final double x3 = rx * cos2;
+			final double y3 = ry * sin2;
+			append(out, "c", //$NON-NLS-1$
+				cx + cosPhi * x1 - sinPhi * y1, cy + sinPhi * x1 + cosPhi * y1,
+				cx + cosPhi * x2 - sinPhi * y2, cy + sinPhi * x2 + cosPhi * y2,
+				cx + cosPhi * x3 - sinPhi * y3, cy + sinPhi * x3 + cosPhi * y3);
+			t1 = t2;
+		}
+	}
+
+
+	/**
+	 * The page of the document: its content and its resources.
+	 */
+	private final class Page {
+		private final PDFWriter writer;
+		/** The resources of the page, shared with its patterns. */
+		private final int resources;
+		/** The graphics states, by dictionary. */
+		private final Map<String, String> extGStates;
+		/** The shadings, by dictionary. */
+		private final Map<String, String> shadings;
+		/** The patterns and the images: name -> number of the object. */
+		private final Map<String, Integer> patterns;
+		private final Map<String, Integer> xObjects;
+		/** The images already embedded (the pictures share their image). */
+		private final Map<Image, String> images;
+
+		Page(final PDFWriter pdfWriter) {
+			super();
+			writer = pdfWriter;
+			resources = writer.reserve();
+			extGStates = new LinkedHashMap<>();
+			shadings = new LinkedHashMap<>();
+			patterns = new LinkedHashMap<>();
+			xObjects = new LinkedHashMap<>();
+			images = new IdentityHashMap<>();
+		}
+
+		void write() throws IOException {
+			final double height = getHeight();
+			final StringBuilder content = new StringBuilder();
+			// The y-axis of the PDF goes up.
+			final Affine ctm = new Affine(PT_PER_PX, 0d, -bounds.getMinX() * PT_PER_PX, 0d, -PT_PER_PX, height + bounds.getMinY() * PT_PER_PX);
+
+			appendMatrix(content, "cm", ctm); //$NON-NLS-1$
+			draw(node, ctm, 1d, content);
+
+			final int contentNum = writer.addStream("", content.toString().getBytes(StandardCharsets.ISO_8859_1)); //$NON-NLS-1$
+			writer.writeObject(resources, createResources());
+
+			final int catalog = writer.reserve();
+			final int pages = writer.reserve();
+			final int page = writer.addObject("<</Type/Page/Parent " + PDFWriter.ref(pages) + "/MediaBox[0 0 " + //$NON-NLS-1$ //$NON-NLS-2$
+				PDFWriter.format(getWidth()) + ' ' + PDFWriter.format(height) + "]/Resources " + PDFWriter.ref(resources) + //$NON-NLS-1$
+				"/Contents " + PDFWriter.ref(contentNum) + ">>"); //$NON-NLS-1$ //$NON-NLS-2$
+			writer.writeObject(pages, "<</Type/Pages/Kids[" + PDFWriter.ref(page) + "]/Count 1>>"); //$NON-NLS-1$ //$NON-NLS-2$
+			writer.writeObject(catalog, "<</Type/Catalog/Pages " + PDFWriter.ref(pages) + ">>"); //$NON-NLS-1$ //$NON-NLS-2$
+			writer.setRoot(catalog);
+		}
+
+		private String createResources() {
+			final StringBuilder res = new StringBuilder("<</ProcSet[/PDF/ImageB/ImageC]/ExtGState<<"); //$NON-NLS-1$
+			extGStates.forEach((dict, name) -> res.append('/').append(name).append(dict));
+			res.append(">>/Shading<<"); //$NON-NLS-1$
+			shadings.forEach((dict, name) -> res.append('/').append(name).append(dict));
+			res.append(">>/Pattern<<"); //$NON-NLS-1$
+			patterns.forEach((name, num) -> res.append('/').append(name).append(' ').append(PDFWriter.ref(num)));
+			res.append(">>/XObject<<"); //$NON-NLS-1$
+			xObjects.forEach((name, num) -> res.append('/').append(name).append(' ').append(PDFWriter.ref(num)));
+			return res.append(">>>>").toString(); //$NON-NLS-1$
+		}
+
+		/**
+		 * Draws a node.
+		 * @param elt The node to draw.
+		 * @param ctm The transformation from the coordinates of the parent of the node to the default coordinates of the page.
+		 * @param opacity The opacity of the parent of the node.
+		 * @param out The content where the node is drawn.
+		 */
+		private void draw(final Node elt, final Affine ctm, final double opacity, final StringBuilder out) throws IOException {
+			if(!elt.isVisible()) return;
+
+			final double alpha = opacity * elt.getOpacity();
+			if(!(alpha > 0d)) return;
+
+			final boolean isVector = elt instanceof Parent || elt instanceof ImageView ||
+				elt instanceof Shape && isSupported((Shape) elt);
+
+			if(!isVector) {
+				// The opacity of the node is part of its snapshot.
+				drawAsImage(elt, opacity, out);
+				return;
+			}
+
+			final Affine local = ctm.clone();
+			local.append(elt.getLocalToParentTransform());
+			out.append("q\n"); //$NON-NLS-1$
+			appendMatrix(out, "cm", elt.getLocalToParentTransform()); //$NON-NLS-1$
+
+			if(elt instanceof Parent) {
+				for(final Node child : ((Parent) elt).getChildrenUnmodifiable()) {
+					draw(child, local, alpha, out);
+				}
+			}else if(elt instanceof ImageView) {
+				drawImageView((ImageView) elt, alpha, out);
+			}else {
+				drawShape((Shape) elt, local, alpha, out);
+			}
+
+			out.append("Q\n"); //$NON-NLS-1$
+		}
+
+		private void drawShape(final Shape shape, final Affine ctm, final double alpha, final StringBuilder out) throws IOException {
+			Shape geom = shape;
+
+			// The clips of the views are in the coordinates of their shape.
+			if(shape.getClip() instanceof Shape && isSupported((Shape) shape.getClip()) && shape.getClip().getLocalToParentTransform().isIdentity()) {
+				final Shape clip = (Shape) shape.getClip();
+				if(clip.getStroke() == null) {
+					// The clip is an area.
+					appendGeometry(out, clip);
+					out.append(isEvenOdd(clip) ? "W* n\n" : "W n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				}else {
+					// The clip is (mainly) a stroke, e.g. the border of a shape shortened by its arrows: PDF cannot clip with
+					// a stroke, the geometry of the clip is drawn instead of the one of the shape.
+					geom = clip;
+				}
+			}
+
+			final StringBuilder path = new StringBuilder();
+			appendGeometry(path, geom);
+			if(path.length() == 0) return;
+
+			if(shape.getFill() != null) {
+				fill(shape, shape.getFill(), path, isEvenOdd(geom), ctm, alpha, out);
+			}
+
+			if(shape.getStroke() != null && shape.getStrokeWidth() > 0d) {
+				stroke(shape, path, ctm, alpha, out);
+			}
+		}
+
+		private boolean isEvenOdd(final Shape shape) {
+			return shape instanceof Path && ((Path) shape).getFillRule() == FillRule.EVEN_ODD;
+		}
+
+		private void fill(final Shape shape, final Paint paint, final StringBuilder path, final boolean evenOdd, final Affine ctm, final double alpha,
+						final StringBuilder out) throws IOException {
+			if(paint instanceof Color) {
+				if(((Color) paint).getOpacity() * alpha > 0d) {
+					out.append("q\n"); //$NON-NLS-1$
+					setColor((Color) paint, alpha, false, out);
+					out.append(path).append(evenOdd ? "f*\n" : "f\n").append("Q\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+			}else if(paint instanceof LinearGradient || paint instanceof RadialGradient) {
+				out.append("q\n").append(path).append(evenOdd ? "W* n\n" : "W n\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				setAlpha(alpha, false, out);
+				out.append('/').append(getShading(shape, paint, out)).append(" sh\nQ\n"); //$NON-NLS-1$
+			}else if(paint instanceof ImagePattern) {
+				final Optional<String> pattern = getPattern(shape, (ImagePattern) paint, ctm);
+				if(pattern.isPresent()) {
+					out.append("q\n/Pattern cs /").append(pattern.get()).append(" scn\n"); //$NON-NLS-1$ //$NON-NLS-2$
+					setAlpha(alpha, false, out);
+					out.append(path).append(evenOdd ? "f*\n" : "f\n").append("Q\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+			}
+		}
+
+		private void stroke(final Shape shape, final StringBuilder path, final Affine ctm, final double alpha, final StringBuilder out) throws IOException {
+			final Paint paint = shape.getStroke();
+			double width = shape.getStrokeWidth();
+			out.append("q\n"); //$NON-NLS-1$
+
+			if(shape.getStrokeType() == StrokeType.INSIDE || shape.getStrokeType() == StrokeType.OUTSIDE) {
+				// PDF strokes are centred: a stroke twice larger is drawn and clipped by the shape (or by its outside).
+				width *= 2d;
+				if(shape.getStrokeType() == StrokeType.OUTSIDE) {
+					final Bounds bds = shape.getLayoutBounds();
+					append(out, "re", bds.getMinX() - width, bds.getMinY() - width, bds.getWidth() + 2d * width, bds.getHeight() + 2d * width); //$NON-NLS-1$
+				}
+				out.append(path).append(shape.getStrokeType() == StrokeType.OUTSIDE ? "W* n\n" : "W n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+
+			if(paint instanceof ImagePattern) {
+				final Optional<String> pattern = getPattern(shape, (ImagePattern) paint, ctm);
+				if(!pattern.isPresent()) {
+					out.append("Q\n"); //$NON-NLS-1$
+					return;
+				}
+				out.append("/Pattern CS /").append(pattern.get()).append(" SCN\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				setAlpha(alpha, true, out);
+			}else if(paint instanceof LinearGradient) {
+				// The gradients of the strokes are approximated by their first colour.
+				setColor(((LinearGradient) paint).getStops().get(0).getColor(), alpha, true, out);
+			}else if(paint instanceof RadialGradient) {
+				setColor(((RadialGradient) paint).getStops().get(0).getColor(), alpha, true, out);
+			}else if(paint instanceof Color) {
+				setColor((Color) paint, alpha, true, out);
+			}
+
+			append(out, "w", width); //$NON-NLS-1$
+			append(out, "J", getLineCap(shape.getStrokeLineCap())); //$NON-NLS-1$
+			append(out, "j", getLineJoin(shape.getStrokeLineJoin())); //$NON-NLS-1$
+			append(out, "M", Math.max(1d, shape.getStrokeMiterLimit())); //$NON-NLS-1$
+
+			if(!shape.getStrokeDashArray().isEmpty()) {
+				out.append('[');
+				shape.getStrokeDashArray().forEach(dash -> out.append(PDFWriter.format(dash)).append(' '));
+				out.append(']');
+				append(out, "d", shape.getStrokeDashOffset()); //$NON-NLS-1$
+			}
+
+			out.append(path).append("S\nQ\n"); //$NON-NLS-1$
+		}
+
+		private int getLineCap(final StrokeLineCap cap) {
+			switch(cap) {
+				case ROUND: return 1;
+				case SQUARE: return 2;
+				default: return 0;
+			}
+		}
+
+		private int getLineJoin(final StrokeLineJoin join) {
+			switch(join) {
+				case ROUND: return 1;
+				case BEVEL: return 2;
+				default: return 0;
+			}
+		}
+
+		private void setColor(final Color col, final double alpha, final boolean stroke, final StringBuilder out) {
+			append(out, stroke ? "RG" : "rg", col.getRed(), col.getGreen(), col.getBlue()); //$NON-NLS-1$ //$NON-NLS-2$
+			setAlpha(alpha * col.getOpacity(), stroke, out);
+		}
+
+		private void setAlpha(final double alpha, final boolean stroke, final StringBuilder out) {
+			if(alpha < 1d) {
+				final String dict = "<</" + (stroke ? "CA " : "ca ") + PDFWriter.format(alpha) + ">>"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				out.append('/').append(extGStates.computeIfAbsent(dict, key -> "GS" + extGStates.size())).append(" gs\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+
+		/**
+		 * @return The name of the shading of the given gradient. The gradients relative to the bounds of the shape
+		 * are mapped to the bounds of the shape by a transformation appended to the content.
+		 */
+		private String getShading(final Shape shape, final Paint gradient, final StringBuilder out) {
+			final String dict;
+			final boolean proportional;
+
+			if(gradient instanceof LinearGradient) {
+				final LinearGradient lin = (LinearGradient) gradient;
+				proportional = lin.isProportional();
+				dict = "<</ShadingType 2/ColorSpace/DeviceRGB/Coords[" + PDFWriter.format(lin.getStartX()) + ' ' + //$NON-NLS-1$
+					PDFWriter.format(lin.getStartY()) + ' ' + PDFWriter.format(lin.getEndX()) + ' ' + PDFWriter.format(lin.getEndY()) +
+					"]/Function" + createFunction(lin.getStops()) + "/Extend[true true]>>"; //$NON-NLS-1$ //$NON-NLS-2$
+			}else {
+				final RadialGradient rad = (RadialGradient) gradient;
+				final double focus = Math.toRadians(rad.getFocusAngle());
+				proportional = rad.isProportional();
+				dict = "<</ShadingType 3/ColorSpace/DeviceRGB/Coords[" + //$NON-NLS-1$
+					PDFWriter.format(rad.getCenterX() + rad.getFocusDistance() * rad.getRadius() * Math.cos(focus)) + ' ' +
+					PDFWriter.format(rad.getCenterY() + rad.getFocusDistance() * rad.getRadius() * Math.sin(focus)) + " 0 " + //$NON-NLS-1$
+					PDFWriter.format(rad.getCenterX()) + ' ' + PDFWriter.format(rad.getCenterY()) + ' ' + PDFWriter.format(rad.getRadius()) +
+					"]/Function" + createFunction(rad.getStops()) + "/Extend[true true]>>"; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+
+			if(proportional) {
+				final Bounds bds = shape.getLayoutBounds();
+				append(out, "cm", bds.getWidth(), 0d, 0d, bds.getHeight(), bds.getMinX(), bds.getMinY()); //$NON-NLS-1$
+			}
+
+			return shadings.computeIfAbsent(dict, key -> "Sh" + shadings.size()); //$NON-NLS-1$
+		}
+
+		/**
+		 * @return The function that interpolates the colours of the given stops (normalised by JFX: from 0 to 1).
+		 * The opacity of the stops is ignored: the shadings are opaque.
+		 */
+		private String createFunction(final List<Stop> stops) {
+			if(stops.size() < 3) {
+				return createFunction(stops.get(0).getColor(), stops.get(stops.size() - 1).getColor());
+			}
+
+			final StringBuilder functions = new StringBuilder();
+			final StringBuilder bnds = new StringBuilder();
+			final StringBuilder encode = new StringBuilder();
+
+			for(int i = 0; i < stops.size() - 1; i++) {
+				functions.append(createFunction(stops.get(i).getColor(), stops.get(i + 1).getColor()));
+				encode.append("0 1 "); //$NON-NLS-1$
+				if(i > 0) {
+					bnds.append(PDFWriter.format(stops.get(i).getOffset())).append(' ');
+				}
+			}
+
+			return "<</FunctionType 3/Domain[0 1]/Functions[" + functions + "]/Bounds[" + bnds + "]/Encode[" + encode + "]>>"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+
+		private String createFunction(final Color col1, final Color col2) {
+			return "<</FunctionType 2/Domain[0 1]/C0[" + PDFWriter.format(col1.getRed()) + ' ' + PDFWriter.format(col1.getGreen()) + ' ' + //$NON-NLS-1$
+				PDFWriter.format(col1.getBlue()) + "]/C1[" + PDFWriter.format(col2.getRed()) + ' ' + PDFWriter.format(col2.getGreen()) + ' ' + //$NON-NLS-1$
+				PDFWriter.format(col2.getBlue()) + "]/N 1>>"; //$NON-NLS-1$
+		}
+
+		/**
+		 * Creates a tiling pattern. The hatchings are drawn as vector graphics, the other patterns as images.
+		 * The matrix of a pattern maps it to the default coordinates of the page: a pattern is created for each use.
+		 * @return The name of the pattern, or nothing if the pattern is empty.
+		 */
+		private Optional<String> getPattern(final Shape shape, final ImagePattern paint, final Affine ctm) throws IOException {
+			double x = paint.getX();
+			double y = paint.getY();
+			double w = paint.getWidth();
+			double h = paint.getHeight();
+
+			if(paint.isProportional()) {
+				final Bounds bds = shape.getLayoutBounds();
+				x = bds.getMinX() + x * bds.getWidth();
+				y = bds.getMinY() + y * bds.getHeight();
+				w *= bds.getWidth();
+				h *= bds.getHeight();
+			}
+
+			if(!(w > 0d) || !(h > 0d)) return Optional.empty();
+
+			final Affine matrix = ctm.clone();
+			matrix.appendTranslation(x, y);
+			final StringBuilder tile = new StringBuilder();
+			final Optional<Group> hatchings = HatchingTileCache.INSTANCE.getTile(paint);
+
+			if(hatchings.isPresent()) {
+				final double size = ((Rectangle) hatchings.get().getClip()).getWidth();
+				final Affine tileCtm = matrix.clone();
+				tileCtm.appendScale(w / size, h / size);
+				append(tile, "cm", w / size, 0d, 0d, h / size, 0d, 0d); //$NON-NLS-1$
+				for(final Node child : hatchings.get().getChildren()) {
+					draw(child, tileCtm, 1d, tile);
+				}
+			}else {
+				append(tile, "cm", w, 0d, 0d, -h, 0d, h); //$NON-NLS-1$
+				tile.append('/').append(getImage(paint.getImage(), null)).append(" Do\n"); //$NON-NLS-1$
+			}
+
+			final String name = "P" + patterns.size(); //$NON-NLS-1$
+			patterns.put(name, writer.addStream("/Type/Pattern/PatternType 1/PaintType 1/TilingType 1/BBox[0 0 " + PDFWriter.format(w) + ' ' + //$NON-NLS-1$
+				PDFWriter.format(h) + "]/XStep " + PDFWriter.format(w) + "/YStep " + PDFWriter.format(h) + "/Matrix[" + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				PDFWriter.format(matrix.getMxx()) + ' ' + PDFWriter.format(matrix.getMyx()) + ' ' + PDFWriter.format(matrix.getMxy()) + ' ' +
+				PDFWriter.format(matrix.getMyy()) + ' ' + PDFWriter.format(matrix.getTx()) + ' ' + PDFWriter.format(matrix.getTy()) +
+				"]/Resources " + PDFWriter.ref(resources), tile.toString().getBytes(StandardCharsets.ISO_8859_1))); //$NON-NLS-1$
+			return Optional.of(name);
+		}
+
+		private void drawImageView(final ImageView view, final double alpha, final StringBuilder out) throws IOException {
+			final Image image = view.getImage();
+			if(image == null || image.isError() || image.getProgress() < 1d || image.getWidth() < 1d || image.getHeight() < 1d) return;
+
+			final Bounds bds = view.getLayoutBounds();
+			setAlpha(alpha, false, out);
+			append(out, "cm", bds.getWidth(), 0d, 0d, -bds.getHeight(), bds.getMinX(), bds.getMaxY()); //$NON-NLS-1$
+			out.append('/').append(getImage(image, view.getViewport())).append(" Do\n"); //$NON-NLS-1$
+		}
+
+		/**
+		 * Draws a node that has no vector equivalent as an image. The node is drawn in the coordinates of its parent.
+		 */
+		private void drawAsImage(final Node elt, final double opacity, final StringBuilder out) throws IOException {
+			final Bounds bds = elt.getBoundsInParent();
+			if(bds.isEmpty()) return;
+
+			final SnapshotParameters params = new SnapshotParameters();
+			params.setFill(Color.TRANSPARENT);
+			params.setTransform(new Scale(RASTER_SCALE, RASTER_SCALE));
+			final Image image = elt.snapshot(params, null);
+
+			out.append("q\n"); //$NON-NLS-1$
+			setAlpha(opacity, false, out);
+			append(out, "cm", bds.getWidth(), 0d, 0d, -bds.getHeight(), bds.getMinX(), bds.getMaxY()); //$NON-NLS-1$
+			out.append('/').append(getImage(image, null)).append(" Do\nQ\n"); //$NON-NLS-1$
+		}
+
+		/**
+		 * Embeds an image (its transparency is embedded as a soft mask).
+		 * @param image The image.
+		 * @param viewport The part of the image to embed. Null for the whole image (the image is then embedded once).
+		 * @return The name of the image.
+		 */
+		private String getImage(final Image image, final Rectangle2D viewport) throws IOException {
+			if(viewport == null && images.containsKey(image)) {
+				return images.get(image);
+			}
+
+			final int x = viewport == null ? 0 : (int) viewport.getMinX();
+			final int y = viewport == null ? 0 : (int) viewport.getMinY();
+			final int w = Math.max(1, Math.min((int) image.getWidth() - x, viewport == null ? (int) image.getWidth() : (int) Math.ceil(viewport.getWidth())));
+			final int h = Math.max(1, Math.min((int) image.getHeight() - y, viewport == null ? (int) image.getHeight() : (int) Math.ceil(viewport.getHeight())));
+			final int[] pixels = new int[w * h];
+			final byte[] rgb = new byte[w * h * 3];
+			final byte[] alpha = new byte[w * h];
+			final PixelReader reader = image.getPixelReader();
+			boolean transparent = false;
+
+			reader.getPixels(x, y, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+
+			for(int i = 0; i < pixels.length; i++) {
+				final int argb = pixels[i];
+				rgb[i * 3] = (byte) (argb >> 16);
+				rgb[i * 3 + 1] = (byte) (argb >> 8);
+				rgb[i * 3 + 2] = (byte) argb;
+				alpha[i] = (byte) (argb >>> 24);
+				transparent |= argb >>> 24 != 0xFF;
+			}
+
+			final String dict = "/Type/XObject/Subtype/Image/Width " + w + "/Height " + h + "/BitsPerComponent 8/Interpolate true"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			final String mask = transparent ? "/SMask " + PDFWriter.ref(writer.addStream(dict + "/ColorSpace/DeviceGray", alpha)) : ""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			final String name = "Im" + xObjects.size(); //$NON-NLS-1$
+			xObjects.put(name, writer.addStream(dict + "/ColorSpace/DeviceRGB" + mask, rgb)); //$NON-NLS-1$
+
+			if(viewport == null) {
+				images.put(image, name);
+			}
+			return name;
+		}
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.scene.image.Image;
+import net.sf.latexdraw.models.interfaces.shape.IPicture;
+
+/**
+ * A bounded cache of the previews of the pictures: a pyramid of images whose resolution is divided by two at each
+ * level. A preview is decoded at its reduced resolution (the full resolution image is not decoded). Level 0 is the
+ * full resolution image of the picture (cached by the model). The previews are softly referenced and the least
+ * recently used ones are removed when the cache contains too many pixels.
+ * This class is thread-safe.
+ * @author Arnaud Blouin
+ */
+public final class PicturePreviewCache {
+	/** The singleton. */
+	public static final PicturePreviewCache INSTANCE = new PicturePreviewCache(16_000_000L);
+
+	/** The maximal number of pixels the cache can contain. */
+	private final long maxPixels;
+	/** The previews sorted from the least recently used one to the most recently used one. */
+	private final Map<String, Preview> previews;
+	/** The number of pixels of the cached previews. */
+	private long nbPixels;
+	private long nbHits;
+	private long nbMisses;
+
+
+	/**
+	 * Creates the cache.
+	 * @param maxNbPixels The maximal number of pixels the cache can contain.
+	 */
+	PicturePreviewCache(final long maxNbPixels) {
+		super();
+		maxPixels = maxNbPixels;
+		previews = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+
+	/**
+	 * @param width The width of a picture.
+	 * @param height The height of a picture.
+	 * @return The highest level of the pyramid of the picture: the previews have at least one pixel.
+	 */
+	static int getMaxLevel(final double width, final double height) {
+		final double min = Math.min(width, height);
+		return min < 2d ? 0 : (int) Math.floor(Math.log(min) / Math.log(2d));
+	}
+
+
+	/**
+	 * @param picture The picture.
+	 * @param level The level of the preview: its resolution is the one of the picture divided by 2^level.
+	 * @return The preview of the given level (bounded by the highest level of the picture) or null if the picture has no image.
+	 */
+	public Image getImage(final IPicture picture, final int level) {
+		final String path = picture.getPathSource();
+
+		if(path == null || !(picture.getWidth() > 0d) || !(picture.getHeight() > 0d)) return null;
+
+		final int lvl = Math.min(level, getMaxLevel(picture.getWidth(), picture.getHeight()));
+
+		if(lvl <= 0) return picture.getImage();
+
+		final String key = path + '#' + new File(path).lastModified() + '#' + lvl;
+
+		synchronized(previews) {
+			final Preview preview = previews.get(key);
+			final Image cached = preview == null ? null : preview.image.get();
+			if(cached != null) {
+				nbHits++;
+				return cached;
+			}
+			nbMisses++;
+		}
+
+		final double ratio = Math.pow(2d, lvl);
+		final Image image = new Image(new File(path).toURI().toString(), Math.ceil(picture.getWidth() / ratio),
+			Math.ceil(picture.getHeight() / ratio), false, true);
+
+		if(image.isError()) return picture.getImage();
+
+		synchronized(previews) {
+			final Preview old = previews.put(key, new Preview(image));
+			if(old != null) {
+				nbPixels -= old.nbPixels;
+			}
+			nbPixels += (long) image.getWidth() * (long) image.getHeight();
+
+			// Removing the previews collected by the GC and the least recently used ones (but the added one).
+			previews.values().removeIf(prev -> {
+				final boolean collected = prev.image.get() == null;
+				if(collected) {
+					nbPixels -= prev.nbPixels;
+				}
+				return collected;
+			});
+			final Iterator<Preview> it = previews.values().iterator();
+			while(nbPixels > maxPixels && previews.size() > 1) {
+				nbPixels -= it.next().nbPixels;
+				it.remove();
+			}
+		}
+
+		return image;
+	}
+
+
+	/**
+	 * Removes all the previews.
+	 */
+	public void clear() {
+		synchronized(previews) {
+			previews.clear();
+			nbPixels = 0L;
+		}
+	}
+
+	/**
+	 * @return The number of cached previews (including the ones that may have been collected by the GC).
+	 */
+	public int getNbPreviews() {
+		synchronized(previews) {
+			return previews.size();
+		}
+	}
+
+	/**
+	 * @return The number of pixels of the cached previews (4 bytes per pixel).
+	 */
+	public long getNbPixels() {
+		synchronized(previews) {
+			return nbPixels;
+		}
+	}
+
+	/**
+	 * @return The maximal number of pixels the cache can contain.
+	 */
+	public long getMaxPixels() {
+		return maxPixels;
+	}
+
+	/**
+	 * @return A description of the state of the cache (for diagnostics).
+	 */
+	public String getDiagnostic() {
+		synchronized(previews) {
+			return previews.size() + " previews, " + nbPixels * 4L / 1024L + " KB / " + maxPixels * 4L / 1024L + " KB, " + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				nbHits + " hits, " + nbMisses + " misses"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+
+	/**
+	 * A cached preview.
+	 */
+	private static final class Preview {
+		final SoftReference<Image> image;
+		final long nbPixels;
+
+		Preview(final Image img) {
+			super();
+			image = new SoftReference<>(img);
+			nbPixels = (long) img.getWidth() * (long) img.getHeight();
+		}
+	}
+}
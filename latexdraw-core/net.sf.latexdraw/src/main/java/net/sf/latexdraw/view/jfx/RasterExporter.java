@@ -0,0 +1,254 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOInvalidTreeException;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.util.PNGStreamWriter;
+import net.sf.latexdraw.view.pst.PSTricksConstants;
+import org.w3c.dom.NodeList;
+
+/**
+ * Exports a node (e.g. the views of the canvas) as a raster image at a given resolution.
+ * The node is rendered by tiles of a fixed size (one snapshot per tile), so that the size of the exported image is
+ * not limited by the maximal size of the textures. The PNG images are encoded band by band (a row of tiles) while they
+ * are rendered: the memory required depends on the size of the tiles and on the width of the image only.
+ * The other formats (JPG, BMP) are encoded by ImageIO from an RGB image filled tile by tile.
+ * Must be used in the JFX thread.
+ * @author Arnaud Blouin
+ */
+public final class RasterExporter {
+	/** The default resolution: the drawing (50 pixels per cm) is scaled by 3. */
+	public static final double DEFAULT_DPI = 3d * IShape.PPC * PSTricksConstants.INCH_VAL_CM;
+
+	/** The default size of the tiles (lower than the maximal size of the textures). */
+	public static final int DEFAULT_TILE_SIZE = 1024;
+
+	private static final String JPEG_METADATA = "javax_imageio_jpeg_image_1.0"; //$NON-NLS-1$
+
+	private final Node node;
+	private final double dpi;
+	private final int tileSize;
+	/** The bounds of the node (snapshots are taken in the coordinates of its parent: its transformations are applied). */
+	private final Bounds bounds;
+	/** The scale from the node to the image. */
+	private final double scale;
+	private final int width;
+	private final int height;
+
+
+	/**
+	 * Creates the exporter.
+	 * @param toExport The node to export.
+	 * @param resolution The resolution of the image (dots per inch).
+	 * @param sizeTile The size of the tiles.
+	 * @throws IllegalArgumentException If the resolution or the size of the tiles is not strictly positive.
+	 */
+	public RasterExporter(final Node toExport, final double resolution, final int sizeTile) {
+		super();
+		if(!(resolution > 0d) || sizeTile < 1) {
+			throw new IllegalArgumentException("Invalid resolution or tile size: " + resolution + ", " + sizeTile); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		node = toExport;
+		dpi = resolution;
+		tileSize = sizeTile;
+		bounds = node.getBoundsInParent();
+		scale = getScale(dpi);
+		width = Math.max(1, (int) Math.ceil(bounds.getWidth() * scale));
+		height = Math.max(1, (int) Math.ceil(bounds.getHeight() * scale));
+	}
+
+
+	/**
+	 * @param dpi A resolution (dots per inch).
+	 * @return The scale to apply to the drawing (50 pixels per cm) to get the given resolution.
+	 */
+	public static double getScale(final double dpi) {
+		return dpi / (IShape.PPC * PSTricksConstants.INCH_VAL_CM);
+	}
+
+
+	/**
+	 * @return The width of the exported image.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+
+	/**
+	 * @return The height of the exported image.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+
+	/**
+	 * Exports the node as a PNG image.
+	 * @param output The stream where the image is written (not closed).
+	 * @throws IOException If the image cannot be written.
+	 */
+	public void writePNG(final OutputStream output) throws IOException {
+		final int[] band = new int[width * Math.min(tileSize, height)];
+
+		try(final PNGStreamWriter writer = new PNGStreamWriter(output, width, height, dpi)) {
+			final Tiles tiles = new Tiles();
+			for(int y = 0; y < height; y += tileSize) {
+				final int bandHeight = Math.min(tileSize, height - y);
+				tiles.render(y, bandHeight, band, 0, width);
+				writer.writeRows(band, 0, width, bandHeight);
+			}
+		}
+	}
+
+
+	/**
+	 * Exports the node as an image.
+	 * @param file The file to create.
+	 * @param format The format of the image: png, jpg, or bmp (the formats supported by ImageIO).
+	 * @throws IOException If the image cannot be written.
+	 */
+	public void write(final File file, final String format) throws IOException {
+		if("png".equalsIgnoreCase(format)) { //$NON-NLS-1$
+			try(final OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+				writePNG(output);
+			}
+			return;
+		}
+
+		final BufferedImage image = createImage();
+		try {
+			writeImage(image, file, format);
+		}finally {
+			image.flush();
+		}
+	}
+
+
+	/**
+	 * @return The RGB image of the node, rendered tile by tile.
+	 */
+	public BufferedImage createImage() {
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		final Tiles tiles = new Tiles();
+
+		for(int y = 0; y < height; y += tileSize) {
+			tiles.render(y, Math.min(tileSize, height - y), pixels, y * width, width);
+		}
+
+		return image;
+	}
+
+
+	private void writeImage(final BufferedImage image, final File file, final String format) throws IOException {
+		final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+
+		if(!writers.hasNext()) {
+			throw new IOException("No writer for the format " + format); //$NON-NLS-1$
+		}
+
+		final ImageWriter writer = writers.next();
+
+		try(final ImageOutputStream output = ImageIO.createImageOutputStream(file)) {
+			final ImageWriteParam param = writer.getDefaultWriteParam();
+			final IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), param);
+			setResolution(metadata);
+			writer.setOutput(output);
+			writer.write(null, new IIOImage(image, null, metadata), param);
+		}finally {
+			writer.dispose();
+		}
+	}
+
+
+	/**
+	 * Sets the resolution in the JFIF header of the JPEG images (the other formats are written without resolution).
+	 */
+	private void setResolution(final IIOMetadata metadata) {
+		if(metadata == null || metadata.isReadOnly()) return;
+
+		try {
+			final IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(JPEG_METADATA);
+			final NodeList jfif = root.getElementsByTagName("app0JFIF"); //$NON-NLS-1$
+			if(jfif.getLength() > 0) {
+				final IIOMetadataNode header = (IIOMetadataNode) jfif.item(0);
+				// The unit 1 is the dots per inch.
+				header.setAttribute("resUnits", "1"); //$NON-NLS-1$ //$NON-NLS-2$
+				header.setAttribute("Xdensity", Integer.toString((int) Math.round(dpi))); //$NON-NLS-1$
+				header.setAttribute("Ydensity", Integer.toString((int) Math.round(dpi))); //$NON-NLS-1$
+				metadata.setFromTree(JPEG_METADATA, root);
+			}
+		}catch(final IIOInvalidTreeException | IllegalArgumentException | IllegalStateException ignored) {
+			// Not a JPEG image: the resolution is optional.
+		}
+	}
+
+
+	/**
+	 * Renders the tiles of the node. The same snapshot image is reused for all the tiles.
+	 */
+	private final class Tiles {
+		private final WritableImage tile;
+		private final SnapshotParameters params;
+
+		Tiles() {
+			super();
+			tile = new WritableImage(Math.min(tileSize, width), Math.min(tileSize, height));
+			params = new SnapshotParameters();
+			params.setFill(Color.WHITE);
+			params.setTransform(new Scale(scale, scale));
+		}
+
+		/**
+		 * Renders a band of tiles into the given pixels.
+		 * @param y The top of the band in the image.
+		 * @param bandHeight The height of the band.
+		 * @param pixels The ARGB pixels where the band is copied.
+		 * @param offset The position in the pixels of the top-left pixel of the band.
+		 * @param scanline The distance between two rows in the pixels.
+		 */
+		void render(final int y, final int bandHeight, final int[] pixels, final int offset, final int scanline) {
+			for(int x = 0; x < width; x += tileSize) {
+				final int tileWidth = Math.min(tileSize, width - x);
+				// The viewport is in the coordinates of the scaled node.
+				params.setViewport(new Rectangle2D(bounds.getMinX() * scale + x, bounds.getMinY() * scale + y, tileWidth, bandHeight));
+				node.snapshot(params, tile);
+				tile.getPixelReader().getPixels(0, 0, tileWidth, bandHeight, PixelFormat.getIntArgbInstance(), pixels, offset + x, scanline);
+			}
+		}
+	}
+}
@@ -0,0 +1,452 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import com.sun.pdfview.PDFFile;
+import com.sun.pdfview.PDFPage;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import net.sf.latexdraw.actions.ExportFormat;
+import net.sf.latexdraw.badaboom.BadaboomCollector;
+import net.sf.latexdraw.util.ImageCropper;
+import net.sf.latexdraw.util.LFileUtils;
+import net.sf.latexdraw.util.LSystem;
+import net.sf.latexdraw.util.OperatingSystem;
+import net.sf.latexdraw.util.StreamExecReader;
+import net.sf.latexdraw.util.Tuple;
+
+/**
+ * Compiles the texts into pictures (LaTeX, then dvips, then ps2pdf).
+ * The texts submitted at the same time (e.g. when a drawing is loaded) are compiled in batch: a single multi-page
+ * LaTeX document (one page per text) is compiled and its pages are split into the pictures of the texts, so that the
+ * LaTeX tool chain is launched once for all the texts instead of once per text.
+ * If a batch fails, it is split in two batches compiled separately, until the texts that fail are compiled alone:
+ * their error log concerns their own text only.
+ * The pictures are cached by TextImageCache using the standalone document of each text.
+ * The LaTeX tools launched for texts that are all cancelled are killed.
+ * This class is thread-safe.
+ * @author Arnaud Blouin
+ */
+final class TextCompiler {
+	static final TextCompiler INSTANCE = new TextCompiler(TextImageCache.INSTANCE);
+
+	/** The time (in ms) during which the submitted texts are gathered in a batch. */
+	static final long BATCH_WINDOW = 50L;
+	/** The maximal number of texts compiled in a single LaTeX document. */
+	static final int MAX_BATCH_SIZE = 100;
+	/** The LaTeX environment that delimits the pages of the batch documents. */
+	private static final String PAGE_ENV = "ldtext"; //$NON-NLS-1$
+	/** The period (in ms) at which a running LaTeX tool checks whether its texts are cancelled. */
+	private static final long CANCEL_CHECK_PERIOD = 50L;
+
+	private final TextImageCache cache;
+	private final ScheduledExecutorService pool;
+	/** The running processes of the LaTeX tools. */
+	private final Set<Process> processes;
+	/** The texts waiting for the next batch. */
+	private final List<Request> pending;
+	/** True if the next batch is scheduled. */
+	private boolean batchScheduled;
+
+
+	/**
+	 * Creates the compiler.
+	 * @param imageCache The cache of the pictures of the texts.
+	 */
+	TextCompiler(final TextImageCache imageCache) {
+		super();
+		cache = imageCache;
+		processes = ConcurrentHashMap.newKeySet();
+		pool = Executors.newScheduledThreadPool(5, task -> {
+			final Thread thread = new Thread(task, "latexdraw-text-compiler"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		pending = new ArrayList<>();
+		batchScheduled = false;
+	}
+
+
+	/**
+	 * @param preamble The preamble of the LaTeX document (document class excluded).
+	 * @param body The content of the document.
+	 * @return The standalone LaTeX document of a single text.
+	 */
+	static String getDocument(final String preamble, final String body) {
+		return "\\documentclass{standalone}\n" + preamble + "\\begin{document}\n" + body + "\n\\end{document}"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * @param preamble The preamble of the LaTeX document (document class excluded).
+	 * @param bodies The contents of the texts.
+	 * @return The LaTeX document that contains one page per text.
+	 */
+	static String getBatchDocument(final String preamble, final List<String> bodies) {
+		final StringBuilder doc = new StringBuilder();
+		doc.append("\\documentclass[multi=").append(PAGE_ENV).append("]{standalone}\n").append(preamble); //$NON-NLS-1$ //$NON-NLS-2$
+		doc.append("\\newenvironment{").append(PAGE_ENV).append("}{}{}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		// dvips gives the paper size of a single page to all the pages: all the pages have the size of the largest text
+		// so that no text is clipped. The texts are thus put in boxes and measured before being typeset.
+		// The pictures of the pages are cropped: the texts compiled in batch and alone have the same picture.
+		doc.append("\\newlength\\ldwidth\n\\newlength\\ldheight\n\\newcommand\\ldbox[1]{\\csname ldbox#1\\endcsname}\n"); //$NON-NLS-1$
+		doc.append("\\newcommand\\ldmeasure[1]{\\ifdim\\wd\\ldbox{#1}>\\ldwidth\\global\\ldwidth\\wd\\ldbox{#1}\\fi"); //$NON-NLS-1$
+		doc.append("\\ifdim\\dimexpr\\ht\\ldbox{#1}+\\dp\\ldbox{#1}\\relax>\\ldheight"); //$NON-NLS-1$
+		doc.append("\\global\\ldheight\\dimexpr\\ht\\ldbox{#1}+\\dp\\ldbox{#1}\\relax\\fi}\n"); //$NON-NLS-1$
+		doc.append("\\newcommand\\ldpage[1]{\\vbox to\\ldheight{\\hbox to\\ldwidth{\\usebox{\\ldbox{#1}}\\hfil}\\vfil}}\n"); //$NON-NLS-1$
+		doc.append("\\begin{document}\n"); //$NON-NLS-1$
+
+		for(int i = 1, size = bodies.size(); i <= size; i++) {
+			doc.append("\\expandafter\\newsavebox\\csname ldbox").append(i).append("\\endcsname\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			doc.append("\\begin{lrbox}{\\ldbox{").append(i).append("}}").append(bodies.get(i - 1)); //$NON-NLS-1$ //$NON-NLS-2$
+			doc.append("\\end{lrbox}\\ldmeasure{").append(i).append("}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		for(int i = 1, size = bodies.size(); i <= size; i++) {
+			doc.append("\\begin{").append(PAGE_ENV).append("}\\ldpage{").append(i).append("}\\end{").append(PAGE_ENV).append("}\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+
+		doc.append("\\end{document}"); //$NON-NLS-1$
+		return doc.toString();
+	}
+
+
+	/**
+	 * Submits a text to compile.
+	 * @param preamble The preamble of the LaTeX document (document class excluded).
+	 * @param body The content of the document (the text).
+	 * @param delay The delay (in ms) before the submission (a cancelled text is not compiled).
+	 * @return The future picture of the text (null if the compilation failed) with the log of the compilation.
+	 * Cancelling it cancels the compilation of the text.
+	 */
+	CompletableFuture<Tuple<Image, String>> compile(final String preamble, final String body, final long delay) {
+		final Request request = new Request(preamble, body);
+		pool.schedule(() -> submit(request), delay, TimeUnit.MILLISECONDS);
+		return request.result;
+	}
+
+
+	private void submit(final Request request) {
+		if(request.result.isDone()) return;
+
+		synchronized(pending) {
+			pending.add(request);
+			if(!batchScheduled) {
+				batchScheduled = true;
+				pool.schedule(this::runBatches, BATCH_WINDOW, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+
+	private void runBatches() {
+		final List<Request> requests;
+
+		synchronized(pending) {
+			requests = new ArrayList<>(pending);
+			pending.clear();
+			batchScheduled = false;
+		}
+
+		// The same documents are compiled once; the cached ones are not compiled.
+		final Map<String, List<Job>> jobsByPreamble = new LinkedHashMap<>();
+		final Map<String, Job> jobs = new LinkedHashMap<>();
+
+		requests.stream().filter(req -> !req.result.isDone()).forEach(req -> {
+			final Job job = jobs.computeIfAbsent(req.doc, doc -> {
+				final Job newJob = new Job(req);
+				jobsByPreamble.computeIfAbsent(req.preamble, pre -> new ArrayList<>()).add(newJob);
+				return newJob;
+			});
+			job.requests.add(req);
+		});
+
+		jobsByPreamble.forEach((preamble, preambleJobs) -> {
+			final List<Job> toCompile = new ArrayList<>();
+
+			preambleJobs.forEach(job -> {
+				final Optional<Image> cached = job.key.flatMap(cache::get);
+				if(cached.isPresent()) {
+					job.complete(cached.get(), ""); //$NON-NLS-1$
+				}else {
+					toCompile.add(job);
+				}
+			});
+
+			for(int i = 0, size = toCompile.size(); i < size; i += MAX_BATCH_SIZE) {
+				final List<Job> batch = toCompile.subList(i, Math.min(size, i + MAX_BATCH_SIZE));
+				pool.execute(() -> compileBatch(preamble, batch));
+			}
+		});
+	}
+
+
+	/**
+	 * Compiles the given texts in a single document. If it fails, the two halves of the batch are compiled separately.
+	 */
+	private void compileBatch(final String preamble, final List<Job> jobs) {
+		final List<Job> todo = new ArrayList<>();
+		jobs.stream().filter(job -> !job.isCancelled()).forEach(todo::add);
+
+		if(todo.isEmpty()) return;
+
+		final BooleanSupplier cancelled = () -> todo.stream().allMatch(Job::isCancelled);
+
+		if(todo.size() == 1) {
+			final Job job = todo.get(0);
+			final Tuple<List<BufferedImage>, String> res = compileDocument(job.doc, 1, cancelled);
+			job.complete(res.a == null ? null : job.toImage(res.a.get(0)), res.b);
+			return;
+		}
+
+		final List<String> bodies = new ArrayList<>();
+		todo.forEach(job -> bodies.add(job.body));
+		final Tuple<List<BufferedImage>, String> res = compileDocument(getBatchDocument(preamble, bodies), todo.size(), cancelled);
+
+		if(res.a != null) {
+			for(int i = 0, size = todo.size(); i < size; i++) {
+				todo.get(i).complete(todo.get(i).toImage(res.a.get(i)), ""); //$NON-NLS-1$
+			}
+		}else {
+			if(!cancelled.getAsBoolean()) {
+				compileBatch(preamble, todo.subList(0, todo.size() / 2));
+				compileBatch(preamble, todo.subList(todo.size() / 2, todo.size()));
+			}
+		}
+	}
+
+
+	/**
+	 * Compiles the given LaTeX document.
+	 * @param doc The LaTeX document to compile.
+	 * @param nbPages The expected number of pages.
+	 * @param cancelled Stops the compilation when true: the running LaTeX tool is killed.
+	 * @return The cropped pictures of the pages (null if the compilation failed or does not produce the expected number of pages)
+	 * with the log of the compilation.
+	 */
+	private Tuple<List<BufferedImage>, String> compileDocument(final String doc, final int nbPages, final BooleanSupplier cancelled) {
+		final Optional<File> optDir = LFileUtils.INSTANCE.createTempDir();
+
+		if(!optDir.isPresent()) {
+			return new Tuple<>(null, "A temporary file cannot be created."); //$NON-NLS-1$
+		}
+
+		List<BufferedImage> pictures = null;
+		final File tmpDir = optDir.get();
+		final String basePathPic = tmpDir.getAbsolutePath() + LSystem.FILE_SEP + "latexdrawTmpPic" + System.currentTimeMillis(); //$NON-NLS-1$
+		final String pathTex = basePathPic + ExportFormat.TEX.getFileExtension();
+		final OperatingSystem os = LSystem.INSTANCE.getSystem().orElse(OperatingSystem.LINUX);
+		String log = ""; //$NON-NLS-1$
+
+		// Saving the LaTeX document into a file to be compiled.
+		if(LFileUtils.INSTANCE.saveFile(pathTex, doc).isPresent()) {
+			// Compiling the LaTeX document.
+			Tuple<Boolean, String> res = execute(new String[]{os.getLatexBinPath(), "--halt-on-error", "--interaction=nonstopmode", //$NON-NLS-1$ //$NON-NLS-2$
+				"--output-directory=" + tmpDir.getAbsolutePath(), LFileUtils.INSTANCE.normalizeForLaTeX(pathTex)}, cancelled); //$NON-NLS-1$
+			boolean ok = res.a;
+			log = res.b;
+
+			// Compiling the DVI document.
+			if(ok && !cancelled.getAsBoolean()) {
+				res = execute(new String[]{os.getDvipsBinPath(), basePathPic + ".dvi", "-o", basePathPic + ExportFormat.EPS_LATEX.getFileExtension()}, cancelled); //$NON-NLS-1$ //$NON-NLS-2$
+				ok = res.a;
+				log = log + res.b;
+			}
+
+			// Converting the PS document as a PDF one.
+			if(ok && !cancelled.getAsBoolean()) {
+				res = execute(new String[]{os.getPs2pdfBinPath(), basePathPic + ExportFormat.EPS_LATEX.getFileExtension(), basePathPic + ExportFormat.PDF.getFileExtension()}, cancelled);
+				ok = res.a;
+				log = log + res.b;
+			}
+
+			// Getting the images of the pages of the PDF document.
+			if(ok && !cancelled.getAsBoolean()) {
+				pictures = readPDFPages(new File(basePathPic + ExportFormat.PDF.getFileExtension()), nbPages);
+			}
+		}
+
+		// Deleting the temporary folder and its content.
+		LFileUtils.INSTANCE.removeDirWithContent(tmpDir.getPath());
+
+		return new Tuple<>(pictures, log);
+	}
+
+
+	/**
+	 * Executes a given command and returns the log.
+	 * @param cmd The command to execute.
+	 * @param cancelled Kills the process of the command when true.
+	 * @return True if the command exits normally plus the log.
+	 */
+	private Tuple<Boolean, String> execute(final String[] cmd, final BooleanSupplier cancelled) {
+		String log = ""; //$NON-NLS-1$
+		Process process = null;
+		try {
+			process = Runtime.getRuntime().exec(cmd);
+			processes.add(process);
+			final StreamExecReader errReader = new StreamExecReader(process.getErrorStream());
+			final StreamExecReader outReader = new StreamExecReader(process.getInputStream());
+
+			errReader.start();
+			outReader.start();
+
+			while(!process.waitFor(CANCEL_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+				if(cancelled.getAsBoolean()) {
+					process.destroyForcibly();
+					return new Tuple<>(false, "Cancelled command: " + Arrays.toString(cmd)); //$NON-NLS-1$
+				}
+			}
+
+			if(process.exitValue() == 0) {
+				return new Tuple<>(true, log);
+			}
+
+			log = outReader.getLog() + LSystem.EOL + errReader.getLog();
+		}catch(final InterruptedException ex) {
+			process.destroyForcibly();
+			Thread.currentThread().interrupt();
+			log += ex.getMessage();
+		}catch(final IOException | IllegalThreadStateException ex) {
+			log += ex.getMessage();
+		}finally {
+			if(process != null && !process.isAlive()) {
+				processes.remove(process);
+			}
+		}
+		return new Tuple<>(false, log);
+	}
+
+
+	/**
+	 * @return True if a LaTeX tool is running. The killed tools are running until their process ends.
+	 */
+	boolean isCompiling() {
+		processes.removeIf(process -> !process.isAlive());
+		return !processes.isEmpty();
+	}
+
+
+	/**
+	 * Reads the pages of the given pdf document.
+	 * @param file The file of the pdf document.
+	 * @param nbPages The expected number of pages.
+	 * @return The cropped images of the pages or null if the document does not have the expected number of pages.
+	 */
+	private static List<BufferedImage> readPDFPages(final File file, final int nbPages) {
+		try(final FileChannel fc = new RandomAccessFile(file, "r").getChannel()) { //$NON-NLS-1$
+			final MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+			final PDFFile pdfFile = new PDFFile(mbb);
+			mbb.clear();
+
+			if(pdfFile.getNumPages() != nbPages) {
+				BadaboomCollector.INSTANCE.add(new IllegalArgumentException("Unexpected number of pages: " + pdfFile.getNumPages())); //$NON-NLS-1$
+				return null;
+			}
+
+			final List<BufferedImage> pictures = new ArrayList<>(nbPages);
+
+			for(int i = 1; i <= nbPages; i++) {
+				final PDFPage page = pdfFile.getPage(i);
+				final Rectangle2D bound = page.getBBox();
+				final java.awt.Image img = page.getImage((int) bound.getWidth(), (int) bound.getHeight(), bound, null, false, true);
+
+				if(!(img instanceof BufferedImage)) {
+					return null;
+				}
+
+				pictures.add(ImageCropper.INSTANCE.cropImage((BufferedImage) img));
+				img.flush();
+			}
+
+			return pictures;
+		}catch(final IOException | IllegalArgumentException | SecurityException ex) {
+			BadaboomCollector.INSTANCE.add(ex);
+			return null;
+		}
+	}
+
+
+	/**
+	 * A text submitted for compilation.
+	 */
+	private static final class Request {
+		final String preamble;
+		final String body;
+		/** The standalone document of the text (identifies the text in the cache). */
+		final String doc;
+		final CompletableFuture<Tuple<Image, String>> result;
+
+		Request(final String preamble, final String body) {
+			super();
+			this.preamble = preamble;
+			this.body = body;
+			doc = getDocument(preamble, body);
+			result = new CompletableFuture<>();
+		}
+	}
+
+
+	/**
+	 * A document to compile and the requests waiting for it.
+	 */
+	private final class Job {
+		final String body;
+		final String doc;
+		final Optional<String> key;
+		final List<Request> requests;
+
+		Job(final Request req) {
+			super();
+			body = req.body;
+			doc = req.doc;
+			key = cache.getKey(doc);
+			requests = new ArrayList<>();
+		}
+
+		boolean isCancelled() {
+			return requests.stream().allMatch(req -> req.result.isDone());
+		}
+
+		/**
+		 * Converts the picture as a JFX one, cached for the next compilations of the same document.
+		 */
+		Image toImage(final BufferedImage bi) {
+			if(bi == null) return null;
+			final Image img = key.map(k -> cache.put(k, bi)).orElseGet(() -> SwingFXUtils.toFXImage(bi, null));
+			bi.flush();
+			return img;
+		}
+
+		void complete(final Image img, final String log) {
+			requests.forEach(req -> req.result.complete(new Tuple<>(img, log)));
+		}
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import javax.imageio.ImageIO;
+import net.sf.latexdraw.badaboom.BadaboomCollector;
+import net.sf.latexdraw.util.LPath;
+import net.sf.latexdraw.util.Tuple;
+
+/**
+ * A cache of the pictures of compiled texts.
+ * The pictures are identified by a hash of the LaTeX document compiled to produce them (this document contains the text,
+ * the packages, the colour, and the scale). The most recently used pictures are kept in memory and the pictures are
+ * saved as PNG files in the cache directory of the user so that they can be reused from one session to another.
+ * The size of the disk cache is bounded: the least recently used files (saved or loaded) are removed first.
+ * This class is thread-safe.
+ * @author Arnaud Blouin
+ */
+final class TextImageCache {
+	/** The name of the cache sub-directory that contains the pictures. */
+	static final String TEXT_CACHE_DIR = "texts"; //$NON-NLS-1$
+
+	static final TextImageCache INSTANCE = new TextImageCache(new File(LPath.PATH_CACHE_DIR, TEXT_CACHE_DIR), 16_000_000L, 64_000_000L);
+
+	private static final String EXTENSION = ".png"; //$NON-NLS-1$
+	/** The prefix of the files being written. */
+	private static final String TMP_PREFIX = "latexdrawText"; //$NON-NLS-1$
+
+	/** The directory of the disk cache. Null if the disk cache is disabled. */
+	private final File dir;
+	/** The maximal number of pixels the memory cache can contain. */
+	private final long maxPixels;
+	/** The pictures in memory sorted from the least recently used one to the most recently used one. */
+	private final Map<String, Image> images;
+	/** The number of pixels the memory cache contains. */
+	private long nbPixels;
+	/** The maximal size (in bytes) of the disk cache. */
+	private final long maxDiskSize;
+	/** The size (in bytes) of the disk cache. Negative until computed (at the first saving). */
+	private long diskSize;
+	/** Guards the size of the disk cache and the removal of its files. */
+	private final Object diskLock;
+
+	/**
+	 * Creates the cache.
+	 * @param cacheDir The directory of the disk cache. Created if it does not exist. May be null: no disk cache.
+	 * @param maxNbPixels The maximal number of pixels the memory cache can contain.
+	 * @param maxDiskBytes The maximal size (in bytes) of the disk cache.
+	 */
+	TextImageCache(final File cacheDir, final long maxNbPixels, final long maxDiskBytes) {
+		super();
+		dir = cacheDir != null && (cacheDir.isDirectory() || cacheDir.mkdirs()) ? cacheDir : null;
+		maxPixels = maxNbPixels;
+		images = new LinkedHashMap<>(16, 0.75f, true);
+		nbPixels = 0L;
+		maxDiskSize = maxDiskBytes;
+		diskSize = -1L;
+		diskLock = new Object();
+	}
+
+	/**
+	 * @param doc The LaTeX document compiled to produce a picture.
+	 * @return The key of the picture: the SHA-256 hash of the document. Empty if the hash cannot be computed.
+	 */
+	Optional<String> getKey(final String doc) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(doc.getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+			final StringBuilder key = new StringBuilder(hash.length * 2);
+			for(final byte b : hash) {
+				key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return Optional.of(key.toString());
+		}catch(final NoSuchAlgorithmException ex) {
+			BadaboomCollector.INSTANCE.add(ex);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Looks for a picture in memory, then on the disk.
+	 * @param key The key of the picture.
+	 * @return The cached picture or nothing.
+	 */
+	Optional<Image> get(final String key) {
+		synchronized(images) {
+			final Image img = images.get(key);
+			if(img != null) {
+				return Optional.of(img);
+			}
+		}
+
+		final Optional<File> file = getFile(key);
+
+		if(!file.isPresent() || !file.get().isFile()) {
+			return Optional.empty();
+		}
+
+		try {
+			final BufferedImage bi = ImageIO.read(file.get());
+			if(bi != null) {
+				final Image img = SwingFXUtils.toFXImage(bi, null);
+				bi.flush();
+				putInMemory(key, img);
+				// The last modification date of the files is their last use.
+				file.get().setLastModified(System.currentTimeMillis());
+				return Optional.of(img);
+			}
+		}catch(final IOException ex) {
+			BadaboomCollector.INSTANCE.add(ex);
+		}
+
+		// The file is corrupted.
+		file.get().delete();
+		return Optional.empty();
+	}
+
+	/**
+	 * Adds a picture to the cache.
+	 * @param key The key of the picture.
+	 * @param bi The picture to cache. Not flushed.
+	 * @return The JFX version of the picture.
+	 */
+	Image put(final String key, final BufferedImage bi) {
+		final Image img = SwingFXUtils.toFXImage(bi, null);
+		putInMemory(key, img);
+		getFile(key).ifPresent(file -> saveImage(bi, file));
+		return img;
+	}
+
+	/**
+	 * Removes all the pictures from the memory cache (the disk cache is not cleared).
+	 */
+	void clearMemory() {
+		synchronized(images) {
+			images.clear();
+			nbPixels = 0L;
+		}
+	}
+
+	/**
+	 * @return True if the memory cache contains the given picture.
+	 */
+	boolean isInMemory(final String key) {
+		synchronized(images) {
+			return images.containsKey(key);
+		}
+	}
+
+	private Optional<File> getFile(final String key) {
+		return dir == null ? Optional.empty() : Optional.of(new File(dir, key + EXTENSION));
+	}
+
+	private void putInMemory(final String key, final Image img) {
+		synchronized(images) {
+			final Image old = images.put(key, img);
+			if(old != null) {
+				nbPixels -= getNbPixels(old);
+			}
+			nbPixels += getNbPixels(img);
+
+			// Removing the least recently used pictures (but the added one).
+			final Iterator<Image> it = images.values().iterator();
+			while(nbPixels > maxPixels && images.size() > 1) {
+				nbPixels -= getNbPixels(it.next());
+				it.remove();
+			}
+		}
+	}
+
+	private static long getNbPixels(final Image img) {
+		return (long) img.getWidth() * (long) img.getHeight();
+	}
+
+	/**
+	 * Saves the picture in a temporary file that is then moved to the cache so that
+	 * another instance of LaTeXDraw cannot read a partially written file.
+	 */
+	private void saveImage(final BufferedImage bi, final File file) {
+		File tmp = null;
+		try {
+			tmp = File.createTempFile(TMP_PREFIX, EXTENSION, dir);
+			if(ImageIO.write(bi, "png", tmp)) { //$NON-NLS-1$
+				try {
+					Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				}catch(final AtomicMoveNotSupportedException ex) {
+					Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				onSaved(file);
+			}
+		}catch(final IOException | SecurityException ex) {
+			BadaboomCollector.INSTANCE.add(ex);
+		}finally {
+			if(tmp != null && tmp.exists()) {
+				tmp.delete();
+			}
+		}
+	}
+
+	/**
+	 * Updates the size of the disk cache with a saved file. If the disk cache is too large, its least recently used files
+	 * (but the saved one) are removed until its size is 3/4 of its maximal size, so that the cache directory is not
+	 * listed at each saving.
+	 */
+	private void onSaved(final File saved) {
+		synchronized(diskLock) {
+			// The files saved by the previous sessions are counted.
+			diskSize = diskSize < 0L ? Arrays.stream(listFiles()).mapToLong(File::length).sum() : diskSize + saved.length();
+
+			if(diskSize > maxDiskSize) {
+				// The files with their date, read once since another instance of LaTeXDraw may change them during the sort.
+				final List<Tuple<File, Long>> files = Arrays.stream(listFiles()).map(file -> new Tuple<>(file, file.lastModified())).
+					sorted(Comparator.comparingLong(file -> file.b)).collect(Collectors.toList());
+				long size = files.stream().mapToLong(file -> file.a.length()).sum();
+
+				for(int i = 0; i < files.size() && size > maxDiskSize / 4L * 3L; i++) {
+					final File file = files.get(i).a;
+					final long length = file.length();
+					if(!file.equals(saved) && file.delete()) {
+						size -= length;
+					}
+				}
+				diskSize = size;
+			}
+		}
+	}
+
+	/**
+	 * @return The pictures of the disk cache (the files being written excluded).
+	 */
+	private File[] listFiles() {
+		final File[] files = dir.listFiles((directory, name) -> name.endsWith(EXTENSION) && !name.startsWith(TMP_PREFIX));
+		return files == null ? new File[0] : files;
+	}
+}
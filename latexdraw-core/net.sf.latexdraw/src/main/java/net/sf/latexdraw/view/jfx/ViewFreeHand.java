@@ -10,8 +10,11 @@
  */
 package net.sf.latexdraw.view.jfx;
 
+import java.util.ArrayList;
 import java.util.List;
 import javafx.beans.value.ChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.shape.PathElement;
 import net.sf.latexdraw.models.interfaces.shape.IFreehand;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
 
@@ -21,6 +24,34 @@ import net.sf.latexdraw.models.interfaces.shape.IPoint;
  */
 public class ViewFreeHand extends ViewPathShape<IFreehand> {
 	private final ChangeListener<Object> update = (observable, oldValue, newValue) -> setPath();
+	/** The path is extended when points are added; it is rebuilt when points are removed. */
+	private final ChangeListener<Number> pointsAdded = (observable, oldValue, newValue) -> {
+		if(newValue.intValue() > oldValue.intValue()) {
+			extendPath();
+		}else {
+			setPath();
+		}
+	};
+	private final ChangeListener<Number> lodUpdate = (observable, oldValue, newValue) -> checkToExecuteOnUIThread(() -> setPath());
+	/** The point listened to update the view on translation. Null if the shape has no point. */
+	private final IPoint listenedPt;
+	/** Defines whether the path can be extended with new points or must be rebuilt. */
+	private boolean extendable;
+	/** The index of the next point to consider when new points are added to the path. */
+	private int nextPt;
+	/** The number of elements at the end of the path that depend on the last point. Removed when new points are added. */
+	private int nbTailElts;
+	/** The state of the construction of the curves: the last considered point and the middle point used by the next curve. */
+	private double curx;
+	private double cury;
+	private double midx;
+	private double midy;
+	/** The points used to build the path: the points of the model or, when zoomed out, a simplification of them. */
+	private List<IPoint> pathPts;
+	/** The interval between the points used to build the path (1 for simplified points). */
+	private int pathInterval;
+	/** True if the path is built from simplified points. */
+	private boolean simplified;
 
 
 	/**
@@ -31,14 +62,17 @@ public class ViewFreeHand extends ViewPathShape<IFreehand> {
 		super(sh);
 
 		// To update on translation. To improve.
-		if(!model.getPoints().isEmpty()) {
-			model.getPoints().get(model.getPoints().size() - 1).xProperty().addListener(update);
-			model.getPoints().get(model.getPoints().size() - 1).yProperty().addListener(update);
+		listenedPt = model.getPtAt(-1);
+		if(listenedPt != null) {
+			listenedPt.xProperty().addListener(update);
+			listenedPt.yProperty().addListener(update);
 		}
 
 		model.intervalProperty().addListener(update);
 		model.typeProperty().addListener(update);
 		model.openedProperty().addListener(update);
+		model.nbPointsProperty().addListener(pointsAdded);
+		LevelOfDetail.INSTANCE.toleranceProperty().addListener(lodUpdate);
 
 		setPath();
 	}
@@ -47,125 +81,210 @@ public class ViewFreeHand extends ViewPathShape<IFreehand> {
 	private void setPath() {
 		border.getElements().clear();
 		shadow.getElements().clear();
+		extendable = false;
+		nbTailElts = 0;
 
 		if(model.getNbPoints() > 1) {
+			final List<PathElement> elts = new ArrayList<>();
+			final double tolerance = LevelOfDetail.INSTANCE.getTolerance();
+
+			simplified = tolerance > 0d;
+
+			if(simplified) {
+				// Zoomed out: the path is built from the points of a simplified polyline.
+				pathPts = LevelOfDetail.INSTANCE.simplify(model.getPoints(), model.getInterval(), tolerance);
+				pathInterval = 1;
+			}else {
+				pathPts = model.getPoints();
+				pathInterval = model.getInterval();
+			}
+
 			switch(model.getType()) {
 				case CURVES:
-					setPathCurves();
+					startPathCurves(elts);
 					break;
 				case LINES:
-					setPathLines();
+					startPathLines(elts);
 					break;
 			}
 
-			if(!model.isOpened()) {
-				border.getElements().add(ViewFactory.INSTANCE.createClosePath());
+			if(extendable) {
+				addPoints(elts);
+				// The simplified points cannot be extended: the path is rebuilt when points are added.
+				extendable = !simplified;
+			}else if(!model.isOpened()) {
+				elts.add(ViewFactory.INSTANCE.createClosePath());
+				nbTailElts = 1;
 			}
 
-			shadow.getElements().addAll(border.getElements());
+			border.getElements().addAll(elts);
+			shadow.getElements().addAll(elts);
+		}
+	}
+
+
+	/**
+	 * Called when points are added to the model (e.g. while drawing it): only the elements of the new points
+	 * are added to the path instead of rebuilding it.
+	 */
+	private void extendPath() {
+		if(!extendable) {
+			setPath();
+			return;
+		}
+
+		final ObservableList<PathElement> borderElts = border.getElements();
+		final ObservableList<PathElement> shadowElts = shadow.getElements();
+		final List<PathElement> elts = new ArrayList<>();
+
+		borderElts.remove(borderElts.size() - nbTailElts, borderElts.size());
+		shadowElts.remove(shadowElts.size() - nbTailElts, shadowElts.size());
+		addPoints(elts);
+		borderElts.addAll(elts);
+		shadowElts.addAll(elts);
+	}
+
+
+	/**
+	 * Adds the elements of the points from nextPt, then the elements that depend on the last point.
+	 */
+	private void addPoints(final List<PathElement> elts) {
+		final List<IPoint> pts = pathPts;
+
+		switch(model.getType()) {
+			case CURVES:
+				addPointsCurves(pts, elts);
+				break;
+			case LINES:
+				addPointsLines(pts, elts);
+				break;
+		}
+
+		if(!model.isOpened()) {
+			elts.add(ViewFactory.INSTANCE.createClosePath());
+			nbTailElts++;
 		}
 	}
 
 
 	/**
-	 * Fills the path of curves.
+	 * Starts the path of curves.
 	 */
-	private void setPathCurves() {
-		final int interval = model.getInterval();
-		final List<IPoint> pts = model.getPoints();
+	private void startPathCurves(final List<PathElement> elts) {
+		final int interval = pathInterval;
+		final List<IPoint> pts = pathPts;
 		final int size = pts.size();
-		double prevx = pts.get(size - 1).getX();
-		double prevy = pts.get(size - 1).getY();
-		double curx = pts.get(0).getX();
-		double cury = pts.get(0).getY();
-		double midx = (curx + prevx) / 2d;
-		double midy = (cury + prevy) / 2d;
-		int i;
-		double x1;
-		double x2;
-		double y1;
-		double y2;
 
-		border.getElements().add(ViewFactory.INSTANCE.createMoveTo(curx, cury));
+		curx = pts.get(0).getX();
+		cury = pts.get(0).getY();
+		elts.add(ViewFactory.INSTANCE.createMoveTo(curx, cury));
 
 		// Starting the drawing of the shape with a line.
+		// Otherwise, no curve can be drawn yet: the path is rebuilt when points are added.
 		if(size > interval) {
-			prevx = curx;
-			prevy = cury;
+			final double prevx = curx;
+			final double prevy = cury;
 			curx = pts.get(interval).getX();
 			cury = pts.get(interval).getY();
 			midx = (curx + prevx) / 2d;
 			midy = (cury + prevy) / 2d;
 
-			border.getElements().add(ViewFactory.INSTANCE.createLineTo(midx, midy));
+			elts.add(ViewFactory.INSTANCE.createLineTo(midx, midy));
+			nextPt = interval * 2;
+			extendable = true;
 		}
+	}
+
+
+	/**
+	 * Adds the curves of the points from nextPt.
+	 */
+	private void addPointsCurves(final List<IPoint> pts, final List<PathElement> elts) {
+		final int interval = pathInterval;
+		final int size = pts.size();
+		double prevx;
+		double prevy;
+		double x1;
+		double x2;
+		double y1;
+		double y2;
 
 		// Adding curves
-		for(i = interval * 2; i < size; i += interval) {
+		for(; nextPt < size; nextPt += interval) {
 			x1 = (midx + curx) / 2d;
 			y1 = (midy + cury) / 2d;
 			prevx = curx;
 			prevy = cury;
-			curx = pts.get(i).getX();
-			cury = pts.get(i).getY();
+			curx = pts.get(nextPt).getX();
+			cury = pts.get(nextPt).getY();
 			midx = (curx + prevx) / 2d;
 			midy = (cury + prevy) / 2d;
 			x2 = (prevx + midx) / 2d;
 			y2 = (prevy + midy) / 2d;
 
-			border.getElements().add(ViewFactory.INSTANCE.createCubicCurveTo(x1, y1, x2, y2, midx, midy));
+			elts.add(ViewFactory.INSTANCE.createCubicCurveTo(x1, y1, x2, y2, midx, midy));
 		}
 
 		// If it remains not used points.
-		if(i - interval + 1 < size) {
+		if(nextPt - interval + 1 < size) {
+			final double lastx = pts.get(size - 1).getX();
+			final double lasty = pts.get(size - 1).getY();
+			final double lastMidx = (lastx + curx) / 2d;
+			final double lastMidy = (lasty + cury) / 2d;
 			x1 = (midx + curx) / 2d;
 			y1 = (midy + cury) / 2d;
-			prevx = curx;
-			prevy = cury;
-			curx = pts.get(size - 1).getX();
-			cury = pts.get(size - 1).getY();
-			midx = (curx + prevx) / 2d;
-			midy = (cury + prevy) / 2d;
-			x2 = (prevx + midx) / 2d;
-			y2 = (prevy + midy) / 2d;
+			x2 = (curx + lastMidx) / 2d;
+			y2 = (cury + lastMidy) / 2d;
 
-			border.getElements().add(ViewFactory.INSTANCE.createCubicCurveTo(x1, y1, x2, y2, pts.get(size - 1).getX(), pts.get(size - 1).getY()));
+			elts.add(ViewFactory.INSTANCE.createCubicCurveTo(x1, y1, x2, y2, lastx, lasty));
+			nbTailElts = 1;
+		}else {
+			nbTailElts = 0;
 		}
 	}
 
 
 	/**
-	 * Fills the path of lines.
+	 * Starts the path of lines.
 	 */
-	private void setPathLines() {
-		final int interval = model.getInterval();
-		final List<IPoint> pts = model.getPoints();
-		final int size = pts.size();
-		IPoint pt = pts.get(0);
-		int i;
+	private void startPathLines(final List<PathElement> elts) {
+		final IPoint pt = pathPts.get(0);
+		elts.add(ViewFactory.INSTANCE.createMoveTo(pt.getX(), pt.getY()));
+		nextPt = pathInterval;
+		extendable = true;
+	}
 
-		border.getElements().add(ViewFactory.INSTANCE.createMoveTo(pt.getX(), pt.getY()));
 
-		for(i = interval; i < size; i += interval) {
-			pt = pts.get(i);
-			border.getElements().add(ViewFactory.INSTANCE.createLineTo(pt.getX(), pt.getY()));
-		}
+	/**
+	 * Adds the lines of the points from nextPt.
+	 */
+	private void addPointsLines(final List<IPoint> pts, final List<PathElement> elts) {
+		final int interval = pathInterval;
+		final int size = pts.size();
+		IPoint pt;
 
-		if(i - interval < size) {
-			border.getElements().add(ViewFactory.INSTANCE.createLineTo(pts.get(size - 1).getX(), pts.get(size - 1).getY()));
+		for(; nextPt < size; nextPt += interval) {
+			pt = pts.get(nextPt);
+			elts.add(ViewFactory.INSTANCE.createLineTo(pt.getX(), pt.getY()));
 		}
+
+		pt = pts.get(size - 1);
+		elts.add(ViewFactory.INSTANCE.createLineTo(pt.getX(), pt.getY()));
+		nbTailElts = 1;
 	}
 
 	@Override
 	public void flush() {
-		if(!border.getElements().isEmpty()) {
-			model.getPoints().get(model.getPoints().size() - 1).xProperty().removeListener(update);
-			model.getPoints().get(model.getPoints().size() - 1).yProperty().removeListener(update);
+		if(listenedPt != null) {
+			listenedPt.xProperty().removeListener(update);
+			listenedPt.yProperty().removeListener(update);
 		}
 
 		model.intervalProperty().removeListener(update);
 		model.typeProperty().removeListener(update);
 		model.openedProperty().removeListener(update);
+		model.nbPointsProperty().removeListener(pointsAdded);
+		LevelOfDetail.INSTANCE.toleranceProperty().removeListener(lodUpdate);
 
 		super.flush();
 	}
@@ -10,10 +10,12 @@
  */
 package net.sf.latexdraw.view.jfx;
 
+import java.util.ArrayList;
+import java.util.List;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
-import javafx.collections.ObservableList;
 import javafx.geometry.Rectangle2D;
+import javafx.scene.paint.Color;
 import javafx.scene.shape.Path;
 import javafx.scene.shape.PathElement;
 import javafx.scene.shape.StrokeLineCap;
@@ -35,6 +37,8 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 	private final ChangeListener<Number> subGridUpdate;
 	private final ChangeListener<Object> gridUpdate;
 	private final ChangeListener<Object> labelUpdate;
+	private final ChangeListener<Number> lodUpdate;
+	private final ChangeListener<Object> labelColourUpdate;
 
 	/**
 	 * Creates the view.
@@ -59,6 +63,11 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 			checkToExecuteOnUIThread(() -> updatePath(false, false, true));
 		};
 		subGridUpdate = (o, formerv, newv) -> updatePath(false, true, false);
+		lodUpdate = (o, formerv, newv) -> checkToExecuteOnUIThread(() -> updatePath(true, true, false));
+		labelColourUpdate = (o, formerv, newv) -> {
+			final Color colour = model.getGridLabelsColour().toJFX();
+			labels.getChildren().forEach(label -> ((Text) label).setStroke(colour));
+		};
 
 		getChildren().add(subgrid);
 		getChildren().add(maingrid);
@@ -76,22 +85,23 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 		model.labelsSizeProperty().addListener(labelUpdate);
 		model.yLabelWestProperty().addListener(labelUpdate);
 		model.xLabelSouthProperty().addListener(labelUpdate);
+		model.gridLabelsColourProperty().addListener(labelColourUpdate);
 		model.subGridDivProperty().addListener(subGridUpdate);
 		model.gridWidthProperty().addListener(gridWidthUpdate);
 		model.subGridWidthProperty().addListener(subGridUpdate);
 		subgrid.strokeWidthProperty().bind(model.subGridWidthProperty());
 		model.unitProperty().addListener(gridUpdate);
+		LevelOfDetail.INSTANCE.toleranceProperty().addListener(lodUpdate);
 
 		updatePath(true, true, true);
 	}
 
 
-	private void updatePathMainGridDots(final double unit, final double minX, final double maxX, final double minY, final double maxY,
+	private void updatePathMainGridDots(final List<PathElement> elements, final double unit, final double minX, final double maxX, final double minY, final double maxY,
 										final double posX, final double posY, final double xStep, final double yStep, final double tlx,
 										final double tly, final double brx, final double bry, final double absStep) {
-		final int gridDots = model.getGridDots();
+		final int gridDots = getNbDots(model.getGridDots(), unit * IShape.PPC);
 		final double dotStep = unit * IShape.PPC / gridDots;
-		final ObservableList<PathElement> elements = maingrid.getElements();
 
 		for(double k = minX, i = posX; k <= maxX; i += xStep, k++) {
 			for(double m = tly, n = minY; n < maxY; n++, m += absStep) {
@@ -116,14 +126,24 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 	}
 
 
-	private void updatePathMainGrid(final double unit, final double minX, final double maxX, final double minY, final double maxY,
+	/**
+	 * @param nbDots The number of dots per unit of the grid.
+	 * @param length The length of a unit of the grid.
+	 * @return The number of dots per unit to paint: when zoomed out, dots that would merge on screen are not painted.
+	 */
+	private static int getNbDots(final int nbDots, final double length) {
+		final double minSpacing = LevelOfDetail.INSTANCE.getMinSpacing();
+		if(nbDots <= 1 || !(minSpacing > 0d) || length / nbDots >= minSpacing) return nbDots;
+		return Math.max(1, (int) (length / minSpacing));
+	}
+
+
+	private void updatePathMainGrid(final List<PathElement> elements, final double unit, final double minX, final double maxX, final double minY, final double maxY,
 									final double posX, final double posY, final double xStep, final double yStep, final double tlx,
 									final double tly, final double brx, final double bry, final double absStep) {
 		if(model.getGridDots() > 0) {
-			updatePathMainGridDots(unit, minX, maxX, minY, maxY, posX, posY, xStep, yStep, tlx, tly, brx, bry, absStep);
+			updatePathMainGridDots(elements, unit, minX, maxX, minY, maxY, posX, posY, xStep, yStep, tlx, tly, brx, bry, absStep);
 		}else {
-			final ObservableList<PathElement> elements = maingrid.getElements();
-
 			for(double k = minX, i = posX; k <= maxX; i += xStep, k++) {
 				elements.add(ViewFactory.INSTANCE.createMoveTo(i, bry));
 				elements.add(ViewFactory.INSTANCE.createLineTo(i, tly));
@@ -137,14 +157,17 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 	}
 
 
-	private void updatePathSubGrid(final double unit, final double minX, final double maxX, final double minY, final double maxY,
+	private void updatePathSubGrid(final List<PathElement> elements, final double unit, final double minX, final double maxX, final double minY, final double maxY,
 								   final double posX, final double posY, final double xStep, final double yStep, final double tlx,
 								   final double tly, final double brx, final double bry) {
 		final double subGridDiv = model.getSubGridDiv();
-		final double subGridDots = model.getSubGridDots();
 		final double xSubStep = xStep / subGridDiv;
 		final double ySubStep = yStep / subGridDiv;
-		final ObservableList<PathElement> elements = subgrid.getElements();
+
+		// Zoomed out: the subdivisions that would merge on screen are not painted.
+		if(Math.abs(xSubStep) < LevelOfDetail.INSTANCE.getMinSpacing()) return;
+
+		final double subGridDots = getNbDots(model.getSubGridDots(), unit * IShape.PPC / subGridDiv);
 
 		if(subGridDots > 0d) {
 			final double dotStep = unit * IShape.PPC / (subGridDots * subGridDiv);
@@ -213,9 +236,10 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 		final double tmp = isSouth ? width : -width;
 		String label;
 		final double yPos = yorig + tmp;
+		final List<Text> texts = new ArrayList<>();
 
 		for(double i = tlx + (isWest ? width + labelsSize / 4d : -width - labelWidth - labelsSize / 4d), j = minX; j <= maxX; i += absStep, j++) {
-			addTextLabel(String.valueOf((int) j), i, yPos, font);
+			texts.add(createGridLabel(String.valueOf((int) j), i, yPos, font));
 		}
 
 		final double xGapNotWest = xorig + labelsSize / 4d + width;
@@ -224,18 +248,20 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 			label = String.valueOf((int) j);
 			fooText.setText(label);
 			double x = isWest ? xorig - fooText.getBoundsInLocal().getWidth() - labelsSize / 4d - width : xGapNotWest;
-			addTextLabel(label, x, i, font);
+			texts.add(createGridLabel(label, x, i, font));
 		}
-	}
 
+		labels.getChildren().setAll(texts);
+	}
 
-	@Override
-	protected Text addTextLabel(final String text, final double x, final double y, final Font font) {
-		final Text label = super.addTextLabel(text, x, y, font);
-
-		label.strokeProperty().bind(Bindings.createObjectBinding(() -> model.getGridLabelsColour().toJFX(), model.gridLabelsColourProperty()));
-		label.fontProperty().bind(Bindings.createObjectBinding(() -> new Font(font.getFamily(), model.getLabelsSize()), model.labelsSizeProperty()));
 
+	/**
+	 * The labels are not bound to the model (to reuse them cheaply): their font is set when the labels are updated
+	 * (the labels are updated when their size changes) and their colour by labelColourUpdate.
+	 */
+	private Text createGridLabel(final String text, final double x, final double y, final Font font) {
+		final Text label = createTextLabel(text, x, y, font);
+		label.setStroke(model.getGridLabelsColour().toJFX());
 		return label;
 	}
 
@@ -257,14 +283,17 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 		final double tlx = bounds.getMinX();
 		final double tly = bounds.getMinY();
 
+		// The path elements are computed in buffers and set at once: a single change for the path.
 		if(subGrid) {
-			subgrid.getElements().clear();
-			updatePathSubGrid(unit, minX, maxX, minY, maxY, posX, posY, xStep, yStep, tlx, tly, bounds.getMaxX(), bounds.getMaxY());
+			final List<PathElement> elements = new ArrayList<>();
+			updatePathSubGrid(elements, unit, minX, maxX, minY, maxY, posX, posY, xStep, yStep, tlx, tly, bounds.getMaxX(), bounds.getMaxY());
+			subgrid.getElements().setAll(elements);
 		}
 
 		if(mainGrid) {
-			maingrid.getElements().clear();
-			updatePathMainGrid(unit, minX, maxX, minY, maxY, posX, posY, xStep, yStep, tlx, tly, bounds.getMaxX(), bounds.getMaxY(), absStep);
+			final List<PathElement> elements = new ArrayList<>();
+			updatePathMainGrid(elements, unit, minX, maxX, minY, maxY, posX, posY, xStep, yStep, tlx, tly, bounds.getMaxX(), bounds.getMaxY(), absStep);
+			maingrid.getElements().setAll(elements);
 		}
 
 		if(labels) {
@@ -299,8 +328,9 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 		model.gridEndYProperty().removeListener(gridUpdate);
 		model.gridStartXProperty().removeListener(gridUpdate);
 		model.gridStartYProperty().removeListener(gridUpdate);
-		model.originXProperty().removeListener(gridUpdate);
-		model.originYProperty().removeListener(gridUpdate);
+		model.originXProperty().removeListener(labelUpdate);
+		model.originYProperty().removeListener(labelUpdate);
+		model.gridLabelsColourProperty().removeListener(labelColourUpdate);
 		model.labelsSizeProperty().removeListener(labelUpdate);
 		model.yLabelWestProperty().removeListener(labelUpdate);
 		model.xLabelSouthProperty().removeListener(labelUpdate);
@@ -309,6 +339,7 @@ public class ViewGrid extends ViewStdGrid<IGrid> {
 		model.subGridWidthProperty().removeListener(subGridUpdate);
 		subgrid.strokeWidthProperty().unbind();
 		model.unitProperty().removeListener(gridUpdate);
+		LevelOfDetail.INSTANCE.toleranceProperty().removeListener(lodUpdate);
 	}
 
 	/**
@@ -10,20 +10,42 @@
  */
 package net.sf.latexdraw.view.jfx;
 
+import javafx.beans.value.ChangeListener;
 import javafx.scene.image.ImageView;
 import net.sf.latexdraw.models.interfaces.shape.IPicture;
 
 /**
- * The JFX view of a picture.
+ * The JFX view of a picture. The displayed image is a preview whose resolution matches the zoom level
+ * (the full resolution image is displayed when zoomed in or when exporting).
  * @author Arnaud Blouin
  */
 public class ViewPicture extends ViewPositionShape<IPicture> {
+	private final ImageView imageView;
+	private final ChangeListener<Number> lodUpdate;
+
 	/**
 	 * Creates the view.
 	 * @param sh The model.
 	 */
 	ViewPicture(final IPicture sh) {
 		super(sh);
-		getChildren().add(new ImageView(model.getImage()));
+		imageView = new ImageView();
+		lodUpdate = (observable, oldValue, newValue) -> updateImage();
+		getChildren().add(imageView);
+		LevelOfDetail.INSTANCE.imageLevelProperty().addListener(lodUpdate);
+		updateImage();
+	}
+
+	private void updateImage() {
+		imageView.setImage(PicturePreviewCache.INSTANCE.getImage(model, LevelOfDetail.INSTANCE.getImageLevel()));
+		// The previews are stretched to the size of the picture.
+		imageView.setFitWidth(model.getWidth());
+		imageView.setFitHeight(model.getHeight());
+	}
+
+	@Override
+	public void flush() {
+		LevelOfDetail.INSTANCE.imageLevelProperty().removeListener(lodUpdate);
+		super.flush();
 	}
 }
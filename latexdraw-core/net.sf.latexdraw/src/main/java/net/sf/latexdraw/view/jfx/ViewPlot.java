@@ -15,6 +15,7 @@ import java.util.stream.Collectors;
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import net.sf.latexdraw.models.interfaces.shape.IPlot;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
 import net.sf.latexdraw.view.PlotViewHelper;
 
 /**
@@ -27,6 +28,7 @@ public class ViewPlot extends ViewPositionShape<IPlot> {
 	private ViewBezierCurve curveView;
 	private List<ViewDot> dotsView;
 	private final ChangeListener<Object> updatePath = (observable, oldValue, newValue) -> Platform.runLater(() -> updatePath());
+	private final ChangeListener<Number> lodUpdate = (observable, oldValue, newValue) -> checkToExecuteOnUIThread(() -> updatePath());
 
 	/**
 	 * Creates the view.
@@ -45,6 +47,7 @@ public class ViewPlot extends ViewPositionShape<IPlot> {
 		model.polarProperty().addListener(updatePath);
 		model.xScaleProperty().addListener(updatePath);
 		model.yScaleProperty().addListener(updatePath);
+		LevelOfDetail.INSTANCE.toleranceProperty().addListener(lodUpdate);
 
 		updatePath();
 	}
@@ -80,9 +83,23 @@ public class ViewPlot extends ViewPositionShape<IPlot> {
 	}
 
 
+	/**
+	 * @return The plotted points. When zoomed out, the points are decimated (dots) or simplified (lines, curves, polygons).
+	 */
+	private List<IPoint> getPlottedPoints(final double minX, final double maxX, final double step, final boolean dots) {
+		final List<IPoint> pts = PlotViewHelper.INSTANCE.fillPoints(model, 0d, 0d, minX, maxX, step);
+		final LevelOfDetail lod = LevelOfDetail.INSTANCE;
+
+		if(dots) {
+			return lod.decimate(pts, lod.getMinSpacing());
+		}
+		return lod.simplify(pts, 1, lod.getTolerance());
+	}
+
+
 	private void updatePoints(final double minX, final double maxX, final double step) {
 		flushDots();
-		dotsView = PlotViewHelper.INSTANCE.updatePoints(model, 0d, 0d, minX, maxX, step).parallelStream().map(dot -> {
+		dotsView = PlotViewHelper.INSTANCE.updatePoints(model, getPlottedPoints(minX, maxX, step, true)).parallelStream().map(dot -> {
 			final ViewDot viewDot = new ViewDot(dot);
 			viewDot.setUserData(this);
 			return viewDot;
@@ -92,7 +109,7 @@ public class ViewPlot extends ViewPositionShape<IPlot> {
 
 	private void updatePolygon(final double minX, final double maxX, final double step) {
 		flushPolygon();
-		polygonView = new ViewPolygon(PlotViewHelper.INSTANCE.updatePolygon(model, 0d, 0d, minX, maxX, step));
+		polygonView = new ViewPolygon(PlotViewHelper.INSTANCE.updatePolygon(model, getPlottedPoints(minX, maxX, step, false)));
 		polygonView.setUserData(this);
 		getChildren().add(polygonView);
 	}
@@ -100,7 +117,7 @@ public class ViewPlot extends ViewPositionShape<IPlot> {
 
 	private void updateLine(final double minX, final double maxX, final double step) {
 		flushLine();
-		lineView = new ViewPolyline(PlotViewHelper.INSTANCE.updateLine(model, 0d, 0d, minX, maxX, step));
+		lineView = new ViewPolyline(PlotViewHelper.INSTANCE.updateLine(model, getPlottedPoints(minX, maxX, step, false)));
 		lineView.setUserData(this);
 		getChildren().add(lineView);
 	}
@@ -108,7 +125,7 @@ public class ViewPlot extends ViewPositionShape<IPlot> {
 
 	private void updateCurve(final double minX, final double maxX, final double step) {
 		flushCurve();
-		curveView = new ViewBezierCurve(PlotViewHelper.INSTANCE.updateCurve(model, 0d, 0d, minX, maxX, step));
+		curveView = new ViewBezierCurve(PlotViewHelper.INSTANCE.updateCurve(model, getPlottedPoints(minX, maxX, step, false)));
 		curveView.setUserData(this);
 		getChildren().add(curveView);
 	}
@@ -127,6 +144,7 @@ public class ViewPlot extends ViewPositionShape<IPlot> {
 		model.polarProperty().removeListener(updatePath);
 		model.xScaleProperty().removeListener(updatePath);
 		model.yScaleProperty().removeListener(updatePath);
+		LevelOfDetail.INSTANCE.toleranceProperty().removeListener(lodUpdate);
 
 		flushLine();
 		flushCurve();
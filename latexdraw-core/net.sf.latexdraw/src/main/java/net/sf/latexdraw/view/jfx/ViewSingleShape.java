@@ -12,20 +12,13 @@ package net.sf.latexdraw.view.jfx;
 
 import java.awt.geom.Point2D;
 import java.util.Optional;
-import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
 import javafx.geometry.Bounds;
-import javafx.scene.Group;
-import javafx.scene.SnapshotParameters;
-import javafx.scene.image.WritableImage;
 import javafx.scene.paint.CycleMethod;
-import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Paint;
 import javafx.scene.paint.Stop;
-import javafx.scene.shape.Line;
-import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
 import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.shape.StrokeLineJoin;
@@ -52,6 +45,12 @@ public abstract class ViewSingleShape<S extends ISingleShape, T extends Shape> e
 
 	private final ChangeListener<?> strokesUpdateCall = (obj, oldVal, newVal) -> updateStrokes();
 	private final ChangeListener<?> fillUpdateCall;
+	/** The gradients depend on the bounds of the shape (contrary to the hatchings). */
+	private final ChangeListener<Bounds> gradUpdateCall = (obs, oldVal, newVal) -> {
+		if(model.getFillingStyle().isGradient()) {
+			border.setFill(computeGradient());
+		}
+	};
 	private final ChangeListener<Boolean> shadowSetCall;
 	private final ChangeListener<Number> shadowUpdateCall = (obs, oldVal, newVal) -> updateShadowPosition();
 
@@ -132,8 +131,8 @@ public abstract class ViewSingleShape<S extends ISingleShape, T extends Shape> e
 			model.hatchingsWidthProperty().addListener((ChangeListener<? super Number>) fillUpdateCall);
 			model.hatchingsColProperty().addListener((ChangeListener<? super Color>) fillUpdateCall);
 			border.setFill(getFillingPaint(model.getFillingStyle()));
-			// The filling must be updated on resize and co.
-			border.boundsInLocalProperty().addListener((ChangeListener<? super Bounds>) fillUpdateCall);
+			// The gradient must be updated on resize and co.
+			border.boundsInLocalProperty().addListener(gradUpdateCall);
 
 		}else {
 			fillUpdateCall = null;
@@ -180,106 +179,9 @@ public abstract class ViewSingleShape<S extends ISingleShape, T extends Shape> e
 
 
 	private Paint getHatchingsFillingPaint(final FillingStyle style) {
-		final Bounds bounds = border.getBoundsInParent();
-
-		if(bounds.getWidth() > 0d && bounds.getHeight() > 0d) {
-			final Group hatchings = new Group();
-			final double hAngle = model.getHatchingsAngle();
-
-			hatchings.getChildren().add(new Rectangle(bounds.getWidth(), bounds.getHeight(), style.isFilled() ? model.getFillingCol().toJFX() : null));
-
-			if(style == FillingStyle.VLINES || style == FillingStyle.VLINES_PLAIN) {
-				computeHatchings(hatchings, hAngle, bounds.getWidth(), bounds.getHeight());
-			}else {
-				if(style == FillingStyle.HLINES || style == FillingStyle.HLINES_PLAIN) {
-					computeHatchings(hatchings, hAngle > 0d ? hAngle - Math.PI / 2d : hAngle + Math.PI / 2d, bounds.getWidth(), bounds.getHeight());
-				}else {
-					if(style == FillingStyle.CLINES || style == FillingStyle.CLINES_PLAIN) {
-						computeHatchings(hatchings, hAngle, bounds.getWidth(), bounds.getHeight());
-						computeHatchings(hatchings, hAngle > 0d ? hAngle - Math.PI / 2d : hAngle + Math.PI / 2d, bounds.getWidth(), bounds.getHeight());
-					}
-				}
-			}
-
-			final WritableImage image = new WritableImage((int) bounds.getWidth(), (int) bounds.getHeight());
-			Platform.runLater(() -> hatchings.snapshot(new SnapshotParameters(), image));
-			return new ImagePattern(image, 0, 0, 1, 1, true);
-		}
-
-		return null;
-	}
-
-
-	private void computeHatchings(final Group hatchings, final double angle, final double width, final double height) {
-		double angle2 = angle % (Math.PI * 2d);
-		final float halfPI = (float) (Math.PI / 2d);
-		final double val = model.getHatchingsWidth() + model.getHatchingsSep();
-
-		if(angle2 > 0d) {
-			if((float) angle2 > 3f * halfPI) {
-				angle2 -= Math.PI * 2d;
-			}else {
-				if((float) angle2 > halfPI) {
-					angle2 -= Math.PI;
-				}
-			}
-		}else {
-			if((float) angle2 < -3f * halfPI) {
-				angle2 += Math.PI * 2d;
-			}else {
-				if((float) angle2 < -halfPI) {
-					angle2 += Math.PI;
-				}
-			}
-		}
-
-		if(MathUtils.INST.equalsDouble(angle2, 0d)) {
-			for(double x = 0d; x < width; x += val) {
-				createHatchingLine(hatchings, x, 0d, x, height, width, height);
-			}
-		}else if(MathUtils.INST.equalsDouble(angle2, Math.abs(halfPI))) {
-			for(double y = 0d; y < height; y += val) {
-				createHatchingLine(hatchings, 0d, y, width, y, width, height);
-			}
-		}else {
-			final double incX = val / Math.cos(angle2);
-			final double incY = val / Math.sin(angle2);
-			final double limitX;
-			double startY;
-			double endX = 0d;
-
-			if(angle2 > 0) {
-				startY = 0d;
-				limitX = width + height * Math.tan(angle2);
-			}else {
-				startY = height;
-				limitX = width - height * Math.tan(angle2);
-			}
-
-			final double endY = startY;
-
-			while(endX < limitX) {
-				endX += incX;
-				startY += incY;
-				createHatchingLine(hatchings, 0d, startY, endX, endY, width, height);
-			}
-		}
-	}
-
-	private void createHatchingLine(final Group group, final double x1, final double y1, final double x2, final double y2,
-									final double clipWidth, final double clipHeight) {
-		final Line line = new Line();
-		line.setStrokeWidth(model.getHatchingsWidth());
-		line.setStrokeLineJoin(StrokeLineJoin.MITER);
-		line.setStrokeLineCap(StrokeLineCap.SQUARE);
-		line.setStroke(model.getHatchingsCol().toJFX());
-		line.setStartX(x1);
-		line.setStartY(y1);
-		line.setEndX(x2);
-		line.setEndY(y2);
-		// Required, otherwise the line may not be drawn.
-		line.setClip(new Rectangle(0, 0, clipWidth, clipHeight));
-		group.getChildren().add(line);
+		// The tiles are shared by the views and do not depend on the bounds of the shape.
+		return HatchingTileCache.INSTANCE.getPattern(style, model.getHatchingsAngle(), model.getHatchingsSep(), model.getHatchingsWidth(),
+			model.getHatchingsCol().toJFX(), model.getFillingCol().toJFX()).orElse(null);
 	}
 
 
@@ -464,7 +366,7 @@ public abstract class ViewSingleShape<S extends ISingleShape, T extends Shape> e
 			model.hatchingsSepProperty().removeListener((ChangeListener<? super Number>) fillUpdateCall);
 			model.hatchingsWidthProperty().removeListener((ChangeListener<? super Number>) fillUpdateCall);
 			model.hatchingsColProperty().removeListener((ChangeListener<? super Color>) fillUpdateCall);
-			border.boundsInLocalProperty().removeListener((ChangeListener<? super Bounds>) fillUpdateCall);
+			border.boundsInLocalProperty().removeListener(gradUpdateCall);
 		}
 
 		if(shadowSetCall != null) {
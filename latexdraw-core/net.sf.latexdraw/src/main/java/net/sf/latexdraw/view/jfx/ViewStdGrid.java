@@ -10,6 +10,8 @@
  */
 package net.sf.latexdraw.view.jfx;
 
+import java.util.ArrayList;
+import java.util.List;
 import javafx.scene.Group;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
@@ -21,6 +23,8 @@ import net.sf.latexdraw.models.interfaces.shape.IStandardGrid;
  */
 public abstract class ViewStdGrid<T extends IStandardGrid> extends ViewPositionShape<T> {
 	protected final Group labels;
+	/** The label nodes removed from the group of labels: they are reused by the next updates of the labels. */
+	private final List<Text> labelsPool;
 
 	/**
 	 * Creates the view.
@@ -29,23 +33,41 @@ public abstract class ViewStdGrid<T extends IStandardGrid> extends ViewPositionS
 	ViewStdGrid(final T sh) {
 		super(sh);
 		labels = new Group();
+		labelsPool = new ArrayList<>();
 		getChildren().add(labels);
 	}
 
 
 	protected Text addTextLabel(final String text, final double x, final double y, final Font font) {
-		final Text label = new Text(x, y, text);
-		label.setFont(font);
+		final Text label = createTextLabel(text, x, y, font);
 		labels.getChildren().add(label);
 		return label;
 	}
 
 
+	/**
+	 * Provides a label node: a node of the pool is reused if possible.
+	 * The label is not added to the group of labels (to add several labels at once).
+	 */
+	protected Text createTextLabel(final String text, final double x, final double y, final Font font) {
+		final Text label = labelsPool.isEmpty() ? new Text() : labelsPool.remove(labelsPool.size() - 1);
+		label.setText(text);
+		label.setX(x);
+		label.setY(y);
+		label.setFont(font);
+		return label;
+	}
+
+
+	/**
+	 * Removes the labels. Their nodes are put in the pool of labels.
+	 */
 	protected void cleanLabels() {
-		labels.getChildren().parallelStream().forEach(node -> {
-			Text txt = (Text) node;
+		labels.getChildren().forEach(node -> {
+			final Text txt = (Text) node;
 			txt.strokeProperty().unbind();
 			txt.fontProperty().unbind();
+			labelsPool.add(txt);
 		});
 		labels.getChildren().clear();
 	}
@@ -54,6 +76,7 @@ public abstract class ViewStdGrid<T extends IStandardGrid> extends ViewPositionS
 	@Override
 	public void flush() {
 		cleanLabels();
+		labelsPool.clear();
 		super.flush();
 	}
 
@@ -10,37 +10,20 @@
  */
 package net.sf.latexdraw.view.jfx;
 
-import com.sun.pdfview.PDFFile;
-import com.sun.pdfview.PDFPage;
-import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
+import java.util.Collections;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import javafx.beans.value.ChangeListener;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.control.Tooltip;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.text.Text;
-import net.sf.latexdraw.actions.ExportFormat;
-import net.sf.latexdraw.badaboom.BadaboomCollector;
 import net.sf.latexdraw.models.MathUtils;
 import net.sf.latexdraw.models.interfaces.shape.Color;
 import net.sf.latexdraw.models.interfaces.shape.IShape;
 import net.sf.latexdraw.models.interfaces.shape.IText;
-import net.sf.latexdraw.util.ImageCropper;
-import net.sf.latexdraw.util.LFileUtils;
 import net.sf.latexdraw.util.LSystem;
-import net.sf.latexdraw.util.OperatingSystem;
-import net.sf.latexdraw.util.StreamExecReader;
-import net.sf.latexdraw.util.Triple;
 import net.sf.latexdraw.util.Tuple;
 import net.sf.latexdraw.view.latex.DviPsColors;
 import net.sf.latexdraw.view.latex.LaTeXGenerator;
@@ -51,14 +34,20 @@ import net.sf.latexdraw.view.pst.PSTricksConstants;
  * @author Arnaud Blouin
  */
 public class ViewText extends ViewPositionShape<IText> {
-	private static final ExecutorService COMPILATION_POOL = Executors.newFixedThreadPool(5);
 	private static final double SCALE_COMPILE = 2d;
+	/** The delay (in ms) between a modification of the text and its compilation: a new modification cancels the pending compilation. */
+	static final long COMPILATION_DELAY = 300L;
 
 	private final Text text;
 	private final ImageView compiledText;
 	private final Tooltip compileTooltip;
 	private final ChangeListener<String> textUpdate;
+	/** The pending compilation of the text. */
+	private CompletableFuture<Tuple<Image, String>> compilation;
+	/** The pending compilation followed by the update of the view. */
 	private Future<?> currentCompilation;
+	/** Identifies the latest compilation: the results of the previous ones are ignored. */
+	private volatile int compilationID;
 
 
 	/**
@@ -83,13 +72,13 @@ public class ViewText extends ViewPositionShape<IText> {
 			}
 		});
 
-		textUpdate = (observable, oldValue, newValue) -> update();
+		textUpdate = (observable, oldValue, newValue) -> update(COMPILATION_DELAY);
 		model.textProperty().addListener(textUpdate);
 
 		getChildren().add(text);
 		getChildren().add(compiledText);
 		setImageTextEnable(false);
-		update();
+		update(0L);
 	}
 
 	private void setImageTextEnable(final boolean imageToEnable) {
@@ -99,13 +88,37 @@ public class ViewText extends ViewPositionShape<IText> {
 		text.setDisable(imageToEnable);
 	}
 
-	private void update() {
+	/**
+	 * Updates the text and schedules its compilation. The pending or running compilation, now useless, is cancelled.
+	 * @param delay The delay (in ms) before the compilation.
+	 */
+	private void update(final long delay) {
 		text.setText(model.getText());
-		currentCompilation = COMPILATION_POOL.submit(() -> updateImageText(createImage()));
+		compiledText.setUserData(null);
+		cancelCompilation();
+		final int id = ++compilationID;
+		// The text is rendered by the JFX text until its picture is available.
+		compilation = TextCompiler.INSTANCE.compile(getLaTeXPreamble(), getLaTeXBody(), delay);
+		currentCompilation = compilation.thenAccept(values -> {
+			if(id == compilationID) {
+				updateImageText(values);
+			}
+		});
+	}
+
+	private void cancelCompilation() {
+		// Cancelled first, otherwise the current compilation would fail with the cancellation of its compilation.
+		if(currentCompilation != null) {
+			currentCompilation.cancel(true);
+		}
+		if(compilation != null) {
+			compilation.cancel(true);
+		}
 	}
 
 	/**
-	 * @return The current text compilation. May be null.
+	 * @return The current text compilation. May be null. Its get method throws a CancellationException when the compilation
+	 * is replaced by a new one.
 	 */
 	public Future<?> getCurrentCompilation() {
 		return currentCompilation;
@@ -131,7 +144,7 @@ public class ViewText extends ViewPositionShape<IText> {
 			compiledText.setImage(values.a);
 			setImageTextEnable(true);
 
-			getCanvasParent().ifPresent(canvas -> canvas.update());
+			getCanvasParent().ifPresent(canvas -> canvas.update(Collections.singletonList(model)));
 		}
 	}
 
@@ -142,7 +155,17 @@ public class ViewText extends ViewPositionShape<IText> {
 		return Optional.empty();
 	}
 
-	private String getLaTeXDocument() {
+	/**
+	 * @return The preamble of the LaTeX document of the text (without the document class).
+	 */
+	private static String getLaTeXPreamble() {
+		return "\\usepackage[usenames,dvipsnames]{pstricks}" + LaTeXGenerator.getPackages() + '\n'; //$NON-NLS-1$
+	}
+
+	/**
+	 * @return The content of the LaTeX document of the text: the scaled and coloured text.
+	 */
+	private String getLaTeXBody() {
 		final String code = model.getText();
 		final StringBuilder doc = new StringBuilder();
 		final Color textColour = model.getLineColour();
@@ -151,9 +174,7 @@ public class ViewText extends ViewPositionShape<IText> {
 		// We must scale the text to fit its latex size: latexdrawDPI/latexDPI is the ratio to scale the created png picture.
 		final double scale = IShape.PPC * PSTricksConstants.INCH_VAL_CM / PSTricksConstants.INCH_VAL_PT * SCALE_COMPILE;
 
-		doc.append("\\documentclass{standalone}\n\\usepackage[usenames,dvipsnames]{pstricks}"); //$NON-NLS-1$
-		doc.append(LaTeXGenerator.getPackages()).append('\n');
-		doc.append("\\begin{document}\n\\psscalebox{"); //$NON-NLS-1$
+		doc.append("\\psscalebox{"); //$NON-NLS-1$
 		doc.append((float) MathUtils.INST.getCutNumber(scale)).append(' ');
 		doc.append((float) MathUtils.INST.getCutNumber(scale)).append('}').append('{');
 
@@ -169,140 +190,14 @@ public class ViewText extends ViewPositionShape<IText> {
 			doc.append('}');
 		}
 
-		doc.append("}\n\\end{document}");//$NON-NLS-1$
+		doc.append('}');
 		return doc.toString();
 	}
 
-	/**
-	 * Executes a given command and returns the log.
-	 * @param cmd The command to execute.
-	 * @return True if the command exits normally plus the log.
-	 */
-	private Tuple<Boolean, String> execute(final String[] cmd) {
-		String log = "";
-		try {
-			final Process process = Runtime.getRuntime().exec(cmd);
-			final StreamExecReader errReader = new StreamExecReader(process.getErrorStream());
-			final StreamExecReader outReader = new StreamExecReader(process.getInputStream());
-
-			errReader.start();
-			outReader.start();
-
-			if(process.waitFor() == 0) {
-				return new Tuple<>(true, log);
-			}
-
-			log = outReader.getLog() + LSystem.EOL + errReader.getLog();
-		}catch(final IOException | InterruptedException | IllegalThreadStateException ex) {
-			log += ex.getMessage();
-		}
-		return new Tuple<>(false, log);
-	}
-
-	/**
-	 * Reads and returns the first page of the given pdf document.
-	 * @param file The file of the pdf document.
-	 * @return The image of the first page or null.
-	 */
-	private BufferedImage readPDFFirstPage(final File file) {
-		BufferedImage bi = null;
-
-		try(final FileChannel fc = new RandomAccessFile(file, "r").getChannel()) { //$NON-NLS-1$
-			final MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
-			final PDFFile pdfFile = new PDFFile(mbb);
-			mbb.clear();
-
-			if(pdfFile.getNumPages() == 1) {
-				final PDFPage page = pdfFile.getPage(0);
-				final Rectangle2D bound = page.getBBox();
-				final java.awt.Image img = page.getImage((int) bound.getWidth(), (int) bound.getHeight(), bound, null, false, true);
-
-				if(img instanceof BufferedImage) {
-					bi = ImageCropper.INSTANCE.cropImage((BufferedImage) img);
-				}
-
-				if(img != null) {
-					img.flush();
-				}
-			}else {
-				BadaboomCollector.INSTANCE.add(new IllegalArgumentException("Not a single page: " + pdfFile.getNumPages())); //$NON-NLS-1$
-			}
-		}catch(final IOException | IllegalArgumentException | SecurityException ex) {
-			BadaboomCollector.INSTANCE.add(ex);
-		}
-
-		return bi;
-	}
-
-	/**
-	 * @return The LaTeX compiled picture of the text with its file path and its log.
-	 */
-	private Tuple<Image, String> createImage() {
-		final Optional<File> optDir = LFileUtils.INSTANCE.createTempDir();
-
-		if(!optDir.isPresent()) {
-			return new Tuple<>(null, "A temporary file cannot be created.");
-		}
-
-		BufferedImage bi = null;
-		String log = ""; //$NON-NLS-1$
-		final File tmpDir = optDir.get();
-		final String doc = getLaTeXDocument();
-		final String basePathPic = tmpDir.getAbsolutePath() + LSystem.FILE_SEP + "latexdrawTmpPic" + System.currentTimeMillis(); //$NON-NLS-1$
-		final String pathTex = basePathPic + ExportFormat.TEX.getFileExtension();
-		final OperatingSystem os = LSystem.INSTANCE.getSystem().orElse(OperatingSystem.LINUX);
-
-		// Saving the LaTeX document into a file to be compiled.
-		if(!LFileUtils.INSTANCE.saveFile(pathTex, doc).isPresent()) {
-			return new Triple<>(null, basePathPic, log);
-		}
-
-		// Compiling the LaTeX document.
-		Tuple<Boolean, String> res = execute(new String[]{os.getLatexBinPath(), "--halt-on-error", "--interaction=nonstopmode", //$NON-NLS-1$ //$NON-NLS-2$
-			"--output-directory=" + tmpDir.getAbsolutePath(), LFileUtils.INSTANCE.normalizeForLaTeX(pathTex)}); //$NON-NLS-1$
-		boolean ok = res.a;
-		log = res.b;
-
-		// Compiling the DVI document.
-		if(ok) {
-			res = execute(new String[]{os.getDvipsBinPath(), basePathPic + ".dvi", "-o", basePathPic + ExportFormat.EPS_LATEX.getFileExtension()}); //$NON-NLS-1$ //$NON-NLS-2$
-			ok = res.a;
-			log = log + res.b;
-		}
-
-		// Converting the PS document as a PDF one.
-		if(ok) {
-			res = execute(new String[]{os.getPs2pdfBinPath(), basePathPic + ExportFormat.EPS_LATEX.getFileExtension(), basePathPic + ExportFormat.PDF.getFileExtension()});
-			ok = res.a;
-			log = log + res.b;
-		}
-
-		// Getting the image of the first page of the PDF document.
-		if(ok) {
-			final String pdfpath = basePathPic + ExportFormat.PDF.getFileExtension();
-			final File pdfFile = new File(pdfpath);
-			bi = readPDFFirstPage(pdfFile);
-		}
-
-		// Converting the image as a JFX one.
-		final Image fxImage;
-
-		if(bi == null) {
-			fxImage = null;
-		}else {
-			fxImage = SwingFXUtils.toFXImage(bi, null);
-			bi.flush();
-		}
-
-		// Deleting the temporary folder and its content.
-		LFileUtils.INSTANCE.removeDirWithContent(tmpDir.getPath());
-
-		return new Tuple<>(fxImage, log);
-	}
-
 	@Override
 	public void flush() {
 		model.textProperty().removeListener(textUpdate);
+		cancelCompilation();
 		super.flush();
 	}
 }
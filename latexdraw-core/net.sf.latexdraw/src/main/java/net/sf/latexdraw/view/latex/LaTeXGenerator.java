@@ -17,6 +17,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Optional;
+import java.util.function.DoubleConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javafx.beans.property.ObjectProperty;
@@ -24,7 +25,10 @@ import javafx.beans.property.SimpleObjectProperty;
 import net.sf.latexdraw.actions.ExportFormat;
 import net.sf.latexdraw.badaboom.BadaboomCollector;
 import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IGroup;
+import net.sf.latexdraw.models.interfaces.shape.IPicture;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
 import net.sf.latexdraw.util.Inject;
 import net.sf.latexdraw.util.LFileUtils;
 import net.sf.latexdraw.util.LSystem;
@@ -43,6 +47,11 @@ public abstract class LaTeXGenerator implements Modifiable {
 	 */
 	public static final int LGTH_START_LINE_COMMENT = 2;
 
+	/** The number of stages of the creation of a PS document: the EPS pictures, latex, and dvips. */
+	private static final int NB_STAGES_PS = 3;
+
+	private static final DoubleConsumer NO_PROGRESS = progress -> { };
+
 	/**
 	 * The latex packages used when exporting using latex.
 	 * These packages are defined for the current document but not for all documents.
@@ -264,6 +273,22 @@ public abstract class LaTeXGenerator implements Modifiable {
 	 */
 	public abstract String getDocumentCode();
 
+	/**
+	 * Freezes the LaTeX document of the drawing: its code and the data its compilation requires.
+	 * The creation of the EPS pictures of the pictures starts. Must be called in the JFX thread.
+	 * @return The document that can be compiled in another thread while the drawing is modified.
+	 * @since 4.0
+	 */
+	public LaTeXSnapshot getSnapshot() {
+		final IPoint tr = handler.getTopRightDrawingPoint();
+		final IPoint bl = handler.getBottomLeftDrawingPoint();
+		final double ppc = handler.getPPCDrawing();
+
+		return new LaTeXSnapshot(getDocumentCode(), getDrawingCode(), (tr.getX() - bl.getX()) / ppc * scale,
+			(bl.getY() - tr.getY()) / ppc * scale, getPictures(drawing.getShapes().stream()).map(pic -> pic.getEPSPicture()).collect(Collectors.toList()));
+	}
+
+
 	/**
 	 * Create a .ps file that corresponds to the compiled latex document containing
 	 * the pstricks drawing.
@@ -271,7 +296,34 @@ public abstract class LaTeXGenerator implements Modifiable {
 	 * @return The create file or nothing.
 	 */
 	public Optional<File> createPSFile(final String pathExportPs) {
-		return createPSFile(pathExportPs, null);
+		return createPSFile(getSnapshot(), pathExportPs, NO_PROGRESS);
+	}
+
+
+	/**
+	 * Create a .ps file that corresponds to the compiled latex document containing the pstricks drawing.
+	 * Can be called in any thread; stops (and returns nothing) if the current thread is interrupted.
+	 * @param doc The frozen latex document to compile.
+	 * @param pathExportPs The path of the .ps file to create (MUST ends with .ps).
+	 * @param progress Notified with the progress of the compilation (from 0 to 1) at the end of each stage.
+	 * @return The create file or nothing.
+	 * @since 4.0
+	 */
+	public static Optional<File> createPSFile(final LaTeXSnapshot doc, final String pathExportPs, final DoubleConsumer progress) {
+		if(pathExportPs == null) return Optional.empty();
+
+		final Optional<File> optDir = LFileUtils.INSTANCE.createTempDir();
+
+		if(!optDir.isPresent()) {
+			BadaboomCollector.INSTANCE.add(new FileNotFoundException("Cannot create a temporary folder.")); //$NON-NLS-1$
+			return Optional.empty();
+		}
+
+		try {
+			return createPSFile(doc, pathExportPs, optDir.get(), new Stages(progress, NB_STAGES_PS));
+		}finally {
+			LFileUtils.INSTANCE.removeDirWithContent(optDir.get().getPath());
+		}
 	}
 
 
@@ -282,6 +334,23 @@ public abstract class LaTeXGenerator implements Modifiable {
 	 * @throws SecurityException In case of problem while accessing files.
 	 */
 	public Optional<File> createEPSFile(final String pathExportEPS) {
+		return createEPSFile(getSnapshot(), pathExportEPS, NO_PROGRESS);
+	}
+
+
+	/**
+	 * Create an .eps file that corresponds to the compiled latex document containing the pstricks drawing.
+	 * Can be called in any thread; stops (and returns nothing) if the current thread is interrupted.
+	 * @param doc The frozen latex document to compile.
+	 * @param pathExportEPS The path of the .eps file to create (MUST ends with .eps).
+	 * @param progress Notified with the progress of the compilation (from 0 to 1) at the end of each stage.
+	 * @return The create file or nothing.
+	 * @throws SecurityException In case of problem while accessing files.
+	 * @since 4.0
+	 */
+	public static Optional<File> createEPSFile(final LaTeXSnapshot doc, final String pathExportEPS, final DoubleConsumer progress) {
+		if(pathExportEPS == null) return Optional.empty();
+
 		final Optional<File> optDir = LFileUtils.INSTANCE.createTempDir();
 
 		if(!optDir.isPresent()) {
@@ -290,59 +359,90 @@ public abstract class LaTeXGenerator implements Modifiable {
 		}
 
 		final File tmpDir = optDir.get();
-		Optional<File> optFile = createPSFile(tmpDir.getAbsolutePath() + LSystem.FILE_SEP + "tmpPSFile.ps", tmpDir);//$NON-NLS-1$
-		File psFile;
 
-		if(optFile.isPresent()) {
-			psFile = optFile.get();
-		}else {
-			return Optional.empty();
-		}
-		final OperatingSystem os = LSystem.INSTANCE.getSystem().orElse(OperatingSystem.LINUX);
-		final File finalFile = new File(pathExportEPS);
-		final File fileEPS = new File(psFile.getAbsolutePath().replace(".ps", ExportFormat.EPS_LATEX.getFileExtension())); //$NON-NLS-1$
-		final String[] paramsLatex = {os.getPS2EPSBinPath(), psFile.getAbsolutePath(), fileEPS.getAbsolutePath()};
-		final String log = LSystem.INSTANCE.execute(paramsLatex, tmpDir);
+		try {
+			final Stages stages = new Stages(progress, NB_STAGES_PS + 1);
+			final Optional<File> optFile = createPSFile(doc, tmpDir.getAbsolutePath() + LSystem.FILE_SEP + "tmpPSFile.ps", tmpDir, stages);//$NON-NLS-1$
 
-		if(!fileEPS.exists()) {
-			BadaboomCollector.INSTANCE.add(new IllegalAccessException(getDocumentCode() + LSystem.EOL + log));
-			return Optional.empty();
-		}
+			if(!optFile.isPresent()) return Optional.empty();
 
-		try {
-			Files.copy(fileEPS.toPath(), finalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-		}catch(final IOException ex) {
-			BadaboomCollector.INSTANCE.add(ex);
-			return Optional.empty();
+			final File psFile = optFile.get();
+			final OperatingSystem os = LSystem.INSTANCE.getSystem().orElse(OperatingSystem.LINUX);
+			final File finalFile = new File(pathExportEPS);
+			final File fileEPS = new File(psFile.getAbsolutePath().replace(".ps", ExportFormat.EPS_LATEX.getFileExtension())); //$NON-NLS-1$
+			final String[] paramsLatex = {os.getPS2EPSBinPath(), psFile.getAbsolutePath(), fileEPS.getAbsolutePath()};
+			final String log = LSystem.INSTANCE.execute(paramsLatex, tmpDir);
+
+			if(isCancelled()) return Optional.empty();
+
+			if(!fileEPS.exists()) {
+				BadaboomCollector.INSTANCE.add(new IllegalAccessException(doc.getDocumentCode() + LSystem.EOL + log));
+				return Optional.empty();
+			}
+
+			try {
+				Files.copy(fileEPS.toPath(), finalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}catch(final IOException ex) {
+				BadaboomCollector.INSTANCE.add(ex);
+				return Optional.empty();
+			}
+
+			stages.next();
+			return Optional.of(finalFile);
+		}finally {
+			LFileUtils.INSTANCE.removeDirWithContent(tmpDir.getPath());
 		}
+	}
+
+
+	/**
+	 * Waits for the EPS pictures of the pictures of the drawing, created in background, to be written.
+	 * @since 4.0
+	 */
+	public void awaitEPSPictures() {
+		LaTeXSnapshot.awaitEPSPictures(getPictures(drawing.getShapes().stream()).map(pic -> pic.getEPSPicture()).collect(Collectors.toList()));
+	}
 
-		LFileUtils.INSTANCE.removeDirWithContent(tmpDir.getPath());
 
-		return Optional.of(finalFile);
+	private static Stream<IPicture> getPictures(final Stream<IShape> shapes) {
+		return shapes.flatMap(sh -> {
+			if(sh instanceof IGroup) return getPictures(((IGroup) sh).getShapes().stream());
+			return sh instanceof IPicture ? Stream.of((IPicture) sh) : Stream.empty();
+		});
+	}
+
+
+	/**
+	 * @return True if the current thread is interrupted, i.e. the export is cancelled.
+	 */
+	private static boolean isCancelled() {
+		return Thread.currentThread().isInterrupted();
 	}
 
 
 	/**
 	 * Create a .ps file that corresponds to the compiled latex document containing
 	 * the pstricks drawing.
+	 * @param doc The frozen latex document to compile.
 	 * @param pathExportPs The path of the .ps file to create (MUST ends with .ps).
 	 * @param tmpDir The temporary directory used for the compilation.
+	 * @param stages The stages of the compilation.
 	 * @return The create file or nothing.
 	 */
-	private Optional<File> createPSFile(final String pathExportPs, final File tmpDir) {
+	private static Optional<File> createPSFile(final LaTeXSnapshot doc, final String pathExportPs, final File tmpDir, final Stages stages) {
 		if(pathExportPs == null) return Optional.empty();
 
 		final int lastSep = pathExportPs.lastIndexOf(LSystem.FILE_SEP) + 1;
 		final String name = pathExportPs.substring(lastSep == -1 ? 0 : lastSep, pathExportPs.lastIndexOf(".ps")); //$NON-NLS-1$
-		final File tmpDir2 = tmpDir == null ? LFileUtils.INSTANCE.createTempDir().orElse(null) : tmpDir;
 
-		if(tmpDir2 == null) {
-			BadaboomCollector.INSTANCE.add(new FileNotFoundException("Cannot create a temporary folder.")); //$NON-NLS-1$
-			return Optional.empty();
-		}
+		doc.awaitEPSPictures();
+
+		if(isCancelled()) return Optional.empty();
 
-		final String path = tmpDir2.getAbsolutePath() + LSystem.FILE_SEP;
-		Optional<File> optFile = LFileUtils.INSTANCE.saveFile(path + name + ExportFormat.TEX.getFileExtension(), getDocumentCode());
+		stages.next();
+
+		final String path = tmpDir.getAbsolutePath() + LSystem.FILE_SEP;
+		Optional<File> optFile = LFileUtils.INSTANCE.saveFile(path + name + ExportFormat.TEX.getFileExtension(), doc.getDocumentCode());
 		File texFile;
 
 		if(optFile.isPresent()) {
@@ -353,33 +453,34 @@ public abstract class LaTeXGenerator implements Modifiable {
 
 		String log;
 		File finalPS;
-		final IPoint tr = handler.getTopRightDrawingPoint();
-		final IPoint bl = handler.getBottomLeftDrawingPoint();
-		final int ppc = handler.getPPCDrawing();
 		final float dec = 0.2f;
 		final OperatingSystem os = LSystem.INSTANCE.getSystem().orElse(OperatingSystem.LINUX);
 
 		if(!texFile.exists()) return Optional.empty();
 
-		final String[] paramsLatex = {os.getLatexBinPath(), "--interaction=nonstopmode", "--output-directory=" + tmpDir2.getAbsolutePath(),//$NON-NLS-1$//$NON-NLS-2$
+		final String[] paramsLatex = {os.getLatexBinPath(), "--interaction=nonstopmode", "--output-directory=" + tmpDir.getAbsolutePath(),//$NON-NLS-1$//$NON-NLS-2$
 			LFileUtils.INSTANCE.normalizeForLaTeX(texFile.getAbsolutePath())};//$NON-NLS-1$
-		log = LSystem.INSTANCE.execute(paramsLatex, tmpDir2);
+		log = LSystem.INSTANCE.execute(paramsLatex, tmpDir);
+
+		if(isCancelled()) return Optional.empty();
+
+		stages.next();
 
 		final String[] paramsDvi = {os.getDvipsBinPath(), "-Pdownload35", "-T", //$NON-NLS-1$ //$NON-NLS-2$
-			(tr.getX() - bl.getX()) / ppc * scale + dec + "cm," + ((bl.getY() - tr.getY()) / ppc * scale + dec) + "cm", //$NON-NLS-1$ //$NON-NLS-2$
+			doc.getWidth() + dec + "cm," + (doc.getHeight() + dec) + "cm", //$NON-NLS-1$ //$NON-NLS-2$
 			name, "-o", pathExportPs}; //$NON-NLS-1$
-		log += LSystem.INSTANCE.execute(paramsDvi, tmpDir2);
+		log += LSystem.INSTANCE.execute(paramsDvi, tmpDir);
+
+		if(isCancelled()) return Optional.empty();
 
 		finalPS = new File(pathExportPs);
 
 		if(!finalPS.exists()) {
-			BadaboomCollector.INSTANCE.add(new IllegalAccessException(getDocumentCode() + LSystem.EOL + log));
+			BadaboomCollector.INSTANCE.add(new IllegalAccessException(doc.getDocumentCode() + LSystem.EOL + log));
 			finalPS = null;
 		}
 
-		if(tmpDir == null) {
-			LFileUtils.INSTANCE.removeDirWithContent(tmpDir2.getPath());
-		}
+		stages.next();
 
 		return Optional.ofNullable(finalPS);
 	}
@@ -394,6 +495,22 @@ public abstract class LaTeXGenerator implements Modifiable {
 	 * @throws SecurityException In case of problem while accessing files.
 	 */
 	public Optional<File> createPDFFile(final String pathExportPdf, final boolean crop) {
+		return createPDFFile(getSnapshot(), pathExportPdf, crop, NO_PROGRESS);
+	}
+
+
+	/**
+	 * Create a .pdf file that corresponds to the compiled latex document containing the pstricks drawing.
+	 * Can be called in any thread; stops (and returns nothing) if the current thread is interrupted.
+	 * @param doc The frozen latex document to compile.
+	 * @param pathExportPdf The path of the .pdf file to create (MUST ends with .pdf).
+	 * @param crop if true, the output document will be cropped.
+	 * @param progress Notified with the progress of the compilation (from 0 to 1) at the end of each stage.
+	 * @return The create file or nothing.
+	 * @throws SecurityException In case of problem while accessing files.
+	 * @since 4.0
+	 */
+	public static Optional<File> createPDFFile(final LaTeXSnapshot doc, final String pathExportPdf, final boolean crop, final DoubleConsumer progress) {
 		if(pathExportPdf == null) return Optional.empty();
 
 		final Optional<File> optDir = LFileUtils.INSTANCE.createTempDir();
@@ -404,47 +521,53 @@ public abstract class LaTeXGenerator implements Modifiable {
 		}
 
 		final File tmpDir = optDir.get();
-		final String name = pathExportPdf.substring(pathExportPdf.lastIndexOf(LSystem.FILE_SEP) + 1, pathExportPdf.lastIndexOf(ExportFormat.PDF.getFileExtension()));
-		final File psFile;
-		Optional<File> optFile = createPSFile(tmpDir.getAbsolutePath() + LSystem.FILE_SEP + name + ".ps");//$NON-NLS-1$
 
-		if(optFile.isPresent()) {
-			psFile = optFile.get();
-		}else {
-			return Optional.empty();
-		}
+		try {
+			final Stages stages = new Stages(progress, NB_STAGES_PS + (crop ? 2 : 1));
+			final String name = pathExportPdf.substring(pathExportPdf.lastIndexOf(LSystem.FILE_SEP) + 1, pathExportPdf.lastIndexOf(ExportFormat.PDF.getFileExtension()));
+			final Optional<File> optFile = createPSFile(doc, tmpDir.getAbsolutePath() + LSystem.FILE_SEP + name + ".ps", tmpDir, stages);//$NON-NLS-1$
 
-		String log;
-		File pdfFile;
-		final OperatingSystem os = LSystem.INSTANCE.getSystem().orElse(OperatingSystem.LINUX);
+			if(!optFile.isPresent()) return Optional.empty();
+
+			final File psFile = optFile.get();
+			String log;
+			final OperatingSystem os = LSystem.INSTANCE.getSystem().orElse(OperatingSystem.LINUX);
+
+			// On windows, an option must be defined using this format:
+			// -optionName#valueOption Thus, the classical = character must be replaced by a # when latexdraw runs on Windows.
+			final String optionEmbed = "-dEmbedAllFonts" + (LSystem.INSTANCE.isWindows() ? "#" : "=") + "true"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+			// The pdf document is moved to its destination at the end: a cancelled export does not produce a partial document.
+			final File pdfFile = new File(tmpDir.getAbsolutePath() + LSystem.FILE_SEP + name + ExportFormat.PDF.getFileExtension());
+			log = LSystem.INSTANCE.execute(new String[]{os.getPs2pdfBinPath(), optionEmbed, psFile.getAbsolutePath(), name + ExportFormat.PDF.getFileExtension()}, tmpDir);
+
+			if(isCancelled()) return Optional.empty();
+
+			stages.next();
 
-		// On windows, an option must be defined using this format:
-		// -optionName#valueOption Thus, the classical = character must be replaced by a # when latexdraw runs on Windows.
-		final String optionEmbed = "-dEmbedAllFonts" + (LSystem.INSTANCE.isWindows() ? "#" : "=") + "true"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			if(crop) {
+				log = LSystem.INSTANCE.execute(new String[]{os.getPdfcropBinPath(), pdfFile.getAbsolutePath(), pdfFile.getAbsolutePath()}, tmpDir);
 
-		log = LSystem.INSTANCE.execute(new String[]{os.getPs2pdfBinPath(), optionEmbed, psFile.getAbsolutePath(), crop ? name + ExportFormat.PDF.getFileExtension() : pathExportPdf}, tmpDir);
+				if(isCancelled()) return Optional.empty();
+
+				stages.next();
+			}
 
-		if(crop) {
-			pdfFile = new File(tmpDir.getAbsolutePath() + LSystem.FILE_SEP + name + ExportFormat.PDF.getFileExtension());
-			log = LSystem.INSTANCE.execute(new String[]{os.getPdfcropBinPath(), pdfFile.getAbsolutePath(), pdfFile.getAbsolutePath()}, tmpDir);
 			try {
 				Files.move(pdfFile.toPath(), Paths.get(pathExportPdf), StandardCopyOption.REPLACE_EXISTING);
 			}catch(final IOException ex) {
 				BadaboomCollector.INSTANCE.add(ex);
-				log += " The final pdf document cannot be moved to its final destination. If you use Windows, you must have a Perl interpretor installed, such as strawberryPerl (http://strawberryperl.com/)"; //$NON-NLS-1$
+				if(crop) {
+					log += " The final pdf document cannot be moved to its final destination. If you use Windows, you must have a Perl interpretor installed, such as strawberryPerl (http://strawberryperl.com/)"; //$NON-NLS-1$
+				}
+				BadaboomCollector.INSTANCE.add(new IllegalAccessException(doc.getDocumentCode() + LSystem.EOL + log));
+				return Optional.empty();
 			}
-		}
-
-		pdfFile = new File(pathExportPdf);
 
-		if(!pdfFile.exists()) {
-			BadaboomCollector.INSTANCE.add(new IllegalAccessException(getDocumentCode() + LSystem.EOL + log));
-			pdfFile = null;
+			return Optional.of(new File(pathExportPdf));
+		}finally {
+			LFileUtils.INSTANCE.removeDirWithContent(tmpDir.getPath());
 		}
-
-		LFileUtils.INSTANCE.removeDirWithContent(tmpDir.getPath());
-
-		return Optional.ofNullable(pdfFile);
 	}
 
 
@@ -480,4 +603,26 @@ public abstract class LaTeXGenerator implements Modifiable {
 	public void setWithComments(final boolean comments) {
 		this.withComments = comments;
 	}
+
+
+	/**
+	 * The stages of a compilation: notifies the progress at the end of each stage.
+	 */
+	private static final class Stages {
+		private final DoubleConsumer progress;
+		private final int nbStages;
+		private int done;
+
+		Stages(final DoubleConsumer progressListener, final int nb) {
+			super();
+			progress = progressListener;
+			nbStages = nb;
+			done = 0;
+		}
+
+		void next() {
+			done++;
+			progress.accept(Math.min(1d, (double) done / nbStages));
+		}
+	}
 }
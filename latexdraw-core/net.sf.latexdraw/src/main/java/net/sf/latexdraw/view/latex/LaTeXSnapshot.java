@@ -0,0 +1,101 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.latex;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import net.sf.latexdraw.badaboom.BadaboomCollector;
+
+/**
+ * A frozen LaTeX document of a drawing: its code and the data its compilation requires.
+ * Created by the generator in the JFX thread, it can be compiled in another thread while the drawing is modified.
+ * @author Arnaud Blouin
+ */
+public final class LaTeXSnapshot {
+	private final String documentCode;
+	private final String drawingCode;
+	/** The width of the drawing in cm (scale included). */
+	private final double width;
+	/** The height of the drawing in cm (scale included). */
+	private final double height;
+	/** The EPS pictures of the pictures of the drawing, created in background. */
+	private final List<CompletableFuture<String>> epsPictures;
+
+
+	LaTeXSnapshot(final String document, final String drawing, final double widthCm, final double heightCm,
+				  final List<CompletableFuture<String>> pictures) {
+		super();
+		documentCode = document;
+		drawingCode = drawing;
+		width = widthCm;
+		height = heightCm;
+		epsPictures = Collections.unmodifiableList(pictures);
+	}
+
+
+	/**
+	 * Waits for the given EPS pictures to be written. Stops waiting if the current thread is interrupted.
+	 * @param pictures The EPS pictures being created.
+	 */
+	static void awaitEPSPictures(final Collection<CompletableFuture<String>> pictures) {
+		for(final CompletableFuture<String> picture : pictures) {
+			try {
+				picture.get();
+			}catch(final InterruptedException ex) {
+				// The export is cancelled.
+				Thread.currentThread().interrupt();
+				return;
+			}catch(final ExecutionException ex) {
+				BadaboomCollector.INSTANCE.add(ex.getCause());
+			}
+		}
+	}
+
+
+	/**
+	 * Waits for the EPS pictures of the pictures of the drawing to be written.
+	 * Stops waiting if the current thread is interrupted.
+	 */
+	public void awaitEPSPictures() {
+		awaitEPSPictures(epsPictures);
+	}
+
+	/**
+	 * @return The code of the whole LaTeX document.
+	 */
+	public String getDocumentCode() {
+		return documentCode;
+	}
+
+	/**
+	 * @return The code of the drawing only.
+	 */
+	public String getDrawingCode() {
+		return drawingCode;
+	}
+
+	/**
+	 * @return The width of the drawing in cm (scale included).
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return The height of the drawing in cm (scale included).
+	 */
+	public double getHeight() {
+		return height;
+	}
+}
@@ -10,10 +10,16 @@
  */
 package net.sf.latexdraw.view.pst;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import net.sf.latexdraw.models.MathUtils;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
 import net.sf.latexdraw.util.LSystem;
 import net.sf.latexdraw.view.latex.DviPsColors;
 import net.sf.latexdraw.view.latex.LaTeXGenerator;
@@ -21,6 +27,8 @@ import net.sf.latexdraw.view.latex.VerticalPosition;
 
 /**
  * Defines a PSTricks generator; it manages the PSTricks views and the latex additional code.
+ * The code of each shape is cached: when the code of the drawing is generated, only the code of the shapes
+ * modified since the previous generation (see IShape::getModificationStamp) is generated again.
  * @author Arnaud Blouin
  */
 public class PSTCodeGenerator extends LaTeXGenerator {
@@ -32,12 +40,15 @@ public class PSTCodeGenerator extends LaTeXGenerator {
 		"\\usepackage{etoolbox} % For spaces in paths" + LSystem.EOL + "\\makeatletter % For spaces in paths" + LSystem.EOL +
 		"\\patchcmd\\Gread@eps{\\@inputcheck#1 }{\\@inputcheck\"#1\"\\relax}{}{}" + LSystem.EOL + "\\makeatother" + LSystem.EOL;
 
+	/** The code of the shapes generated during the previous generation of the drawing code. */
+	private Map<IShape, ShapeCode> shapesCode;
 
 	/**
 	 * Creates and initialises the generator.
 	 */
 	public PSTCodeGenerator() {
 		super();
+		shapesCode = new IdentityHashMap<>();
 	}
 
 
@@ -112,11 +123,17 @@ public class PSTCodeGenerator extends LaTeXGenerator {
 		cache.append(MathUtils.INST.getCutNumberFloat((tl.getX() - origin.getX()) / ppc)).append(',').append(MathUtils.INST.getCutNumberFloat((origin.getY() - tl.getY()) / ppc));
 		cache.append(')').append(LSystem.EOL);
 
-		drawing.getShapes().forEach(shape -> PSTViewsFactory.INSTANCE.createView(shape).ifPresent(pstView -> {
-			shapeCode.append(pstView.getCode(origin, ppc)).append(LSystem.EOL);
-			cache.append(generateColourCode(pstView, addedColours));
+		// The code of the removed shapes is not kept.
+		final Map<IShape, ShapeCode> newShapesCode = new IdentityHashMap<>();
+
+		drawing.getShapes().forEach(shape -> getShapeCode(shape, origin, ppc).ifPresent(code -> {
+			newShapesCode.put(shape, code);
+			shapeCode.append(code.code).append(LSystem.EOL);
+			cache.append(generateColourCode(code.coloursName, addedColours));
 		}));
 
+		shapesCode = newShapesCode;
+
 		cache.append(shapeCode).append("\\end{pspicture}").append(LSystem.EOL).append('}').append(LSystem.EOL); //$NON-NLS-1$
 
 		if(withLatexParams) {
@@ -130,15 +147,30 @@ public class PSTCodeGenerator extends LaTeXGenerator {
 	}
 
 
+	/**
+	 * @return The code of the given shape: the cached one if the shape has not been modified since its
+	 * generation; a newly generated one otherwise. Nothing if the shape has no PST view.
+	 */
+	private Optional<ShapeCode> getShapeCode(final IShape shape, final IPoint origin, final int ppc) {
+		final ShapeCode code = shapesCode.get(shape);
+
+		if(code != null && code.isValid(shape, origin, ppc)) {
+			return Optional.of(code);
+		}
+
+		return PSTViewsFactory.INSTANCE.createView(shape).map(pstView -> new ShapeCode(shape, origin, ppc, pstView));
+	}
+
+
 	/**
 	 * Adds the PST colour code to the cache.
-	 * @param pstView The shape which colour code will be generated.
+	 * @param coloursName The colours used by the shape which colour code will be generated.
 	 * @param addedColours The PST colours already generated.
 	 * @since 3.0
 	 */
-	private  String generateColourCode(final  PSTShapeView<?> pstView, final  Map<String, String> addedColours) {
-		if(pstView.coloursName != null) {
-			for(final String nameColour : pstView.coloursName) {
+	private  String generateColourCode(final Set<String> coloursName, final  Map<String, String> addedColours) {
+		if(coloursName != null) {
+			for(final String nameColour : coloursName) {
 				if(addedColours.get(nameColour) == null && !DviPsColors.INSTANCE.getPredefinedColour(nameColour).isPresent()) {
 					addedColours.put(nameColour, nameColour);
 					return DviPsColors.INSTANCE.getUsercolourCode(nameColour) + LSystem.EOL;
@@ -147,4 +179,33 @@ public class PSTCodeGenerator extends LaTeXGenerator {
 		}
 		return ""; //$NON-NLS-1$
 	}
+
+
+	/**
+	 * The PST code of a shape and the data used to check that this code is up to date.
+	 */
+	private static final class ShapeCode {
+		final String code;
+		final Set<String> coloursName;
+		final long stamp;
+		final double originX;
+		final double originY;
+		final int ppc;
+
+		ShapeCode(final IShape shape, final IPoint origin, final int pixPerCm, final PSTShapeView<?> pstView) {
+			super();
+			// The stamp is read before the generation: a modification of the shape during the generation invalidates the code.
+			stamp = shape.getModificationStamp();
+			originX = origin.getX();
+			originY = origin.getY();
+			ppc = pixPerCm;
+			code = pstView.getCode(origin, pixPerCm);
+			coloursName = pstView.coloursName == null ? Collections.emptySet() : new LinkedHashSet<>(pstView.coloursName);
+		}
+
+		boolean isValid(final IShape shape, final IPoint origin, final int pixPerCm) {
+			return stamp == shape.getModificationStamp() && ppc == pixPerCm &&
+				Double.compare(originX, origin.getX()) == 0 && Double.compare(originY, origin.getY()) == 0;
+		}
+	}
 }
@@ -84,8 +84,8 @@ class LPictureSVGGenerator extends LShapeSVGGenerator<IPicture> {
 		img = new SVGImageElement(doc, shape.getPathSource());
 		img.setAttribute(SVGAttributes.SVG_X, String.valueOf(shape.getPosition().getX()));
 		img.setAttribute(SVGAttributes.SVG_Y, String.valueOf(shape.getPosition().getY()));
-		img.setAttribute(SVGAttributes.SVG_HEIGHT, String.valueOf(shape.getImage().getHeight()));
-		img.setAttribute(SVGAttributes.SVG_WIDTH, String.valueOf(shape.getImage().getWidth()));
+		img.setAttribute(SVGAttributes.SVG_HEIGHT, String.valueOf(shape.getHeight()));
+		img.setAttribute(SVGAttributes.SVG_WIDTH, String.valueOf(shape.getWidth()));
 		setSVGRotationAttribute(root);
 		root.appendChild(img);
 
@@ -583,7 +583,7 @@ public final class SVGDocumentGenerator implements OpenSaver<Label> {
 				final double incrProgressBar = Math.max(50d / (svgDoc.getDocumentElement().getChildNodes().getLength() + 1d), 1d);
 
 				Platform.runLater(() -> {
-					toLatexdraw(svgDoc, incrProgressBar).forEach(s -> drawing.addShape(s));
+					drawing.addShapes(toLatexdraw(svgDoc, incrProgressBar));
 					updateProgress(getProgress() + 50d, 100d);
 
 					// Loads the canvas' data.
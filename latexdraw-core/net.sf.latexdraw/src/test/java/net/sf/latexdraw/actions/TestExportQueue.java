@@ -0,0 +1,120 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.actions;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestExportQueue {
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@After
+	public void tearDown() {
+		Platform.runLater(() -> ExportQueue.INSTANCE.cancelAll());
+		WaitForAsyncUtils.waitForFxEvents();
+	}
+
+	/** A job that waits for the given latch. */
+	static Task<Boolean> createJob(final CountDownLatch started, final CountDownLatch release, final AtomicBoolean interrupted) {
+		return new Task<Boolean>() {
+			@Override
+			protected Boolean call() {
+				started.countDown();
+				try {
+					release.await();
+					return true;
+				}catch(final InterruptedException ex) {
+					interrupted.set(true);
+					return false;
+				}
+			}
+		};
+	}
+
+	static void waitFor(final Task<Boolean> job, final Worker.State state) throws TimeoutException {
+		WaitForAsyncUtils.waitFor(10L, TimeUnit.SECONDS, () -> job.getState() == state);
+	}
+
+	@Test
+	public void testJobExecutedAndRemoved() throws InterruptedException, TimeoutException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final Task<Boolean> job = createJob(started, new CountDownLatch(0), new AtomicBoolean());
+		Platform.runLater(() -> ExportQueue.INSTANCE.submit(job));
+		waitFor(job, Worker.State.SUCCEEDED);
+		WaitForAsyncUtils.waitForFxEvents();
+		assertTrue(job.getValue());
+		assertTrue(ExportQueue.INSTANCE.getJobs().isEmpty());
+	}
+
+	@Test
+	public void testJobsQueued() throws InterruptedException, TimeoutException {
+		final CountDownLatch started1 = new CountDownLatch(1);
+		final CountDownLatch started2 = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Task<Boolean> job1 = createJob(started1, release, new AtomicBoolean());
+		final Task<Boolean> job2 = createJob(started2, new CountDownLatch(0), new AtomicBoolean());
+
+		Platform.runLater(() -> {
+			ExportQueue.INSTANCE.submit(job1);
+			ExportQueue.INSTANCE.submit(job2);
+		});
+		assertTrue(started1.await(10L, TimeUnit.SECONDS));
+		// The second export waits for the first one.
+		assertFalse(started2.await(200L, TimeUnit.MILLISECONDS));
+		WaitForAsyncUtils.waitForFxEvents();
+		assertEquals(2, ExportQueue.INSTANCE.getJobs().size());
+
+		release.countDown();
+		waitFor(job2, Worker.State.SUCCEEDED);
+		assertEquals(Worker.State.SUCCEEDED, job1.getState());
+	}
+
+	@Test
+	public void testCancelAll() throws InterruptedException, TimeoutException {
+		final CountDownLatch started1 = new CountDownLatch(1);
+		final CountDownLatch started2 = new CountDownLatch(1);
+		final AtomicBoolean interrupted = new AtomicBoolean();
+		final Task<Boolean> job1 = createJob(started1, new CountDownLatch(1), interrupted);
+		final Task<Boolean> job2 = createJob(started2, new CountDownLatch(0), new AtomicBoolean());
+
+		Platform.runLater(() -> {
+			ExportQueue.INSTANCE.submit(job1);
+			ExportQueue.INSTANCE.submit(job2);
+		});
+		assertTrue(started1.await(10L, TimeUnit.SECONDS));
+		Platform.runLater(() -> ExportQueue.INSTANCE.cancelAll());
+		waitFor(job1, Worker.State.CANCELLED);
+		waitFor(job2, Worker.State.CANCELLED);
+		WaitForAsyncUtils.waitForFxEvents();
+
+		// The running export is interrupted; the queued one never starts.
+		WaitForAsyncUtils.waitFor(10L, TimeUnit.SECONDS, () -> interrupted.get());
+		assertFalse(started2.await(200L, TimeUnit.MILLISECONDS));
+		assertTrue(ExportQueue.INSTANCE.getJobs().isEmpty());
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.actions.shape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import net.sf.latexdraw.actions.TestUndoableAction;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import org.junit.Test;
+import org.malai.action.Action;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestDeleteShapes extends TestUndoableAction<DeleteShapes, List<IShape>> {
+	@Override
+	protected DeleteShapes createAction() {
+		return new DeleteShapes();
+	}
+
+	@Override
+	protected void configCorrectAction() {
+		IntStream.range(0, 5).forEach(i -> drawing.addShape(ShapeFactory.INST.createRectangle()));
+		memento = new ArrayList<>(drawing.getShapes());
+		action.setDrawing(drawing);
+		action.getShapes().addAll(Arrays.asList(memento.get(3), memento.get(0), memento.get(1)));
+	}
+
+	@Override
+	protected void checkDo() {
+		assertEquals(Arrays.asList(memento.get(2), memento.get(4)), drawing.getShapes());
+	}
+
+	@Override
+	protected void checkUndo() {
+		assertEquals(memento, drawing.getShapes());
+	}
+
+	@Override
+	@Test
+	public void testGetRegisterablePolicy() {
+		assertEquals(Action.RegistrationPolicy.LIMITED, action.getRegistrationPolicy());
+	}
+
+	@Test
+	public void testDeletedShapesUnselected() {
+		configCorrectAction();
+		drawing.setSelection(Arrays.asList(memento.get(0), memento.get(2)));
+		action.doIt();
+		assertEquals(1, drawing.getSelection().size());
+		assertTrue(drawing.getSelection().contains(memento.get(2)));
+	}
+}
@@ -1,5 +1,6 @@
 package net.sf.latexdraw.models.impl;
 
+import java.util.Arrays;
 import java.util.Collections;
 import net.sf.latexdraw.HelperTest;
 import net.sf.latexdraw.models.ShapeFactory;
@@ -62,6 +63,42 @@ public class TestIFreehand implements HelperTest {
 		assertEquals(10, shape.getInterval());
 	}
 
+	@Test
+	public void testAddPoint() {
+		shape.addPoint(ShapeFactory.INST.createPoint(10d, 20d));
+		shape.addPoint(ShapeFactory.INST.createPoint(30d, 5d));
+		assertEquals(2, shape.getNbPoints());
+		assertEquals(ShapeFactory.INST.createPoint(30d, 5d), shape.getPtAt(-1));
+		assertEquals(30d, shape.getMaxX(), 0.0001);
+	}
+
+	@Test
+	public void testAddPointKO() {
+		shape.addPoint(null);
+		shape.addPoint(ShapeFactory.INST.createPoint(Double.NaN, 20d));
+		assertEquals(0, shape.getNbPoints());
+	}
+
+	@Test
+	public void testNbPointsProperty() {
+		shape.addPoint(ShapeFactory.INST.createPoint(10d, 20d));
+		assertEquals(1, shape.nbPointsProperty().get());
+		shape.addPoint(ShapeFactory.INST.createPoint(30d, 5d));
+		assertEquals(2, shape.nbPointsProperty().get());
+	}
+
+	@Test
+	public void testNbPointsPropertyUpdatedByThePointsList() {
+		shape.nbPointsProperty();
+		shape.getPoints().add(ShapeFactory.INST.createPoint(10d, 20d));
+		shape.getPoints().addAll(Arrays.asList(ShapeFactory.INST.createPoint(30d, 5d), ShapeFactory.INST.createPoint(1d, 2d)));
+		assertEquals(3, shape.nbPointsProperty().get());
+		shape.getPoints().remove(0);
+		assertEquals(2, shape.nbPointsProperty().get());
+		shape.getPoints().clear();
+		assertEquals(0, shape.nbPointsProperty().get());
+	}
+
 	@Test
 	public void testCopy() {
 		shape2.setOpened(!shape2.isOpened());
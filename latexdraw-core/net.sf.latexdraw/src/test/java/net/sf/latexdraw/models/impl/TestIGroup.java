@@ -193,6 +193,29 @@ public class TestIGroup implements HelperTest {
 		assertEquals(sh1.getTopLeftPoint(), shape.getTopLeftPoint());
 	}
 
+	@Test
+	public void testBoundsUpdatedOnShapeMoved() {
+		sh1.setPosition(10d, 20d);
+		sh1.setWidth(11d);
+		shape.addShape(sh1);
+		assertEquals(10d, shape.getMinX(), 0.0001);
+		sh1.translate(5d, -5d);
+		assertEquals(15d, shape.getMinX(), 0.0001);
+		assertEquals(sh1.getMaxY(), shape.getMaxY(), 0.0001);
+		assertEquals(sh1.getTopLeftPoint(), shape.getTopLeftPoint());
+	}
+
+	@Test
+	public void testBoundsUpdatedOnShapeRemoved() {
+		sh1.setPosition(10d, 20d);
+		shape.addShape(sh1);
+		shape.getMinX();
+		shape.getShapes().remove(sh1);
+		assertTrue(Double.isNaN(shape.getMinX()));
+		sh1.translate(5d, 5d);
+		assertTrue(Double.isNaN(shape.getMinX()));
+	}
+
 	@Test
 	public void testGetTopLeftPointKO() {
 		assertTrue(Double.isNaN(shape.getTopLeftPoint().getX()));
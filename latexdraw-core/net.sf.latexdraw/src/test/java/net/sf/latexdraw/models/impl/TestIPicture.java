@@ -5,7 +5,11 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import javafx.scene.image.Image;
 import net.sf.latexdraw.HelperTest;
 import net.sf.latexdraw.models.ShapeFactory;
 import net.sf.latexdraw.models.interfaces.shape.ICircle;
@@ -24,6 +28,8 @@ import org.testfx.api.FxToolkit;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class TestIPicture implements HelperTest {
@@ -128,4 +134,40 @@ public class TestIPicture implements HelperTest {
 		assertTrue(shape.isTypeOf(IPicture.class));
 		assertTrue(shape.isTypeOf(shape.getClass()));
 	}
+
+	@Test
+	public void testDuplicateSharesTheImage() {
+		assertSame(shape.getImage(), shape.duplicate().getImage());
+	}
+
+	@Test
+	public void testImageReloadedWhenSourceModified() throws IOException {
+		final Image image = shape.getImage();
+		Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 10_000L));
+		shape.setPathSource(path.toString());
+		assertNotSame(image, shape.getImage());
+	}
+
+	@Test
+	public void testEPSPictureNotCreatedOnLoadAndCopy() {
+		shape.duplicate();
+		assertFalse(Files.exists(Paths.get(PictureCache.getPathTarget(path.toString()))));
+	}
+
+	@Test
+	public void testEPSPictureCreatedWhenRequired() throws InterruptedException, ExecutionException, TimeoutException {
+		final String eps = shape.getEPSPicture().get(10, TimeUnit.SECONDS);
+		assertEquals(shape.getPathTarget(), eps);
+		assertTrue(Files.exists(Paths.get(eps)));
+	}
+
+	@Test
+	public void testEPSPictureCreatedOnce() {
+		assertSame(shape.getEPSPicture(), shape.duplicate().getEPSPicture());
+	}
+
+	@Test
+	public void testEPSPictureNextToTheSource() {
+		assertEquals(Paths.get(folder.getRoot().toPath().toString(), "LaTeXDrawSmall.eps").toString(), shape.getPathTarget());
+	}
 }
@@ -3,6 +3,7 @@ package net.sf.latexdraw.models.impl;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -80,6 +81,20 @@ public class TestISetShapes {
 		assertThat(shape.getShapes(), contains(sh2, sh1));
 	}
 
+	@Theory
+	public void testAddShapesPositions(@SetShapeData final ISetShapesProp shape) {
+		shape.getShapes().addAll(sh1, sh3);
+		shape.addShapes(Arrays.asList(sh2), new int[] {1});
+		assertThat(shape.getShapes(), contains(sh1, sh2, sh3));
+	}
+
+	@Theory
+	public void testAddShapesPositionsKO(@SetShapeData final ISetShapesProp shape) {
+		shape.getShapes().addAll(sh1, sh3);
+		shape.addShapes(Arrays.asList(null, ShapeFactory.INST.createGroup(), sh2), new int[] {0, 1, 1});
+		assertThat(shape.getShapes(), contains(sh1, sh2, sh3));
+	}
+
 	@Theory
 	public void testRemoveShapeKO(@SetShapeData final ISetShapesProp shape) {
 		shape.removeShape(ShapeFactory.INST.createRectangle());
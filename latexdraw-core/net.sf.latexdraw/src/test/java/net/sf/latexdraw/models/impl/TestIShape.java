@@ -10,6 +10,7 @@ import net.sf.latexdraw.models.interfaces.shape.BorderPos;
 import net.sf.latexdraw.models.interfaces.shape.FillingStyle;
 import net.sf.latexdraw.models.interfaces.shape.IPoint;
 import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.models.interfaces.shape.ISingleShape;
 import net.sf.latexdraw.models.interfaces.shape.LineStyle;
 import net.sf.latexdraw.view.latex.DviPsColors;
 import org.junit.experimental.theories.Theories;
@@ -166,6 +167,47 @@ public class TestIShape implements HelperTest {
 		assertEquals((shape.getTopLeftPoint().getY() + shape.getBottomLeftPoint().getY()) / 2., gc.getY(), 0.0001);
 	}
 
+	@Theory
+	public void testPropertyCreatedAfterSetHasValue(@ShapeData final IShape shape) {
+		assumeTrue(shape.isThicknessable() && shape instanceof ISingleShape);
+		shape.setThickness(12d);
+		assertEqualsDouble(12d, ((ISingleShape) shape).thicknessProperty().get());
+	}
+
+	@Theory
+	public void testSetAfterPropertyCreatedIsObservable(@ShapeData final IShape shape) {
+		assumeTrue(shape.isThicknessable() && shape instanceof ISingleShape);
+		final double[] newValue = {0d};
+		((ISingleShape) shape).thicknessProperty().addListener((obs, oldVal, newVal) -> newValue[0] = newVal.doubleValue());
+		shape.setThickness(13d);
+		assertEqualsDouble(13d, newValue[0]);
+		assertEqualsDouble(13d, shape.getThickness());
+	}
+
+	@Theory
+	public void testPropertySetUpdatesShape(@ShapeData final IShape shape) {
+		assumeTrue(shape instanceof ISingleShape);
+		((ISingleShape) shape).lineColourProperty().set(DviPsColors.CYAN);
+		assertEquals(DviPsColors.CYAN, shape.getLineColour());
+	}
+
+	@Theory
+	public void testGetMinMaxMatchCornerPoints(@ShapeData final IShape shape) {
+		assertEquals(shape.getTopLeftPoint().getX(), shape.getMinX(), 0.0001);
+		assertEquals(shape.getTopLeftPoint().getY(), shape.getMinY(), 0.0001);
+		assertEquals(shape.getBottomRightPoint().getX(), shape.getMaxX(), 0.0001);
+		assertEquals(shape.getBottomRightPoint().getY(), shape.getMaxY(), 0.0001);
+	}
+
+	@Theory
+	public void testGetMinMaxAfterTranslate(@ShapeData final IShape shape) {
+		final double minX = shape.getMinX();
+		final double maxY = shape.getMaxY();
+		shape.translate(12d, -7d);
+		assertEquals(minX + 12d, shape.getMinX(), 0.0001);
+		assertEquals(maxY - 7d, shape.getMaxY(), 0.0001);
+	}
+
 	@Theory
 	public void testGetFullBottomRightPoint(@ShapeData final IShape shape) {
 		shape.setThickness(10.);
@@ -0,0 +1,250 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+import java.util.Arrays;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestLPackedPoints {
+	LPackedPoints pts;
+	int cpt;
+
+	@Before
+	public void setUp() {
+		cpt = 0;
+		pts = new LPackedPoints(() -> cpt++);
+		pts.addAll(Arrays.asList(ShapeFactory.INST.createPoint(1d, 2d), ShapeFactory.INST.createPoint(3d, 4d), ShapeFactory.INST.createPoint(5d, 6d)));
+	}
+
+	@Test
+	public void testAddAll() {
+		assertEquals(3, pts.size());
+		assertEquals(ShapeFactory.INST.createPoint(3d, 4d), pts.get(1));
+		assertEquals(1, cpt);
+	}
+
+	@Test
+	public void testGetEqualsLPoint() {
+		assertEquals(pts.get(0), ShapeFactory.INST.createPoint(1d, 2d));
+		assertEquals(ShapeFactory.INST.createPoint(1d, 2d), pts.get(0));
+		assertEquals(ShapeFactory.INST.createPoint(1d, 2d).hashCode(), pts.get(0).hashCode());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetKO() {
+		pts.get(3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddNull() {
+		pts.add(null);
+	}
+
+	@Test
+	public void testSetPointThroughView() {
+		pts.get(2).setPoint(10d, 20d);
+		assertEquals(10d, pts.getX(2), 0.0001);
+		assertEquals(20d, pts.getY(2), 0.0001);
+		assertTrue(cpt > 1);
+	}
+
+	@Test
+	public void testSetInvalidCoord() {
+		pts.get(0).setX(Double.NaN);
+		assertEquals(1d, pts.getX(0), 0.0001);
+	}
+
+	@Test
+	public void testPropertyUpdatedOnSet() {
+		final DoubleProperty prop = pts.get(1).xProperty();
+		pts.get(1).setX(-3d);
+		assertEquals(-3d, prop.get(), 0.0001);
+	}
+
+	@Test
+	public void testSetPropertyUpdatesPoint() {
+		pts.get(1).yProperty().set(42d);
+		assertEquals(42d, pts.get(1).getY(), 0.0001);
+	}
+
+	@Test
+	public void testBoundProperty() {
+		final DoubleProperty src = new SimpleDoubleProperty(7d);
+		pts.get(0).xProperty().bind(src);
+		src.set(8d);
+		assertEquals(8d, pts.get(0).getX(), 0.0001);
+	}
+
+	@Test
+	public void testSameProperty() {
+		assertTrue(pts.get(1).xProperty() == pts.get(1).xProperty());
+	}
+
+	@Test
+	public void testRemoveShiftsProperties() {
+		final DoubleProperty prop = pts.get(2).xProperty();
+		pts.remove(0);
+		assertEquals(2, pts.size());
+		prop.set(50d);
+		assertEquals(50d, pts.get(1).getX(), 0.0001);
+		assertEquals(3d, pts.get(0).getX(), 0.0001);
+	}
+
+	@Test
+	public void testInsertShiftsProperties() {
+		final DoubleProperty prop = pts.get(0).yProperty();
+		pts.add(0, ShapeFactory.INST.createPoint(-1d, -2d));
+		assertEquals(ShapeFactory.INST.createPoint(-1d, -2d), pts.get(0));
+		prop.set(30d);
+		assertEquals(30d, pts.get(1).getY(), 0.0001);
+		assertEquals(-2d, pts.get(0).getY(), 0.0001);
+	}
+
+	@Test
+	public void testAddGrows() {
+		for(int i = 0; i < 100; i++) {
+			pts.add(ShapeFactory.INST.createPoint(i, i));
+		}
+		assertEquals(103, pts.size());
+		assertEquals(ShapeFactory.INST.createPoint(99d, 99d), pts.get(102));
+	}
+
+	@Test
+	public void testTranslate() {
+		final DoubleProperty prop = pts.get(0).xProperty();
+		pts.translate(10d, -10d);
+		assertEquals(11d, prop.get(), 0.0001);
+		assertEquals(ShapeFactory.INST.createPoint(15d, -4d), pts.get(2));
+	}
+
+	@Test
+	public void testFillBounds() {
+		pts.get(1).setPoint(-10d, 100d);
+		final double[] bounds = new double[4];
+		pts.fillBounds(bounds);
+		assertEquals(-10d, bounds[0], 0.0001);
+		assertEquals(2d, bounds[1], 0.0001);
+		assertEquals(5d, bounds[2], 0.0001);
+		assertEquals(100d, bounds[3], 0.0001);
+	}
+
+	@Test
+	public void testSetReturnsOldPoint() {
+		final IPoint old = pts.set(0, ShapeFactory.INST.createPoint(9d, 9d));
+		assertEquals(ShapeFactory.INST.createPoint(1d, 2d), old);
+		assertEquals(ShapeFactory.INST.createPoint(9d, 9d), pts.get(0));
+	}
+
+	@Test
+	public void testClear() {
+		pts.clear();
+		assertTrue(pts.isEmpty());
+	}
+
+	@Test
+	public void testPointFollowsInsertionBefore() {
+		final IPoint pt = pts.get(1);
+		pts.add(0, ShapeFactory.INST.createPoint(-1d, -2d));
+		assertEquals(3d, pt.getX(), 0.0001);
+		pt.setY(40d);
+		assertEquals(40d, pts.get(2).getY(), 0.0001);
+		assertEquals(2d, pts.get(1).getY(), 0.0001);
+	}
+
+	@Test
+	public void testPointFollowsRemovalBefore() {
+		final IPoint pt = pts.get(2);
+		pts.remove(0);
+		assertEquals(ShapeFactory.INST.createPoint(5d, 6d), pt);
+		pt.setX(50d);
+		assertEquals(50d, pts.get(1).getX(), 0.0001);
+	}
+
+	@Test
+	public void testPointFollowsInsertionThenRemoval() {
+		final IPoint pt = pts.get(1);
+		pts.add(0, ShapeFactory.INST.createPoint(-1d, -2d));
+		pts.remove(0);
+		pt.setX(30d);
+		assertEquals(30d, pts.get(1).getX(), 0.0001);
+	}
+
+	@Test
+	public void testRemovedPointStandalone() {
+		final IPoint pt = pts.get(1);
+		pts.remove(1);
+		assertEquals(ShapeFactory.INST.createPoint(3d, 4d), pt);
+		pt.setX(30d);
+		assertEquals(30d, pt.getX(), 0.0001);
+		assertEquals(ShapeFactory.INST.createPoint(5d, 6d), pts.get(1));
+	}
+
+	@Test
+	public void testClearedPointStandalone() {
+		final IPoint pt = pts.get(2);
+		pts.clear();
+		pts.add(ShapeFactory.INST.createPoint(7d, 8d));
+		assertEquals(ShapeFactory.INST.createPoint(5d, 6d), pt);
+		pt.setX(30d);
+		assertEquals(7d, pts.get(0).getX(), 0.0001);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPointOlderThanTheKeptChanges() {
+		final IPoint pt = pts.get(2);
+		for(int i = 0; i <= LPackedPoints.MAX_CHANGES; i++) {
+			pts.add(0, ShapeFactory.INST.createPoint(i, i));
+		}
+		pt.getX();
+	}
+
+	@Test
+	public void testBoundPropertyFollowsInsertionBefore() {
+		final DoubleProperty bound = new SimpleDoubleProperty();
+		bound.bind(pts.get(1).xProperty());
+		pts.add(0, ShapeFactory.INST.createPoint(-1d, -2d));
+		pts.get(2).setX(30d);
+		assertEquals(30d, bound.get(), 0.0001);
+		pts.get(0).setX(10d);
+		assertEquals(30d, bound.get(), 0.0001);
+	}
+
+	@Test
+	public void testBoundPropertyDetachedOnClear() {
+		final DoubleProperty prop = pts.get(0).xProperty();
+		final DoubleProperty bound = new SimpleDoubleProperty();
+		bound.bind(prop);
+		pts.clear();
+		pts.add(ShapeFactory.INST.createPoint(7d, 8d));
+		assertEquals(1d, bound.get(), 0.0001);
+		pts.get(0).setX(20d);
+		assertEquals(1d, bound.get(), 0.0001);
+		prop.set(50d);
+		assertEquals(20d, pts.get(0).getX(), 0.0001);
+	}
+
+	@Test
+	public void testRemovedPropertyDetached() {
+		final DoubleProperty prop = pts.get(0).xProperty();
+		pts.remove(0);
+		prop.set(50d);
+		assertEquals(ShapeFactory.INST.createPoint(3d, 4d), pts.get(0));
+		assertEquals(ShapeFactory.INST.createPoint(5d, 6d), pts.get(1));
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javafx.collections.ListChangeListener;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestLShapesList {
+	LShapesList list;
+	List<IShape> shapes;
+	List<IShape> removed;
+	List<IShape> added;
+	int nbChanges;
+
+	@Before
+	public void setUp() {
+		list = new LShapesList();
+		shapes = IntStream.range(0, 10).mapToObj(i -> ShapeFactory.INST.createRectangle()).collect(Collectors.toList());
+		list.addAll(shapes);
+		removed = new ArrayList<>();
+		added = new ArrayList<>();
+		nbChanges = 0;
+		list.addListener((ListChangeListener.Change<? extends IShape> evt) -> {
+			nbChanges++;
+			while(evt.next()) {
+				removed.addAll(evt.getRemoved());
+				added.addAll(evt.getAddedSubList());
+			}
+		});
+	}
+
+	@Test
+	public void testRemoveShapesPositions() {
+		assertArrayEquals(new int[] {7, 2, 3}, list.removeShapes(Arrays.asList(shapes.get(7), shapes.get(2), shapes.get(3))));
+	}
+
+	@Test
+	public void testRemoveShapesContent() {
+		list.removeShapes(Arrays.asList(shapes.get(7), shapes.get(2), shapes.get(3)));
+		assertEquals(7, list.size());
+		assertEquals(Arrays.asList(shapes.get(0), shapes.get(1), shapes.get(4), shapes.get(5), shapes.get(6), shapes.get(8), shapes.get(9)), list);
+	}
+
+	@Test
+	public void testRemoveShapesSingleChange() {
+		list.removeShapes(Arrays.asList(shapes.get(7), shapes.get(2), shapes.get(3), shapes.get(9)));
+		assertEquals(1, nbChanges);
+		assertEquals(Arrays.asList(shapes.get(2), shapes.get(3), shapes.get(7), shapes.get(9)), removed);
+	}
+
+	@Test
+	public void testRemoveShapesUnknownAndNull() {
+		assertArrayEquals(new int[] {-1, -1, 1}, list.removeShapes(Arrays.asList(ShapeFactory.INST.createCircle(), null, shapes.get(1))));
+		assertEquals(9, list.size());
+	}
+
+	@Test
+	public void testRemoveShapesNothing() {
+		list.removeShapes(Collections.singletonList(ShapeFactory.INST.createCircle()));
+		assertEquals(0, nbChanges);
+	}
+
+	@Test
+	public void testAddShapesPutsBackRemovedShapes() {
+		final List<IShape> toRemove = Arrays.asList(shapes.get(9), shapes.get(0), shapes.get(4), shapes.get(5));
+		final int[] positions = list.removeShapes(toRemove);
+		list.addShapes(toRemove, positions);
+		assertEquals(shapes, list);
+	}
+
+	@Test
+	public void testAddShapesSingleChange() {
+		final List<IShape> toRemove = Arrays.asList(shapes.get(9), shapes.get(0), shapes.get(4), shapes.get(5));
+		final int[] positions = list.removeShapes(toRemove);
+		nbChanges = 0;
+		list.addShapes(toRemove, positions);
+		assertEquals(1, nbChanges);
+		assertEquals(Arrays.asList(shapes.get(0), shapes.get(4), shapes.get(5), shapes.get(9)), added);
+	}
+
+	@Test
+	public void testAddShapesPositionTooHigh() {
+		final IShape sh = ShapeFactory.INST.createCircle();
+		list.addShapes(Collections.singletonList(sh), new int[] {100});
+		assertEquals(sh, list.get(10));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddShapesBadPositions() {
+		list.addShapes(Collections.singletonList(ShapeFactory.INST.createCircle()), new int[] {1, 2});
+	}
+
+	@Test
+	public void testRemoveRange() {
+		list.remove(2, 5);
+		assertEquals(1, nbChanges);
+		assertEquals(shapes.subList(2, 5), removed);
+		assertEquals(7, list.size());
+		assertEquals(shapes.get(5), list.get(2));
+	}
+
+	@Test
+	public void testClear() {
+		list.clear();
+		assertEquals(1, nbChanges);
+		assertEquals(shapes, removed);
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void testRemoveAll() {
+		assertTrue(list.removeAll(Arrays.asList(shapes.get(1), shapes.get(8))));
+		assertEquals(1, nbChanges);
+		assertEquals(8, list.size());
+	}
+
+	@Test
+	public void testSetAll() {
+		list.setAll(shapes.subList(0, 3));
+		assertEquals(1, nbChanges);
+		assertEquals(shapes.subList(0, 3), list);
+	}
+}
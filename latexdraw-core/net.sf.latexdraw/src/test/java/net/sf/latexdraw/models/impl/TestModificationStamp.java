@@ -0,0 +1,170 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.models.impl;
+
+import java.util.Arrays;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.ArrowStyle;
+import net.sf.latexdraw.models.interfaces.shape.IGroup;
+import net.sf.latexdraw.models.interfaces.shape.IPolyline;
+import net.sf.latexdraw.models.interfaces.shape.IRectangle;
+import net.sf.latexdraw.models.interfaces.shape.IText;
+import net.sf.latexdraw.view.latex.DviPsColors;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class TestModificationStamp {
+	IRectangle rec;
+	IGroup group;
+
+	@Before
+	public void setUp() {
+		rec = ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(10d, 20d), 100d, 50d);
+		group = ShapeFactory.INST.createGroup(rec);
+	}
+
+	@Test
+	public void testStampNotChangedWhenNotModified() {
+		final long stamp = rec.getModificationStamp();
+		final long groupStamp = group.getModificationStamp();
+		rec.getLineColour();
+		rec.lineColourProperty();
+		rec.getTopLeftPoint();
+		group.getBottomRightPoint();
+		assertEquals(stamp, rec.getModificationStamp());
+		assertEquals(groupStamp, group.getModificationStamp());
+	}
+
+	@Test
+	public void testStampChangedOnStyleSetter() {
+		final long stamp = rec.getModificationStamp();
+		rec.setLineColour(DviPsColors.RED);
+		assertNotEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testStampNotChangedOnSameValue() {
+		rec.setLineColour(DviPsColors.RED);
+		rec.setThickness(5d);
+		final long stamp = rec.getModificationStamp();
+		rec.setLineColour(DviPsColors.RED);
+		rec.setThickness(5d);
+		assertEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testStampNotChangedOnSameValueWithProperty() {
+		rec.lineColourProperty();
+		rec.thicknessProperty();
+		rec.setLineColour(DviPsColors.RED);
+		rec.setThickness(5d);
+		final long stamp = rec.getModificationStamp();
+		rec.setLineColour(DviPsColors.RED);
+		rec.setThickness(5d);
+		assertEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testStampChangedOnStyleSetterWithProperty() {
+		rec.fillingColProperty();
+		final long stamp = rec.getModificationStamp();
+		rec.setFillingCol(DviPsColors.RED);
+		assertNotEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testStampChangedOnBoundProperty() {
+		final long stamp = rec.getModificationStamp();
+		rec.rotationAngleProperty().set(1d);
+		assertNotEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testStampChangedOnSubclassProperty() {
+		final long stamp = rec.getModificationStamp();
+		rec.setLineArc(0.5);
+		assertNotEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testStampChangedOnText() {
+		final IText text = ShapeFactory.INST.createText(ShapeFactory.INST.createPoint(), "foo");
+		final long stamp = text.getModificationStamp();
+		text.setText("bar");
+		assertNotEquals(stamp, text.getModificationStamp());
+	}
+
+	@Test
+	public void testStampChangedOnArrow() {
+		final IPolyline line = ShapeFactory.INST.createPolyline(Arrays.asList(ShapeFactory.INST.createPoint(), ShapeFactory.INST.createPoint(10d, 10d)));
+		final long stamp = line.getModificationStamp();
+		line.setArrowStyle(ArrowStyle.LEFT_ARROW, 0);
+		assertNotEquals(stamp, line.getModificationStamp());
+	}
+
+	@Test
+	public void testGroupStampChangedOnStyleSetter() {
+		final long stamp = group.getModificationStamp();
+		rec.setRotationAngle(1d);
+		assertNotEquals(stamp, group.getModificationStamp());
+	}
+
+	@Test
+	public void testStampsDifferentBetweenShapes() {
+		assertNotEquals(rec.getModificationStamp(), ShapeFactory.INST.createRectangle().getModificationStamp());
+	}
+
+	@Test
+	public void testStampChangedOnSetModified() {
+		final long stamp = rec.getModificationStamp();
+		rec.setModified(true);
+		assertNotEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testStampNotChangedOnSetNotModified() {
+		final long stamp = rec.getModificationStamp();
+		rec.setModified(false);
+		assertEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testStampChangedOnTranslate() {
+		final long stamp = rec.getModificationStamp();
+		rec.translate(1d, 2d);
+		assertNotEquals(stamp, rec.getModificationStamp());
+	}
+
+	@Test
+	public void testGroupStampChangedOnModifiedShape() {
+		final long stamp = group.getModificationStamp();
+		rec.setModified(true);
+		assertNotEquals(stamp, group.getModificationStamp());
+	}
+
+	@Test
+	public void testGroupStampChangedOnAddedShape() {
+		final long stamp = group.getModificationStamp();
+		group.addShape(ShapeFactory.INST.createCircle());
+		assertNotEquals(stamp, group.getModificationStamp());
+	}
+
+	@Test
+	public void testGroupStampChangedOnRemovedShape() {
+		group.addShape(ShapeFactory.INST.createCircle());
+		final long stamp = group.getModificationStamp();
+		group.removeShape(rec);
+		assertNotEquals(stamp, group.getModificationStamp());
+	}
+}
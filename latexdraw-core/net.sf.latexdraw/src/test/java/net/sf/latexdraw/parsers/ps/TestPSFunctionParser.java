@@ -2,6 +2,7 @@ package net.sf.latexdraw.parsers.ps;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class TestPSFunctionParser {
@@ -166,4 +167,95 @@ public class TestPSFunctionParser {
 		PSFunctionParser parser = new PSFunctionParser("x add");
 		parser.getY(3);
 	}
+
+	@Test(expected = InvalidFormatPSFunctionException.class)
+	public void testGetYPopEmptyKO() throws InvalidFormatPSFunctionException {
+		new PSFunctionParser("x pop").getY(3);
+	}
+
+	@Test(expected = InvalidFormatPSFunctionException.class)
+	public void testGetYUnderflowAfterClearKO() throws InvalidFormatPSFunctionException {
+		new PSFunctionParser("x 2 clear add").getY(3);
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testGetYDivZeroKO() throws InvalidFormatPSFunctionException {
+		new PSFunctionParser("1 x div").getY(0);
+	}
+
+	@Test
+	public void testGetYSubOrder() throws InvalidFormatPSFunctionException {
+		assertEquals(-1.0, new PSFunctionParser("x 4 sub").getY(3), 0.0);
+	}
+
+	@Test
+	public void testGetYDupExch() throws InvalidFormatPSFunctionException {
+		assertEquals(-6.0, new PSFunctionParser("x dup mul 3 exch sub").getY(3), 0.0);
+	}
+
+	@Test
+	public void testGetYCount() throws InvalidFormatPSFunctionException {
+		assertEquals(2.0, new PSFunctionParser("x x count").getY(3), 0.0);
+	}
+
+	@Test
+	public void testGetYClear() throws InvalidFormatPSFunctionException {
+		assertEquals(5.0, new PSFunctionParser("x x clear 5").getY(3), 0.0);
+	}
+
+	@Test
+	public void testGetYSqrt() throws InvalidFormatPSFunctionException {
+		assertEquals(3.0, new PSFunctionParser("x sqrt").getY(9), 0.0);
+	}
+
+	@Test
+	public void testGetYRoll() throws InvalidFormatPSFunctionException {
+		final PSFunctionParser parser = new PSFunctionParser("1 2 x 3 1 roll");
+		assertEquals(2.0, parser.getY(3), 0.0);
+		assertEquals(1.0, new PSFunctionParser("1 2 x 3 -1 roll").getY(3), 0.0);
+	}
+
+	@Test(expected = InvalidFormatPSFunctionException.class)
+	public void testGetYRollKO() throws InvalidFormatPSFunctionException {
+		new PSFunctionParser("1 2 x 10 1 roll").getY(3);
+	}
+
+	@Test
+	public void testGetYSeveralCalls() throws InvalidFormatPSFunctionException {
+		final PSFunctionParser parser = new PSFunctionParser("x 2 exp 1 add");
+		assertEquals(5.0, parser.getY(2), 0.0);
+		assertEquals(10.0, parser.getY(3), 0.0);
+		assertEquals(5.0, parser.getY(-2), 0.0);
+	}
+
+	@Test
+	public void testGetYBatch() throws InvalidFormatPSFunctionException {
+		final PSFunctionParser parser = new PSFunctionParser("x sin x cos mul 10 add");
+		final double[] xs = new double[10000];
+		final double[] ys = new double[xs.length];
+		for(int i = 0; i < xs.length; i++) {
+			xs[i] = -360d + i * 0.072;
+		}
+		parser.getY(xs, ys);
+		for(int i = 0; i < xs.length; i++) {
+			assertEquals(parser.getY(xs[i]), ys[i], 0.0);
+		}
+	}
+
+	@Test
+	public void testGetYBatchSameArray() throws InvalidFormatPSFunctionException {
+		final double[] xs = {1d, 2d, 3d};
+		new PSFunctionParser("x x mul").getY(xs, xs);
+		assertArrayEquals(new double[] {1d, 4d, 9d}, xs, 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetYBatchTooShortKO() throws InvalidFormatPSFunctionException {
+		new PSFunctionParser("x").getY(new double[3], new double[2]);
+	}
+
+	@Test(expected = InvalidFormatPSFunctionException.class)
+	public void testGetYBatchInvalidKO() throws InvalidFormatPSFunctionException {
+		new PSFunctionParser("x add").getY(new double[3], new double[3]);
+	}
 }
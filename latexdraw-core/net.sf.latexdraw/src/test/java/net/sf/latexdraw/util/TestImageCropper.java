@@ -0,0 +1,105 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.util;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.util.Optional;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestImageCropper {
+	static BufferedImage createImage(final int type, final int width, final int height, final int... pixels) {
+		final BufferedImage img = new BufferedImage(width, height, type);
+		for(int i = 0; i < pixels.length; i += 2) {
+			img.setRGB(pixels[i], pixels[i + 1], 0xFF112233);
+		}
+		return img;
+	}
+
+	@Test
+	public void testCropNull() {
+		assertNull(ImageCropper.INSTANCE.cropImage(null));
+	}
+
+	@Test
+	public void testCropEmptyImage() {
+		assertNull(ImageCropper.INSTANCE.cropImage(createImage(BufferedImage.TYPE_INT_ARGB, 20, 10)));
+		assertFalse(ImageCropper.INSTANCE.getContentBounds(createImage(BufferedImage.TYPE_4BYTE_ABGR, 20, 10), false).isPresent());
+	}
+
+	@Test
+	public void testBoundsIntImage() {
+		assertEquals(Optional.of(new Rectangle(3, 2, 10, 5)),
+			ImageCropper.INSTANCE.getContentBounds(createImage(BufferedImage.TYPE_INT_ARGB_PRE, 20, 10, 3, 4, 12, 2, 5, 6), false));
+	}
+
+	@Test
+	public void testBoundsByteImage() {
+		assertEquals(Optional.of(new Rectangle(3, 2, 10, 5)),
+			ImageCropper.INSTANCE.getContentBounds(createImage(BufferedImage.TYPE_4BYTE_ABGR, 20, 10, 3, 4, 12, 2, 5, 6), false));
+	}
+
+	@Test
+	public void testBoundsOtherImage() {
+		// An indexed image whose first colour is transparent.
+		final IndexColorModel model = new IndexColorModel(1, 2, new byte[] {0, 0x11}, new byte[] {0, 0x22}, new byte[] {0, 0x33}, 0);
+		final BufferedImage img = new BufferedImage(20, 10, BufferedImage.TYPE_BYTE_BINARY, model);
+		img.setRGB(3, 4, 0xFF112233);
+		img.setRGB(12, 2, 0xFF112233);
+		img.setRGB(5, 6, 0xFF112233);
+		assertEquals(Optional.of(new Rectangle(3, 2, 10, 5)), ImageCropper.INSTANCE.getContentBounds(img, false));
+	}
+
+	@Test
+	public void testBoundsImageWithoutAlpha() {
+		assertEquals(Optional.of(new Rectangle(0, 0, 20, 10)),
+			ImageCropper.INSTANCE.getContentBounds(createImage(BufferedImage.TYPE_INT_RGB, 20, 10), false));
+	}
+
+	@Test
+	public void testBoundsSubImage() {
+		final BufferedImage img = createImage(BufferedImage.TYPE_INT_ARGB, 20, 10, 3, 4, 12, 2, 0, 0).getSubimage(1, 1, 15, 8);
+		assertEquals(Optional.of(new Rectangle(2, 1, 10, 3)), ImageCropper.INSTANCE.getContentBounds(img, false));
+	}
+
+	@Test
+	public void testBoundsParallelSameAsSequential() {
+		final BufferedImage img = createImage(BufferedImage.TYPE_INT_ARGB, 600, 1000, 300, 10, 5, 500, 590, 700, 200, 980);
+		assertEquals(Optional.of(new Rectangle(5, 10, 586, 971)), ImageCropper.INSTANCE.getContentBounds(img, true));
+		assertEquals(ImageCropper.INSTANCE.getContentBounds(img, false), ImageCropper.INSTANCE.getContentBounds(img, true));
+	}
+
+	@Test
+	public void testCropIntImageSharesThePixels() {
+		final BufferedImage img = createImage(BufferedImage.TYPE_INT_ARGB_PRE, 20, 10, 3, 4, 12, 2);
+		final BufferedImage cropped = ImageCropper.INSTANCE.cropImage(img);
+		assertEquals(10, cropped.getWidth());
+		assertEquals(3, cropped.getHeight());
+		assertSame(img.getRaster().getDataBuffer(), cropped.getRaster().getDataBuffer());
+		assertEquals(img.getRGB(3, 4), cropped.getRGB(0, 2));
+	}
+
+	@Test
+	public void testCropByteImageCopied() {
+		final BufferedImage img = createImage(BufferedImage.TYPE_4BYTE_ABGR, 20, 10, 3, 4, 12, 2);
+		final BufferedImage cropped = ImageCropper.INSTANCE.cropImage(img);
+		assertEquals(BufferedImage.TYPE_INT_ARGB_PRE, cropped.getType());
+		assertEquals(10, cropped.getWidth());
+		assertEquals(3, cropped.getHeight());
+		assertEquals(img.getRGB(12, 2), cropped.getRGB(9, 0));
+	}
+}
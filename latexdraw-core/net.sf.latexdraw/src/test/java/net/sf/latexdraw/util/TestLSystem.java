@@ -0,0 +1,46 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+public class TestLSystem {
+	@Test
+	public void testExecuteInterruptedKillsTheProcess() throws InterruptedException {
+		assumeFalse(LSystem.INSTANCE.isWindows());
+		final AtomicReference<String> log = new AtomicReference<>();
+		final AtomicReference<Boolean> interrupted = new AtomicReference<>(false);
+		final Thread thread = new Thread(() -> {
+			log.set(LSystem.INSTANCE.execute(new String[] {"sleep", "30"}, null));
+			interrupted.set(Thread.currentThread().isInterrupted());
+		});
+
+		thread.start();
+		Thread.sleep(300L);
+		thread.interrupt();
+		thread.join(5000L);
+
+		assertFalse(thread.isAlive());
+		assertTrue(interrupted.get());
+		assertTrue(log.get().startsWith("Cancelled"));
+	}
+
+	@Test
+	public void testExecuteEmptyCommand() {
+		assertNull(LSystem.INSTANCE.execute(new String[0], null));
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.InflaterInputStream;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestPDFWriter {
+	static String toString(final byte[] pdf) {
+		return new String(pdf, StandardCharsets.ISO_8859_1);
+	}
+
+	static byte[] writeDocument() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(final PDFWriter writer = new PDFWriter(out)) {
+			final int catalog = writer.reserve();
+			final int pages = writer.reserve();
+			final int content = writer.addStream("", "0 0 m 10 10 l S".getBytes(StandardCharsets.ISO_8859_1));
+			final int page = writer.addObject("<</Type/Page/Parent " + PDFWriter.ref(pages) + "/MediaBox[0 0 10 10]/Contents " +
+				PDFWriter.ref(content) + ">>");
+			writer.writeObject(pages, "<</Type/Pages/Kids[" + PDFWriter.ref(page) + "]/Count 1>>");
+			writer.writeObject(catalog, "<</Type/Catalog/Pages " + PDFWriter.ref(pages) + ">>");
+			writer.setRoot(catalog);
+		}
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testFormat() {
+		assertEquals("0", PDFWriter.format(0d));
+		assertEquals("0", PDFWriter.format(-0.00001));
+		assertEquals("12", PDFWriter.format(12d));
+		assertEquals("-1.5", PDFWriter.format(-1.5));
+		assertEquals("0.3333", PDFWriter.format(1d / 3d));
+		assertEquals("12345678", PDFWriter.format(1.2345678e7));
+		assertEquals("0", PDFWriter.format(Double.NaN));
+	}
+
+	@Test
+	public void testRef() {
+		assertEquals("12 0 R", PDFWriter.ref(12));
+	}
+
+	@Test
+	public void testHeader() throws IOException {
+		assertTrue(toString(writeDocument()).startsWith("%PDF-1.4\n"));
+	}
+
+	@Test
+	public void testXRefPointsToObjects() throws IOException {
+		final String pdf = toString(writeDocument());
+		final int startXRef = Integer.parseInt(pdf.substring(pdf.lastIndexOf("startxref") + 10, pdf.lastIndexOf("\n%%EOF")).trim());
+		final String[] xref = pdf.substring(startXRef).split("\n");
+
+		assertEquals("xref", xref[0]);
+		assertEquals("0 5", xref[1]);
+		for(int i = 1; i <= 4; i++) {
+			final int offset = Integer.parseInt(xref[i + 2].substring(0, 10));
+			assertTrue(pdf.startsWith(i + " 0 obj\n", offset));
+		}
+		assertTrue(pdf.contains("trailer\n<</Size 5/Root 1 0 R>>"));
+	}
+
+	@Test
+	public void testXRefIndependentOfLocale() throws IOException {
+		final Locale locale = Locale.getDefault();
+		try {
+			// A locale with non-ASCII digits.
+			Locale.setDefault(Locale.forLanguageTag("th-TH-u-nu-thai"));
+			final String pdf = toString(writeDocument());
+			final String xref = pdf.substring(pdf.lastIndexOf("\nxref\n"), pdf.lastIndexOf("trailer"));
+			assertTrue(xref.matches("\nxref\n0 5\n([0-9]{10} [0-9]{5} [fn] \n){5}"));
+		}finally {
+			Locale.setDefault(locale);
+		}
+	}
+
+	@Test
+	public void testStreamCompressed() throws IOException {
+		final byte[] data = "0 0 m 10 10 l S".getBytes(StandardCharsets.ISO_8859_1);
+		final byte[] doc = writeDocument();
+		final String pdf = toString(doc);
+		final int length = Integer.parseInt(pdf.substring(pdf.indexOf("/Length ") + 8, pdf.indexOf("/Filter/FlateDecode")));
+		final int start = pdf.indexOf("stream\n") + 7;
+		final byte[] decoded = new byte[data.length];
+
+		assertEquals("\nendstream", pdf.substring(start + length, start + length + 10));
+		try(final InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(doc, start, length))) {
+			assertEquals(data.length, in.read(decoded));
+			assertEquals(-1, in.read());
+		}
+		assertArrayEquals(data, decoded);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testNoRoot() throws IOException {
+		try(final PDFWriter writer = new PDFWriter(new ByteArrayOutputStream())) {
+			writer.addObject("<<>>");
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReservedObjectNotWritten() throws IOException {
+		try(final PDFWriter writer = new PDFWriter(new ByteArrayOutputStream())) {
+			writer.setRoot(writer.addObject("<<>>"));
+			writer.reserve();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testObjectWrittenTwice() throws IOException {
+		final PDFWriter writer = new PDFWriter(new ByteArrayOutputStream());
+		final int num = writer.addObject("<<>>");
+		writer.writeObject(num, "<<>>");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testObjectNotReserved() throws IOException {
+		new PDFWriter(new ByteArrayOutputStream()).writeObject(3, "<<>>");
+	}
+}
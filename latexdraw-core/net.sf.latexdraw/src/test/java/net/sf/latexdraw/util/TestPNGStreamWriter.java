@@ -0,0 +1,124 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestPNGStreamWriter {
+	static int[] createPixels(final int width, final int height) {
+		final int[] pixels = new int[width * height];
+		for(int i = 0; i < pixels.length; i++) {
+			pixels[i] = 0xFF000000 | i * 0x9E3779B1 >>> 8;
+		}
+		return pixels;
+	}
+
+	static byte[] write(final int[] pixels, final int width, final int height, final int rowsPerCall, final double dpi) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(final PNGStreamWriter writer = new PNGStreamWriter(out, width, height, dpi)) {
+			for(int y = 0; y < height; y += rowsPerCall) {
+				writer.writeRows(pixels, y * width, width, Math.min(rowsPerCall, height - y));
+			}
+		}
+		return out.toByteArray();
+	}
+
+	static void assertSamePixels(final int[] pixels, final int width, final int height, final BufferedImage img) {
+		assertEquals(width, img.getWidth());
+		assertEquals(height, img.getHeight());
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) {
+				assertEquals(pixels[y * width + x] | 0xFF000000, img.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testWriteRowByRow() throws IOException {
+		final int[] pixels = createPixels(37, 23);
+		assertSamePixels(pixels, 37, 23, ImageIO.read(new ByteArrayInputStream(write(pixels, 37, 23, 1, 0d))));
+	}
+
+	@Test
+	public void testWriteBands() throws IOException {
+		final int[] pixels = createPixels(100, 50);
+		assertSamePixels(pixels, 100, 50, ImageIO.read(new ByteArrayInputStream(write(pixels, 100, 50, 16, 0d))));
+	}
+
+	@Test
+	public void testWriteSeveralDataChunks() throws IOException {
+		// Noisy pixels are not well compressed: several IDAT chunks are written.
+		final Random rand = new Random(42L);
+		final int[] pixels = new int[300 * 300];
+		for(int i = 0; i < pixels.length; i++) {
+			pixels[i] = rand.nextInt();
+		}
+		assertSamePixels(pixels, 300, 300, ImageIO.read(new ByteArrayInputStream(write(pixels, 300, 300, 64, 0d))));
+	}
+
+	@Test
+	public void testAlphaIgnored() throws IOException {
+		final int[] pixels = {0x00FF0000, 0x8000FF00, 0xFF0000FF};
+		final BufferedImage img = ImageIO.read(new ByteArrayInputStream(write(pixels, 3, 1, 1, 0d)));
+		assertEquals(0xFFFF0000, img.getRGB(0, 0));
+		assertEquals(0xFF00FF00, img.getRGB(1, 0));
+		assertEquals(0xFF0000FF, img.getRGB(2, 0));
+	}
+
+	@Test
+	public void testWriteResolution() throws IOException {
+		final byte[] png = write(createPixels(10, 10), 10, 10, 10, 300d);
+
+		try(final ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(png))) {
+			final Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+			final ImageReader reader = readers.next();
+			reader.setInput(input);
+			final IIOMetadata metadata = reader.getImageMetadata(0);
+			final IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree("javax_imageio_1.0");
+			final IIOMetadataNode size = (IIOMetadataNode) root.getElementsByTagName("HorizontalPixelSize").item(0);
+			// The size of a pixel in millimetres.
+			assertEquals(25.4 / 300d, Double.parseDouble(size.getAttribute("value")), 0.001);
+			reader.dispose();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testTooManyRows() throws IOException {
+		try(final PNGStreamWriter writer = new PNGStreamWriter(new ByteArrayOutputStream(), 10, 2, 0d)) {
+			writer.writeRows(new int[30], 0, 10, 3);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testMissingRows() throws IOException {
+		try(final PNGStreamWriter writer = new PNGStreamWriter(new ByteArrayOutputStream(), 10, 2, 0d)) {
+			writer.writeRows(new int[10], 0, 10, 1);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() throws IOException {
+		new PNGStreamWriter(new ByteArrayOutputStream(), 0, 10, 0d);
+	}
+}
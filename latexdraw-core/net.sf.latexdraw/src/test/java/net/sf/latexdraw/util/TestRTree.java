@@ -0,0 +1,152 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRTree {
+	RTree<String> tree;
+
+	@Before
+	public void setUp() {
+		tree = new RTree<>();
+	}
+
+	@Test
+	public void testEmpty() {
+		assertTrue(tree.isEmpty());
+		assertEquals(0, tree.size());
+		assertTrue(tree.search(-1000d, -1000d, 1000d, 1000d).isEmpty());
+	}
+
+	@Test
+	public void testInsertNull() {
+		tree.insert(null, 0d, 0d, 1d, 1d);
+		assertTrue(tree.isEmpty());
+	}
+
+	@Test
+	public void testInsertInvalidBounds() {
+		tree.insert("a", 10d, 0d, 1d, 1d);
+		tree.insert("b", Double.NaN, 0d, 1d, 1d);
+		assertTrue(tree.isEmpty());
+	}
+
+	@Test
+	public void testInsertSearch() {
+		tree.insert("a", 0d, 0d, 10d, 10d);
+		tree.insert("b", 20d, 20d, 30d, 30d);
+		assertEquals(2, tree.size());
+		assertEquals(Arrays.asList("a"), tree.search(5d, 5d, 6d, 6d));
+		assertEquals(Arrays.asList("b"), tree.search(25d, 25d, 25d, 25d));
+		assertTrue(tree.search(11d, 11d, 19d, 19d).isEmpty());
+	}
+
+	@Test
+	public void testSearchTouchingBounds() {
+		tree.insert("a", 0d, 0d, 10d, 10d);
+		assertEquals(Arrays.asList("a"), tree.search(10d, 10d, 20d, 20d));
+	}
+
+	@Test
+	public void testInsertTwiceUpdatesBounds() {
+		tree.insert("a", 0d, 0d, 10d, 10d);
+		tree.insert("a", 100d, 100d, 110d, 110d);
+		assertEquals(1, tree.size());
+		assertTrue(tree.search(0d, 0d, 10d, 10d).isEmpty());
+		assertEquals(Arrays.asList("a"), tree.search(105d, 105d, 106d, 106d));
+	}
+
+	@Test
+	public void testRemove() {
+		tree.insert("a", 0d, 0d, 10d, 10d);
+		assertTrue(tree.remove("a"));
+		assertFalse(tree.contains("a"));
+		assertTrue(tree.isEmpty());
+		assertTrue(tree.search(0d, 0d, 10d, 10d).isEmpty());
+	}
+
+	@Test
+	public void testRemoveUnknown() {
+		tree.insert("a", 0d, 0d, 10d, 10d);
+		assertFalse(tree.remove("b"));
+		assertFalse(tree.remove(null));
+		assertEquals(1, tree.size());
+	}
+
+	@Test
+	public void testClear() {
+		tree.insert("a", 0d, 0d, 10d, 10d);
+		tree.clear();
+		assertTrue(tree.isEmpty());
+		assertTrue(tree.search(0d, 0d, 10d, 10d).isEmpty());
+	}
+
+	@Test
+	public void testHeightIsLogarithmic() {
+		for(int i = 0; i < 10000; i++) {
+			tree.insert(String.valueOf(i), i, i, i + 1d, i + 1d);
+		}
+		assertTrue(tree.getHeight() <= 6);
+	}
+
+	@Test
+	public void testManyInsertsRemovesMatchBruteForce() {
+		final int nb = 3000;
+		final Random rand = new Random(42);
+		final double[][] bounds = new double[nb][];
+
+		for(int i = 0; i < nb; i++) {
+			final double x = rand.nextDouble() * 1000d;
+			final double y = rand.nextDouble() * 1000d;
+			bounds[i] = new double[]{x, y, x + rand.nextDouble() * 20d, y + rand.nextDouble() * 20d};
+			tree.insert(String.valueOf(i), bounds[i][0], bounds[i][1], bounds[i][2], bounds[i][3]);
+		}
+
+		for(int i = 0; i < nb; i += 3) {
+			assertTrue(tree.remove(String.valueOf(i)));
+			bounds[i] = null;
+		}
+
+		for(int i = 1; i < nb; i += 3) {
+			final double x = rand.nextDouble() * 1000d;
+			final double y = rand.nextDouble() * 1000d;
+			bounds[i] = new double[]{x, y, x + 5d, y + 5d};
+			tree.insert(String.valueOf(i), x, y, x + 5d, y + 5d);
+		}
+
+		for(int q = 0; q < 100; q++) {
+			final double x = rand.nextDouble() * 1000d;
+			final double y = rand.nextDouble() * 1000d;
+			final double size = rand.nextDouble() * 100d;
+			final Set<String> expected = new HashSet<>();
+
+			for(int i = 0; i < nb; i++) {
+				if(bounds[i] != null && bounds[i][0] <= x + size && bounds[i][2] >= x && bounds[i][1] <= y + size && bounds[i][3] >= y) {
+					expected.add(String.valueOf(i));
+				}
+			}
+
+			assertEquals(expected, new HashSet<>(tree.search(x, y, x + size, y + size)));
+		}
+
+		assertEquals(nb - (nb + 2) / 3, tree.size());
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.transform.Rotate;
+import javafx.scene.transform.Translate;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.malai.action.ActionsRegistry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestCanvasShapesBinding {
+	Canvas canvas;
+	List<IShape> shapes;
+
+	@Before
+	public void setUp() {
+		canvas = new Canvas();
+		ActionsRegistry.INSTANCE.removeAllHandlers();
+		shapes = IntStream.range(0, 6).mapToObj(i -> ShapeFactory.INST.createRectangle()).collect(Collectors.toList());
+	}
+
+	@After
+	public void tearDown() {
+		ActionsRegistry.INSTANCE.removeAllHandlers();
+	}
+
+	private void assertViewsFollowDrawing() {
+		assertEquals(canvas.getDrawing().size(), canvas.getViews().getChildren().size());
+		for(int i = 0, size = canvas.getDrawing().size(); i < size; i++) {
+			assertSame(canvas.getViewFromShape(canvas.getDrawing().getShapeAt(i)).get(), canvas.getViews().getChildren().get(i));
+		}
+	}
+
+	@Test
+	public void testAddShapes() {
+		canvas.getDrawing().addShapes(shapes);
+		assertViewsFollowDrawing();
+	}
+
+	@Test
+	public void testAddShapesTwice() {
+		canvas.getDrawing().addShapes(shapes.subList(0, 3));
+		canvas.getDrawing().addShapes(shapes.subList(3, 6));
+		assertViewsFollowDrawing();
+	}
+
+	@Test
+	public void testAddShapesAtPositions() {
+		final List<IShape> removed = Arrays.asList(shapes.get(4), shapes.get(0), shapes.get(2));
+		canvas.getDrawing().addShapes(shapes);
+		final int[] positions = canvas.getDrawing().removeShapes(removed);
+		canvas.getDrawing().addShapes(removed, positions);
+		assertEquals(shapes, canvas.getDrawing().getShapes());
+		assertViewsFollowDrawing();
+	}
+
+	@Test
+	public void testAddShapeAtIndex() {
+		canvas.getDrawing().addShapes(shapes.subList(0, 5));
+		canvas.getDrawing().addShape(shapes.get(5), 2);
+		assertViewsFollowDrawing();
+	}
+
+	@Test
+	public void testRemoveShapes() {
+		canvas.getDrawing().addShapes(shapes);
+		canvas.getDrawing().removeShapes(Arrays.asList(shapes.get(1), shapes.get(5)));
+		assertViewsFollowDrawing();
+		assertFalse(canvas.getViewFromShape(shapes.get(1)).isPresent());
+		assertFalse(canvas.getViewFromShape(shapes.get(5)).isPresent());
+	}
+
+	@Test
+	public void testSetShapes() {
+		canvas.getDrawing().addShapes(shapes.subList(0, 4));
+		canvas.getDrawing().setShapes(shapes.subList(2, 6));
+		assertViewsFollowDrawing();
+		assertFalse(canvas.getViewFromShape(shapes.get(0)).isPresent());
+	}
+
+	@Test
+	public void testClear() {
+		canvas.getDrawing().addShapes(shapes);
+		canvas.getDrawing().clear();
+		assertViewsFollowDrawing();
+	}
+
+	@Test
+	public void testVirtualisedWithoutScrollPaneAllViews() {
+		canvas.setVirtualised(true);
+		canvas.getDrawing().addShapes(shapes);
+		assertViewsFollowDrawing();
+	}
+
+	@Test
+	public void testWithAllViews() {
+		canvas.setVirtualised(true);
+		canvas.getDrawing().addShapes(shapes);
+		assertEquals(6, (int) canvas.withAllViews(() -> canvas.getViews().getChildren().size()));
+		assertTrue(canvas.isVirtualised());
+	}
+
+	@Test
+	public void testIsInAreaNoArea() {
+		assertTrue(Canvas.isInArea(ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(5000, 5000), 10, 10), Optional.empty()));
+	}
+
+	@Test
+	public void testIsInAreaInside() {
+		final Optional<Bounds> area = Optional.of(new BoundingBox(0, 0, 100, 100));
+		assertTrue(Canvas.isInArea(ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(90, 90), 50, 50), area));
+	}
+
+	@Test
+	public void testIsInAreaOutside() {
+		final Optional<Bounds> area = Optional.of(new BoundingBox(0, 0, 100, 100));
+		assertFalse(Canvas.isInArea(ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(120, 0), 50, 50), area));
+	}
+
+	@Test
+	public void testIsInAreaRotated() {
+		final Optional<Bounds> area = Optional.of(new BoundingBox(0, 0, 100, 100));
+		final IShape rec = ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(110, 0), 100, 100);
+		assertFalse(Canvas.isInArea(rec, area));
+		rec.setRotationAngle(Math.PI / 4d);
+		assertTrue(Canvas.isInArea(rec, area));
+	}
+
+	private ViewShape<?> addSelectedRectangle() {
+		final IShape rec = ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(100, 50), 80, 40);
+		canvas.getDrawing().addShape(rec);
+		canvas.getDrawing().getSelection().addShape(rec);
+		return canvas.getViewFromShape(rec).get();
+	}
+
+	private static void assertBoundsEquals(final Bounds expected, final Bounds bounds) {
+		assertEquals(expected.getMinX(), bounds.getMinX(), 0.001);
+		assertEquals(expected.getMinY(), bounds.getMinY(), 0.001);
+		assertEquals(expected.getMaxX(), bounds.getMaxX(), 0.001);
+		assertEquals(expected.getMaxY(), bounds.getMaxY(), 0.001);
+	}
+
+	@Test
+	public void testSelectionPreviewTranslatesTheViewsOnly() {
+		canvas.getDrawing().addShapes(shapes);
+		final ViewShape<?> view = addSelectedRectangle();
+		final IShape rec = view.getModel();
+		final Bounds before = view.getBoundsInParent();
+		final Bounds otherBefore = canvas.getViews().getChildren().get(0).getBoundsInParent();
+		canvas.setSelectionPreview(new Translate(10d, 20d));
+		assertBoundsEquals(new BoundingBox(before.getMinX() + 10d, before.getMinY() + 20d, before.getWidth(), before.getHeight()), view.getBoundsInParent());
+		assertBoundsEquals(otherBefore, canvas.getViews().getChildren().get(0).getBoundsInParent());
+		assertEquals(100d, rec.getTopLeftPoint().getX(), 0.0001);
+		assertTrue(canvas.isSelectionPreviewed());
+	}
+
+	@Test
+	public void testClearSelectionPreview() {
+		final ViewShape<?> view = addSelectedRectangle();
+		final Bounds before = view.getBoundsInParent();
+		canvas.setSelectionPreview(new Translate(10d, 20d));
+		canvas.clearSelectionPreview();
+		assertBoundsEquals(before, view.getBoundsInParent());
+		assertFalse(canvas.isSelectionPreviewed());
+	}
+
+	@Test
+	public void testSelectionPreviewReplacesThePreviousOne() {
+		final ViewShape<?> view = addSelectedRectangle();
+		final Bounds before = view.getBoundsInParent();
+		canvas.setSelectionPreview(new Translate(10d, 20d));
+		canvas.setSelectionPreview(new Translate(-5d, 3d));
+		assertBoundsEquals(new BoundingBox(before.getMinX() - 5d, before.getMinY() + 3d, before.getWidth(), before.getHeight()), view.getBoundsInParent());
+	}
+
+	@Test
+	public void testSelectionPreviewTranslationOfRotatedShape() {
+		final ViewShape<?> view = addSelectedRectangle();
+		view.getModel().setRotationAngle(Math.PI / 3d);
+		final Bounds before = view.getBoundsInParent();
+		canvas.setSelectionPreview(new Translate(10d, 20d));
+		assertBoundsEquals(new BoundingBox(before.getMinX() + 10d, before.getMinY() + 20d, before.getWidth(), before.getHeight()), view.getBoundsInParent());
+	}
+
+	@Test
+	public void testSelectionPreviewRotationMatchesTheRotatedShape() {
+		final ViewShape<?> view = addSelectedRectangle();
+		final IShape rec = view.getModel();
+		final IPoint gc = ShapeFactory.INST.createPoint(20d, 30d);
+		canvas.setSelectionPreview(new Rotate(Math.toDegrees(0.7), gc.getX(), gc.getY()));
+		final Bounds preview = view.getBoundsInParent();
+		canvas.clearSelectionPreview();
+		rec.addToRotationAngle(gc, 0.7);
+		assertBoundsEquals(view.getBoundsInParent(), preview);
+	}
+}
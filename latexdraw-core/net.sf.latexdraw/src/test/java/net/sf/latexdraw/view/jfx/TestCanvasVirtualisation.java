@@ -0,0 +1,118 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javafx.geometry.Bounds;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.malai.action.ActionsRegistry;
+import org.testfx.api.FxToolkit;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestCanvasVirtualisation {
+	Canvas canvas;
+	IShape near;
+	IShape far;
+
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	static void inFx(final Runnable task) throws InterruptedException, ExecutionException, TimeoutException {
+		WaitForAsyncUtils.asyncFx(task).get(10L, TimeUnit.SECONDS);
+	}
+
+	@Before
+	public void setUp() throws InterruptedException, ExecutionException, TimeoutException {
+		inFx(() -> {
+			canvas = new Canvas();
+			ActionsRegistry.INSTANCE.removeAllHandlers();
+			final ScrollPane scrollPane = new ScrollPane(canvas);
+			new Scene(scrollPane, 400d, 300d);
+			scrollPane.applyCss();
+			scrollPane.layout();
+			canvas.setVirtualised(true);
+
+			final Bounds visible = canvas.getViews().sceneToLocal(scrollPane.localToScene(scrollPane.getLayoutBounds()));
+			near = ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(visible.getMinX() + 10d, visible.getMinY() + 10d), 20d, 20d);
+			far = ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(visible.getMaxX() + Canvas.VIRTUALISATION_MARGIN * 3d,
+				visible.getMinY()), 20d, 20d);
+		});
+	}
+
+	@After
+	public void tearDown() {
+		ActionsRegistry.INSTANCE.removeAllHandlers();
+	}
+
+	@Test
+	public void testAddedShapeFarFromTheVisibleAreaHasNoView() throws InterruptedException, ExecutionException, TimeoutException {
+		inFx(() -> canvas.getDrawing().addShapes(Arrays.asList(near, far)));
+		assertTrue(canvas.getViewFromShape(near).isPresent());
+		assertFalse(canvas.getViewFromShape(far).isPresent());
+	}
+
+	@Test
+	public void testSelectedShapeHasView() throws InterruptedException, ExecutionException, TimeoutException {
+		inFx(() -> {
+			canvas.getDrawing().addShapes(Arrays.asList(near, far));
+			canvas.getDrawing().getSelection().addShape(far);
+		});
+		assertTrue(canvas.getViewFromShape(far).isPresent());
+		assertEquals(1, canvas.getViews().getChildren().indexOf(canvas.getViewFromShape(far).get()));
+	}
+
+	@Test
+	public void testUnselectedShapeLosesItsView() throws InterruptedException, ExecutionException, TimeoutException {
+		inFx(() -> {
+			canvas.getDrawing().addShapes(Arrays.asList(near, far));
+			canvas.getDrawing().getSelection().addShape(far);
+			canvas.getDrawing().getSelection().addShape(near);
+			canvas.getDrawing().getSelection().clear();
+		});
+		assertFalse(canvas.getViewFromShape(far).isPresent());
+		assertTrue(canvas.getViewFromShape(near).isPresent());
+	}
+
+	@Test
+	public void testModifiedShapeInTheVisibleAreaGetsView() throws InterruptedException, ExecutionException, TimeoutException {
+		inFx(() -> {
+			canvas.getDrawing().addShapes(Arrays.asList(near, far));
+			far.translate(-Canvas.VIRTUALISATION_MARGIN * 3d - 200d, 0d);
+			canvas.update(Arrays.asList(far));
+		});
+		assertTrue(canvas.getViewFromShape(far).isPresent());
+	}
+
+	@Test
+	public void testAllViewsWhenNotVirtualised() throws InterruptedException, ExecutionException, TimeoutException {
+		inFx(() -> {
+			canvas.getDrawing().addShapes(Arrays.asList(near, far));
+			canvas.setVirtualised(false);
+		});
+		assertTrue(canvas.getViewFromShape(far).isPresent());
+	}
+}
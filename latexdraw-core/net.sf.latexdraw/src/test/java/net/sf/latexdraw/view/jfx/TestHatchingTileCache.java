@@ -0,0 +1,177 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.util.concurrent.TimeoutException;
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Rectangle;
+import net.sf.latexdraw.models.interfaces.shape.FillingStyle;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestHatchingTileCache {
+	HatchingTileCache cache;
+
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@Before
+	public void setUp() {
+		cache = new HatchingTileCache(10_000L);
+	}
+
+	ImagePattern getPattern(final FillingStyle style, final double angle, final double sep, final double width) {
+		return cache.getPattern(style, angle, sep, width, Color.BLACK, Color.RED).get();
+	}
+
+	@Test
+	public void testNoPatternForNotHatchings() {
+		assertFalse(cache.getPattern(FillingStyle.PLAIN, 0d, 10d, 1d, Color.BLACK, Color.RED).isPresent());
+		assertFalse(cache.getPattern(FillingStyle.GRAD, 0d, 10d, 1d, Color.BLACK, Color.RED).isPresent());
+		assertFalse(cache.getPattern(FillingStyle.NONE, 0d, 10d, 1d, Color.BLACK, Color.RED).isPresent());
+	}
+
+	@Test
+	public void testNoPatternForInvalidWidth() {
+		assertFalse(cache.getPattern(FillingStyle.VLINES, 0d, 10d, 0d, Color.BLACK, Color.RED).isPresent());
+	}
+
+	@Test
+	public void testSameKeySamePattern() {
+		assertSame(getPattern(FillingStyle.CLINES, 0.3, 10d, 1d), getPattern(FillingStyle.CLINES, 0.3, 10d, 1d));
+		assertEquals(1, cache.getNbTiles());
+	}
+
+	@Test
+	public void testDifferentKeysDifferentPatterns() {
+		final ImagePattern pattern = getPattern(FillingStyle.VLINES, 0d, 10d, 1d);
+		assertNotSame(pattern, getPattern(FillingStyle.HLINES, 0d, 10d, 1d));
+		assertNotSame(pattern, getPattern(FillingStyle.VLINES, 0.1, 10d, 1d));
+		assertNotSame(pattern, getPattern(FillingStyle.VLINES, 0d, 12d, 1d));
+		assertNotSame(pattern, getPattern(FillingStyle.VLINES, 0d, 10d, 2d));
+		assertNotSame(pattern, cache.getPattern(FillingStyle.VLINES, 0d, 10d, 1d, Color.BLUE, Color.RED).get());
+		assertEquals(6, cache.getNbTiles());
+	}
+
+	@Test
+	public void testFillingColourIgnoredWhenNotFilled() {
+		assertSame(cache.getPattern(FillingStyle.VLINES, 0d, 10d, 1d, Color.BLACK, Color.RED).get(),
+			cache.getPattern(FillingStyle.VLINES, 0d, 10d, 1d, Color.BLACK, Color.GREEN).get());
+	}
+
+	@Test
+	public void testFillingColourUsedWhenFilled() {
+		assertNotSame(cache.getPattern(FillingStyle.VLINES_PLAIN, 0d, 10d, 1d, Color.BLACK, Color.RED).get(),
+			cache.getPattern(FillingStyle.VLINES_PLAIN, 0d, 10d, 1d, Color.BLACK, Color.GREEN).get());
+	}
+
+	@Test
+	public void testTileSizeIsThePeriodForVerticalLines() {
+		final ImagePattern pattern = getPattern(FillingStyle.VLINES, 0d, 10d, 2d);
+		assertEquals(12d, pattern.getWidth(), 0.0001);
+		assertEquals(12d, pattern.getHeight(), 0.0001);
+		assertFalse(pattern.isProportional());
+	}
+
+	@Test
+	public void testTileSizeForDiagonalLines() {
+		final ImagePattern pattern = getPattern(FillingStyle.CLINES, Math.PI / 4d, 10d, 2d);
+		assertEquals(12d * Math.sqrt(2d), pattern.getWidth(), 0.0001);
+	}
+
+	@Test
+	public void testSnapAngleZero() {
+		final int[] steps = HatchingTileCache.snapAngle(0d, 32);
+		assertEquals(1, Math.abs(steps[0]));
+		assertEquals(0, steps[1]);
+	}
+
+	@Test
+	public void testSnapAngleRightAngle() {
+		final int[] steps = HatchingTileCache.snapAngle(Math.PI / 2d, 32);
+		assertEquals(0, steps[0]);
+		assertEquals(1, Math.abs(steps[1]));
+	}
+
+	@Test
+	public void testSnapAngleCloseToTheAngle() {
+		final int[] steps = HatchingTileCache.snapAngle(0.3, 32);
+		final double snapped = Math.atan2(steps[1], steps[0]);
+		assertEquals(0d, Math.sin(snapped - 0.3), Math.sin(Math.toRadians(1d)));
+	}
+
+	@Test
+	public void testCapEvictsLeastRecentlyUsed() {
+		// 100x100 pixels tiles.
+		final ImagePattern first = getPattern(FillingStyle.VLINES, 0d, 99d, 1d);
+		getPattern(FillingStyle.VLINES, 0d, 98d, 2d);
+		assertEquals(1, cache.getNbTiles());
+		assertTrue(cache.getNbPixels() <= cache.getMaxPixels());
+		assertNotSame(first, getPattern(FillingStyle.VLINES, 0d, 99d, 1d));
+	}
+
+	@Test
+	public void testNbPixels() {
+		getPattern(FillingStyle.VLINES, 0d, 9d, 1d);
+		getPattern(FillingStyle.VLINES, 0d, 19d, 1d);
+		assertEquals(100L + 400L, cache.getNbPixels());
+	}
+
+	@Test
+	public void testClear() {
+		getPattern(FillingStyle.VLINES, 0d, 9d, 1d);
+		cache.clear();
+		assertEquals(0, cache.getNbTiles());
+		assertEquals(0L, cache.getNbPixels());
+	}
+
+	@Test
+	public void testDiagnostic() {
+		getPattern(FillingStyle.VLINES, 0d, 9d, 1d);
+		getPattern(FillingStyle.VLINES, 0d, 9d, 1d);
+		assertTrue(cache.getDiagnostic().startsWith("1 tiles"));
+		assertTrue(cache.getDiagnostic().contains("1 hits, 1 misses"));
+	}
+
+	@Test
+	public void testGetTileOfPattern() {
+		final ImagePattern pattern = getPattern(FillingStyle.VLINES_PLAIN, 0d, 9d, 1d);
+		final Group tile = cache.getTile(pattern).get();
+		assertEquals(pattern.getWidth(), ((Rectangle) tile.getClip()).getWidth(), 0.0001);
+		assertTrue(tile.getChildren().stream().anyMatch(node -> node instanceof Line));
+	}
+
+	@Test
+	public void testGetTileOfRemovedPattern() {
+		final ImagePattern pattern = getPattern(FillingStyle.VLINES, 0d, 9d, 1d);
+		cache.clear();
+		assertTrue(cache.getTile(pattern).isPresent());
+	}
+
+	@Test
+	public void testNoTileForOtherPatterns() {
+		final ImagePattern pattern = getPattern(FillingStyle.VLINES, 0d, 9d, 1d);
+		assertFalse(cache.getTile(new ImagePattern(pattern.getImage())).isPresent());
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IPoint;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TestLevelOfDetail {
+	final LevelOfDetail lod = LevelOfDetail.INSTANCE;
+
+	@After
+	public void tearDown() {
+		lod.setScale(1d);
+		lod.setQuality(LevelOfDetail.DEFAULT_QUALITY);
+	}
+
+	@Test
+	public void testFullDetailAtScaleOne() {
+		lod.setScale(1d);
+		assertEquals(0d, lod.getTolerance(), 0.0001);
+	}
+
+	@Test
+	public void testFullDetailWhenZoomedIn() {
+		lod.setScale(3d);
+		assertEquals(0d, lod.getTolerance(), 0.0001);
+	}
+
+	@Test
+	public void testToleranceLevels() {
+		lod.setScale(0.5);
+		assertEquals(LevelOfDetail.DEFAULT_QUALITY * 2d, lod.getTolerance(), 0.0001);
+		lod.setScale(0.4);
+		assertEquals(LevelOfDetail.DEFAULT_QUALITY * 4d, lod.getTolerance(), 0.0001);
+		lod.setScale(0.1);
+		assertEquals(LevelOfDetail.DEFAULT_QUALITY * 16d, lod.getTolerance(), 0.0001);
+	}
+
+	@Test
+	public void testQualityZeroDisables() {
+		lod.setScale(0.1);
+		lod.setQuality(0d);
+		assertEquals(0d, lod.getTolerance(), 0.0001);
+	}
+
+	@Test
+	public void testWithFullDetail() {
+		lod.setScale(0.1);
+		assertEquals(0d, lod.withFullDetail(() -> lod.getTolerance()), 0.0001);
+		assertEquals(LevelOfDetail.DEFAULT_QUALITY * 16d, lod.getTolerance(), 0.0001);
+	}
+
+	@Test
+	public void testImageLevels() {
+		lod.setScale(1d);
+		assertEquals(0, lod.getImageLevel());
+		lod.setScale(0.6);
+		assertEquals(0, lod.getImageLevel());
+		lod.setScale(0.5);
+		assertEquals(1, lod.getImageLevel());
+		lod.setScale(0.1);
+		assertEquals(3, lod.getImageLevel());
+	}
+
+	@Test
+	public void testImageLevelWhenZoomedIn() {
+		lod.setScale(3d);
+		assertEquals(0, lod.getImageLevel());
+	}
+
+	@Test
+	public void testImageLevelNotChangedByQuality() {
+		lod.setScale(0.1);
+		lod.setQuality(0d);
+		assertEquals(3, lod.getImageLevel());
+	}
+
+	@Test
+	public void testImageLevelWithFullDetail() {
+		lod.setScale(0.1);
+		assertEquals(0, (int) lod.withFullDetail(() -> lod.getImageLevel()));
+		assertEquals(3, lod.getImageLevel());
+	}
+
+	@Test
+	public void testSimplifyStraightLine() {
+		final List<IPoint> pts = IntStream.range(0, 100).mapToObj(i -> ShapeFactory.INST.createPoint(i, 2d * i)).collect(Collectors.toList());
+		final List<IPoint> simplified = lod.simplify(pts, 1, 0.5);
+		assertEquals(Arrays.asList(pts.get(0), pts.get(99)), simplified);
+	}
+
+	@Test
+	public void testSimplifyKeepsCorner() {
+		final List<IPoint> pts = IntStream.range(0, 21).mapToObj(i -> ShapeFactory.INST.createPoint(i, i <= 10 ? i : 20 - i)).collect(Collectors.toList());
+		assertEquals(Arrays.asList(pts.get(0), pts.get(10), pts.get(20)), lod.simplify(pts, 1, 0.5));
+	}
+
+	@Test
+	public void testSimplifySmallNoise() {
+		final List<IPoint> pts = IntStream.range(0, 50).mapToObj(i -> ShapeFactory.INST.createPoint(i, i % 2 == 0 ? 0d : 0.1)).collect(Collectors.toList());
+		assertEquals(2, lod.simplify(pts, 1, 0.5).size());
+		assertEquals(50, lod.simplify(pts, 1, 0.05).size());
+	}
+
+	@Test
+	public void testSimplifyInterval() {
+		final List<IPoint> pts = IntStream.range(0, 11).mapToObj(i -> ShapeFactory.INST.createPoint(i, i % 2 == 0 ? 0d : 10d)).collect(Collectors.toList());
+		// Only the points 0, 3, 6, 9, and 10 are considered.
+		final List<IPoint> simplified = lod.simplify(pts, 3, 0d);
+		assertEquals(Arrays.asList(pts.get(0), pts.get(3), pts.get(6), pts.get(9), pts.get(10)), simplified);
+	}
+
+	@Test
+	public void testSimplifyTooFewPoints() {
+		final List<IPoint> pts = Arrays.asList(ShapeFactory.INST.createPoint(), ShapeFactory.INST.createPoint(1, 1));
+		assertSame(pts, lod.simplify(pts, 1, 10d));
+	}
+
+	@Test
+	public void testDecimate() {
+		final List<IPoint> pts = IntStream.range(0, 10).mapToObj(i -> ShapeFactory.INST.createPoint(i, 0d)).collect(Collectors.toList());
+		assertEquals(Arrays.asList(pts.get(0), pts.get(3), pts.get(6), pts.get(9)), lod.decimate(pts, 3d));
+	}
+
+	@Test
+	public void testDecimateNoSpacing() {
+		final List<IPoint> pts = IntStream.range(0, 10).mapToObj(i -> ShapeFactory.INST.createPoint(i, 0d)).collect(Collectors.toList());
+		assertSame(pts, lod.decimate(pts, 0d));
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.util.concurrent.TimeoutException;
+import javafx.scene.paint.ImagePattern;
+import net.sf.latexdraw.view.GridStyle;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.malai.action.ActionsRegistry;
+import org.testfx.api.FxToolkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestMagneticGridImpl {
+	Canvas canvas;
+	MagneticGridImpl grid;
+
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@Before
+	public void setUp() {
+		canvas = new Canvas();
+		ActionsRegistry.INSTANCE.removeAllHandlers();
+		grid = (MagneticGridImpl) canvas.getMagneticGrid();
+	}
+
+	@Test
+	public void testCoversTheCanvas() {
+		assertEquals(canvas.getPrefWidth(), grid.getWidth(), 0.0001);
+		assertEquals(canvas.getPrefHeight(), grid.getHeight(), 0.0001);
+	}
+
+	@Test
+	public void testIsMouseTransparent() {
+		assertTrue(grid.isMouseTransparent());
+	}
+
+	@Test
+	public void testCustomisedGridTile() {
+		grid.setGridSpacing(25);
+		grid.update();
+		assertTrue(grid.getFill() instanceof ImagePattern);
+		assertEquals(25d, ((ImagePattern) grid.getFill()).getWidth(), 0.0001);
+		assertEquals(25d, ((ImagePattern) grid.getFill()).getHeight(), 0.0001);
+	}
+
+	@Test
+	public void testStandardGridTile() {
+		grid.setGridStyle(GridStyle.STANDARD);
+		grid.update();
+		assertTrue(grid.getFill() instanceof ImagePattern);
+	}
+
+	@Test
+	public void testNoTileWhenNoGrid() {
+		grid.update();
+		grid.setGridStyle(GridStyle.NONE);
+		grid.update();
+		assertNull(grid.getFill());
+	}
+
+	@Test
+	public void testTileKeptWhenNotModified() {
+		grid.update();
+		final Object tile = grid.getFill();
+		grid.update();
+		assertSame(tile, grid.getFill());
+	}
+
+	@Test
+	public void testTileRegeneratedOnZoom() {
+		grid.update();
+		final Object tile = grid.getFill();
+		canvas.setZoom(0d, 0d, 2d);
+		assertNotSame(tile, grid.getFill());
+		assertEquals(40d, ((ImagePattern) grid.getFill()).getImage().getWidth(), 0.0001);
+	}
+
+	@Test
+	public void testTileRegeneratedOnSpacing() {
+		grid.update();
+		final Object tile = grid.getFill();
+		grid.setGridSpacing(30);
+		grid.update();
+		assertNotSame(tile, grid.getFill());
+	}
+
+	@Test
+	public void testTileSizeFollowsZoom() {
+		assertEquals(20, MagneticGridImpl.getTileSize(20d, 1d));
+		assertEquals(60, MagneticGridImpl.getTileSize(20d, 3d));
+		assertEquals(20, MagneticGridImpl.getTileSize(20d, 0.5));
+	}
+
+	@Test
+	public void testLineThickness() {
+		assertEquals(1, MagneticGridImpl.getLineThickness(20d, 20));
+		assertEquals(3, MagneticGridImpl.getLineThickness(20d, 60));
+	}
+}
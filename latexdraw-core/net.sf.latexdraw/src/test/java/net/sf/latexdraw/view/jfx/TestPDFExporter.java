@@ -0,0 +1,252 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import com.sun.pdfview.PDFFile;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.InflaterInputStream;
+import javafx.scene.Group;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+import net.sf.latexdraw.models.interfaces.shape.FillingStyle;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.testfx.api.FxToolkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestPDFExporter {
+	static final Pattern STREAM = Pattern.compile("/Length (\\d+)/Filter/FlateDecode>>\nstream\n");
+
+	Group views;
+	Rectangle rec;
+
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@Before
+	public void setUp() {
+		rec = new Rectangle(10d, 20d, 100d, 50d);
+		rec.setFill(Color.RED);
+		views = new Group(rec);
+	}
+
+	byte[] write() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TestRasterExporter.inFx(() -> {
+			new PDFExporter(views).write(out);
+			return null;
+		});
+		return out.toByteArray();
+	}
+
+	/** @return The document with its streams decompressed. */
+	static String decode(final byte[] pdf) throws IOException {
+		final String doc = new String(pdf, StandardCharsets.ISO_8859_1);
+		final StringBuilder decoded = new StringBuilder();
+		final Matcher matcher = STREAM.matcher(doc);
+		int last = 0;
+
+		while(matcher.find()) {
+			decoded.append(doc, last, matcher.end());
+			final int length = Integer.parseInt(matcher.group(1));
+			try(final InputStream in = new InflaterInputStream(new ByteArrayInputStream(pdf, matcher.end(), length))) {
+				final ByteArrayOutputStream data = new ByteArrayOutputStream();
+				final byte[] buffer = new byte[4096];
+				for(int nb = in.read(buffer); nb > 0; nb = in.read(buffer)) {
+					data.write(buffer, 0, nb);
+				}
+				decoded.append(new String(data.toByteArray(), StandardCharsets.ISO_8859_1));
+			}
+			last = matcher.end() + length;
+		}
+
+		return decoded.append(doc.substring(last)).toString();
+	}
+
+	static int count(final String str, final String sub) {
+		int nb = 0;
+		for(int i = str.indexOf(sub); i >= 0; i = str.indexOf(sub, i + 1)) {
+			nb++;
+		}
+		return nb;
+	}
+
+	@Test
+	public void testSize() {
+		final PDFExporter exporter = new PDFExporter(views);
+		assertEquals(100d * PDFExporter.PT_PER_PX, exporter.getWidth(), 0.0001);
+		assertEquals(50d * PDFExporter.PT_PER_PX, exporter.getHeight(), 0.0001);
+	}
+
+	@Test
+	public void testDocumentReadable() throws IOException {
+		final PDFFile pdf = new PDFFile(ByteBuffer.wrap(write()));
+		assertEquals(1, pdf.getNumPages());
+		assertEquals(100d * PDFExporter.PT_PER_PX, pdf.getPage(1).getWidth(), 0.01);
+	}
+
+	@Test
+	public void testDrawingFlipped() throws IOException {
+		final StringBuilder ctm = new StringBuilder();
+		// The top-left corner of the drawing is the top-left corner of the page.
+		PDFExporter.append(ctm, "cm", PDFExporter.PT_PER_PX, 0d, 0d, -PDFExporter.PT_PER_PX, -10d * PDFExporter.PT_PER_PX, 70d * PDFExporter.PT_PER_PX);
+		assertTrue(decode(write()).contains(ctm.toString()));
+	}
+
+	@Test
+	public void testRectangleAsVector() throws IOException {
+		final String pdf = decode(write());
+		assertTrue(pdf.contains("1 0 0 rg\n10 20 100 50 re\nf\n"));
+		assertFalse(pdf.contains("/Subtype/Image"));
+	}
+
+	@Test
+	public void testStroke() throws IOException {
+		rec.setStroke(Color.BLUE);
+		rec.setStrokeWidth(3d);
+		rec.getStrokeDashArray().addAll(5d, 2d);
+		final String pdf = decode(write());
+		assertTrue(pdf.contains("0 0 1 RG\n3 w\n"));
+		assertTrue(pdf.contains("[5 2 ]0 d\n10 20 100 50 re\nS\n"));
+	}
+
+	@Test
+	public void testTransparency() throws IOException {
+		rec.setFill(Color.rgb(255, 0, 0, 0.5));
+		final String pdf = decode(write());
+		assertTrue(pdf.contains("<</ca 0.5>>"));
+		assertTrue(pdf.contains("/GS0 gs\n"));
+	}
+
+	@Test
+	public void testInvisibleNodeNotExported() throws IOException {
+		rec.setVisible(false);
+		assertFalse(decode(write()).contains(" re\n"));
+	}
+
+	@Test
+	public void testGradientAsShading() throws IOException {
+		rec.setFill(new LinearGradient(10d, 20d, 110d, 20d, false, CycleMethod.NO_CYCLE, new Stop(0d, Color.RED), new Stop(1d, Color.BLUE)));
+		final String pdf = decode(write());
+		assertTrue(pdf.contains("/ShadingType 2"));
+		assertTrue(pdf.contains("/C0[1 0 0]/C1[0 0 1]"));
+		assertTrue(pdf.contains("/Sh0 sh"));
+	}
+
+	@Test
+	public void testGradientSeveralStops() throws IOException {
+		rec.setFill(new LinearGradient(0d, 0d, 1d, 0d, true, CycleMethod.NO_CYCLE, new Stop(0d, Color.RED), new Stop(0.3, Color.GREEN),
+			new Stop(1d, Color.BLUE)));
+		final String pdf = decode(write());
+		assertTrue(pdf.contains("/FunctionType 3"));
+		assertTrue(pdf.contains("/Bounds[0.3 ]"));
+	}
+
+	@Test
+	public void testHatchingsAsVectorPattern() throws IOException {
+		rec.setFill(HatchingTileCache.INSTANCE.getPattern(FillingStyle.VLINES, 0d, 9d, 1d, Color.BLACK, Color.WHITE).get());
+		final String pdf = decode(write());
+		assertTrue(pdf.contains("/PatternType 1"));
+		assertTrue(pdf.contains("/Pattern cs /P0 scn"));
+		assertFalse(pdf.contains("/Subtype/Image"));
+	}
+
+	@Test
+	public void testEllipseAsCurves() throws IOException {
+		views.getChildren().setAll(new Ellipse(50d, 50d, 20d, 10d));
+		final String pdf = decode(write());
+		assertTrue(pdf.contains("70 50 m\n"));
+		assertEquals(4, count(pdf, " c\n"));
+	}
+
+	@Test
+	public void testArcEndPoint() {
+		final Arc arc = new Arc(0d, 0d, 10d, 10d, 0d, 90d);
+		arc.setType(ArcType.OPEN);
+		final StringBuilder out = new StringBuilder();
+		PDFExporter.appendGeometry(out, arc);
+		// The JFX arcs go counter-clockwise on the screen.
+		assertTrue(out.toString().startsWith("10 0 m\n"));
+		assertTrue(out.toString().endsWith(" 0 -10 c\n"));
+	}
+
+	@Test
+	public void testRelativePath() {
+		final MoveTo moveTo = new MoveTo(10d, 10d);
+		final LineTo lineTo = new LineTo(5d, 5d);
+		lineTo.setAbsolute(false);
+		final StringBuilder out = new StringBuilder();
+		PDFExporter.appendGeometry(out, new Path(moveTo, lineTo));
+		assertEquals("10 10 m\n15 15 l\n", out.toString());
+	}
+
+	static WritableImage createOpaqueImage() {
+		final WritableImage image = new WritableImage(4, 4);
+		for(int x = 0; x < 4; x++) {
+			for(int y = 0; y < 4; y++) {
+				image.getPixelWriter().setArgb(x, y, 0xFF00FF00);
+			}
+		}
+		return image;
+	}
+
+	@Test
+	public void testImageEmbeddedOnce() throws IOException {
+		final WritableImage image = createOpaqueImage();
+		views.getChildren().setAll(new ImageView(image), new ImageView(image));
+		final String pdf = decode(write());
+		assertEquals(1, count(pdf, "/Subtype/Image"));
+		assertEquals(2, count(pdf, "/Im0 Do"));
+	}
+
+	@Test
+	public void testImageTransparencyAsMask() throws IOException {
+		final WritableImage image = createOpaqueImage();
+		views.getChildren().setAll(new ImageView(image));
+		assertFalse(decode(write()).contains("/SMask"));
+		image.getPixelWriter().setArgb(0, 0, 0x80FF0000);
+		assertTrue(decode(write()).contains("/SMask"));
+	}
+
+	@Test
+	public void testTextAsImage() throws IOException {
+		views.getChildren().add(new Text(20d, 40d, "foo"));
+		final String pdf = decode(write());
+		assertTrue(pdf.contains("/Subtype/Image"));
+		assertTrue(pdf.contains("/Im0 Do"));
+	}
+}
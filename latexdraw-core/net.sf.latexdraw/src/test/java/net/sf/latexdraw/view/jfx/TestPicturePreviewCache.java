@@ -0,0 +1,113 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeoutException;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IPicture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.testfx.api.FxToolkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestPicturePreviewCache {
+	PicturePreviewCache cache;
+	IPicture picture;
+	TemporaryFolder folder;
+
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		cache = new PicturePreviewCache(30_000L);
+		folder = new TemporaryFolder();
+		folder.create();
+		// A 449x250 picture.
+		final Path path = Paths.get(folder.getRoot().toPath().toString(), "LaTeXDrawSmall.png");
+		Files.copy(Paths.get("src/test/resources/LaTeXDrawSmall.png"), path);
+		picture = ShapeFactory.INST.createPicture(ShapeFactory.INST.createPoint());
+		picture.setPathSource(path.toString());
+	}
+
+	@After
+	public void tearDown() {
+		folder.delete();
+		LevelOfDetail.INSTANCE.setScale(1d);
+	}
+
+	@Test
+	public void testNoImageWithoutSource() {
+		assertNull(cache.getImage(ShapeFactory.INST.createPicture(ShapeFactory.INST.createPoint()), 1));
+	}
+
+	@Test
+	public void testLevelZeroIsTheFullImage() {
+		assertSame(picture.getImage(), cache.getImage(picture, 0));
+		assertEquals(0, cache.getNbPreviews());
+	}
+
+	@Test
+	public void testPreviewSize() {
+		final Image image = cache.getImage(picture, 2);
+		assertEquals(113d, image.getWidth(), 0.0001);
+		assertEquals(63d, image.getHeight(), 0.0001);
+	}
+
+	@Test
+	public void testPreviewCached() {
+		assertSame(cache.getImage(picture, 1), cache.getImage(picture, 1));
+		assertSame(cache.getImage(picture, 1), cache.getImage(picture.duplicate(), 1));
+		assertEquals(1, cache.getNbPreviews());
+	}
+
+	@Test
+	public void testLevelBoundedByTheSizeOfThePicture() {
+		final Image image = cache.getImage(picture, 20);
+		assertEquals(7, PicturePreviewCache.getMaxLevel(449d, 250d));
+		assertEquals(2d, image.getHeight(), 0.0001);
+	}
+
+	@Test
+	public void testCapEvictsLeastRecentlyUsed() {
+		cache.getImage(picture, 1);
+		cache.getImage(picture, 2);
+		assertEquals(1, cache.getNbPreviews());
+		assertTrue(cache.getNbPixels() <= cache.getMaxPixels());
+	}
+
+	@Test
+	public void testViewUsesTheLevelOfTheZoom() {
+		final ViewPicture view = new ViewPicture(picture);
+		final ImageView imageView = (ImageView) view.getChildren().get(0);
+		LevelOfDetail.INSTANCE.setScale(0.25);
+		assertEquals(113d, imageView.getImage().getWidth(), 0.0001);
+		assertEquals(449d, imageView.getFitWidth(), 0.0001);
+		LevelOfDetail.INSTANCE.setScale(2d);
+		assertEquals(449d, imageView.getImage().getWidth(), 0.0001);
+		view.flush();
+	}
+}
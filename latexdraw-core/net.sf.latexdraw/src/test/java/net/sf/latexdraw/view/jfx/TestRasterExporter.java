@@ -0,0 +1,198 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import net.sf.latexdraw.models.interfaces.shape.IShape;
+import net.sf.latexdraw.view.pst.PSTricksConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.testfx.api.FxToolkit;
+import org.testfx.util.WaitForAsyncUtils;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestRasterExporter {
+	/** The resolution that doubles the size of the drawing. */
+	static final double DPI_X2 = 2d * IShape.PPC * PSTricksConstants.INCH_VAL_CM;
+
+	Group views;
+	TemporaryFolder folder;
+
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		folder = new TemporaryFolder();
+		folder.create();
+		final Rectangle rec = new Rectangle(10d, 20d, 100d, 50d);
+		rec.setFill(Color.RED);
+		final Circle circle = new Circle(60d, 45d, 20d, Color.BLUE);
+		views = new Group(rec, circle);
+	}
+
+	@After
+	public void tearDown() {
+		folder.delete();
+	}
+
+	/** The snapshots must be taken in the JFX thread. */
+	static <T> T inFx(final Callable<T> task) throws IOException {
+		try {
+			return WaitForAsyncUtils.asyncFx(task).get(10L, TimeUnit.SECONDS);
+		}catch(final ExecutionException ex) {
+			if(ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}catch(final InterruptedException | TimeoutException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	BufferedImage createImage(final double dpi, final int tileSize) throws IOException {
+		final RasterExporter exporter = new RasterExporter(views, dpi, tileSize);
+		return inFx(exporter::createImage);
+	}
+
+	void write(final double dpi, final int tileSize, final File file, final String format) throws IOException {
+		final RasterExporter exporter = new RasterExporter(views, dpi, tileSize);
+		inFx(() -> {
+			exporter.write(file, format);
+			return null;
+		});
+	}
+
+	@Test
+	public void testGetScale() {
+		assertEquals(2d, RasterExporter.getScale(DPI_X2), 0.0001);
+		assertEquals(3d, RasterExporter.getScale(RasterExporter.DEFAULT_DPI), 0.0001);
+	}
+
+	@Test
+	public void testSize() {
+		final RasterExporter exporter = new RasterExporter(views, DPI_X2, 64);
+		assertEquals(200, exporter.getWidth());
+		assertEquals(100, exporter.getHeight());
+	}
+
+	@Test
+	public void testSizeTranslatedNode() {
+		views.relocate(500d, 300d);
+		final RasterExporter exporter = new RasterExporter(views, DPI_X2, 64);
+		assertEquals(200, exporter.getWidth());
+		assertEquals(100, exporter.getHeight());
+	}
+
+	@Test
+	public void testCreateImage() throws IOException {
+		final BufferedImage img = createImage(DPI_X2, 1024);
+		assertEquals(0xFFFF0000, img.getRGB(5, 5));
+		assertEquals(0xFF0000FF, img.getRGB(100, 50));
+	}
+
+	@Test
+	public void testCreateImageTranslatedNode() throws IOException {
+		views.relocate(500d, 300d);
+		final BufferedImage img = createImage(DPI_X2, 1024);
+		assertEquals(0xFFFF0000, img.getRGB(5, 5));
+		assertEquals(0xFF0000FF, img.getRGB(100, 50));
+	}
+
+	@Test
+	public void testTilesSameAsSingleTile() throws IOException {
+		final BufferedImage single = createImage(DPI_X2, 1024);
+		// 7 is not a divisor of the size of the image: the last tiles are smaller.
+		final BufferedImage tiled = createImage(DPI_X2, 7);
+
+		for(int y = 0; y < single.getHeight(); y++) {
+			for(int x = 0; x < single.getWidth(); x++) {
+				assertEquals(single.getRGB(x, y), tiled.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testWritePNGSameAsImage() throws IOException {
+		final File file = new File(folder.getRoot(), "export.png");
+		final BufferedImage expected = createImage(DPI_X2, 1024);
+		write(DPI_X2, 16, file, "png");
+		final BufferedImage img = ImageIO.read(file);
+
+		assertEquals(expected.getWidth(), img.getWidth());
+		assertEquals(expected.getHeight(), img.getHeight());
+		for(int y = 0; y < img.getHeight(); y++) {
+			for(int x = 0; x < img.getWidth(); x++) {
+				assertEquals(expected.getRGB(x, y), img.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testWriteJPGResolution() throws IOException {
+		final File file = new File(folder.getRoot(), "export.jpg");
+		write(300d, 64, file, "jpg");
+
+		try(final ImageInputStream input = ImageIO.createImageInputStream(file)) {
+			final ImageReader reader = ImageIO.getImageReaders(input).next();
+			reader.setInput(input);
+			final IIOMetadataNode root = (IIOMetadataNode) reader.getImageMetadata(0).getAsTree("javax_imageio_1.0");
+			final IIOMetadataNode size = (IIOMetadataNode) root.getElementsByTagName("HorizontalPixelSize").item(0);
+			assertEquals(25.4 / 300d, Double.parseDouble(size.getAttribute("value")), 0.001);
+			assertEquals((int) Math.ceil(100d * RasterExporter.getScale(300d)), reader.getWidth(0));
+			reader.dispose();
+		}
+	}
+
+	@Test
+	public void testWriteBMP() throws IOException {
+		final File file = new File(folder.getRoot(), "export.bmp");
+		write(DPI_X2, 64, file, "bmp");
+		final BufferedImage img = ImageIO.read(file);
+		assertEquals(200, img.getWidth());
+		assertEquals(100, img.getHeight());
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteUnknownFormat() throws IOException {
+		write(DPI_X2, 64, new File(folder.getRoot(), "export.foo"), "foo");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidResolution() {
+		new RasterExporter(views, 0d, 64);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidTileSize() {
+		new RasterExporter(views, DPI_X2, 0);
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import javafx.scene.image.Image;
+import net.sf.latexdraw.util.LSystem;
+import net.sf.latexdraw.util.Tuple;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.testfx.api.FxToolkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+public class TestTextCompiler {
+	static final String PREAMBLE = "\\usepackage[usenames,dvipsnames]{pstricks}\n";
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+
+	TextImageCache cache;
+	TextCompiler compiler;
+
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@Before
+	public void setUp() {
+		cache = new TextImageCache(folder.getRoot(), 16_000_000L, 64_000_000L);
+		compiler = new TextCompiler(cache);
+	}
+
+	static void assumeLaTeXInstalled() {
+		assumeFalse(LSystem.INSTANCE.getLaTeXVersion().startsWith("ERR"));
+	}
+
+	static void waitUntil(final BooleanSupplier condition) throws InterruptedException {
+		for(int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+			Thread.sleep(50L);
+		}
+	}
+
+	@Test
+	public void testDocument() {
+		assertEquals("\\documentclass{standalone}\n" + PREAMBLE + "\\begin{document}\nfoo\n\\end{document}", TextCompiler.getDocument(PREAMBLE, "foo"));
+	}
+
+	@Test
+	public void testBatchDocumentOnePagePerText() {
+		final String doc = TextCompiler.getBatchDocument(PREAMBLE, Arrays.asList("foo", "bar", "$x$"));
+		assertTrue(doc.startsWith("\\documentclass[multi=ldtext]{standalone}\n" + PREAMBLE));
+		assertTrue(doc.contains("\\begin{ldtext}\\ldpage{1}\\end{ldtext}\n\\begin{ldtext}\\ldpage{2}\\end{ldtext}\n\\begin{ldtext}\\ldpage{3}\\end{ldtext}\n"));
+		assertTrue(doc.endsWith("\\end{document}"));
+	}
+
+	@Test
+	public void testBatchDocumentTextsMeasuredBeforeThePages() {
+		final String doc = TextCompiler.getBatchDocument(PREAMBLE, Arrays.asList("foo", "$x$"));
+		assertTrue(doc.contains("\\begin{lrbox}{\\ldbox{1}}foo\\end{lrbox}\\ldmeasure{1}\n"));
+		assertTrue(doc.contains("\\begin{lrbox}{\\ldbox{2}}$x$\\end{lrbox}\\ldmeasure{2}\n"));
+		assertTrue(doc.indexOf("\\ldmeasure{2}") < doc.indexOf("\\begin{ldtext}"));
+	}
+
+	@Test
+	public void testCompileSeveralTexts() throws InterruptedException, ExecutionException, TimeoutException {
+		assumeLaTeXInstalled();
+		final CompletableFuture<Tuple<Image, String>> res1 = compiler.compile(PREAMBLE, "batch1 " + System.nanoTime(), 0L);
+		final CompletableFuture<Tuple<Image, String>> res2 = compiler.compile(PREAMBLE, "$batch_2$ " + System.nanoTime(), 0L);
+		assertNotNull(res1.get(10, TimeUnit.SECONDS).a);
+		assertNotNull(res2.get(10, TimeUnit.SECONDS).a);
+	}
+
+	@Test
+	public void testCompileSameTextsOnce() throws InterruptedException, ExecutionException, TimeoutException {
+		assumeLaTeXInstalled();
+		final String text = "same " + System.nanoTime();
+		final CompletableFuture<Tuple<Image, String>> res1 = compiler.compile(PREAMBLE, text, 0L);
+		final CompletableFuture<Tuple<Image, String>> res2 = compiler.compile(PREAMBLE, text, 0L);
+		assertSame(res1.get(10, TimeUnit.SECONDS).a, res2.get(10, TimeUnit.SECONDS).a);
+	}
+
+	@Test
+	public void testErrorOfABatchAttributedToTheInvalidText() throws InterruptedException, ExecutionException, TimeoutException {
+		assumeLaTeXInstalled();
+		final CompletableFuture<Tuple<Image, String>> valid1 = compiler.compile(PREAMBLE, "valid1 " + System.nanoTime(), 0L);
+		final CompletableFuture<Tuple<Image, String>> invalid = compiler.compile(PREAMBLE, "$invalid " + System.nanoTime(), 0L);
+		final CompletableFuture<Tuple<Image, String>> valid2 = compiler.compile(PREAMBLE, "valid2 " + System.nanoTime(), 0L);
+		assertNotNull(valid1.get(10, TimeUnit.SECONDS).a);
+		assertNotNull(valid2.get(10, TimeUnit.SECONDS).a);
+		assertNull(invalid.get(10, TimeUnit.SECONDS).a);
+		assertFalse(invalid.get().b.isEmpty());
+	}
+
+	@Test
+	public void testTextsOfDifferentSizesInABatchNotClipped() throws InterruptedException, ExecutionException, TimeoutException {
+		assumeLaTeXInstalled();
+		final String big = "\\rule{3cm}{2cm}" + System.nanoTime();
+		final CompletableFuture<Tuple<Image, String>> small = compiler.compile(PREAMBLE, "s", 0L);
+		final CompletableFuture<Tuple<Image, String>> batched = compiler.compile(PREAMBLE, big, 0L);
+		final Image bigInBatch = batched.get(10, TimeUnit.SECONDS).a;
+		assertNotNull(small.get(10, TimeUnit.SECONDS).a);
+
+		final Image bigAlone = new TextCompiler(new TextImageCache(null, 16_000_000L, 64_000_000L)).compile(PREAMBLE, big, 0L).get(10, TimeUnit.SECONDS).a;
+		assertEquals(bigAlone.getWidth(), bigInBatch.getWidth(), 1d);
+		assertEquals(bigAlone.getHeight(), bigInBatch.getHeight(), 1d);
+	}
+
+	@Test
+	public void testCancelledTextNotCompiled() throws InterruptedException, ExecutionException, TimeoutException {
+		assumeLaTeXInstalled();
+		final String body = "cancelled " + System.nanoTime();
+		final CompletableFuture<Tuple<Image, String>> res = compiler.compile(PREAMBLE, body, 200L);
+		// Submitted in the same batch as the cancelled text.
+		final CompletableFuture<Tuple<Image, String>> other = compiler.compile(PREAMBLE, "other " + System.nanoTime(), 200L);
+		res.cancel(true);
+		assertNotNull(other.get(10, TimeUnit.SECONDS).a);
+		assertFalse(cache.get(cache.getKey(TextCompiler.getDocument(PREAMBLE, body)).get()).isPresent());
+		assertEquals(1, folder.getRoot().list().length);
+	}
+
+	@Test
+	public void testCancelledCompilationStopped() throws InterruptedException {
+		assumeLaTeXInstalled();
+		// This text never ends its compilation.
+		final CompletableFuture<Tuple<Image, String>> res = compiler.compile(PREAMBLE, "\\loop\\iftrue\\repeat", 0L);
+		waitUntil(compiler::isCompiling);
+		assertTrue(compiler.isCompiling());
+		res.cancel(true);
+		waitUntil(() -> !compiler.isCompiling());
+		assertFalse(compiler.isCompiling());
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.jfx;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeoutException;
+import javafx.scene.image.Image;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.testfx.api.FxToolkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestTextImageCache {
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+	TextImageCache cache;
+	BufferedImage bi;
+
+	@BeforeClass
+	public static void beforeClass() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@Before
+	public void setUp() {
+		cache = new TextImageCache(folder.getRoot(), 450L, 1_000_000L);
+		bi = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB_PRE);
+		bi.setRGB(3, 4, 0xFF00FF00);
+	}
+
+	@Test
+	public void testKeySameDoc() {
+		assertEquals(cache.getKey("\\documentclass{standalone} foo"), cache.getKey("\\documentclass{standalone} foo"));
+	}
+
+	@Test
+	public void testKeyDifferentDocs() {
+		assertNotEquals(cache.getKey("\\documentclass{standalone} foo"), cache.getKey("\\documentclass{standalone} fo"));
+	}
+
+	@Test
+	public void testKeyIsFileName() {
+		assertTrue(cache.getKey("foo").get().matches("[0-9a-f]{64}"));
+	}
+
+	@Test
+	public void testGetEmpty() {
+		assertFalse(cache.get("key").isPresent());
+	}
+
+	@Test
+	public void testPutGetInMemory() {
+		final Image img = cache.put("key", bi);
+		assertSame(img, cache.get("key").get());
+	}
+
+	@Test
+	public void testPutSavesOnDisk() {
+		cache.put("key", bi);
+		assertTrue(new File(folder.getRoot(), "key.png").isFile());
+	}
+
+	@Test
+	public void testGetFromDisk() {
+		cache.put("key", bi);
+		cache.clearMemory();
+		final Image img = cache.get("key").get();
+		assertEquals(20d, img.getWidth(), 0.0001);
+		assertEquals(10d, img.getHeight(), 0.0001);
+		assertEquals(0xFF00FF00, img.getPixelReader().getArgb(3, 4));
+		assertTrue(cache.isInMemory("key"));
+	}
+
+	@Test
+	public void testGetFromDiskNewSession() {
+		cache.put("key", bi);
+		assertTrue(new TextImageCache(folder.getRoot(), 450L, 1_000_000L).get("key").isPresent());
+	}
+
+	@Test
+	public void testMemoryBounded() {
+		cache.put("key1", bi);
+		cache.put("key2", bi);
+		cache.put("key3", bi);
+		assertFalse(cache.isInMemory("key1"));
+		assertTrue(cache.isInMemory("key2"));
+		assertTrue(cache.isInMemory("key3"));
+	}
+
+	@Test
+	public void testMemoryLeastRecentlyUsedRemoved() {
+		cache.put("key1", bi);
+		cache.put("key2", bi);
+		cache.get("key1");
+		cache.put("key3", bi);
+		assertTrue(cache.isInMemory("key1"));
+		assertFalse(cache.isInMemory("key2"));
+	}
+
+	@Test
+	public void testCorruptedFileIgnored() throws IOException {
+		final File file = new File(folder.getRoot(), "key.png");
+		Files.write(file.toPath(), new byte[] {1, 2, 3});
+		assertFalse(cache.get("key").isPresent());
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void testNoDiskCache() {
+		final TextImageCache memCache = new TextImageCache(null, 450L, 1_000_000L);
+		memCache.put("key", bi);
+		memCache.clearMemory();
+		assertFalse(memCache.get("key").isPresent());
+	}
+
+	@Test
+	public void testDiskBounded() {
+		final TextImageCache smallCache = new TextImageCache(folder.getRoot(), 450L, 1L);
+		smallCache.put("key1", bi);
+		smallCache.put("key2", bi);
+		assertFalse(new File(folder.getRoot(), "key1.png").exists());
+		assertTrue(new File(folder.getRoot(), "key2.png").isFile());
+	}
+
+	@Test
+	public void testDiskPreviousSessionsCounted() {
+		cache.put("key1", bi);
+		cache.put("key2", bi);
+		new TextImageCache(folder.getRoot(), 450L, 1L).put("key3", bi);
+		assertEquals(1, folder.getRoot().list().length);
+		assertTrue(new File(folder.getRoot(), "key3.png").isFile());
+	}
+
+	@Test
+	public void testDiskLeastRecentlyUsedRemoved() {
+		cache.put("key1", bi);
+		final File file1 = new File(folder.getRoot(), "key1.png");
+		// Three files exceed the cache; two files do not exceed 3/4 of it.
+		final TextImageCache diskCache = new TextImageCache(folder.getRoot(), 450L, file1.length() * 3L - 1L);
+		diskCache.put("key2", bi);
+		final File file2 = new File(folder.getRoot(), "key2.png");
+		assertTrue(file1.setLastModified(System.currentTimeMillis() - 20_000L));
+		assertTrue(file2.setLastModified(System.currentTimeMillis() - 10_000L));
+		diskCache.clearMemory();
+		assertTrue(diskCache.get("key1").isPresent());
+		diskCache.put("key3", bi);
+		assertTrue(file1.isFile());
+		assertFalse(file2.exists());
+		assertTrue(new File(folder.getRoot(), "key3.png").isFile());
+	}
+}
@@ -64,6 +64,69 @@ public class TestViewFreeHand extends TestViewBorderedShape<ViewFreeHand, IFreeh
 		assertNotEquals(border.getElements(), before);
 	}
 
+	private void assertSameAsNewView() {
+		final ViewFreeHand newView = new ViewFreeHand(model);
+		assertEquals(newView.getBorder().getElements().toString(), border.getElements().toString());
+		assertEquals(border.getElements(), view.getShadow().get().getElements());
+		newView.flush();
+	}
+
+	private void addPoints() {
+		model.addPoint(ShapeFactory.INST.createPoint(500, 20));
+		model.addPoint(ShapeFactory.INST.createPoint(510, 40));
+		model.addPoint(ShapeFactory.INST.createPoint(530, 70));
+		model.addPoint(ShapeFactory.INST.createPoint(520, 90));
+		model.addPoint(ShapeFactory.INST.createPoint(505, 110));
+	}
+
+	@Test
+	public void testAddPointsCurves() {
+		model.setType(FreeHandStyle.CURVES);
+		addPoints();
+		assertSameAsNewView();
+	}
+
+	@Test
+	public void testAddPointsLines() {
+		model.setType(FreeHandStyle.LINES);
+		model.setInterval(3);
+		addPoints();
+		assertSameAsNewView();
+	}
+
+	@Test
+	public void testAddPointsClosed() {
+		model.setOpened(false);
+		addPoints();
+		assertSameAsNewView();
+	}
+
+	@Test
+	public void testPointsAddedToTheList() {
+		model.getPoints().addAll(Arrays.asList(ShapeFactory.INST.createPoint(300, 200), ShapeFactory.INST.createPoint(310, 250)));
+		assertSameAsNewView();
+	}
+
+	@Test
+	public void testPointsRemovedFromTheList() {
+		model.getPoints().remove(model.getNbPoints() - 1);
+		assertSameAsNewView();
+	}
+
+	@Test
+	public void testAddPointsFromTwoPoints() {
+		final IFreehand fh = ShapeFactory.INST.createFreeHand(Arrays.asList(ShapeFactory.INST.createPoint(9, 23), ShapeFactory.INST.createPoint(21, 11)));
+		fh.setInterval(5);
+		final ViewFreeHand fhView = new ViewFreeHand(fh);
+		for(int i = 0; i < 12; i++) {
+			fh.addPoint(ShapeFactory.INST.createPoint(30 + i * 7, 10 + i * i));
+		}
+		final ViewFreeHand newView = new ViewFreeHand(fh);
+		assertEquals(newView.getBorder().getElements().toString(), fhView.getBorder().getElements().toString());
+		fhView.flush();
+		newView.flush();
+	}
+
 	@Override
 	@Test
 	public void testShadowPositionSameThanBorder() {
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import javafx.collections.ListChangeListener;
+import javafx.scene.Node;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.PathElement;
 import javafx.scene.shape.Shape;
@@ -20,6 +22,7 @@ import org.testfx.util.WaitForAsyncUtils;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TestViewGrid extends TestViewStdGrid<ViewGrid, IGrid> {
 	List<PathElement> mainGridBefore;
@@ -55,6 +58,24 @@ public class TestViewGrid extends TestViewStdGrid<ViewGrid, IGrid> {
 		assertNotEquals(yBefore, view.getLabels().getChildren().stream().map(c -> ((Text) c).getY()).collect(Collectors.toList()));
 	}
 
+	@Test
+	public void testLabelNodesReused() {
+		final List<Node> labelsBefore = new ArrayList<>(view.getLabels().getChildren());
+		model.setOriginX(model.getOriginX() + 1d);
+		WaitForAsyncUtils.waitForFxEvents();
+		assertEquals(labelsBefore.size(), view.getLabels().getChildren().size());
+		assertTrue(view.getLabels().getChildren().stream().allMatch(label -> labelsBefore.stream().anyMatch(before -> before == label)));
+	}
+
+	@Test
+	public void testPathUpdatedInASingleChange() {
+		final List<ListChangeListener.Change<? extends PathElement>> changes = new ArrayList<>();
+		view.getSubgrid().getElements().addListener((ListChangeListener<PathElement>) changes::add);
+		model.setSubGridDiv(model.getSubGridDiv() + 3);
+		WaitForAsyncUtils.waitForFxEvents();
+		assertEquals(1, changes.size());
+	}
+
 	@Test
 	public void testChangeLabelsColour() {
 		final Paint strokeBefore = ((Shape) view.getLabels().getChildren().get(0)).getStroke();
@@ -1,6 +1,8 @@
 package net.sf.latexdraw.view.jfx;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import javafx.geometry.Bounds;
@@ -113,6 +115,44 @@ public class TestViewText extends TestViewShape<ViewText, IText> {
 		assertTrue(getImage().isVisible());
 	}
 
+	@Test
+	public void testCompilationDelayed() throws InterruptedException, TimeoutException, ExecutionException {
+		model.setText("delayed");
+		final Future<?> compilation = view.getCurrentCompilation();
+		Thread.sleep(ViewText.COMPILATION_DELAY / 2L);
+		assertFalse(compilation.isDone());
+		compilation.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testSupersededCompilationCancelled() throws InterruptedException, TimeoutException, ExecutionException {
+		model.setText("foo");
+		final Future<?> first = view.getCurrentCompilation();
+		model.setText("bar");
+		final Future<?> second = view.getCurrentCompilation();
+		assertTrue(first.isCancelled());
+		second.get(5, TimeUnit.SECONDS);
+		assertFalse(second.isCancelled());
+	}
+
+	@Test(expected = CancellationException.class)
+	public void testSupersededCompilationGetThrowsCancellation() throws InterruptedException, TimeoutException, ExecutionException {
+		model.setText("foo");
+		final Future<?> first = view.getCurrentCompilation();
+		model.setText("bar");
+		first.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testSupersededCompilationDoesNotUpdateTheView() throws InterruptedException, TimeoutException, ExecutionException {
+		model.setText("$foo");
+		model.setText("bar");
+		view.getCurrentCompilation().get(5, TimeUnit.SECONDS);
+		assertTrue(HelperTest.getBadaboomMessages(), BadaboomCollector.INSTANCE.isEmpty());
+		assertNull(getTooltip());
+		assertTrue(getImage().isVisible());
+	}
+
 	@Test
 	@Override
 	public void testOnTranslateX() {
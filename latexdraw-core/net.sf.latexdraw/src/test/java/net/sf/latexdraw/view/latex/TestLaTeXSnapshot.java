@@ -0,0 +1,126 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.latex;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IRectangle;
+import net.sf.latexdraw.util.Injector;
+import net.sf.latexdraw.view.ViewsSynchroniserHandler;
+import net.sf.latexdraw.view.jfx.Canvas;
+import net.sf.latexdraw.view.pst.PSTCodeGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestLaTeXSnapshot {
+	IDrawing drawing;
+	PSTCodeGenerator gen;
+	IRectangle rec;
+	TemporaryFolder folder;
+
+	@Before
+	public void setUp() throws IOException {
+		final Injector injector = new Injector() {
+			@Override
+			protected void configure() throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+				bindAsEagerSingleton(Canvas.class);
+				bindAsEagerSingleton(PSTCodeGenerator.class);
+				bindWithCommand(IDrawing.class, Canvas.class, canvas -> canvas.getDrawing());
+				bindWithCommand(ViewsSynchroniserHandler.class, Canvas.class, canvas -> canvas);
+			}
+		};
+		gen = injector.getInstance(PSTCodeGenerator.class);
+		drawing = injector.getInstance(IDrawing.class);
+		rec = ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(10d, 20d), 100d, 50d);
+		drawing.addShape(rec);
+		folder = new TemporaryFolder();
+		folder.create();
+	}
+
+	@After
+	public void tearDown() {
+		folder.delete();
+		// Clearing a possible interruption of a test.
+		Thread.interrupted();
+	}
+
+	@Test
+	public void testSnapshotCodes() {
+		final LaTeXSnapshot snapshot = gen.getSnapshot();
+		assertEquals(gen.getDocumentCode(), snapshot.getDocumentCode());
+		assertEquals(gen.getDrawingCode(), snapshot.getDrawingCode());
+	}
+
+	@Test
+	public void testSnapshotFrozenOnTranslation() {
+		final LaTeXSnapshot snapshot = gen.getSnapshot();
+		final String code = snapshot.getDrawingCode();
+		rec.translate(50d, 50d);
+		assertNotEquals(code, gen.getDrawingCode());
+		assertEquals(code, snapshot.getDrawingCode());
+	}
+
+	@Test
+	public void testSnapshotFrozenOnAddedShape() {
+		final LaTeXSnapshot snapshot = gen.getSnapshot();
+		drawing.addShape(ShapeFactory.INST.createText(ShapeFactory.INST.createPoint(), "thisisatext"));
+		assertTrue(gen.getDrawingCode().contains("thisisatext"));
+		assertFalse(snapshot.getDrawingCode().contains("thisisatext"));
+		assertFalse(snapshot.getDocumentCode().contains("thisisatext"));
+	}
+
+	@Test
+	public void testAwaitEPSPictures() {
+		final CompletableFuture<String> picture = new CompletableFuture<>();
+		final LaTeXSnapshot snapshot = new LaTeXSnapshot("", "", 1d, 1d, Collections.singletonList(picture));
+		new Thread(() -> picture.complete("foo.eps")).start();
+		snapshot.awaitEPSPictures();
+		assertTrue(picture.isDone());
+	}
+
+	@Test
+	public void testAwaitEPSPicturesStopsWhenInterrupted() {
+		final LaTeXSnapshot snapshot = new LaTeXSnapshot("", "", 1d, 1d, Collections.singletonList(new CompletableFuture<>()));
+		Thread.currentThread().interrupt();
+		snapshot.awaitEPSPictures();
+		assertTrue(Thread.currentThread().isInterrupted());
+	}
+
+	@Test
+	public void testCreatePDFFileCancelled() {
+		final File file = new File(folder.getRoot(), "foo.pdf");
+		final double[] progress = {0d};
+		Thread.currentThread().interrupt();
+		assertFalse(LaTeXGenerator.createPDFFile(gen.getSnapshot(), file.getAbsolutePath(), false, value -> progress[0] = value).isPresent());
+		assertFalse(file.exists());
+		assertEquals(0d, progress[0], 0.0001);
+	}
+
+	@Test
+	public void testCreateEPSFileCancelled() {
+		final File file = new File(folder.getRoot(), "foo.eps");
+		Thread.currentThread().interrupt();
+		assertFalse(LaTeXGenerator.createEPSFile(gen.getSnapshot(), file.getAbsolutePath(), value -> { }).isPresent());
+		assertFalse(file.exists());
+	}
+}
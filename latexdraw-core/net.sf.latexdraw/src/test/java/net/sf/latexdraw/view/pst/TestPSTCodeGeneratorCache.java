@@ -0,0 +1,111 @@
+/*
+ * This file is part of LaTeXDraw.
+ * Copyright (c) 2005-2017 Arnaud BLOUIN
+ * LaTeXDraw is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later version.
+ * LaTeXDraw is distributed without any warranty; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ */
+package net.sf.latexdraw.view.pst;
+
+import java.lang.reflect.InvocationTargetException;
+import net.sf.latexdraw.models.ShapeFactory;
+import net.sf.latexdraw.models.interfaces.shape.IDrawing;
+import net.sf.latexdraw.models.interfaces.shape.IRectangle;
+import net.sf.latexdraw.util.Injector;
+import net.sf.latexdraw.view.ViewsSynchroniserHandler;
+import net.sf.latexdraw.view.jfx.Canvas;
+import net.sf.latexdraw.view.latex.DviPsColors;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestPSTCodeGeneratorCache {
+	IDrawing drawing;
+	PSTCodeGenerator gen;
+	IRectangle rec;
+
+	@Before
+	public void setUp() {
+		final Injector injector = new Injector() {
+			@Override
+			protected void configure() throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+				bindAsEagerSingleton(Canvas.class);
+				bindAsEagerSingleton(PSTCodeGenerator.class);
+				bindWithCommand(IDrawing.class, Canvas.class, canvas -> canvas.getDrawing());
+				bindWithCommand(ViewsSynchroniserHandler.class, Canvas.class, canvas -> canvas);
+			}
+		};
+		gen = injector.getInstance(PSTCodeGenerator.class);
+		drawing = injector.getInstance(IDrawing.class);
+		rec = ShapeFactory.INST.createRectangle(ShapeFactory.INST.createPoint(10d, 20d), 100d, 50d);
+		drawing.addShape(rec);
+		drawing.addShape(ShapeFactory.INST.createCircle());
+	}
+
+	@Test
+	public void testSameCodeWhenNotModified() {
+		assertEquals(gen.getDrawingCode(), gen.getDrawingCode());
+	}
+
+	@Test
+	public void testCodeUpdatedOnTranslation() {
+		final String code = gen.getDrawingCode();
+		rec.translate(50d, 50d);
+		final String code2 = gen.getDrawingCode();
+		assertNotEquals(code, code2);
+		rec.translate(-50d, -50d);
+		assertEquals(code, gen.getDrawingCode());
+	}
+
+	@Test
+	public void testCodeUpdatedOnModifiedProperty() {
+		final String code = gen.getDrawingCode();
+		rec.setThickness(20d);
+		rec.setModified(true);
+		assertNotEquals(code, gen.getDrawingCode());
+		rec.setThickness(2d);
+		rec.setModified(true);
+		assertEquals(code, gen.getDrawingCode());
+	}
+
+	@Test
+	public void testCodeUpdatedOnStyleSetter() {
+		final String code = gen.getDrawingCode();
+		rec.setLineColour(DviPsColors.RED);
+		assertNotEquals(code, gen.getDrawingCode());
+		assertTrue(gen.getDrawingCode().contains("red"));
+	}
+
+	@Test
+	public void testCodeUpdatedOnAddedShape() {
+		gen.getDrawingCode();
+		drawing.addShape(ShapeFactory.INST.createText(ShapeFactory.INST.createPoint(), "thisisatext"));
+		assertTrue(gen.getDrawingCode().contains("thisisatext"));
+	}
+
+	@Test
+	public void testCodeUpdatedOnRemovedShape() {
+		assertTrue(gen.getDrawingCode().contains("\\psframe"));
+		drawing.removeShape(rec);
+		assertFalse(gen.getDrawingCode().contains("\\psframe"));
+	}
+
+	@Test
+	public void testCodeUpdatedOnModifiedShapeInGroup() {
+		drawing.removeShape(rec);
+		drawing.addShape(ShapeFactory.INST.createGroup(rec));
+		final String code = gen.getDrawingCode();
+		rec.setLineColour(DviPsColors.RED);
+		rec.setModified(true);
+		final String code2 = gen.getDrawingCode();
+		assertNotEquals(code, code2);
+		assertTrue(code2.contains("red"));
+	}
+}
@@ -1,9 +1,14 @@
 package net.sf.latexdraw.view.svg;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.sf.latexdraw.badaboom.BadaboomCollector;
 import net.sf.latexdraw.parsers.svg.MalformedSVGDocument;
 import net.sf.latexdraw.parsers.svg.SVGComment;
 import net.sf.latexdraw.parsers.svg.SVGDocument;
@@ -220,4 +225,68 @@ public class TestSVGDocument {
 		assertEquals("test", elt.getData());
 		assertEquals(doc1, elt.getOwnerDocument());
 	}
+
+	private static void assertSameTree(final Node expected, final Node actual) {
+		assertEquals(expected.getClass(), actual.getClass());
+		assertEquals(expected.getNodeName(), actual.getNodeName());
+		if(expected instanceof SVGElement) {
+			assertTrue(expected.getNodeName(), expected.isEqualNode(actual));
+		}
+		if(expected instanceof SVGText) {
+			assertEquals(((SVGText) expected).getData(), ((SVGText) actual).getData());
+		}
+		assertEquals(expected.getChildNodes().getLength(), actual.getChildNodes().getLength());
+		for(int i = 0, size = expected.getChildNodes().getLength(); i < size; i++) {
+			assertSameTree(expected.getChildNodes().item(i), actual.getChildNodes().item(i));
+		}
+	}
+
+	@Test
+	public void testStreamingSameAsDOM() throws MalformedSVGDocument, IOException {
+		final File[] files = new File("src/test/resources/testLoad").listFiles((dir, name) -> name.endsWith(".svg"));
+		assertTrue(files.length > 0);
+		for(final File file : files) {
+			final SVGDocument dom = new SVGDocument(file.toURI(), true);
+			final SVGDocument stream = new SVGDocument(file.toURI(), false);
+			assertEquals(dom.getXmlEncoding(), stream.getXmlEncoding());
+			assertEquals(dom.getXmlVersion(), stream.getXmlVersion());
+			assertEquals(dom.getXmlStandalone(), stream.getXmlStandalone());
+			assertSameTree(dom.getDocumentElement(), stream.getDocumentElement());
+		}
+	}
+
+	@Test
+	public void testStreamingSameAsDOMTestFile() throws MalformedSVGDocument, URISyntaxException, IOException {
+		assertSameTree(new SVGDocument(new URI("src/test/resources/test.svg"), true).getDocumentElement(), doc2.getDocumentElement());
+	}
+
+	@Test
+	public void testStreamingTextAndEntities() throws MalformedSVGDocument, IOException {
+		final Path path = Files.createTempFile("testStreaming", ".svg");
+		Files.write(path, ("<?xml version='1.0' encoding='UTF-8'?><!DOCTYPE svg PUBLIC \"-//W3C//DTD SVG 1.1//EN\" " +
+			"\"http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd\" [<!ENTITY foo 'bar'>]><svg xmlns='http://www.w3.org/2000/svg'>" +
+			"<text x='1' y='2'>a&foo;b</text><text x='1' y='2'><![CDATA[cdata]]></text><text x='1' y='2'>a<![CDATA[b]]></text></svg>").getBytes(StandardCharsets.UTF_8));
+		try {
+			final SVGDocument dom = new SVGDocument(path.toUri(), true);
+			final SVGDocument stream = new SVGDocument(path.toUri(), false);
+			assertSameTree(dom.getDocumentElement(), stream.getDocumentElement());
+			assertEquals("abarb", stream.getDocumentElement().getChildNodes().item(0).getTextContent());
+			assertEquals("cdata", stream.getDocumentElement().getChildNodes().item(1).getTextContent());
+			assertEquals("UTF-8", stream.getXmlEncoding());
+		}finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test(expected = MalformedSVGDocument.class)
+	public void testStreamingNotWellFormed() throws MalformedSVGDocument, IOException {
+		final Path path = Files.createTempFile("testStreaming", ".svg");
+		Files.write(path, "<svg xmlns='http://www.w3.org/2000/svg'><rect></svg>".getBytes(StandardCharsets.UTF_8));
+		try {
+			new SVGDocument(path.toUri(), false);
+		}finally {
+			Files.delete(path);
+			BadaboomCollector.INSTANCE.clear();
+		}
+	}
 }